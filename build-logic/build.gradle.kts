@@ -6,4 +6,5 @@ dependencies {
     implementation("com.github.johnrengelman:shadow:8.1.1")
     implementation("io.freefair.gradle:lombok-plugin:8.6")
     implementation("fabric-loom:fabric-loom.gradle.plugin:1.8-SNAPSHOT")
+    implementation("me.champeau.jmh:jmh-gradle-plugin:0.7.2")
 }
@@ -5,7 +5,16 @@ plugins {
     id("io.freefair.lombok")
 }
 
+dependencies {
+    testImplementation(platform("org.junit:junit-bom:5.10.2"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
 tasks {
+    test {
+        useJUnitPlatform()
+    }
     processResources {
         filter<ReplaceTokens>("tokens" to mapOf(
             "id" to rootProject.ext.get("id")!!.toString(),
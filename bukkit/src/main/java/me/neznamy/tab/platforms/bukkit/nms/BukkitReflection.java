@@ -5,10 +5,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import me.neznamy.tab.shared.util.function.FunctionWithException;
 import me.neznamy.tab.shared.util.ReflectionUtils;
+import me.neznamy.tab.shared.util.accessor.MethodAccessor;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.Method;
 import java.util.Arrays;
 
 /**
@@ -20,7 +20,7 @@ public class BukkitReflection {
     private static final String CRAFTBUKKIT_PACKAGE = Bukkit.getServer().getClass().getPackage().getName();
 
     /** CraftPlayer#getHandle method */
-    public static final Method CraftPlayer_getHandle = getHandle();
+    public static final MethodAccessor CraftPlayer_getHandle = getHandle();
 
     /** Server version data */
     private static final ServerVersion serverVersion = detectServerVersion();
@@ -40,8 +40,8 @@ public class BukkitReflection {
 
     @NotNull
     @SneakyThrows
-    private static Method getHandle() {
-        return Class.forName(CRAFTBUKKIT_PACKAGE + ".entity.CraftPlayer").getMethod("getHandle");
+    private static MethodAccessor getHandle() {
+        return new MethodAccessor(Class.forName(CRAFTBUKKIT_PACKAGE + ".entity.CraftPlayer").getMethod("getHandle"));
     }
 
     private static ServerVersion detectServerVersion() {
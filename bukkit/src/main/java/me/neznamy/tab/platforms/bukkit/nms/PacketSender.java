@@ -4,9 +4,10 @@ import lombok.SneakyThrows;
 import me.neznamy.tab.platforms.bukkit.BukkitTabPlayer;
 import me.neznamy.tab.shared.util.function.BiConsumerWithException;
 import me.neznamy.tab.shared.util.ReflectionUtils;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
+import me.neznamy.tab.shared.util.accessor.MethodAccessor;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 /**
@@ -29,13 +30,14 @@ public class PacketSender {
         Class<?> Packet = BukkitReflection.getClass("network.protocol.Packet", "Packet");
         Class<?> EntityPlayer = BukkitReflection.getClass("server.level.ServerPlayer", "server.level.EntityPlayer", "EntityPlayer");
         Class<?> PlayerConnection = BukkitReflection.getClass("server.network.ServerGamePacketListenerImpl", "server.network.PlayerConnection", "PlayerConnection");
-        Field PLAYER_CONNECTION = ReflectionUtils.getOnlyField(EntityPlayer, PlayerConnection);
-        Method sendPacket;
+        FieldAccessor PLAYER_CONNECTION = new FieldAccessor(ReflectionUtils.getOnlyField(EntityPlayer, PlayerConnection));
+        Method sendPacketMethod;
         if (BukkitReflection.getMinorVersion() >= 7) {
-            sendPacket = ReflectionUtils.getMethods(PlayerConnection, void.class, Packet).get(0);
+            sendPacketMethod = ReflectionUtils.getMethods(PlayerConnection, void.class, Packet).get(0);
         } else {
-            sendPacket = ReflectionUtils.getMethod(PlayerConnection, new String[]{"sendPacket"}, Packet);
+            sendPacketMethod = ReflectionUtils.getMethod(PlayerConnection, new String[]{"sendPacket"}, Packet);
         }
+        MethodAccessor sendPacket = new MethodAccessor(sendPacketMethod);
         send = (player, packet) -> {
             if (player.connection == null) player.connection = PLAYER_CONNECTION.get(player.getHandle());
             sendPacket.invoke(player.connection, packet);
@@ -7,9 +7,8 @@ import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.util.function.FunctionWithException;
 import me.neznamy.tab.shared.util.ReflectionUtils;
-
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
+import me.neznamy.tab.shared.util.accessor.ConstructorAccessor;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
 
 /**
  * Class storing NMS fields and methods of DisplayObjective packet.
@@ -17,8 +16,8 @@ import java.lang.reflect.Field;
 public class DisplayPacketData {
 
     private final Class<?> DisplayObjectiveClass;
-    private final Constructor<?> newDisplayObjective;
-    private final Field DisplayObjective_OBJECTIVE_NAME;
+    private final ConstructorAccessor newDisplayObjective;
+    private final FieldAccessor DisplayObjective_OBJECTIVE_NAME;
     private final Object[] displaySlots;
     private final FunctionWithException<Object, Integer> packetToSlot;
 
@@ -36,17 +35,17 @@ public class DisplayPacketData {
                 "PacketPlayOutScoreboardDisplayObjective", // Bukkit 1.7 - 1.16.5
                 "Packet208SetScoreboardDisplayObjective" // Bukkit 1.5 - 1.6.4
         );
-        DisplayObjective_OBJECTIVE_NAME = ReflectionUtils.getOnlyField(DisplayObjectiveClass, String.class);
+        DisplayObjective_OBJECTIVE_NAME = new FieldAccessor(ReflectionUtils.getOnlyField(DisplayObjectiveClass, String.class));
         if (BukkitReflection.is1_20_2Plus()) {
             Class<?> DisplaySlot = BukkitReflection.getClass("world.scores.DisplaySlot");
             displaySlots = (Object[]) DisplaySlot.getDeclaredMethod("values").invoke(null);
-            Field DisplayObjective_POSITION = ReflectionUtils.getOnlyField(DisplayObjectiveClass, DisplaySlot);
-            newDisplayObjective = DisplayObjectiveClass.getConstructor(DisplaySlot, ScoreboardObjective);
+            FieldAccessor DisplayObjective_POSITION = new FieldAccessor(ReflectionUtils.getOnlyField(DisplayObjectiveClass, DisplaySlot));
+            newDisplayObjective = new ConstructorAccessor(DisplayObjectiveClass.getConstructor(DisplaySlot, ScoreboardObjective));
             packetToSlot = packet -> ((Enum<?>)DisplayObjective_POSITION.get(packet)).ordinal();
         } else {
             displaySlots = new Object[]{0, 1, 2};
-            Field DisplayObjective_POSITION = ReflectionUtils.getOnlyField(DisplayObjectiveClass, int.class);
-            newDisplayObjective = DisplayObjectiveClass.getConstructor(int.class, ScoreboardObjective);
+            FieldAccessor DisplayObjective_POSITION = new FieldAccessor(ReflectionUtils.getOnlyField(DisplayObjectiveClass, int.class));
+            newDisplayObjective = new ConstructorAccessor(DisplayObjectiveClass.getConstructor(int.class, ScoreboardObjective));
             packetToSlot = DisplayObjective_POSITION::getInt;
         }
     }
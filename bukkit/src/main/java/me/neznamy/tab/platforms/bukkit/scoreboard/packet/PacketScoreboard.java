@@ -12,12 +12,13 @@ import me.neznamy.tab.shared.Limitations;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.platform.decorators.SafeScoreboard;
 import me.neznamy.tab.shared.util.ReflectionUtils;
+import me.neznamy.tab.shared.util.accessor.ConstructorAccessor;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
+import me.neznamy.tab.shared.util.accessor.MethodAccessor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.HashSet;
 import java.util.List;
 
@@ -39,16 +40,16 @@ public class PacketScoreboard extends SafeScoreboard<BukkitTabPlayer> {
     static Class<?> ScoreboardObjective;
     static Object emptyScoreboard;
     static Class<?> NumberFormat;
-    private static Constructor<?> newFixedFormat;
+    private static ConstructorAccessor newFixedFormat;
 
     // Objective packet
     private static Class<?> ObjectivePacketClass;
-    private static Constructor<?> newObjectivePacket;
-    private static Field Objective_OBJECTIVE_NAME;
-    private static Field Objective_METHOD;
-    private static Field Objective_RENDER_TYPE;
-    static Constructor<?> newScoreboardObjective;
-    private static Method ScoreboardObjective_setDisplayName;
+    private static ConstructorAccessor newObjectivePacket;
+    private static FieldAccessor Objective_OBJECTIVE_NAME;
+    private static FieldAccessor Objective_METHOD;
+    private static FieldAccessor Objective_RENDER_TYPE;
+    static ConstructorAccessor newScoreboardObjective;
+    private static MethodAccessor ScoreboardObjective_setDisplayName;
     private static Enum<?>[] healthDisplays;
     static Object IScoreboardCriteria_dummy;
 
@@ -75,12 +76,12 @@ public class PacketScoreboard extends SafeScoreboard<BukkitTabPlayer> {
                     "Packet206SetScoreboardObjective" // 1.5 - 1.6.4
             );
             emptyScoreboard = Scoreboard.getConstructor().newInstance();
-            Objective_OBJECTIVE_NAME = ReflectionUtils.getFields(ObjectivePacketClass, String.class).get(0);
+            Objective_OBJECTIVE_NAME = new FieldAccessor(ReflectionUtils.getFields(ObjectivePacketClass, String.class).get(0));
             List<Field> list = ReflectionUtils.getFields(ObjectivePacketClass, int.class);
-            Objective_METHOD = list.get(list.size()-1);
-            newObjectivePacket = ObjectivePacketClass.getConstructor(ScoreboardObjective, int.class);
+            Objective_METHOD = new FieldAccessor(list.get(list.size()-1));
+            newObjectivePacket = new ConstructorAccessor(ObjectivePacketClass.getConstructor(ScoreboardObjective, int.class));
             IScoreboardCriteria_dummy = ReflectionUtils.getFields(IScoreboardCriteria, IScoreboardCriteria).get(0).get(null);
-            newScoreboardObjective = ReflectionUtils.getOnlyConstructor(ScoreboardObjective);
+            newScoreboardObjective = new ConstructorAccessor(ReflectionUtils.getOnlyConstructor(ScoreboardObjective));
             if (minorVersion >= 7) {
                 Component = BukkitReflection.getClass("network.chat.Component", "network.chat.IChatBaseComponent", "IChatBaseComponent");
                 if (ComponentConverter.INSTANCE == null) throw new IllegalStateException("Component converter is not available");
@@ -93,15 +94,15 @@ public class PacketScoreboard extends SafeScoreboard<BukkitTabPlayer> {
                         "EnumScoreboardHealthDisplay");
                 healthDisplays = (Enum<?>[]) EnumScoreboardHealthDisplay.getMethod("values").invoke(null);
                 if (minorVersion < 13) {
-                    Objective_RENDER_TYPE = ReflectionUtils.getOnlyField(ObjectivePacketClass, EnumScoreboardHealthDisplay);
+                    Objective_RENDER_TYPE = new FieldAccessor(ReflectionUtils.getOnlyField(ObjectivePacketClass, EnumScoreboardHealthDisplay));
                 }
             }
             if (minorVersion < 13) {
-                ScoreboardObjective_setDisplayName = ReflectionUtils.getOnlyMethod(ScoreboardObjective, void.class, String.class);
+                ScoreboardObjective_setDisplayName = new MethodAccessor(ReflectionUtils.getOnlyMethod(ScoreboardObjective, void.class, String.class));
             }
             if (BukkitReflection.is1_20_3Plus()) {
                 NumberFormat = BukkitReflection.getClass("network.chat.numbers.NumberFormat");
-                newFixedFormat = BukkitReflection.getClass("network.chat.numbers.FixedFormat").getConstructor(Component);
+                newFixedFormat = new ConstructorAccessor(BukkitReflection.getClass("network.chat.numbers.FixedFormat").getConstructor(Component));
             }
             scorePacketData = new ScorePacketData();
             teamPacketData = new TeamPacketData();
@@ -7,10 +7,10 @@ import me.neznamy.tab.shared.platform.Scoreboard;
 import me.neznamy.tab.shared.util.function.BiFunctionWithException;
 import me.neznamy.tab.shared.util.function.QuintFunction;
 import me.neznamy.tab.shared.util.ReflectionUtils;
+import me.neznamy.tab.shared.util.accessor.ConstructorAccessor;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.util.Optional;
 
 /**
@@ -38,34 +38,34 @@ public class ScorePacketData {
             QuintFunction<String, String, Integer, Object, Object, Object> setScore0;
             try {
                 // 1.20.5+
-                Constructor<?> newSetScore = SetScorePacket.getConstructor(String.class, String.class, int.class, Optional.class, Optional.class);
+                ConstructorAccessor newSetScore = new ConstructorAccessor(SetScorePacket.getConstructor(String.class, String.class, int.class, Optional.class, Optional.class));
                 setScore0 = (objective, holder, score, displayName, numberFormat) ->
                         newSetScore.newInstance(holder, objective, score, Optional.ofNullable(displayName), Optional.ofNullable(numberFormat));
             } catch (ReflectiveOperationException e) {
                 // 1.20.3 - 1.20.4
-                Constructor<?> newSetScore = SetScorePacket.getConstructor(String.class, String.class, int.class, PacketScoreboard.Component, PacketScoreboard.NumberFormat);
+                ConstructorAccessor newSetScore = new ConstructorAccessor(SetScorePacket.getConstructor(String.class, String.class, int.class, PacketScoreboard.Component, PacketScoreboard.NumberFormat));
                 setScore0 = (objective, holder, score, displayName, numberFormat) ->
                         newSetScore.newInstance(holder, objective, score, displayName, numberFormat);
             }
             setScore = setScore0;
-            Constructor<?> newResetScore = BukkitReflection.getClass("network.protocol.game.ClientboundResetScorePacket").getConstructor(String.class, String.class);
+            ConstructorAccessor newResetScore = new ConstructorAccessor(BukkitReflection.getClass("network.protocol.game.ClientboundResetScorePacket").getConstructor(String.class, String.class));
             removeScore = (objective, holder) -> newResetScore.newInstance(holder, objective);
         } else if (BukkitReflection.getMinorVersion() >= 13) {
             Class<?> actionClass = BukkitReflection.getClass("server.ServerScoreboard$Method", "server.ScoreboardServer$Action", "ScoreboardServer$Action");
-            Constructor<?> newSetScore = SetScorePacket.getConstructor(actionClass, String.class, String.class, int.class);
+            ConstructorAccessor newSetScore = new ConstructorAccessor(SetScorePacket.getConstructor(actionClass, String.class, String.class, int.class));
             Enum<?>[] scoreboardActions = (Enum<?>[]) actionClass.getMethod("values").invoke(null);
             setScore = (objective, holder, score, displayName, numberFormat) -> newSetScore.newInstance(scoreboardActions[0], objective, holder, score);
             removeScore = (objective, holder) -> newSetScore.newInstance(scoreboardActions[1], objective, holder, 0);
         } else {
             Class<?> ScoreboardScore = BukkitReflection.getClass("ScoreboardScore");
-            Constructor<?> newResetScore = SetScorePacket.getConstructor(String.class);
-            Field SetScorePacket_SCORE = ReflectionUtils.getFields(SetScorePacket, int.class).get(0);
-            Constructor<?> newScoreboardScore = ScoreboardScore.getConstructor(PacketScoreboard.Scoreboard, PacketScoreboard.ScoreboardObjective, String.class);
-            Constructor<?> newSetScore;
+            ConstructorAccessor newResetScore = new ConstructorAccessor(SetScorePacket.getConstructor(String.class));
+            FieldAccessor SetScorePacket_SCORE = new FieldAccessor(ReflectionUtils.getFields(SetScorePacket, int.class).get(0));
+            ConstructorAccessor newScoreboardScore = new ConstructorAccessor(ScoreboardScore.getConstructor(PacketScoreboard.Scoreboard, PacketScoreboard.ScoreboardObjective, String.class));
+            ConstructorAccessor newSetScore;
             if (BukkitReflection.getMinorVersion() >= 8) {
-                newSetScore = SetScorePacket.getConstructor(ScoreboardScore);
+                newSetScore = new ConstructorAccessor(SetScorePacket.getConstructor(ScoreboardScore));
             } else {
-                newSetScore = SetScorePacket.getConstructor(ScoreboardScore, int.class);
+                newSetScore = new ConstructorAccessor(SetScorePacket.getConstructor(ScoreboardScore, int.class));
             }
             setScore = (objective, holder, score, displayName, numberFormat) -> {
                 Object scoreboardScore = newScoreboardScore.newInstance(
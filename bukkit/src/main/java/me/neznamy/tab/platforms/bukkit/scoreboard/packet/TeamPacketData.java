@@ -11,15 +11,16 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.platform.decorators.SafeScoreboard;
 import me.neznamy.tab.shared.platform.decorators.SafeScoreboard.Team;
 import me.neznamy.tab.shared.util.ReflectionUtils;
+import me.neznamy.tab.shared.util.accessor.ConstructorAccessor;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
+import me.neznamy.tab.shared.util.accessor.MethodAccessor;
 import me.neznamy.tab.shared.util.function.BiConsumerWithException;
 import me.neznamy.tab.shared.util.function.BiFunctionWithException;
 import me.neznamy.tab.shared.util.function.ConsumerWithException;
 import me.neznamy.tab.shared.util.function.FunctionWithException;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -42,15 +43,15 @@ public class TeamPacketData {
     );
 
     // Constructors
-    private final Constructor<?> newScoreboardTeam = ScoreboardTeamClass.getConstructor(ScoreboardClass, String.class);
+    private final ConstructorAccessor newScoreboardTeam = new ConstructorAccessor(ScoreboardTeamClass.getConstructor(ScoreboardClass, String.class));
 
     // Fields
-    public final Field ScoreboardTeam_players = ReflectionUtils.getFields(ScoreboardTeamClass, Set.class).get(0);
-    private final Field ScoreboardTeam_allowFriendlyFire = ReflectionUtils.getFields(ScoreboardTeamClass, boolean.class).get(0);
-    private final Field ScoreboardTeam_seeFriendlyInvisibles = ReflectionUtils.getFields(ScoreboardTeamClass, boolean.class).get(1);
-    private final Field TeamPacket_NAME = ReflectionUtils.getFields(TeamPacketClass, String.class).get(0);
-    private final Field TeamPacket_ACTION;
-    private final Field TeamPacket_PLAYERS = ReflectionUtils.getOnlyField(TeamPacketClass, Collection.class);
+    public final FieldAccessor ScoreboardTeam_players = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, Set.class).get(0));
+    private final FieldAccessor ScoreboardTeam_allowFriendlyFire = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, boolean.class).get(0));
+    private final FieldAccessor ScoreboardTeam_seeFriendlyInvisibles = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, boolean.class).get(1));
+    private final FieldAccessor TeamPacket_NAME = new FieldAccessor(ReflectionUtils.getFields(TeamPacketClass, String.class).get(0));
+    private final FieldAccessor TeamPacket_ACTION;
+    private final FieldAccessor TeamPacket_PLAYERS = new FieldAccessor(ReflectionUtils.getOnlyField(TeamPacketClass, Collection.class));
 
     // Objects
     private final Object emptyScoreboard = ScoreboardClass.getConstructor().newInstance();
@@ -79,20 +80,20 @@ public class TeamPacketData {
         int minorVersion = BukkitReflection.getMinorVersion();
         List<Field> intFields = ReflectionUtils.getInstanceFields(TeamPacketClass, int.class);
         if (minorVersion >= 8 && minorVersion <= 12) {
-            TeamPacket_ACTION = intFields.get(1);
+            TeamPacket_ACTION = new FieldAccessor(intFields.get(1));
         } else {
-            TeamPacket_ACTION = intFields.get(0);
+            TeamPacket_ACTION = new FieldAccessor(intFields.get(0));
         }
 
         // Packet constructors
         if (BukkitReflection.getMinorVersion() >= 17) {
-            Method TeamPacketConstructor_of = ReflectionUtils.getOnlyMethod(TeamPacketClass, TeamPacketClass, ScoreboardTeamClass);
-            Method TeamPacketConstructor_ofBoolean = ReflectionUtils.getOnlyMethod(TeamPacketClass, TeamPacketClass, ScoreboardTeamClass, boolean.class);
+            MethodAccessor TeamPacketConstructor_of = new MethodAccessor(ReflectionUtils.getOnlyMethod(TeamPacketClass, TeamPacketClass, ScoreboardTeamClass));
+            MethodAccessor TeamPacketConstructor_ofBoolean = new MethodAccessor(ReflectionUtils.getOnlyMethod(TeamPacketClass, TeamPacketClass, ScoreboardTeamClass, boolean.class));
             newRegisterTeamPacket = (team, version) -> TeamPacketConstructor_ofBoolean.invoke(null, team.getPlatformTeam(), true);
             newUnregisterTeamPacket = team -> TeamPacketConstructor_of.invoke(null, team.getPlatformTeam());
             newUpdateTeamPacket = (team, version) -> TeamPacketConstructor_ofBoolean.invoke(null, team.getPlatformTeam(), false);
         } else {
-            Constructor<?> newTeamPacket = TeamPacketClass.getConstructor(ScoreboardTeamClass, int.class);
+            ConstructorAccessor newTeamPacket = new ConstructorAccessor(TeamPacketClass.getConstructor(ScoreboardTeamClass, int.class));
             newRegisterTeamPacket = (team, version) -> newTeamPacket.newInstance(team.getPlatformTeam(), TeamAction.CREATE);
             newUnregisterTeamPacket = team -> newTeamPacket.newInstance(team.getPlatformTeam(), TeamAction.REMOVE);
             newUpdateTeamPacket = (team, version) -> newTeamPacket.newInstance(team.getPlatformTeam(), TeamAction.UPDATE);
@@ -104,10 +105,10 @@ public class TeamPacketData {
     private BiConsumerWithException<Team, ProtocolVersion> loadPrefix() {
         if (BukkitReflection.getMinorVersion() >= 13) {
             Class<?> Component = BukkitReflection.getClass("network.chat.Component", "network.chat.IChatBaseComponent", "IChatBaseComponent");
-            Field prefix = ReflectionUtils.getFields(ScoreboardTeamClass, Component).get(1);
+            FieldAccessor prefix = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, Component).get(1));
             return (team, version) -> prefix.set(team.getPlatformTeam(), team.getPrefix().convert());
         } else {
-            Field prefix = ReflectionUtils.getFields(ScoreboardTeamClass, String.class).get(2);
+            FieldAccessor prefix = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, String.class).get(2));
             return (team, version) -> {
                 String legacy = team.getPrefix().toLegacyText();
                 if (version.getMinorVersion() < 13 || TAB.getInstance().getConfiguration().getConfig().isPacketEventsCompensation()) {
@@ -123,10 +124,10 @@ public class TeamPacketData {
     private BiConsumerWithException<Team, ProtocolVersion> loadSuffix() {
         if (BukkitReflection.getMinorVersion() >= 13) {
             Class<?> Component = BukkitReflection.getClass("network.chat.Component", "network.chat.IChatBaseComponent", "IChatBaseComponent");
-            Field suffix = ReflectionUtils.getFields(ScoreboardTeamClass, Component).get(2);
+            FieldAccessor suffix = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, Component).get(2));
             return (team, version) -> suffix.set(team.getPlatformTeam(), team.getSuffix().convert());
         } else {
-            Field suffix = ReflectionUtils.getFields(ScoreboardTeamClass, String.class).get(3);
+            FieldAccessor suffix = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, String.class).get(3));
             return (team, version) -> {
                 String legacy = team.getSuffix().toLegacyText();
                 if (version.getMinorVersion() < 13 || TAB.getInstance().getConfiguration().getConfig().isPacketEventsCompensation()) {
@@ -143,7 +144,7 @@ public class TeamPacketData {
         if (BukkitReflection.getMinorVersion() >= 13) {
             Class<?> EnumChatFormatClass = BukkitReflection.getClass("ChatFormatting", "EnumChatFormat");
             Enum<?>[] chatFormats = (Enum<?>[]) EnumChatFormatClass.getMethod("values").invoke(null);
-            Method setColor = ReflectionUtils.getOnlyMethod(ScoreboardTeamClass, void.class, EnumChatFormatClass);
+            MethodAccessor setColor = new MethodAccessor(ReflectionUtils.getOnlyMethod(ScoreboardTeamClass, void.class, EnumChatFormatClass));
             return team -> setColor.invoke(team.getPlatformTeam(), chatFormats[team.getColor().getLegacyColor().ordinal()]);
         } else {
             return team -> {};
@@ -161,7 +162,7 @@ public class TeamPacketData {
                     "EnumNameTagVisibility" // Bukkit 1.8.0
             );
             Enum<?>[] nameVisibilities = (Enum<?>[]) enumNameTagVisibility.getMethod("values").invoke(null);
-            Field ScoreboardTeam_nameTagVisibility = ReflectionUtils.getFields(ScoreboardTeamClass, enumNameTagVisibility).get(0);
+            FieldAccessor ScoreboardTeam_nameTagVisibility = new FieldAccessor(ReflectionUtils.getFields(ScoreboardTeamClass, enumNameTagVisibility).get(0));
             return team -> ScoreboardTeam_nameTagVisibility.set(team.getPlatformTeam(), nameVisibilities[team.getVisibility().ordinal()]);
         } else {
             return team -> {};
@@ -175,7 +176,7 @@ public class TeamPacketData {
             Class<?> enumTeamPush = BukkitReflection.getClass("world.scores.Team$CollisionRule",
                     "world.scores.ScoreboardTeamBase$EnumTeamPush", "ScoreboardTeamBase$EnumTeamPush");
             Enum<?>[] collisionRules = (Enum<?>[]) enumTeamPush.getMethod("values").invoke(null);
-            Method setCollisionRule = ReflectionUtils.getOnlyMethod(ScoreboardTeamClass, void.class, enumTeamPush);
+            MethodAccessor setCollisionRule = new MethodAccessor(ReflectionUtils.getOnlyMethod(ScoreboardTeamClass, void.class, enumTeamPush));
             return team -> setCollisionRule.invoke(team.getPlatformTeam(), collisionRules[team.getCollision().ordinal()]);
         } else {
             return team -> {};
@@ -9,12 +9,13 @@ import me.neznamy.tab.platforms.bukkit.nms.BukkitReflection;
 import me.neznamy.tab.shared.ProtocolVersion;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.util.ReflectionUtils;
+import me.neznamy.tab.shared.util.accessor.ConstructorAccessor;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * TabList handler for 1.19.3+ servers using packets.
@@ -25,20 +26,23 @@ public class PacketTabList1193 extends PacketTabList18 {
     /** Map of actions to prevent creating new EnumSet on each packet send */
     private static final Map<Action, EnumSet<?>> actionToEnumSet = new EnumMap<>(Action.class);
 
+    /** Map of action combinations used by batched updates to prevent creating new EnumSet on each packet send */
+    private static final Map<Set<Action>, EnumSet<?>> actionSets = new ConcurrentHashMap<>();
+
     private static boolean v1_21_2Plus;
 
     private static Enum actionAddPlayer;
     private static Enum actionUpdateDisplayName;
     private static Enum actionUpdateLatency;
 
-    private static Constructor<?> newRemovePacket;
+    private static ConstructorAccessor newRemovePacket;
 
-    private static Field PlayerInfoData_UUID;
-    private static Field PlayerInfoData_GameMode;
-    private static Field PlayerInfoData_Listed;
-    private static Field PlayerInfoData_ShowHat;
-    private static Field PlayerInfoData_ListOrder;
-    private static Field PlayerInfoData_RemoteChatSession;
+    private static FieldAccessor PlayerInfoData_UUID;
+    private static FieldAccessor PlayerInfoData_GameMode;
+    private static FieldAccessor PlayerInfoData_Listed;
+    private static FieldAccessor PlayerInfoData_ShowHat;
+    private static FieldAccessor PlayerInfoData_ListOrder;
+    private static FieldAccessor PlayerInfoData_RemoteChatSession;
 
     /**
      * Constructs new instance with given player.
@@ -71,16 +75,16 @@ public class PacketTabList1193 extends PacketTabList18 {
                 "network.protocol.game.ClientboundPlayerInfoUpdatePacket$b" // Bukkit
         );
 
-        newPlayerInfo = PlayerInfoClass.getConstructor(EnumSet.class, Collection.class);
-        ACTION = ReflectionUtils.getOnlyField(PlayerInfoClass, EnumSet.class);
+        newPlayerInfo = new ConstructorAccessor(PlayerInfoClass.getConstructor(EnumSet.class, Collection.class));
+        ACTION = new FieldAccessor(ReflectionUtils.getOnlyField(PlayerInfoClass, EnumSet.class));
 
         loadSharedContent(playerInfoDataClass, EnumGamemodeClass);
 
-        PlayerInfoData_Listed = ReflectionUtils.getFields(playerInfoDataClass, boolean.class).get(0);
-        PlayerInfoData_GameMode = ReflectionUtils.getOnlyField(playerInfoDataClass, EnumGamemodeClass);
-        PlayerInfoData_RemoteChatSession = ReflectionUtils.getOnlyField(playerInfoDataClass, RemoteChatSession$Data);
-        PlayerInfoData_UUID = ReflectionUtils.getOnlyField(playerInfoDataClass, UUID.class);
-        newRemovePacket = BukkitReflection.getClass("network.protocol.game.ClientboundPlayerInfoRemovePacket").getConstructor(List.class);
+        PlayerInfoData_Listed = new FieldAccessor(ReflectionUtils.getFields(playerInfoDataClass, boolean.class).get(0));
+        PlayerInfoData_GameMode = new FieldAccessor(ReflectionUtils.getOnlyField(playerInfoDataClass, EnumGamemodeClass));
+        PlayerInfoData_RemoteChatSession = new FieldAccessor(ReflectionUtils.getOnlyField(playerInfoDataClass, RemoteChatSession$Data));
+        PlayerInfoData_UUID = new FieldAccessor(ReflectionUtils.getOnlyField(playerInfoDataClass, UUID.class));
+        newRemovePacket = new ConstructorAccessor(BukkitReflection.getClass("network.protocol.game.ClientboundPlayerInfoRemovePacket").getConstructor(List.class));
 
         actionAddPlayer = Enum.valueOf(ActionClass, Action.ADD_PLAYER.name());
         actionUpdateDisplayName = Enum.valueOf(ActionClass, Action.UPDATE_DISPLAY_NAME.name());
@@ -93,52 +97,96 @@ public class PacketTabList1193 extends PacketTabList18 {
         actionToEnumSet.put(Action.UPDATE_LISTED, EnumSet.of(Enum.valueOf(ActionClass, Action.UPDATE_LISTED.name())));
         try {
             actionToEnumSet.put(Action.UPDATE_LIST_ORDER, EnumSet.of(Enum.valueOf(ActionClass, Action.UPDATE_LIST_ORDER.name())));
-            PlayerInfoData_ListOrder = ReflectionUtils.getFields(playerInfoDataClass, int.class).get(1);
+            PlayerInfoData_ListOrder = new FieldAccessor(ReflectionUtils.getFields(playerInfoDataClass, int.class).get(1));
             v1_21_2Plus = true;
             if (BukkitReflection.is1_21_4Plus()) {
                 // 1.21.4+
                 actionToEnumSet.put(Action.UPDATE_HAT, EnumSet.of(Enum.valueOf(ActionClass, Action.UPDATE_HAT.name())));
-                PlayerInfoData_ShowHat = ReflectionUtils.getFields(playerInfoDataClass, boolean.class).get(1);
-                newPlayerInfoData = playerInfoDataClass.getConstructor(UUID.class, GameProfile.class, boolean.class, int.class,
-                        EnumGamemodeClass, IChatBaseComponent, boolean.class, int.class, RemoteChatSession$Data);
+                PlayerInfoData_ShowHat = new FieldAccessor(ReflectionUtils.getFields(playerInfoDataClass, boolean.class).get(1));
+                newPlayerInfoData = new ConstructorAccessor(playerInfoDataClass.getConstructor(UUID.class, GameProfile.class, boolean.class, int.class,
+                        EnumGamemodeClass, IChatBaseComponent, boolean.class, int.class, RemoteChatSession$Data));
             } else {
                 // 1.21.2 - 1.21.3
-                newPlayerInfoData = playerInfoDataClass.getConstructor(UUID.class, GameProfile.class, boolean.class, int.class,
-                        EnumGamemodeClass, IChatBaseComponent, int.class, RemoteChatSession$Data);
+                newPlayerInfoData = new ConstructorAccessor(playerInfoDataClass.getConstructor(UUID.class, GameProfile.class, boolean.class, int.class,
+                        EnumGamemodeClass, IChatBaseComponent, int.class, RemoteChatSession$Data));
             }
         } catch (Exception ignored) {
             // 1.21.1-, should have a better check
-            newPlayerInfoData = playerInfoDataClass.getConstructor(UUID.class, GameProfile.class, boolean.class, int.class,
-                    EnumGamemodeClass, IChatBaseComponent, RemoteChatSession$Data);
+            newPlayerInfoData = new ConstructorAccessor(playerInfoDataClass.getConstructor(UUID.class, GameProfile.class, boolean.class, int.class,
+                    EnumGamemodeClass, IChatBaseComponent, RemoteChatSession$Data));
         }
     }
 
     @Override
     @SneakyThrows
     public void removeEntry(@NonNull UUID entry) {
+        discardUpdates(entry);
         packetSender.sendPacket(player, newRemovePacket.newInstance(Collections.singletonList(entry)));
     }
 
     @Override
     public void updateListed(@NonNull UUID entry, boolean listed) {
-        packetSender.sendPacket(player,
-                createPacket(Action.UPDATE_LISTED, entry, "", null, listed, 0, 0, null, 0, false));
+        synchronized (pendingUpdates) {
+            queue(entry, Action.UPDATE_LISTED).listed = listed;
+        }
     }
 
     @Override
     public void updateListOrder(@NonNull UUID entry, int listOrder) {
         if (player.getPlatform().getServerVersion().getNetworkId() >= ProtocolVersion.V1_21_2.getNetworkId()) {
-            packetSender.sendPacket(player,
-                    createPacket(Action.UPDATE_LIST_ORDER, entry, "", null, false, 0, 0, null, listOrder, false));
+            synchronized (pendingUpdates) {
+                queue(entry, Action.UPDATE_LIST_ORDER).listOrder = listOrder;
+            }
         }
     }
 
     @Override
     public void updateHat(@NonNull UUID entry, boolean showHat) {
         if (player.getPlatform().getServerVersion().getNetworkId() >= ProtocolVersion.V1_21_4.getNetworkId()) {
-            packetSender.sendPacket(player,
-                    createPacket(Action.UPDATE_HAT, entry, "", null, false, 0, 0, null, 0, showHat));
+            synchronized (pendingUpdates) {
+                queue(entry, Action.UPDATE_HAT).showHat = showHat;
+            }
+        }
+    }
+
+    /**
+     * Sends given entry updates. Entries with the same set of updated actions
+     * are sent together in a single packet with all of those actions.
+     *
+     * @param   updates
+     *          Updates to send
+     */
+    @Override
+    @SneakyThrows
+    protected void sendUpdates(@NotNull List<PendingUpdate> updates) {
+        Map<Set<Action>, List<Object>> entriesByActions = new HashMap<>();
+        for (PendingUpdate update : updates) {
+            entriesByActions.computeIfAbsent(update.actions, a -> new ArrayList<>()).add(newPlayerInfoData(
+                    update.id,
+                    null,
+                    update.listed,
+                    update.latency,
+                    gameModes[update.gameMode],
+                    update.displayName == null ? null : update.displayName.convert(),
+                    update.showHat,
+                    update.listOrder,
+                    null
+            ));
+        }
+        for (Map.Entry<Set<Action>, List<Object>> entry : entriesByActions.entrySet()) {
+            Object packet = newPlayerInfo.newInstance(actionSets.computeIfAbsent(entry.getKey(), PacketTabList1193::toNMS), Collections.emptyList());
+            PLAYERS.set(packet, entry.getValue());
+            packetSender.sendPacket(player, packet);
+        }
+    }
+
+    @NotNull
+    private static EnumSet<?> toNMS(@NotNull Set<Action> actions) {
+        EnumSet set = EnumSet.noneOf(ActionClass);
+        for (Action action : actions) {
+            set.add(Enum.valueOf(ActionClass, action.name()));
         }
+        return set;
     }
 
     @SneakyThrows
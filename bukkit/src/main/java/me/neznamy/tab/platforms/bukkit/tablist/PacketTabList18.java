@@ -3,6 +3,7 @@ package me.neznamy.tab.platforms.bukkit.tablist;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.properties.Property;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.SneakyThrows;
 import me.neznamy.chat.component.TabComponent;
@@ -12,13 +13,15 @@ import me.neznamy.tab.platforms.bukkit.nms.converter.ComponentConverter;
 import me.neznamy.tab.platforms.bukkit.nms.BukkitReflection;
 import me.neznamy.tab.platforms.bukkit.nms.PacketSender;
 import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants.CpuUsageCategory;
+import me.neznamy.tab.shared.cpu.TimedCaughtTask;
 import me.neznamy.tab.shared.platform.TabList;
 import me.neznamy.tab.shared.util.ReflectionUtils;
+import me.neznamy.tab.shared.util.accessor.ConstructorAccessor;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.util.*;
 
 /**
@@ -29,20 +32,29 @@ import java.util.*;
 public class PacketTabList18 extends TabListBase {
 
     protected static Class<?> PlayerInfoClass;
-    protected static Constructor<?> newPlayerInfo;
-    protected static Field ACTION;
-    protected static Field PLAYERS;
+    protected static ConstructorAccessor newPlayerInfo;
+    protected static FieldAccessor ACTION;
+    protected static FieldAccessor PLAYERS;
     protected static Class<Enum> ActionClass;
 
-    protected static Constructor<?> newPlayerInfoData;
-    protected static Field PlayerInfoData_Profile;
-    protected static Field PlayerInfoData_Latency;
-    protected static Field PlayerInfoData_DisplayName;
+    protected static ConstructorAccessor newPlayerInfoData;
+    protected static FieldAccessor PlayerInfoData_Profile;
+    protected static FieldAccessor PlayerInfoData_Latency;
+    protected static FieldAccessor PlayerInfoData_DisplayName;
 
     protected static Object[] gameModes;
 
     protected static PacketSender packetSender;
 
+    /** Actions which are sent in batches, in order they are sent in */
+    private static final Action[] UPDATE_ACTIONS = {Action.UPDATE_GAME_MODE, Action.UPDATE_LATENCY, Action.UPDATE_DISPLAY_NAME};
+
+    /** Entry updates waiting to be sent, merged per entry */
+    protected final Map<UUID, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+
+    /** Whether sending of pending updates is already scheduled */
+    private boolean flushScheduled;
+
     /**
      * Constructs new instance with given player.
      *
@@ -80,20 +92,20 @@ public class PacketTabList18 extends TabListBase {
         );
 
         Class<?> classType = BukkitReflection.getMinorVersion() >= 17 ? Collection.class : Iterable.class;
-        newPlayerInfo = PlayerInfoClass.getConstructor(ActionClass, classType);
-        ACTION = ReflectionUtils.getOnlyField(PlayerInfoClass, ActionClass);
+        newPlayerInfo = new ConstructorAccessor(PlayerInfoClass.getConstructor(ActionClass, classType));
+        ACTION = new FieldAccessor(ReflectionUtils.getOnlyField(PlayerInfoClass, ActionClass));
 
         loadSharedContent(playerInfoDataClass, EnumGamemodeClass);
 
-        newPlayerInfoData = playerInfoDataClass.getConstructors()[0]; // #1105, a specific 1.8.8 fork has 2 constructors
+        newPlayerInfoData = new ConstructorAccessor(playerInfoDataClass.getConstructors()[0]); // #1105, a specific 1.8.8 fork has 2 constructors
     }
 
     protected static void loadSharedContent(Class<?> infoData, Class<Enum> gameMode) throws ReflectiveOperationException {
         Class<?> IChatBaseComponent = BukkitReflection.getClass("network.chat.Component", "network.chat.IChatBaseComponent", "IChatBaseComponent");
-        PLAYERS = ReflectionUtils.getOnlyField(PlayerInfoClass, List.class);
-        PlayerInfoData_Profile = ReflectionUtils.getOnlyField(infoData, GameProfile.class);
-        PlayerInfoData_Latency = ReflectionUtils.getFields(infoData, int.class).get(0);
-        PlayerInfoData_DisplayName = ReflectionUtils.getOnlyField(infoData, IChatBaseComponent);
+        PLAYERS = new FieldAccessor(ReflectionUtils.getOnlyField(PlayerInfoClass, List.class));
+        PlayerInfoData_Profile = new FieldAccessor(ReflectionUtils.getOnlyField(infoData, GameProfile.class));
+        PlayerInfoData_Latency = new FieldAccessor(ReflectionUtils.getFields(infoData, int.class).get(0));
+        PlayerInfoData_DisplayName = new FieldAccessor(ReflectionUtils.getOnlyField(infoData, IChatBaseComponent));
         gameModes = new Object[] {
                 Enum.valueOf(gameMode, "SURVIVAL"),
                 Enum.valueOf(gameMode, "CREATIVE"),
@@ -112,26 +124,30 @@ public class PacketTabList18 extends TabListBase {
 
     @Override
     public void removeEntry(@NonNull UUID entry) {
+        discardUpdates(entry);
         packetSender.sendPacket(player,
                 createPacket(Action.REMOVE_PLAYER, entry, "", null, false, 0, 0, null, 0, false));
     }
 
     @Override
     public void updateDisplayName0(@NonNull UUID entry, @Nullable TabComponent displayName) {
-        packetSender.sendPacket(player,
-                createPacket(Action.UPDATE_DISPLAY_NAME, entry, "", null, false, 0, 0, displayName, 0, false));
+        synchronized (pendingUpdates) {
+            queue(entry, Action.UPDATE_DISPLAY_NAME).displayName = displayName;
+        }
     }
 
     @Override
     public void updateLatency(@NonNull UUID entry, int latency) {
-        packetSender.sendPacket(player,
-                createPacket(Action.UPDATE_LATENCY, entry, "", null, false, latency, 0, null, 0, false));
+        synchronized (pendingUpdates) {
+            queue(entry, Action.UPDATE_LATENCY).latency = latency;
+        }
     }
 
     @Override
     public void updateGameMode(@NonNull UUID entry, int gameMode) {
-        packetSender.sendPacket(player,
-                createPacket(Action.UPDATE_GAME_MODE, entry, "", null, false, 0, gameMode, null, 0, false));
+        synchronized (pendingUpdates) {
+            queue(entry, Action.UPDATE_GAME_MODE).gameMode = gameMode;
+        }
     }
 
     @Override
@@ -151,11 +167,84 @@ public class PacketTabList18 extends TabListBase {
 
     @Override
     public void addEntry0(@NonNull Entry entry) {
+        discardUpdates(entry.getUniqueId());
         packetSender.sendPacket(player,
                 createPacket(Action.ADD_PLAYER, entry.getUniqueId(), entry.getName(), entry.getSkin(), entry.isListed(),
                         entry.getLatency(), entry.getGameMode(), entry.getDisplayName(), entry.getListOrder(), entry.isShowHat()));
     }
 
+    /**
+     * Returns pending update of given entry with given action added to it and schedules
+     * sending of pending updates if not scheduled already. Sending is queued right behind
+     * the current processing thread task, so all updates done by that task are merged
+     * without delaying them. Must be called while holding lock of pending updates.
+     *
+     * @param   entry
+     *          Entry to update
+     * @param   action
+     *          Action to add
+     * @return  Pending update of the entry, where new value should be set
+     */
+    @NotNull
+    protected PendingUpdate queue(@NotNull UUID entry, @NotNull Action action) {
+        PendingUpdate update = pendingUpdates.computeIfAbsent(entry, PendingUpdate::new);
+        update.actions.add(action);
+        if (!flushScheduled) {
+            // If the thread is shut down, updates are sent by flush on unload
+            flushScheduled = TAB.getInstance().getCpu().getProcessingThread().execute(new TimedCaughtTask(TAB.getInstance().getCpu(),
+                    this::flush, "TabList", CpuUsageCategory.TABLIST_BATCH));
+        }
+        return update;
+    }
+
+    /**
+     * Discards pending updates of given entry, because the entry is being removed
+     * or added again with up-to-date values.
+     *
+     * @param   entry
+     *          Entry to discard updates of
+     */
+    protected void discardUpdates(@NotNull UUID entry) {
+        synchronized (pendingUpdates) {
+            pendingUpdates.remove(entry);
+        }
+    }
+
+    @Override
+    public void flush() {
+        List<PendingUpdate> updates;
+        synchronized (pendingUpdates) {
+            flushScheduled = false;
+            if (pendingUpdates.isEmpty()) return;
+            updates = new ArrayList<>(pendingUpdates.values());
+            pendingUpdates.clear();
+        }
+        sendUpdates(updates);
+    }
+
+    /**
+     * Sends given entry updates using one packet per action containing all entries
+     * with that action.
+     *
+     * @param   updates
+     *          Updates to send
+     */
+    @SneakyThrows
+    protected void sendUpdates(@NotNull List<PendingUpdate> updates) {
+        for (Action action : UPDATE_ACTIONS) {
+            Object packet = null;
+            List<Object> entries = new ArrayList<>();
+            for (PendingUpdate update : updates) {
+                if (!update.actions.contains(action)) continue;
+                if (packet == null) packet = newPlayerInfo.newInstance(Enum.valueOf(ActionClass, action.name()), Collections.emptyList());
+                entries.add(createPlayerInfoData(packet, update.id, "", null, update.latency, update.gameMode, update.displayName));
+            }
+            if (packet == null) continue;
+            PLAYERS.set(packet, entries);
+            packetSender.sendPacket(player, packet);
+        }
+    }
+
     /**
      * Creates packet from given parameters.
      *
@@ -186,19 +275,25 @@ public class PacketTabList18 extends TabListBase {
     public Object createPacket(@NonNull Action action, @NonNull UUID id, @NonNull String name, @Nullable Skin skin,
                                boolean listed, int latency, int gameMode, @Nullable TabComponent displayName, int listOrder, boolean showHat) {
         Object packet = newPlayerInfo.newInstance(Enum.valueOf(ActionClass, action.name()), Collections.emptyList());
-        List<Object> parameters = new ArrayList<>();
-        if (newPlayerInfoData.getParameterTypes()[0] == PlayerInfoClass) {
-            parameters.add(packet);
-        }
-        parameters.add(createProfile(id, name, skin));
-        parameters.add(latency);
-        parameters.add(gameModes[gameMode]);
-        parameters.add(displayName == null ? null : displayName.convert());
-        if (BukkitReflection.getMinorVersion() >= 19) parameters.add(null);
-        PLAYERS.set(packet, Collections.singletonList(newPlayerInfoData.newInstance(parameters.toArray())));
+        PLAYERS.set(packet, Collections.singletonList(createPlayerInfoData(packet, id, name, skin, latency, gameMode, displayName)));
         return packet;
     }
 
+    @SneakyThrows
+    @NotNull
+    private Object createPlayerInfoData(@NotNull Object packet, @NotNull UUID id, @NotNull String name, @Nullable Skin skin,
+                                        int latency, int gameMode, @Nullable TabComponent displayName) {
+        Object profile = createProfile(id, name, skin);
+        Object component = displayName == null ? null : displayName.convert();
+        boolean innerClass = newPlayerInfoData.getParameterTypes()[0] == PlayerInfoClass;
+        if (BukkitReflection.getMinorVersion() >= 19) {
+            if (innerClass) return newPlayerInfoData.newInstance(packet, profile, latency, gameModes[gameMode], component, null);
+            return newPlayerInfoData.newInstance(profile, latency, gameModes[gameMode], component, null);
+        }
+        if (innerClass) return newPlayerInfoData.newInstance(packet, profile, latency, gameModes[gameMode], component);
+        return newPlayerInfoData.newInstance(profile, latency, gameModes[gameMode], component);
+    }
+
     /**
      * Creates GameProfile from given parameters.
      *
@@ -244,4 +339,21 @@ public class PacketTabList18 extends TabListBase {
             }
         }
     }
+
+    /**
+     * Values of an entry waiting to be sent. Only values of actions
+     * present in the action set are valid.
+     */
+    @RequiredArgsConstructor
+    protected static class PendingUpdate {
+
+        @NotNull protected final UUID id;
+        @NotNull protected final EnumSet<Action> actions = EnumSet.noneOf(Action.class);
+        @Nullable protected TabComponent displayName;
+        protected int latency;
+        protected int gameMode;
+        protected boolean listed;
+        protected int listOrder;
+        protected boolean showHat;
+    }
 }
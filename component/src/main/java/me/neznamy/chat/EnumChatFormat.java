@@ -34,6 +34,9 @@ public enum EnumChatFormat {
     ITALIC('o', 0),
     RESET('r', 0);
 
+    /** Characters which are translated when following {@code &} symbol */
+    private static final String TRANSLATED_CHARACTERS = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx#";
+
     /** Character representing the color or magic code */
     private final char character;
 
@@ -52,11 +55,27 @@ public enum EnumChatFormat {
         if (!textToTranslate.contains("&")) return textToTranslate;
         char[] b = textToTranslate.toCharArray();
         for (int i = 0; i < b.length - 1; i++) {
-            if ((b[i] == '&') && ("0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx#".indexOf(b[(i + 1)]) > -1)) {
+            if ((b[i] == '&') && (TRANSLATED_CHARACTERS.indexOf(b[(i + 1)]) > -1)) {
                 b[i] = '§';
                 b[(i + 1)] = Character.toLowerCase(b[(i + 1)]);
             }
         }
         return new String(b);
     }
+
+    /**
+     * Translates colors in given buffer the same way {@link #color(String)} does,
+     * but in place, without creating a new string.
+     *
+     * @param   buffer
+     *          buffer to replace color symbol in
+     */
+    public static void color(@NotNull StringBuilder buffer) {
+        for (int i = 0; i < buffer.length() - 1; i++) {
+            if ((buffer.charAt(i) == '&') && (TRANSLATED_CHARACTERS.indexOf(buffer.charAt(i + 1)) > -1)) {
+                buffer.setCharAt(i, '§');
+                buffer.setCharAt(i + 1, Character.toLowerCase(buffer.charAt(i + 1)));
+            }
+        }
+    }
 }
\ No newline at end of file
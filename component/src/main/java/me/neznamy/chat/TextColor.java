@@ -5,9 +5,17 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A class representing a component color, which can be either RGB or legacy code.
+ * <p>
+ * RGB colors created using {@link #fromRgb(int)} or {@link #fromHexCode(String)} are
+ * interned, so the same color used in many components is only kept in memory once.
+ * Once the pool is full, new colors are no longer interned, but colors already in the
+ * pool stay there, so frequently used colors remain shared even when many one-off colors
+ * (such as animated gradients) are created. Legacy colors are only equal to themselves,
+ * RGB colors are compared by their RGB value.
  */
 public class TextColor {
 
@@ -39,6 +47,12 @@ public class TextColor {
 
     private static final TextColor[] legacyColorArray = LEGACY_COLORS.values().toArray(new TextColor[0]);
 
+    /** Maximum amount of interned RGB colors, further colors are not interned */
+    private static final int MAX_INTERNED_COLORS = 16384;
+
+    /** Interned RGB colors by their RGB value */
+    private static final Map<Integer, TextColor> INTERNED_COLORS = new ConcurrentHashMap<>();
+
     /**
      * RGB values as a single number of 3 8-bit numbers (0-255).
      * It is only initialized if colors are actually used to avoid
@@ -54,6 +68,9 @@ public class TextColor {
     @Nullable
     private String hexCode;
 
+    /** Whether this is one of the legacy colors */
+    private final boolean legacy;
+
     /**
      * Constructs new instance from provided 6-digit hex code string
      *
@@ -64,6 +81,7 @@ public class TextColor {
      */
     public TextColor(@NotNull String hexCode) {
         this.hexCode = hexCode;
+        legacy = false;
     }
 
     /**
@@ -76,6 +94,7 @@ public class TextColor {
         rgb = legacyColor.getRgb();
         this.legacyColor = legacyColor;
         hexCode = String.format("%06X", legacyColor.getRgb());
+        legacy = true;
         LEGACY_COLORS.put(legacyColor.getCharacter(), this);
     }
 
@@ -87,6 +106,7 @@ public class TextColor {
      */
     public TextColor(int rgb) {
         this.rgb = rgb;
+        legacy = false;
     }
 
     /**
@@ -101,6 +121,55 @@ public class TextColor {
      */
     public TextColor(int red, int green, int blue) {
         rgb = (red << 16) + (green << 8) + blue;
+        legacy = false;
+    }
+
+    /**
+     * Returns interned RGB color with given RGB value. If the pool is full and
+     * the color is not in it, a new instance is returned.
+     *
+     * @param   rgb
+     *          RGB value
+     * @return  Color with given RGB value
+     */
+    @NotNull
+    public static TextColor fromRgb(int rgb) {
+        TextColor color = INTERNED_COLORS.get(rgb);
+        if (color != null) return color;
+        color = new TextColor(rgb);
+        if (INTERNED_COLORS.size() >= MAX_INTERNED_COLORS) return color;
+        TextColor previous = INTERNED_COLORS.putIfAbsent(rgb, color);
+        return previous == null ? color : previous;
+    }
+
+    /**
+     * Returns interned RGB color with given 6-digit hex code.
+     *
+     * @param   hexCode
+     *          a 6-digit combination of hex numbers as a string
+     * @return  Color with given hex code
+     * @throws  NumberFormatException
+     *          if hexCode is not a valid hex number
+     */
+    @NotNull
+    public static TextColor fromHexCode(@NotNull String hexCode) {
+        return fromRgb(Integer.parseInt(hexCode, 16));
+    }
+
+    /**
+     * Returns interned RGB color with given red, green and blue values.
+     *
+     * @param   red
+     *          red value
+     * @param   green
+     *          green value
+     * @param   blue
+     *          blue value
+     * @return  Color with given values
+     */
+    @NotNull
+    public static TextColor fromRgb(int red, int green, int blue) {
+        return fromRgb((red << 16) + (green << 8) + blue);
     }
 
     /**
@@ -197,4 +266,18 @@ public class TextColor {
     public static TextColor getLegacyByChar(char c) {
         return LEGACY_COLORS.get(c);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TextColor)) return false;
+        TextColor other = (TextColor) o;
+        if (legacy || other.legacy) return legacyColor == other.legacyColor && legacy == other.legacy;
+        return getRgb() == other.getRgb();
+    }
+
+    @Override
+    public int hashCode() {
+        return legacy ? ~legacyColor.ordinal() : getRgb();
+    }
+}
@@ -1,5 +1,6 @@
 package me.neznamy.chat.component;
 
+import lombok.EqualsAndHashCode;
 import me.neznamy.chat.TextColor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -8,6 +9,7 @@ import org.jetbrains.annotations.Nullable;
  * An implementation that only uses the "text" field with legacy colors in it, without using
  * any component style or extra.
  */
+@EqualsAndHashCode(callSuper = true)
 public class SimpleTextComponent extends TextComponent {
 
     /**
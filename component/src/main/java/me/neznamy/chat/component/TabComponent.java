@@ -1,5 +1,6 @@
 package me.neznamy.chat.component;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
@@ -15,27 +16,30 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
- * Base class for managing minecraft components.
+ * Base class for managing minecraft components. Components are compared by their
+ * structure (type, text, style and extra components), converted values are ignored.
  */
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public abstract class TabComponent {
 
     /** Function for converting this class into platform's actual component */
     @Nullable
     public static Function<TabComponent, Object> CONVERT_FUNCTION;
 
+    /** Digits of hexadecimal numbers for writing gradient colors */
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
     /** Formatter to convert gradient into TAB's #RRGGBB spam */
     private static final TriFunction<TextColor, String, TextColor, String> TABGradientFormatter = (start, text, end) -> {
         if (text.length() == 1) {
             return "#" + start.getHexCode() + text;
         }
-        StringBuilder sb = new StringBuilder();
-        List<Character> characters = new ArrayList<>();
-        List<ChatModifier> modifiers = new ArrayList<>();
+        StringBuilder characters = new StringBuilder(text.length());
+        List<String> magicCodes = new ArrayList<>(text.length());
         ChatModifier modifier = new ChatModifier();
+        String codes = "";
         for (int i=0; i<text.length(); i++) {
             char c = text.charAt(i);
             if (c == '§' && i < text.length() - 1) {
@@ -66,24 +70,31 @@ public abstract class TabComponent {
                         break;
                     default:
                         // Invalid code
-                        characters.add('§');
-                        modifiers.add(new ChatModifier(modifier));
-                        break;
+                        characters.append('§');
+                        magicCodes.add(codes);
+                        continue;
                 }
+                codes = modifier.getMagicCodes();
             } else {
-                characters.add(c);
-                modifiers.add(new ChatModifier(modifier));
+                characters.append(c);
+                magicCodes.add(codes);
             }
         }
 
-        int length = characters.size();
+        int length = characters.length();
+        StringBuilder sb = new StringBuilder(length * 8);
         for (int i=0; i<length; i++) {
             int red = (int) (start.getRed() + (float)(end.getRed() - start.getRed())/(length-1)*i);
             int green = (int) (start.getGreen() + (float)(end.getGreen() - start.getGreen())/(length-1)*i);
             int blue = (int) (start.getBlue() + (float)(end.getBlue() - start.getBlue())/(length-1)*i);
-            sb.append(String.format("#%02X%02X%02X", red, green, blue));
-            sb.append(modifiers.get(i).getMagicCodes());
-            sb.append(characters.get(i));
+            // Not interning gradient colors, animated gradients would flood the pool with one-off colors
+            int rgb = (red << 16) + (green << 8) + blue;
+            sb.append('#');
+            for (int shift = 20; shift >= 0; shift -= 4) {
+                sb.append(HEX_DIGITS[(rgb >> shift) & 0xF]);
+            }
+            sb.append(magicCodes.get(i));
+            sb.append(characters.charAt(i));
         }
         return sb.toString();
     };
@@ -91,9 +102,6 @@ public abstract class TabComponent {
     /** Formatter to convert RGB code to use TAB's #RRGGBB */
     private static final Function<TextColor, String> TABRGBFormatter = color -> "#" + color.getHexCode();
 
-    /** Pattern for detecting fonts */
-    private static final Pattern fontPattern = Pattern.compile("<font:(.*?)>(.*?)</font>");
-
     @Nullable
     private Object converted;
 
@@ -121,9 +129,11 @@ public abstract class TabComponent {
     @NotNull
     @Getter
     @Setter
+    @EqualsAndHashCode.Include
     protected ChatModifier modifier = new ChatModifier();
 
     /** Extra components used in "extra" field */
+    @EqualsAndHashCode.Include
     protected List<TabComponent> extra;
 
     /**
@@ -276,20 +286,21 @@ public abstract class TabComponent {
         String remainingText = originalText;
         List<TabComponent> components = new ArrayList<>();
         while (!remainingText.isEmpty()) {
-            Matcher m = fontPattern.matcher(remainingText);
-            if (m.find()) {
-                if (m.start() > 0) {
+            int start = findFont(remainingText);
+            if (start != -1) {
+                if (start > 0) {
                     // Something is before the text with font, process normally
-                    components.addAll(toComponentArray(remainingText.substring(0, m.start()), null));
+                    components.addAll(toComponentArray(remainingText.substring(0, start), null));
                 }
                 // Process text with font
-                String match = m.group();
+                int nameEnd = remainingText.indexOf('>', start + 6);
+                int end = remainingText.indexOf("</font>", nameEnd + 1);
                 components.addAll(toComponentArray(
-                        match.substring(match.indexOf('>')+1, match.length()-7),
-                        match.substring(6, match.indexOf('>'))
+                        remainingText.substring(nameEnd + 1, end),
+                        remainingText.substring(start + 6, nameEnd)
                 ));
                 // Prepare the rest for next loop
-                remainingText = remainingText.substring(m.start() + match.length());
+                remainingText = remainingText.substring(end + 7);
             } else {
                 components.addAll(toComponentArray(remainingText, null));
                 break;
@@ -298,6 +309,46 @@ public abstract class TabComponent {
         return new TextComponent("", components);
     }
 
+    /**
+     * Returns position of the first {@code <font:Name>Text</font>} in text or {@code -1}
+     * if there is none. Font name and text cannot contain a line break.
+     *
+     * @param   text
+     *          Text to search
+     * @return  Position of the first font or {@code -1} if not found
+     */
+    private static int findFont(@NotNull String text) {
+        int start = text.indexOf("<font:");
+        while (start != -1) {
+            int nameEnd = text.indexOf('>', start + 6);
+            if (nameEnd == -1) return -1;
+            int end = text.indexOf("</font>", nameEnd + 1);
+            if (end == -1) return -1;
+            if (!containsLineBreak(text, start, end)) return start;
+            start = text.indexOf("<font:", start + 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if text contains a line break between given positions.
+     *
+     * @param   text
+     *          Text to check
+     * @param   from
+     *          Start position (inclusive)
+     * @param   to
+     *          End position (exclusive)
+     * @return  {@code true} if a line break is present, {@code false} if not
+     */
+    private static boolean containsLineBreak(@NotNull String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return true;
+        }
+        return false;
+    }
+
     @NotNull
     private static List<TextComponent> toComponentArray(@NotNull String originalText, @Nullable String font) {
         String text = RGBUtils.getInstance().applyFormats(EnumChatFormat.color(originalText), TABGradientFormatter, TABRGBFormatter);
@@ -347,9 +398,8 @@ public abstract class TabComponent {
                     }
                 }
             } else if (c == '#' && text.length() > i+6) {
-                String hex = text.substring(i+1, i+7);
-                if (isHexCode(hex)) {
-                    TextColor color = new TextColor(hex);
+                if (RGBUtils.isHex(text, i+1)) {
+                    TextColor color = TextColor.fromHexCode(text.substring(i+1, i+7));
                     i += 6;
                     if (builder.length() > 0) {
                         component.setText(builder.toString());
@@ -370,19 +420,4 @@ public abstract class TabComponent {
         components.add(component);
         return components;
     }
-
-    /**
-     * Returns true if entered string is a valid 6-digit combination of
-     * hexadecimal numbers, false if not
-     *
-     * @param   string
-     *          string to check
-     * @return  {@code true} if valid, {@code false} if not
-     */
-    private static boolean isHexCode(@NotNull String string) {
-        for (int i=0; i<string.length(); i++) {
-            if ("0123456789AaBbCcDdEeFf".indexOf(string.charAt(i)) == -1) return false;
-        }
-        return true;
-    }
 }
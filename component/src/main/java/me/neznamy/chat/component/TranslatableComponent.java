@@ -1,6 +1,7 @@
 package me.neznamy.chat.component;
 
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
 
@@ -8,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
  * A component of "translate" type that contains key to translate.
  */
 @Getter
+@EqualsAndHashCode(callSuper = true)
 @AllArgsConstructor
 public class TranslatableComponent extends TabComponent {
 
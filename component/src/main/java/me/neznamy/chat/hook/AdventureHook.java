@@ -107,7 +107,7 @@ public class AdventureHook {
         // Component style
         Map<TextDecoration, TextDecoration.State> decorations = component.style().decorations();
         tabComponent.setModifier(new ChatModifier(
-                component.color() == null ? null : new me.neznamy.chat.TextColor(component.color().value()),
+                component.color() == null ? null : me.neznamy.chat.TextColor.fromRgb(component.color().value()),
                 SHADOW_COLOR_AVAILABLE ? AdventureShadowHook.getShadowColor(component) : null,
                 getDecoration(decorations.get(TextDecoration.BOLD)),
                 getDecoration(decorations.get(TextDecoration.ITALIC)),
@@ -2,43 +2,31 @@ package me.neznamy.chat.rgb;
 
 import lombok.Getter;
 import me.neznamy.chat.TextColor;
-import me.neznamy.chat.rgb.format.BukkitFormat;
-import me.neznamy.chat.rgb.format.CommonFormatter;
-import me.neznamy.chat.rgb.format.RGBFormatter;
-import me.neznamy.chat.rgb.gradient.CMIGradient;
-import me.neznamy.chat.rgb.gradient.CommonGradient;
-import me.neznamy.chat.rgb.gradient.GradientPattern;
-import me.neznamy.chat.rgb.gradient.NexEngineGradient;
 import me.neznamy.chat.util.TriFunction;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Function;
-import java.util.regex.Pattern;
 
 /**
- * A helper class to reformat all RGB formats into the default #RRGGBB and apply gradients
+ * A helper class to reformat all RGB formats into the default #RRGGBB and apply gradients.
+ * <p>
+ * Text is processed in a single pass, recognizing the following syntaxes at each position:
+ * <ul>
+ *     <li>Gradients (in order of priority): {@code {#RRGGBB>}Text{#RRGGBB<}} (CMI),
+ *     {@code <#RRGGBB>Text</#RRGGBB>} ("HTML"), {@code <$#RRGGBB>Text<$#RRGGBB>}
+ *     and {@code <gradient:#RRGGBB>Text</gradient:#RRGGBB>} (NexEngine)</li>
+ *     <li>RGB codes: {@code &x&R&R&G&G&B&B} (Bukkit), {@code {#RRGGBB}} (CMI),
+ *     {@code &#RRGGBB} and {@code #<RRGGBB>} ("HTML")</li>
+ * </ul>
+ * CMI's gradient shortcut {@code {#RRGGBB<>}}, which ends one gradient and starts another
+ * with the same color, is expanded before processing.
  */
 public class RGBUtils {
 
     /** Instance of the class */
     @Getter private static final RGBUtils instance = new RGBUtils();
 
-    /** Registered RGB formatters */
-    private final RGBFormatter[] formats = {
-            new BukkitFormat(),   // &x&r&r&g&g&b&b
-            new CommonFormatter(Pattern.compile("\\{#[0-9a-fA-F]{6}}"), "{#"),  // CMI's {#RRGGBB}
-            new CommonFormatter(Pattern.compile("§#[0-9a-fA-F]{6}"), "§#"),     // &#RRGGBB
-            new CommonFormatter(Pattern.compile("#<[0-9a-fA-F]{6}>"), "#<")     // #<RRGGBB> // "HTML"
-    };
-
-    /** Registered gradient patterns */
-    private final GradientPattern[] gradients = {
-            new CMIGradient(), //{#RRGGBB>}Text{#RRGGBB<}
-            new CommonGradient(Pattern.compile("<#[0-9a-fA-F]{6}>.*?</#[0-9a-fA-F]{6}>"), "<#", 2, 9, 7), //<#RRGGBB>Text</#RRGGBB> // "HTML"
-            new CommonGradient(Pattern.compile("<\\$#[0-9a-fA-F]{6}>.*?<\\$#[0-9a-fA-F]{6}>"), "<$", 3, 10, 7), //<$#RRGGBB>Text<$#RRGGBB> // ?
-            new NexEngineGradient() // <gradient:#RRGGBB>Text</gradient:#RRGGBB>
-    };
-
     /**
      * Applies all gradient formats to text and returns it.
      *
@@ -53,13 +41,339 @@ public class RGBUtils {
     @NotNull
     public String applyFormats(@NotNull String text, @NotNull TriFunction<TextColor, String, TextColor, String> gradientFunction,
                                @NotNull Function<TextColor, String> rgbFunction) {
-        String replaced = text;
-        for (GradientPattern pattern : gradients) {
-            replaced = pattern.applyPattern(replaced, gradientFunction);
+        if (!containsFormatStart(text)) return text;
+        return apply(text.contains("<>}") ? expandCMIShortcut(text) : text, gradientFunction, rgbFunction);
+    }
+
+    /**
+     * Converts gradients (if gradient function is provided) and RGB codes in text.
+     * <p>
+     * To stay compatible with the previous implementation, which applied each syntax to
+     * the whole text one after another, a bukkit code wrapped in {@code {}} is treated as
+     * CMI code and a lone {@code §} before a converted gradient, bukkit or CMI code
+     * resulting in {@code #RRGGBB} is treated as {@code §#RRGGBB}.
+     *
+     * @param   text
+     *          Text to convert
+     * @param   gradientFunction
+     *          Function for reformatting gradient to new text or {@code null} to skip gradients
+     * @param   rgbFunction
+     *          Function for converting RGB codes to desired format
+     * @return  Converted text
+     */
+    @NotNull
+    private String apply(@NotNull String text, @Nullable TriFunction<TextColor, String, TextColor, String> gradientFunction,
+                         @NotNull Function<TextColor, String> rgbFunction) {
+        StringBuilder sb = null;
+        int copiedUntil = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c != '{' && c != '<' && c != '§' && c != '#') continue;
+            int start = i;
+            int end = gradientFunction == null ? -1 : matchGradient(text, i);
+            String replacement;
+            boolean previousFormats;
+            if (end != -1) {
+                String output = applyGradient(text, i, end, gradientFunction);
+                replacement = apply(output, null, rgbFunction);
+                // Empty gradient text results in empty output, which cannot start with a code
+                previousFormats = !output.isEmpty() && (isHexColor(output, 0) ||
+                        (isBukkitOrCMI(output, 0, matchRGB(output, 0)) && isHexColor(replacement, 0)));
+            } else {
+                end = matchRGB(text, i);
+                if (end == -1) continue;
+                replacement = rgbFunction.apply(TextColor.fromHexCode(getHexCode(text, i, end)));
+                previousFormats = isBukkitOrCMI(text, i, end);
+                if (end - i == 14 && i > copiedUntil && text.charAt(i - 1) == '{' && end < length && text.charAt(end) == '}'
+                        && replacement.length() == 7 && isHexColor(replacement, 0)) {
+                    // {§x§R§R§G§G§B§B}
+                    replacement = rgbFunction.apply(TextColor.fromHexCode(replacement.substring(1)));
+                    start--;
+                    end++;
+                }
+            }
+            if (previousFormats && start > copiedUntil && text.charAt(start - 1) == '§' && isHexColor(replacement, 0)) {
+                // §#RRGGBB created by previous conversion
+                replacement = rgbFunction.apply(TextColor.fromHexCode(replacement.substring(1, 7))) + replacement.substring(7);
+                start--;
+            }
+            if (sb == null) sb = new StringBuilder(length + 16);
+            sb.append(text, copiedUntil, start).append(replacement);
+            copiedUntil = end;
+            i = end - 1;
+        }
+        if (sb == null) return text;
+        return sb.append(text, copiedUntil, length).toString();
+    }
+
+    /**
+     * Returns {@code true} if RGB code between given positions is a bukkit or CMI code.
+     *
+     * @param   text
+     *          Text containing the RGB code
+     * @param   start
+     *          Start of RGB code
+     * @param   end
+     *          End of RGB code (exclusive) or {@code -1} if there is no code
+     * @return  {@code true} if code is a bukkit or CMI code, {@code false} if not
+     */
+    private boolean isBukkitOrCMI(@NotNull String text, int start, int end) {
+        return end != -1 && start < text.length() && (end - start == 14 || text.charAt(start) == '{');
+    }
+
+    /**
+     * Returns {@code true} if text contains {@code #RRGGBB} at given position.
+     *
+     * @param   text
+     *          Text to check
+     * @param   start
+     *          Position to check
+     * @return  {@code true} if {@code #RRGGBB} is present, {@code false} if not
+     */
+    private boolean isHexColor(@NotNull String text, int start) {
+        return start < text.length() && text.charAt(start) == '#' && isHex(text, start + 1);
+    }
+
+    /**
+     * Returns {@code true} if text contains any character a format can start with.
+     *
+     * @param   text
+     *          Text to check
+     * @return  {@code true} if text may contain a format, {@code false} if not
+     */
+    private boolean containsFormatStart(@NotNull String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '<' || c == '§' || c == '#') return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces every {@code {#RRGGBB<>}} with {@code {#RRGGBB<}{#RRGGBB>}}.
+     *
+     * @param   text
+     *          Text to expand shortcuts in
+     * @return  Text with expanded shortcuts
+     */
+    @NotNull
+    private String expandCMIShortcut(@NotNull String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        int i = 0;
+        while (i < text.length()) {
+            if (text.startsWith("{#", i) && isHex(text, i + 2) && text.startsWith("<>}", i + 8)) {
+                String code = text.substring(i + 2, i + 8);
+                sb.append("{#").append(code).append("<}{#").append(code).append(">}");
+                i += 11;
+            } else {
+                sb.append(text.charAt(i++));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Checks for a gradient starting at given position and returns index
+     * right after its end or {@code -1} if there is no gradient.
+     *
+     * @param   text
+     *          Text to check
+     * @param   start
+     *          Position to check
+     * @return  End of gradient (exclusive) or {@code -1} if not found
+     */
+    private int matchGradient(@NotNull String text, int start) {
+        char c = text.charAt(start);
+        if (c == '{') {
+            // {#RRGGBB>}Text{#RRGGBB<}, text cannot contain {
+            if (!text.startsWith("{#", start) || !isHex(text, start + 2) || !text.startsWith(">}", start + 8)) return -1;
+            int end = text.indexOf('{', start + 10);
+            if (end == -1 || !text.startsWith("{#", end) || !isHex(text, end + 2) || !text.startsWith("<}", end + 8)) return -1;
+            return end + 10;
+        }
+        if (c != '<') return -1;
+        if (text.startsWith("<#", start)) {
+            // <#RRGGBB>Text</#RRGGBB>
+            if (!isHex(text, start + 2) || !text.startsWith(">", start + 8)) return -1;
+            return findGradientEnd(text, start + 9, "</#", 3);
+        }
+        if (text.startsWith("<$#", start)) {
+            // <$#RRGGBB>Text<$#RRGGBB>
+            if (!isHex(text, start + 3) || !text.startsWith(">", start + 9)) return -1;
+            return findGradientEnd(text, start + 10, "<$#", 3);
+        }
+        if (text.startsWith("<gradient:#", start)) {
+            // <gradient:#RRGGBB>Text</gradient:#RRGGBB>
+            if (!isHex(text, start + 11) || !text.startsWith(">", start + 17)) return -1;
+            return findGradientEnd(text, start + 18, "</gradient:#", 12);
         }
-        for (RGBFormatter formatter : formats) {
-            replaced = formatter.reformat(replaced, rgbFunction);
+        return -1;
+    }
+
+    /**
+     * Finds the nearest gradient end with given prefix followed by a 6-digit
+     * hex code and {@code >}. Gradient text cannot contain a line terminator.
+     *
+     * @param   text
+     *          Text to search
+     * @param   from
+     *          Start of gradient text
+     * @param   prefix
+     *          Start of gradient end
+     * @param   prefixLength
+     *          Length of prefix
+     * @return  End of gradient (exclusive) or {@code -1} if not found
+     */
+    private int findGradientEnd(@NotNull String text, int from, @NotNull String prefix, int prefixLength) {
+        int limit = from;
+        while (limit < text.length() && !isLineTerminator(text.charAt(limit))) limit++;
+        int index = text.indexOf(prefix, from);
+        while (index != -1 && index < limit) {
+            if (isHex(text, index + prefixLength) && text.startsWith(">", index + prefixLength + 6)) {
+                return index + prefixLength + 7;
+            }
+            index = text.indexOf(prefix, index + 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Converts gradient between given positions using gradient function.
+     *
+     * @param   text
+     *          Text containing the gradient
+     * @param   start
+     *          Start of gradient
+     * @param   end
+     *          End of gradient (exclusive)
+     * @param   gradientFunction
+     *          Function for reformatting gradient to new text
+     * @return  Converted gradient
+     */
+    @NotNull
+    private String applyGradient(@NotNull String text, int start, int end, @NotNull TriFunction<TextColor, String, TextColor, String> gradientFunction) {
+        int startColor;
+        int contentStart;
+        int endLength;
+        switch (text.charAt(start + 1)) {
+            case '#': // {#RRGGBB>} or <#RRGGBB>
+                startColor = start + 2;
+                contentStart = text.charAt(start) == '{' ? start + 10 : start + 9;
+                endLength = 10;
+                break;
+            case '$':
+                startColor = start + 3;
+                contentStart = start + 10;
+                endLength = 10;
+                break;
+            default: // <gradient:#RRGGBB>
+                startColor = start + 11;
+                contentStart = start + 18;
+                endLength = 19;
+                break;
+        }
+        int endColor = text.charAt(start) == '{' ? end - 8 : end - 7;
+        return gradientFunction.apply(
+                TextColor.fromHexCode(text.substring(startColor, startColor + 6)),
+                text.substring(contentStart, end - endLength),
+                TextColor.fromHexCode(text.substring(endColor, endColor + 6))
+        );
+    }
+
+    /**
+     * Checks for an RGB code starting at given position and returns index
+     * right after its end or {@code -1} if there is no RGB code.
+     *
+     * @param   text
+     *          Text to check
+     * @param   start
+     *          Position to check
+     * @return  End of RGB code (exclusive) or {@code -1} if not found
+     */
+    private int matchRGB(@NotNull String text, int start) {
+        if (start >= text.length()) return -1;
+        switch (text.charAt(start)) {
+            case '§':
+                if (start + 1 >= text.length()) return -1;
+                if (text.charAt(start + 1) == 'x') {
+                    // §x§R§R§G§G§B§B
+                    if (start + 14 > text.length()) return -1;
+                    for (int i = start + 2; i < start + 14; i++) {
+                        char c = text.charAt(i);
+                        if (c != '§' && !isHexDigit(c)) return -1;
+                    }
+                    return start + 14;
+                }
+                // §#RRGGBB
+                return text.charAt(start + 1) == '#' && isHex(text, start + 2) ? start + 8 : -1;
+            case '{':
+                // {#RRGGBB}
+                return text.startsWith("{#", start) && isHex(text, start + 2) && text.startsWith("}", start + 8) ? start + 9 : -1;
+            case '#':
+                // #<RRGGBB>
+                return text.startsWith("#<", start) && isHex(text, start + 2) && text.startsWith(">", start + 8) ? start + 9 : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Returns hex code of RGB code between given positions.
+     *
+     * @param   text
+     *          Text containing the RGB code
+     * @param   start
+     *          Start of RGB code
+     * @param   end
+     *          End of RGB code (exclusive)
+     * @return  6-digit hex code
+     */
+    @NotNull
+    private String getHexCode(@NotNull String text, int start, int end) {
+        if (end - start == 14) {
+            return new String(new char[] {text.charAt(start + 3), text.charAt(start + 5), text.charAt(start + 7),
+                    text.charAt(start + 9), text.charAt(start + 11), text.charAt(start + 13)});
+        }
+        return text.substring(start + 2, start + 8);
+    }
+
+    /**
+     * Returns {@code true} if character is a line terminator, which cannot be a part of gradient text.
+     *
+     * @param   c
+     *          Character to check
+     * @return  {@code true} if character is a line terminator, {@code false} if not
+     */
+    private boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Returns {@code true} if text contains 6 hexadecimal digits at given position.
+     *
+     * @param   text
+     *          Text to check
+     * @param   start
+     *          Position of first digit
+     * @return  {@code true} if 6 hex digits are present, {@code false} if not
+     */
+    public static boolean isHex(@NotNull String text, int start) {
+        if (start < 0 || start + 6 > text.length()) return false;
+        for (int i = start; i < start + 6; i++) {
+            if (!isHexDigit(text.charAt(i))) return false;
         }
-        return replaced;
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if character is a hexadecimal digit.
+     *
+     * @param   c
+     *          Character to check
+     * @return  {@code true} if character is 0-9, a-f or A-F
+     */
+    public static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
     }
-}
\ No newline at end of file
+}
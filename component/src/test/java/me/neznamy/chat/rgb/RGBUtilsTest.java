@@ -0,0 +1,97 @@
+package me.neznamy.chat.rgb;
+
+import me.neznamy.chat.TextColor;
+import me.neznamy.chat.component.TabComponent;
+import me.neznamy.chat.util.TriFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link RGBUtils}.
+ */
+class RGBUtilsTest {
+
+    /** Gradient function which makes gradient boundaries visible, returns empty string for empty text like TAB's formatter */
+    private static final TriFunction<TextColor, String, TextColor, String> GRADIENT =
+            (start, text, end) -> text.isEmpty() ? "" : "#" + start.getHexCode() + "[" + text + "]#" + end.getHexCode();
+
+    /** RGB function converting codes into TAB's #RRGGBB */
+    private static final Function<TextColor, String> RGB = color -> "#" + color.getHexCode();
+
+    private static String apply(String text) {
+        return RGBUtils.getInstance().applyFormats(text, GRADIENT, RGB);
+    }
+
+    @Test
+    void emptyGradients() {
+        assertEquals("", apply("<#FF0000></#00FF00>"));
+        assertEquals("", apply("{#FF0000>}{#00FF00<}"));
+        assertEquals("", apply("<$#FF0000><$#00FF00>"));
+        assertEquals("", apply("<gradient:#FF0000></gradient:#00FF00>"));
+        assertEquals("§aHi ", apply("§aHi <#FF0000></#00FF00>"));
+        assertEquals("§aHi  there", apply("§aHi {#FF0000>}{#00FF00<} there"));
+    }
+
+    @Test
+    void emptyGradientComponent() {
+        assertEquals("", TabComponent.fromColoredText("<#FF0000></#00FF00>").toLegacyText());
+        assertEquals("§aHi ", TabComponent.fromColoredText("&aHi <#FF0000></#00FF00>").toLegacyText());
+        assertEquals("§aHi ", TabComponent.fromColoredText("&aHi <gradient:#FF0000></gradient:#00FF00>").toLegacyText());
+    }
+
+    @Test
+    void gradients() {
+        assertEquals("#FF0000[Hello]#00FF00", apply("<#FF0000>Hello</#00FF00>"));
+        assertEquals("#FF0000[Hello]#00FF00", apply("{#FF0000>}Hello{#00FF00<}"));
+        assertEquals("#FF0000[Hello]#00FF00", apply("<$#FF0000>Hello<$#00FF00>"));
+        assertEquals("#FF0000[Hello]#00FF00", apply("<gradient:#FF0000>Hello</gradient:#00FF00>"));
+        assertEquals("a#FF0000[b]#00FF00c#0000FF[d]#FFFFFFe", apply("a<#FF0000>b</#00FF00>c<#0000FF>d</#FFFFFF>e"));
+    }
+
+    @Test
+    void rgbCodes() {
+        assertEquals("#FF0000text", apply("§x§F§F§0§0§0§0text"));
+        assertEquals("#FF00AAtext", apply("{#FF00AA}text"));
+        assertEquals("#FF00AAtext", apply("§#FF00AAtext"));
+        assertEquals("#FF00AAtext", apply("#<FF00AA>text"));
+        assertEquals("&#FF00AAtext", apply("&#FF00AAtext"));
+    }
+
+    @Test
+    void cascadesOfPreviousImplementation() {
+        // Bukkit code wrapped in {} used to be converted to CMI code first
+        assertEquals("#FF0000text", apply("{§x§F§F§0§0§0§0}text"));
+        // Lone § before a converted gradient used to form §#RRGGBB
+        assertEquals("#FF0000[ab]#00FF00", apply("§<#FF0000>ab</#00FF00>"));
+        assertEquals("#FF0000[ab]#00FF00", apply("§{#FF0000>}ab{#00FF00<}"));
+    }
+
+    @Test
+    void cmiShortcut() {
+        assertEquals("#123456[ab]#ABCDEF", apply("{#123456>}ab{#ABCDEF<}"));
+        assertEquals("#000000[a]#123456#123456[b]#FFFFFF", apply("{#000000>}a{#123456<>}b{#FFFFFF<}"));
+    }
+
+    /**
+     * Nested gradients of different syntaxes are resolved outermost-first and the inner
+     * syntax becomes a part of the gradient text. The previous implementation applied
+     * syntaxes one after another, so the result depended on the order of passes.
+     */
+    @Test
+    void nestedMixedGradients() {
+        assertEquals("#FF0000[{#00FF00>}inner{#0000FF<}]#FFFFFF", apply("<#FF0000>{#00FF00>}inner{#0000FF<}</#FFFFFF>"));
+        assertEquals("#FF0000[<#00FF00>inner</#0000FF>]#FFFFFF", apply("{#FF0000>}<#00FF00>inner</#0000FF>{#FFFFFF<}"));
+        assertEquals("#FF0000[<#00FF00>ab</#0000FF>]#FFFFFF", apply("<$#FF0000><#00FF00>ab</#0000FF><$#FFFFFF>"));
+        assertEquals("#FF0000[<$#00FF00>ab<$#0000FF>]#FFFFFF", apply("<gradient:#FF0000><$#00FF00>ab<$#0000FF></gradient:#FFFFFF>"));
+        assertEquals("#FF0000[a<gradient:#00FF00>b</gradient:#0000FF>c]#FFFFFF", apply("<#FF0000>a<gradient:#00FF00>b</gradient:#0000FF>c</#FFFFFF>"));
+    }
+
+    @Test
+    void textWithoutFormats() {
+        String text = "Plain text without any format";
+        assertEquals(text, apply(text));
+    }
+}
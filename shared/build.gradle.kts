@@ -1,5 +1,6 @@
 plugins {
     id("net.kyori.blossom") version "1.3.1"
+    id("me.champeau.jmh")
 }
 
 dependencies {
@@ -31,6 +32,13 @@ dependencies {
     }
     implementation("com.saicone.delivery4j:extension-guava:1.1.1")
     compileOnlyApi(files("../libs/necrotempus-1.3.3-api.jar"))
+    testImplementation("com.h2database:h2:2.2.224")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    // Allocation rates are reported together with timings
+    profilers.add("gc")
 }
 
 blossom {
@@ -0,0 +1,420 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.tab.shared.util.accessor.ConstructorAccessor;
+import me.neznamy.tab.shared.util.accessor.FieldAccessor;
+import me.neznamy.tab.shared.util.accessor.MethodAccessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective access with accessors for every packet type Bukkit module creates
+ * or reads. Server classes are not available here, so they are modelled by nested classes
+ * with the same field types and constructor and method signatures. Accessors are stored
+ * in regular fields the same way the Bukkit module stores them, so handles are not
+ * constant for the JIT in either case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+    /** Amount of entries in a player info packet */
+    private static final int ENTRIES = 20;
+
+    private final UUID[] ids = new UUID[ENTRIES];
+    private final Object profile = new Object();
+    private final Object gameMode = new Object();
+    private final Object chatSession = new Object();
+    private final Object displayName = new Object();
+    private final Object scoreboard = new Object();
+    private final Object objective = new Object();
+    private final Optional<Object> numberFormat = Optional.empty();
+    private final Connection connection = new Connection();
+    private final List<PlayerInfoData> playerInfoEntries = new ArrayList<>();
+
+    // Player info
+    private Constructor<?> playerInfoDataConstructor;
+    private Field playerInfoDataId;
+    private Field playerInfoDataProfile;
+    private Field playerInfoDataListed;
+    private Field playerInfoDataLatency;
+    private Field playerInfoDataGameMode;
+    private Field playerInfoDataDisplayName;
+    private Field playerInfoDataShowHat;
+    private Field playerInfoDataListOrder;
+    private Field playerInfoDataChatSession;
+    private ConstructorAccessor newPlayerInfoData;
+    private FieldAccessor PlayerInfoData_Id;
+    private FieldAccessor PlayerInfoData_Profile;
+    private FieldAccessor PlayerInfoData_Listed;
+    private FieldAccessor PlayerInfoData_Latency;
+    private FieldAccessor PlayerInfoData_GameMode;
+    private FieldAccessor PlayerInfoData_DisplayName;
+    private FieldAccessor PlayerInfoData_ShowHat;
+    private FieldAccessor PlayerInfoData_ListOrder;
+    private FieldAccessor PlayerInfoData_ChatSession;
+
+    // Sending
+    private Method sendPacketMethod;
+    private MethodAccessor sendPacket;
+
+    // Team
+    private Constructor<?> teamConstructor;
+    private Field teamAllowFriendlyFire;
+    private Field teamSeeFriendlyInvisibles;
+    private Method teamPacketOf;
+    private Field teamPacketName;
+    private Field teamPacketAction;
+    private ConstructorAccessor newScoreboardTeam;
+    private FieldAccessor ScoreboardTeam_allowFriendlyFire;
+    private FieldAccessor ScoreboardTeam_seeFriendlyInvisibles;
+    private MethodAccessor TeamPacketConstructor_ofBoolean;
+    private FieldAccessor TeamPacket_NAME;
+    private FieldAccessor TeamPacket_ACTION;
+
+    // Objective
+    private Constructor<?> objectivePacketConstructor;
+    private Field objectivePacketName;
+    private Field objectivePacketMethod;
+    private ConstructorAccessor newObjectivePacket;
+    private FieldAccessor Objective_OBJECTIVE_NAME;
+    private FieldAccessor Objective_METHOD;
+
+    // Display
+    private Constructor<?> displayObjectiveConstructor;
+    private Field displayObjectivePosition;
+    private Field displayObjectiveName;
+    private ConstructorAccessor newDisplayObjective;
+    private FieldAccessor DisplayObjective_POSITION;
+    private FieldAccessor DisplayObjective_OBJECTIVE_NAME;
+
+    // Score
+    private Constructor<?> setScoreConstructor;
+    private Field setScoreValue;
+    private ConstructorAccessor newSetScore;
+    private FieldAccessor SetScorePacket_SCORE;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        for (int i = 0; i < ENTRIES; i++) {
+            ids[i] = UUID.randomUUID();
+            playerInfoEntries.add(new PlayerInfoData(ids[i], profile, true, i, gameMode, displayName, true, i, chatSession));
+        }
+        playerInfoDataConstructor = PlayerInfoData.class.getConstructor(UUID.class, Object.class, boolean.class, int.class,
+                Object.class, Object.class, boolean.class, int.class, Object.class);
+        playerInfoDataId = field(PlayerInfoData.class, "id");
+        playerInfoDataProfile = field(PlayerInfoData.class, "profile");
+        playerInfoDataListed = field(PlayerInfoData.class, "listed");
+        playerInfoDataLatency = field(PlayerInfoData.class, "latency");
+        playerInfoDataGameMode = field(PlayerInfoData.class, "gameMode");
+        playerInfoDataDisplayName = field(PlayerInfoData.class, "displayName");
+        playerInfoDataShowHat = field(PlayerInfoData.class, "showHat");
+        playerInfoDataListOrder = field(PlayerInfoData.class, "listOrder");
+        playerInfoDataChatSession = field(PlayerInfoData.class, "chatSession");
+        newPlayerInfoData = new ConstructorAccessor(playerInfoDataConstructor);
+        PlayerInfoData_Id = new FieldAccessor(playerInfoDataId);
+        PlayerInfoData_Profile = new FieldAccessor(playerInfoDataProfile);
+        PlayerInfoData_Listed = new FieldAccessor(playerInfoDataListed);
+        PlayerInfoData_Latency = new FieldAccessor(playerInfoDataLatency);
+        PlayerInfoData_GameMode = new FieldAccessor(playerInfoDataGameMode);
+        PlayerInfoData_DisplayName = new FieldAccessor(playerInfoDataDisplayName);
+        PlayerInfoData_ShowHat = new FieldAccessor(playerInfoDataShowHat);
+        PlayerInfoData_ListOrder = new FieldAccessor(playerInfoDataListOrder);
+        PlayerInfoData_ChatSession = new FieldAccessor(playerInfoDataChatSession);
+
+        sendPacketMethod = Connection.class.getMethod("send", Object.class);
+        sendPacket = new MethodAccessor(sendPacketMethod);
+
+        teamConstructor = ScoreboardTeam.class.getConstructor(Object.class, String.class);
+        teamAllowFriendlyFire = field(ScoreboardTeam.class, "allowFriendlyFire");
+        teamSeeFriendlyInvisibles = field(ScoreboardTeam.class, "seeFriendlyInvisibles");
+        teamPacketOf = TeamPacket.class.getMethod("of", ScoreboardTeam.class, boolean.class);
+        teamPacketName = field(TeamPacket.class, "name");
+        teamPacketAction = field(TeamPacket.class, "action");
+        newScoreboardTeam = new ConstructorAccessor(teamConstructor);
+        ScoreboardTeam_allowFriendlyFire = new FieldAccessor(teamAllowFriendlyFire);
+        ScoreboardTeam_seeFriendlyInvisibles = new FieldAccessor(teamSeeFriendlyInvisibles);
+        TeamPacketConstructor_ofBoolean = new MethodAccessor(teamPacketOf);
+        TeamPacket_NAME = new FieldAccessor(teamPacketName);
+        TeamPacket_ACTION = new FieldAccessor(teamPacketAction);
+
+        objectivePacketConstructor = ObjectivePacket.class.getConstructor(Object.class, int.class);
+        objectivePacketName = field(ObjectivePacket.class, "name");
+        objectivePacketMethod = field(ObjectivePacket.class, "method");
+        newObjectivePacket = new ConstructorAccessor(objectivePacketConstructor);
+        Objective_OBJECTIVE_NAME = new FieldAccessor(objectivePacketName);
+        Objective_METHOD = new FieldAccessor(objectivePacketMethod);
+
+        displayObjectiveConstructor = DisplayObjectivePacket.class.getConstructor(int.class, Object.class);
+        displayObjectivePosition = field(DisplayObjectivePacket.class, "position");
+        displayObjectiveName = field(DisplayObjectivePacket.class, "objectiveName");
+        newDisplayObjective = new ConstructorAccessor(displayObjectiveConstructor);
+        DisplayObjective_POSITION = new FieldAccessor(displayObjectivePosition);
+        DisplayObjective_OBJECTIVE_NAME = new FieldAccessor(displayObjectiveName);
+
+        setScoreConstructor = SetScorePacket.class.getConstructor(String.class, String.class, int.class, Optional.class, Optional.class);
+        setScoreValue = field(SetScorePacket.class, "score");
+        newSetScore = new ConstructorAccessor(setScoreConstructor);
+        SetScorePacket_SCORE = new FieldAccessor(setScoreValue);
+    }
+
+    private static Field field(Class<?> clazz, String name) throws NoSuchFieldException {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    /**
+     * Reads all entries of a player info packet and rebuilds each entry with
+     * a different display name, as done when display names are rewritten.
+     */
+    @Benchmark
+    public void playerInfoReflection(Blackhole blackhole) throws ReflectiveOperationException {
+        for (Object nmsData : playerInfoEntries) {
+            blackhole.consume(playerInfoDataConstructor.newInstance(
+                    playerInfoDataId.get(nmsData),
+                    playerInfoDataProfile.get(nmsData),
+                    playerInfoDataListed.getBoolean(nmsData),
+                    playerInfoDataLatency.getInt(nmsData),
+                    playerInfoDataGameMode.get(nmsData),
+                    playerInfoDataDisplayName.get(nmsData) == null ? null : displayName,
+                    playerInfoDataShowHat.getBoolean(nmsData),
+                    playerInfoDataListOrder.getInt(nmsData),
+                    playerInfoDataChatSession.get(nmsData)
+            ));
+        }
+    }
+
+    @Benchmark
+    public void playerInfoAccessor(Blackhole blackhole) {
+        for (Object nmsData : playerInfoEntries) {
+            blackhole.consume(newPlayerInfoData.newInstance(
+                    PlayerInfoData_Id.get(nmsData),
+                    PlayerInfoData_Profile.get(nmsData),
+                    PlayerInfoData_Listed.getBoolean(nmsData),
+                    PlayerInfoData_Latency.getInt(nmsData),
+                    PlayerInfoData_GameMode.get(nmsData),
+                    PlayerInfoData_DisplayName.get(nmsData) == null ? null : displayName,
+                    PlayerInfoData_ShowHat.getBoolean(nmsData),
+                    PlayerInfoData_ListOrder.getInt(nmsData),
+                    PlayerInfoData_ChatSession.get(nmsData)
+            ));
+        }
+    }
+
+    @Benchmark
+    public void sendPacketReflection() throws ReflectiveOperationException {
+        sendPacketMethod.invoke(connection, objective);
+    }
+
+    @Benchmark
+    public void sendPacketAccessor() {
+        sendPacket.invoke(connection, objective);
+    }
+
+    /**
+     * Creates a team with its options, creates team packet from it and reads the
+     * name and action of the packet, as done when sending and receiving team packets.
+     */
+    @Benchmark
+    public void teamReflection(Blackhole blackhole) throws ReflectiveOperationException {
+        Object team = teamConstructor.newInstance(scoreboard, "team");
+        teamAllowFriendlyFire.set(team, true);
+        teamSeeFriendlyInvisibles.set(team, false);
+        Object packet = teamPacketOf.invoke(null, team, true);
+        blackhole.consume(teamPacketName.get(packet));
+        blackhole.consume(teamPacketAction.getInt(packet));
+    }
+
+    @Benchmark
+    public void teamAccessor(Blackhole blackhole) {
+        Object team = newScoreboardTeam.newInstance(scoreboard, "team");
+        ScoreboardTeam_allowFriendlyFire.set(team, true);
+        ScoreboardTeam_seeFriendlyInvisibles.set(team, false);
+        Object packet = TeamPacketConstructor_ofBoolean.invoke(null, team, true);
+        blackhole.consume(TeamPacket_NAME.get(packet));
+        blackhole.consume(TeamPacket_ACTION.getInt(packet));
+    }
+
+    @Benchmark
+    public void objectiveReflection(Blackhole blackhole) throws ReflectiveOperationException {
+        Object packet = objectivePacketConstructor.newInstance(objective, 0);
+        blackhole.consume(objectivePacketName.get(packet));
+        blackhole.consume(objectivePacketMethod.getInt(packet));
+    }
+
+    @Benchmark
+    public void objectiveAccessor(Blackhole blackhole) {
+        Object packet = newObjectivePacket.newInstance(objective, 0);
+        blackhole.consume(Objective_OBJECTIVE_NAME.get(packet));
+        blackhole.consume(Objective_METHOD.getInt(packet));
+    }
+
+    @Benchmark
+    public void displayReflection(Blackhole blackhole) throws ReflectiveOperationException {
+        Object packet = displayObjectiveConstructor.newInstance(1, objective);
+        blackhole.consume(displayObjectivePosition.getInt(packet));
+        blackhole.consume(displayObjectiveName.get(packet));
+    }
+
+    @Benchmark
+    public void displayAccessor(Blackhole blackhole) {
+        Object packet = newDisplayObjective.newInstance(1, objective);
+        blackhole.consume(DisplayObjective_POSITION.getInt(packet));
+        blackhole.consume(DisplayObjective_OBJECTIVE_NAME.get(packet));
+    }
+
+    @Benchmark
+    public void scoreReflection(Blackhole blackhole) throws ReflectiveOperationException {
+        Object packet = setScoreConstructor.newInstance("holder", "objective", 5, numberFormat, numberFormat);
+        blackhole.consume(setScoreValue.getInt(packet));
+    }
+
+    @Benchmark
+    public void scoreAccessor(Blackhole blackhole) {
+        Object packet = newSetScore.newInstance("holder", "objective", 5, numberFormat, numberFormat);
+        blackhole.consume(SetScorePacket_SCORE.getInt(packet));
+    }
+
+    /**
+     * Model of ClientboundPlayerInfoUpdatePacket.Entry in 1.21.4+.
+     */
+    @SuppressWarnings("unused")
+    public static class PlayerInfoData {
+
+        private final UUID id;
+        private final Object profile;
+        private final boolean listed;
+        private final int latency;
+        private final Object gameMode;
+        private final Object displayName;
+        private final boolean showHat;
+        private final int listOrder;
+        private final Object chatSession;
+
+        public PlayerInfoData(UUID id, Object profile, boolean listed, int latency, Object gameMode,
+                              Object displayName, boolean showHat, int listOrder, Object chatSession) {
+            this.id = id;
+            this.profile = profile;
+            this.listed = listed;
+            this.latency = latency;
+            this.gameMode = gameMode;
+            this.displayName = displayName;
+            this.showHat = showHat;
+            this.listOrder = listOrder;
+            this.chatSession = chatSession;
+        }
+    }
+
+    /**
+     * Model of player connection.
+     */
+    public static class Connection {
+
+        /** Amount of sent packets, so sending cannot be optimized away */
+        private int sent;
+
+        public void send(Object packet) {
+            if (packet != null) sent++;
+        }
+    }
+
+    /**
+     * Model of scoreboard team.
+     */
+    @SuppressWarnings("unused")
+    public static class ScoreboardTeam {
+
+        private final Object scoreboard;
+        private final String name;
+        private final Set<String> players = new HashSet<>();
+        private boolean allowFriendlyFire;
+        private boolean seeFriendlyInvisibles;
+
+        public ScoreboardTeam(Object scoreboard, String name) {
+            this.scoreboard = scoreboard;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Model of team packet.
+     */
+    @SuppressWarnings("unused")
+    public static class TeamPacket {
+
+        private final String name;
+        private final int action;
+        private final Collection<String> players;
+
+        private TeamPacket(String name, int action, Collection<String> players) {
+            this.name = name;
+            this.action = action;
+            this.players = players;
+        }
+
+        public static TeamPacket of(ScoreboardTeam team, boolean create) {
+            return new TeamPacket(team.name, create ? 0 : 2, create ? new ArrayList<>(team.players) : Collections.emptyList());
+        }
+    }
+
+    /**
+     * Model of objective packet.
+     */
+    @SuppressWarnings("unused")
+    public static class ObjectivePacket {
+
+        private final String name;
+        private final int method;
+
+        public ObjectivePacket(Object objective, int method) {
+            this.name = "objective";
+            this.method = method;
+        }
+    }
+
+    /**
+     * Model of display objective packet before 1.20.2.
+     */
+    @SuppressWarnings("unused")
+    public static class DisplayObjectivePacket {
+
+        private final int position;
+        private final String objectiveName;
+
+        public DisplayObjectivePacket(int position, Object objective) {
+            this.position = position;
+            this.objectiveName = "objective";
+        }
+    }
+
+    /**
+     * Model of set score packet in 1.20.5+.
+     */
+    @SuppressWarnings("unused")
+    public static class SetScorePacket {
+
+        private final String owner;
+        private final String objectiveName;
+        private final int score;
+        private final Optional<?> display;
+        private final Optional<?> numberFormat;
+
+        public SetScorePacket(String owner, String objectiveName, int score, Optional<?> display, Optional<?> numberFormat) {
+            this.owner = owner;
+            this.objectiveName = objectiveName;
+            this.score = score;
+            this.display = display;
+            this.numberFormat = numberFormat;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package me.neznamy.tab.shared.benchmark;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.neznamy.chat.component.TabComponent;
+import me.neznamy.tab.shared.GroupManager;
+import me.neznamy.tab.shared.ProtocolVersion;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants;
+import me.neznamy.tab.shared.features.PerWorldPlayerListConfiguration;
+import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
+import me.neznamy.tab.shared.features.injection.PipelineInjector;
+import me.neznamy.tab.shared.features.proxy.ProxySupport;
+import me.neznamy.tab.shared.features.types.TabFeature;
+import me.neznamy.tab.shared.placeholders.expansion.EmptyTabExpansion;
+import me.neznamy.tab.shared.placeholders.expansion.TabExpansion;
+import me.neznamy.tab.shared.platform.BossBar;
+import me.neznamy.tab.shared.platform.Platform;
+import me.neznamy.tab.shared.platform.Scoreboard;
+import me.neznamy.tab.shared.platform.TabList;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import me.neznamy.tab.shared.platform.decorators.TrackedTabList;
+import me.neznamy.tab.shared.platform.impl.DummyBossBar;
+import me.neznamy.tab.shared.platform.impl.DummyScoreboard;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.UUID;
+
+/**
+ * Platform without a server, which loads the plugin with default configuration
+ * and given amount of fake online players, so benchmarks can run real features.
+ * All packets are discarded.
+ */
+public class BenchmarkPlatform implements Platform {
+
+    /** Amount of players to load */
+    private final int playerCount;
+
+    /** Temporary data folder with default configuration files */
+    @Getter
+    private final File dataFolder;
+
+    private BenchmarkPlatform(int playerCount, @NotNull File dataFolder) {
+        this.playerCount = playerCount;
+        this.dataFolder = dataFolder;
+    }
+
+    /**
+     * Loads the plugin with given amount of online players.
+     *
+     * @param   playerCount
+     *          Amount of online players
+     * @return  Loaded plugin instance
+     * @throws  Exception
+     *          If the data folder could not be created
+     */
+    @NotNull
+    public static TAB load(int playerCount) throws Exception {
+        File dataFolder = Files.createTempDirectory("tab-benchmark").toFile();
+        TAB.create(new BenchmarkPlatform(playerCount, dataFolder));
+        if (TAB.getInstance().isPluginDisabled()) {
+            throw new IllegalStateException("Plugin failed to load, see " + new File(dataFolder, "errors.log"));
+        }
+        return TAB.getInstance();
+    }
+
+    /**
+     * Unloads the plugin.
+     */
+    public static void unload() {
+        TAB.getInstance().unload();
+    }
+
+    @Override
+    @NotNull
+    public GroupManager detectPermissionPlugin() {
+        return new GroupManager("None", player -> TabConstants.NO_GROUP);
+    }
+
+    @Override
+    public void registerUnknownPlaceholder(@NotNull String identifier) {
+        PlaceholderManagerImpl manager = TAB.getInstance().getPlaceholderManager();
+        manager.registerPlayerPlaceholder(identifier, manager.getRefreshInterval(identifier), player -> identifier);
+    }
+
+    @Override
+    public void loadPlayers() {
+        for (int i = 0; i < playerCount; i++) {
+            TAB.getInstance().addPlayer(new Player(this, "Player" + i));
+        }
+    }
+
+    @Override
+    public void registerPlaceholders() {
+        // No platform placeholders
+    }
+
+    @Override
+    @Nullable
+    public PipelineInjector createPipelineInjector() {
+        return null;
+    }
+
+    @Override
+    @NotNull
+    public TabExpansion createTabExpansion() {
+        return new EmptyTabExpansion();
+    }
+
+    @Override
+    @Nullable
+    public ProxySupport getProxySupport(@NotNull String plugin) {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public TabFeature getPerWorldPlayerList(@NotNull PerWorldPlayerListConfiguration configuration) {
+        return null;
+    }
+
+    @Override
+    public void logInfo(@NotNull TabComponent message) {
+        // Keep benchmark output clean
+    }
+
+    @Override
+    public void logWarn(@NotNull TabComponent message) {
+        System.err.println("[TAB] " + message.toLegacyText());
+    }
+
+    @Override
+    public String getServerVersionInfo() {
+        return "Benchmark";
+    }
+
+    @Override
+    public void registerListener() {
+        // No server events
+    }
+
+    @Override
+    public void registerCommand() {
+        // No commands
+    }
+
+    @Override
+    public void startMetrics() {
+        // No metrics
+    }
+
+    @Override
+    public boolean isProxy() {
+        return false;
+    }
+
+    @Override
+    @NotNull
+    public Object convertComponent(@NotNull TabComponent component) {
+        return component;
+    }
+
+    @Override
+    @NotNull
+    public Scoreboard createScoreboard(@NotNull TabPlayer player) {
+        return new DummyScoreboard(player);
+    }
+
+    @Override
+    @NotNull
+    public BossBar createBossBar(@NotNull TabPlayer player) {
+        return new DummyBossBar();
+    }
+
+    @Override
+    @NotNull
+    public TabList createTabList(@NotNull TabPlayer player) {
+        return new DiscardingTabList(player);
+    }
+
+    @Override
+    public boolean supportsNumberFormat() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsListOrder() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsScoreboards() {
+        return true;
+    }
+
+    @Override
+    @NotNull
+    public String getCommand() {
+        return "tab";
+    }
+
+    /**
+     * Fake online player.
+     */
+    private static class Player extends TabPlayer {
+
+        @NotNull
+        private final BenchmarkPlatform platform;
+
+        private Player(@NotNull BenchmarkPlatform platform, @NotNull String name) {
+            super(platform, name, UUID.nameUUIDFromBytes(name.getBytes()), name, "server", "world",
+                    ProtocolVersion.LATEST_KNOWN_VERSION.getNetworkId(), true);
+            this.platform = platform;
+        }
+
+        @Override
+        public boolean isDisguised() {
+            return false;
+        }
+
+        @Override
+        public boolean hasInvisibilityPotion() {
+            return false;
+        }
+
+        @Override
+        public boolean isVanished() {
+            return false;
+        }
+
+        @Override
+        public int getGamemode() {
+            return 0;
+        }
+
+        @Override
+        public int getPing() {
+            return 0;
+        }
+
+        @Override
+        @Nullable
+        public TabList.Skin getSkin() {
+            return null;
+        }
+
+        @Override
+        public void sendMessage(@NotNull TabComponent message) {
+            // Discard
+        }
+
+        @Override
+        public boolean hasPermission(@NotNull String permission) {
+            return false;
+        }
+
+        @Override
+        @NotNull
+        public Object getPlayer() {
+            return getName();
+        }
+
+        @Override
+        @NotNull
+        public BenchmarkPlatform getPlatform() {
+            return platform;
+        }
+    }
+
+    /**
+     * TabList discarding all updates.
+     */
+    private static class DiscardingTabList extends TrackedTabList<TabPlayer> {
+
+        private DiscardingTabList(@NonNull TabPlayer player) {
+            super(player);
+        }
+
+        @Override
+        public void updateDisplayName0(@NonNull UUID entry, @Nullable TabComponent displayName) {
+            // Discard
+        }
+
+        @Override
+        public void addEntry0(@NonNull Entry entry) {
+            // Discard
+        }
+
+        @Override
+        public void removeEntry(@NonNull UUID entry) {
+            // Discard
+        }
+
+        @Override
+        public void updateLatency(@NonNull UUID entry, int latency) {
+            // Discard
+        }
+
+        @Override
+        public void updateGameMode(@NonNull UUID entry, int gameMode) {
+            // Discard
+        }
+
+        @Override
+        public void updateListed(@NonNull UUID entry, boolean listed) {
+            // Discard
+        }
+
+        @Override
+        public void updateListOrder(@NonNull UUID entry, int listOrder) {
+            // Discard
+        }
+
+        @Override
+        public void updateHat(@NonNull UUID entry, boolean showHat) {
+            // Discard
+        }
+
+        @Override
+        public boolean containsEntry(@NonNull UUID entry) {
+            return true;
+        }
+
+        @Override
+        public void setPlayerListHeaderFooter(@NonNull TabComponent header, @NonNull TabComponent footer) {
+            // Discard
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package me.neznamy.tab.shared.benchmark;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteStreams;
+import me.neznamy.tab.shared.proxy.message.outgoing.ExpansionPlaceholder;
+import me.neznamy.tab.shared.proxy.message.outgoing.MergeableMessage;
+import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trip of expansion placeholder values a proxy sends to the bridge
+ * of one player within one tick, from encoding the plugin messages to decoding them
+ * and storing the values as the bridge does. Messages are sent once the previous way,
+ * each encoded as soon as it is created, and once through the merging of
+ * OutgoingMessageQueue, where only the latest value of each placeholder is encoded.
+ * Scheduling of the flush and sending are not included, as they are the same for both.
+ * <p>
+ * Encoded messages and bytes are reported as totals of all operations, divide them
+ * by the amount of operations to get values per operation.
+ */
+@SuppressWarnings("UnstableApiUsage")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BridgeMessageBenchmark {
+
+    /** Amount of placeholders used in the expansion */
+    private static final int PLACEHOLDERS = 20;
+
+    /** How many times each placeholder changes value within one tick */
+    @Param({"1", "5"})
+    public int updates;
+
+    /** Messages created within one tick in the order they were created */
+    private final List<OutgoingMessage> created = new ArrayList<>();
+
+    /** Placeholder values stored by the bridge */
+    private final Map<String, String> values = new HashMap<>();
+
+    @Setup
+    public void setup() {
+        for (int update = 0; update < updates; update++) {
+            for (int i = 0; i < PLACEHOLDERS; i++) {
+                created.add(new ExpansionPlaceholder("%placeholder_" + i + "%", "Value " + update));
+            }
+        }
+    }
+
+    /**
+     * Counts encoded messages and their size.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Traffic {
+
+        public long messages;
+        public long bytes;
+    }
+
+    @Benchmark
+    public Map<String, String> perMessage(Traffic traffic) {
+        for (OutgoingMessage message : created) {
+            roundTrip(traffic, message);
+        }
+        return values;
+    }
+
+    @Benchmark
+    public Map<String, String> queued(Traffic traffic) {
+        List<OutgoingMessage> messages = new ArrayList<>();
+        Map<Class<?>, Map<Object, Integer>> lastIndexes = new HashMap<>();
+        for (OutgoingMessage message : created) {
+            if (message instanceof MergeableMessage && merge(messages, lastIndexes, (MergeableMessage) message)) continue;
+            messages.add(message);
+        }
+        for (OutgoingMessage message : messages) {
+            if (message == null) continue;
+            roundTrip(traffic, message);
+        }
+        return values;
+    }
+
+    /**
+     * Copy of merging in OutgoingMessageQueue.
+     */
+    private boolean merge(List<OutgoingMessage> messages, Map<Class<?>, Map<Object, Integer>> lastIndexes, MergeableMessage message) {
+        Map<Object, Integer> indexes = lastIndexes.computeIfAbsent(message.getClass(), c -> new HashMap<>());
+        Integer index = indexes.put(message.getMergeKey(), messages.size());
+        if (index == null) return false;
+        OutgoingMessage merged = message.mergeInto(messages.get(index));
+        if (merged == null) return false;
+        messages.set(index, null);
+        messages.add(merged);
+        return true;
+    }
+
+    private void roundTrip(Traffic traffic, OutgoingMessage message) {
+        byte[] bytes = message.write().toByteArray();
+        traffic.messages++;
+        traffic.bytes += bytes.length;
+        ByteArrayDataInput in = ByteStreams.newDataInput(bytes);
+        if (!in.readUTF().equals("Expansion")) throw new IllegalStateException("Unexpected message");
+        values.put(in.readUTF(), in.readUTF());
+    }
+}
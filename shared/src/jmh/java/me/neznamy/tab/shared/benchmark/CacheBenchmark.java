@@ -0,0 +1,67 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.tab.shared.util.cache.Cache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures lookups of a cache from 4 threads at once, once with all requested values
+ * cached and once with requested values 100 times exceeding the cache size, so nearly
+ * every lookup converts the value and evicts another one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CacheBenchmark {
+
+    /** Maximum amount of cached values */
+    private static final int CACHE_SIZE = 1000;
+
+    /** Keys requested by lookups which miss, created in advance to not measure boxing */
+    private static final Integer[] KEYS = new Integer[CACHE_SIZE * 100];
+
+    static {
+        for (int i = 0; i < KEYS.length; i++) {
+            KEYS[i] = i;
+        }
+    }
+
+    private Cache<Integer, String> cache;
+
+    @Setup
+    public void setup() {
+        cache = new Cache<>("Benchmark", CACHE_SIZE, String::valueOf);
+    }
+
+    /**
+     * Position of a thread in requested keys.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int index;
+
+        @Setup
+        public void setup() {
+            // Start threads at different keys
+            index = (int) (Thread.currentThread().getId() * 7919 % KEYS.length);
+        }
+    }
+
+    @Benchmark
+    public String hit(Cursor cursor) {
+        cursor.index = (cursor.index + 1) % CACHE_SIZE;
+        return cache.get(KEYS[cursor.index]);
+    }
+
+    @Benchmark
+    public String miss(Cursor cursor) {
+        cursor.index = (cursor.index + 1) % KEYS.length;
+        return cache.get(KEYS[cursor.index]);
+    }
+}
@@ -0,0 +1,85 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.chat.EnumChatFormat;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Copy of the {@code String.format}-based placeholder replacement Property used before
+ * compiled templates, kept as a baseline for {@link PropertyBenchmark}. Relational
+ * placeholders, listeners and expansion are left out, as they are not measured.
+ */
+public class FormatProperty {
+
+    @NotNull private final TabPlayer owner;
+    @NotNull private final String[] placeholders;
+    @NotNull private final String rawFormattedValue;
+    @NotNull private String lastReplacedValue;
+
+    /**
+     * Prepares the value for String formatter the way the previous implementation did.
+     *
+     * @param   owner
+     *          Player the text belongs to
+     * @param   value
+     *          Raw value using raw placeholder identifiers
+     */
+    public FormatProperty(@NotNull TabPlayer owner, @NotNull String value) {
+        this.owner = owner;
+        List<String> placeholders0 = PlaceholderManagerImpl.detectPlaceholders(value);
+        String rawFormattedValue0 = value;
+        for (String placeholder : placeholders0) {
+            int index = rawFormattedValue0.indexOf(placeholder);
+            rawFormattedValue0 = rawFormattedValue0.substring(0, index) + "%s" + rawFormattedValue0.substring(index + placeholder.length());
+        }
+        if (!placeholders0.isEmpty() && rawFormattedValue0.contains("%")) {
+            int index = rawFormattedValue0.lastIndexOf('%');
+            if (rawFormattedValue0.length() == index+1 || rawFormattedValue0.charAt(index+1) != 's') {
+                rawFormattedValue0 = new StringBuilder(rawFormattedValue0).insert(index+1, "%").toString();
+            }
+        }
+        placeholders = placeholders0.toArray(new String[0]);
+        rawFormattedValue = EnumChatFormat.color(rawFormattedValue0);
+        lastReplacedValue = rawFormattedValue;
+        update();
+    }
+
+    /**
+     * Replaces all placeholders using String formatter and colorizes the result.
+     *
+     * @return  if updating changed value or not
+     */
+    public boolean update() {
+        if (placeholders.length == 0) return false;
+        String string;
+        if ("%s".equals(rawFormattedValue)) {
+            string = TAB.getInstance().getPlaceholderManager().getPlaceholder(placeholders[0]).set(placeholders[0], owner);
+        } else {
+            Object[] values = new String[placeholders.length];
+            for (int i=0; i<placeholders.length; i++) {
+                values[i] = TAB.getInstance().getPlaceholderManager().getPlaceholder(placeholders[i]).set(placeholders[i], owner);
+            }
+            string = String.format(rawFormattedValue, values);
+        }
+        string = EnumChatFormat.color(string);
+        if (!lastReplacedValue.equals(string)) {
+            lastReplacedValue = string;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns last known value.
+     *
+     * @return  last known value
+     */
+    @NotNull
+    public String get() {
+        return lastReplacedValue;
+    }
+}
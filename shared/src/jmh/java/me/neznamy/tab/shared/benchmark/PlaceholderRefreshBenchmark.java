@@ -0,0 +1,99 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.tab.api.placeholder.Placeholder;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshBuffer;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshEngine;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshTask;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one full placeholder refresh of the refresh engine, from acquiring
+ * buffers to processing changed values in the processing thread, with half of
+ * the placeholders changing their value on every refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderRefreshBenchmark {
+
+    /** Amount of player placeholders refreshed, plus one server placeholder */
+    private static final int PLACEHOLDERS = 10;
+
+    /** Values returned by changing placeholders */
+    private static final String[] VALUES = {"&aOnline", "&cOffline"};
+
+    @Param({"100", "500", "1000"})
+    public int players;
+
+    private TAB tab;
+    private PlaceholderRefreshEngine engine;
+    private final List<Placeholder> placeholders = new ArrayList<>();
+    private final List<PlaceholderRefreshBuffer> buffers = new ArrayList<>();
+
+    /** Released once results of a refresh were processed */
+    private final Semaphore processed = new Semaphore(0);
+
+    /** Incremented on every refresh to change values of half of the placeholders */
+    private volatile int tick;
+
+    /** Amount of changed values seen, so processing cannot be optimized away */
+    public int changed;
+
+    @Setup
+    public void setup() throws Exception {
+        tab = BenchmarkPlatform.load(players);
+        engine = new PlaceholderRefreshEngine(tab.getCpu(), "Benchmark", 1000);
+        for (int i = 0; i < PLACEHOLDERS; i++) {
+            boolean changing = i % 2 == 0;
+            placeholders.add(new PlayerPlaceholderImpl("%benchmark_" + i + "%", 50,
+                    player -> changing ? VALUES[tick & 1] : player.getName()));
+        }
+        placeholders.add(new ServerPlaceholderImpl("%benchmark_server%", 50, () -> VALUES[tick & 1]));
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkPlatform.unload();
+    }
+
+    @Benchmark
+    public void refresh() throws InterruptedException {
+        tick++;
+        buffers.clear();
+        for (Placeholder placeholder : placeholders) {
+            PlaceholderRefreshBuffer buffer;
+            while ((buffer = engine.tryAcquire(placeholder)) == null) {
+                // Previous refresh is still releasing its buffers in the processing thread
+                Thread.yield();
+            }
+            buffers.add(buffer);
+        }
+        engine.refresh(buffers, tab.getOnlinePlayers(), this::process);
+        processed.acquire();
+    }
+
+    private void process(PlaceholderRefreshTask task) {
+        for (PlaceholderRefreshBuffer buffer : task.getCompleted()) {
+            if (buffer.getPlaceholder() instanceof ServerPlaceholderImpl) {
+                if (buffer.pollServerValue() != null) changed++;
+                continue;
+            }
+            for (TabPlayer player : task.getPlayers()) {
+                if (buffer.pollPlayerValue(player) != null) changed++;
+            }
+        }
+        processed.release();
+    }
+}
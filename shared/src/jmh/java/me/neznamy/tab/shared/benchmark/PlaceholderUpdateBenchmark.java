@@ -0,0 +1,101 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
+import me.neznamy.tab.shared.features.types.RefreshableFeature;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one refresh loop of placeholder manager in which a server placeholder
+ * used by several features changes value, from requesting the value to refreshing
+ * all features for all online players. Uses a separate placeholder manager,
+ * so the refresh loop of the loaded plugin does not interfere.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlaceholderUpdateBenchmark {
+
+    /** Amount of features using the placeholder */
+    private static final int FEATURES = 5;
+
+    /** Values returned by the placeholder */
+    private static final String[] VALUES = {"99", "100"};
+
+    @Param({"100", "500", "1000"})
+    public int players;
+
+    private Method refresh;
+    private PlaceholderManagerImpl manager;
+
+    /** Released once for every refreshed player of every feature */
+    private final Semaphore refreshed = new Semaphore(0);
+
+    /** Incremented on every loop to change value of the placeholder */
+    private volatile int tick;
+
+    @Setup
+    public void setup() throws Exception {
+        TAB tab = BenchmarkPlatform.load(players);
+        manager = new PlaceholderManagerImpl(tab.getCpu(), tab.getConfiguration().getConfig().getRefresh());
+        manager.registerServerPlaceholder("%benchmark_online%", 50, () -> VALUES[tick & 1]);
+        for (int i = 0; i < FEATURES; i++) {
+            manager.addUsedPlaceholder("%benchmark_online%", new Feature("Feature " + i));
+        }
+        refresh = PlaceholderManagerImpl.class.getDeclaredMethod("refresh");
+        refresh.setAccessible(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkPlatform.unload();
+    }
+
+    @Benchmark
+    public void serverPlaceholderChange() throws Exception {
+        tick++;
+        refresh.invoke(manager);
+        while (!refreshed.tryAcquire(players * FEATURES, 10, TimeUnit.MILLISECONDS)) {
+            // Features are refreshed before buffer of the previous loop is released, retry if it was skipped
+            refresh.invoke(manager);
+        }
+    }
+
+    /**
+     * Feature counting its refreshes.
+     */
+    private class Feature extends RefreshableFeature {
+
+        private final String name;
+
+        private Feature(@NotNull String name) {
+            this.name = name;
+        }
+
+        @Override
+        @NotNull
+        public String getFeatureName() {
+            return name;
+        }
+
+        @Override
+        @NotNull
+        public String getRefreshDisplayName() {
+            return "Refreshing";
+        }
+
+        @Override
+        public void refresh(@NotNull TabPlayer refreshed, boolean force) {
+            PlaceholderUpdateBenchmark.this.refreshed.release();
+        }
+    }
+}
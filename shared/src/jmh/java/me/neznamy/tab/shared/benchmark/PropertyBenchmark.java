@@ -0,0 +1,73 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.tab.shared.Property;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares updating a property using its compiled template with the previous
+ * {@code String.format} path, once with a placeholder changing value before
+ * every update and once with no placeholder changing value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyBenchmark {
+
+    /** Values of the changing placeholder */
+    private static final String[] RANKS = {"&bAdmin", "&aMember"};
+
+    @Param({
+            "&7[%benchmark_rank%&7] &f",
+            "&8[&7Ping: &a%benchmark_ping%ms&8] %benchmark_rank% &7| &f%benchmark_name%"
+    })
+    public String text;
+
+    @Param({"true", "false"})
+    public boolean changing;
+
+    private TabPlayer player;
+    private PlayerPlaceholderImpl rank;
+    private Property property;
+    private FormatProperty formatProperty;
+
+    /** Incremented on every update to change value of the placeholder */
+    private int tick;
+
+    @Setup
+    public void setup() throws Exception {
+        TAB tab = BenchmarkPlatform.load(1);
+        player = tab.getOnlinePlayers()[0];
+        rank = tab.getPlaceholderManager().registerPlayerPlaceholder("%benchmark_rank%", -1, p -> RANKS[0]);
+        tab.getPlaceholderManager().registerPlayerPlaceholder("%benchmark_ping%", -1, p -> "37");
+        tab.getPlaceholderManager().registerPlayerPlaceholder("%benchmark_name%", -1, p -> p.getName());
+        property = new Property(null, player, text);
+        formatProperty = new FormatProperty(player, text);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkPlatform.unload();
+    }
+
+    @Benchmark
+    public String template() {
+        if (changing) rank.hasValueChanged(player, RANKS[++tick & 1], false);
+        property.update();
+        return property.get();
+    }
+
+    @Benchmark
+    public String format() {
+        if (changing) rank.hasValueChanged(player, RANKS[++tick & 1], false);
+        formatProperty.update();
+        return formatProperty.get();
+    }
+}
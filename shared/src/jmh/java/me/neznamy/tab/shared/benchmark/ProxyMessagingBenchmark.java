@@ -0,0 +1,190 @@
+package me.neznamy.tab.shared.benchmark;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import me.neznamy.tab.shared.features.proxy.message.ProxyMessage;
+import me.neznamy.tab.shared.features.proxy.message.ServerSwitch;
+import me.neznamy.tab.shared.features.proxy.message.UpdateVanishStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures messages one proxy of a 5-proxy network with 5000 players sends within
+ * one batch interval and the work the other 4 proxies do to read them. Every player
+ * of the proxy switches server twice and updates vanish status once. Messages are
+ * encoded once the previous way, each as its own Base64 message with proxy UUID and
+ * action name as strings, and once the current way, in binary batches of up to 32 KiB
+ * with numeric message ids, where superseded updates are dropped on receipt.
+ * Transport and message processing are not included, as they are the same for both.
+ * <p>
+ * Published messages, bytes and processed messages are reported as totals of all
+ * operations, divide them by the amount of operations to get values per operation.
+ */
+@SuppressWarnings("UnstableApiUsage")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyMessagingBenchmark {
+
+    /** Amount of proxies in the network */
+    private static final int PROXIES = 5;
+
+    /** Amount of players in the network */
+    private static final int PLAYERS = 5000;
+
+    /** Format version of batches, same as in ProxySupport */
+    private static final byte PROTOCOL_VERSION = 2;
+
+    /** Batch size causing the batch to be sent, same as in ProxySupport */
+    private static final int MAX_BATCH_SIZE = 32 * 1024;
+
+    private final UUID proxy = UUID.randomUUID();
+    private final String proxyString = proxy.toString();
+
+    /** UUIDs of the other proxies receiving the messages */
+    private final UUID[] receivers = new UUID[PROXIES - 1];
+    private final Map<String, Supplier<ProxyMessage>> messagesByName = new HashMap<>();
+    private final Map<Class<? extends ProxyMessage>, String> classNames = new HashMap<>();
+    private final Map<Integer, Supplier<ProxyMessage>> messagesById = new HashMap<>();
+    private final Map<Class<? extends ProxyMessage>, Integer> classIds = new HashMap<>();
+
+    /** Messages sent by the proxy within one batch interval */
+    private final List<ProxyMessage> sent = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        register("server", ServerSwitch.class, ServerSwitch::new);
+        register("vanish", UpdateVanishStatus.class, UpdateVanishStatus::new);
+        for (int i = 0; i < receivers.length; i++) {
+            receivers[i] = UUID.randomUUID();
+        }
+        for (int i = 0; i < PLAYERS / PROXIES; i++) {
+            UUID player = UUID.randomUUID();
+            sent.add(new ServerSwitch(player, "lobby-" + (i % 4)));
+            sent.add(new UpdateVanishStatus(player, i % 10 == 0));
+            sent.add(new ServerSwitch(player, "survival-" + (i % 4)));
+        }
+    }
+
+    private void register(String name, Class<? extends ProxyMessage> clazz, Supplier<ProxyMessage> supplier) {
+        messagesByName.put(name, supplier);
+        classNames.put(clazz, name);
+        messagesById.put(name.hashCode(), supplier);
+        classIds.put(clazz, name.hashCode());
+    }
+
+    /**
+     * Counts published messages, their size and messages processed by receivers.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Traffic {
+
+        public long published;
+        public long bytes;
+        public long processed;
+
+        private void publish(String message) {
+            published++;
+            bytes += message.length();
+        }
+    }
+
+    @Benchmark
+    public void perMessage(Traffic traffic, Blackhole blackhole) {
+        List<String> published = new ArrayList<>();
+        for (ProxyMessage message : sent) {
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            out.writeUTF(proxyString);
+            out.writeUTF(classNames.get(message.getClass()));
+            message.write(out);
+            String encoded = Base64.getEncoder().encodeToString(out.toByteArray());
+            traffic.publish(encoded);
+            published.add(encoded);
+        }
+        for (UUID receiver : receivers) {
+            for (String msg : published) {
+                ByteArrayDataInput in = ByteStreams.newDataInput(Base64.getDecoder().decode(msg));
+                if (in.readUTF().equals(receiver.toString())) continue; // Message coming from current proxy
+                ProxyMessage proxyMessage = messagesByName.get(in.readUTF()).get();
+                proxyMessage.read(in);
+                blackhole.consume(proxyMessage);
+                traffic.processed++;
+            }
+        }
+    }
+
+    @Benchmark
+    public void batched(Traffic traffic, Blackhole blackhole) {
+        List<String> published = new ArrayList<>();
+        ByteArrayDataOutput batch = ByteStreams.newDataOutput();
+        int batchCount = 0;
+        int batchSize = 0;
+        for (ProxyMessage message : sent) {
+            ByteArrayDataOutput content = ByteStreams.newDataOutput();
+            message.write(content);
+            byte[] bytes = content.toByteArray();
+            batch.writeInt(classIds.get(message.getClass()));
+            batch.writeInt(bytes.length);
+            batch.write(bytes);
+            batchCount++;
+            batchSize += bytes.length;
+            if (batchSize >= MAX_BATCH_SIZE) {
+                published.add(encodeBatch(traffic, batch, batchCount));
+                batch = ByteStreams.newDataOutput();
+                batchCount = 0;
+                batchSize = 0;
+            }
+        }
+        if (batchCount > 0) published.add(encodeBatch(traffic, batch, batchCount));
+        for (UUID receiver : receivers) {
+            for (String msg : published) {
+                ByteArrayDataInput in = ByteStreams.newDataInput(Base64.getDecoder().decode(msg));
+                if (in.readByte() != PROTOCOL_VERSION) throw new IllegalStateException("Unexpected format version");
+                if (receiver.equals(new UUID(in.readLong(), in.readLong()))) continue; // Message coming from current proxy
+                int count = in.readInt();
+                List<ProxyMessage> received = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int id = in.readInt();
+                    byte[] content = new byte[in.readInt()];
+                    in.readFully(content);
+                    ProxyMessage proxyMessage = messagesById.get(id).get();
+                    proxyMessage.read(ByteStreams.newDataInput(content));
+                    received.add(proxyMessage);
+                }
+                Set<List<Object>> updatedStates = new HashSet<>();
+                for (int i = received.size() - 1; i >= 0; i--) {
+                    Object key = received.get(i).getCollapseKey();
+                    if (key != null && !updatedStates.add(Arrays.asList(received.get(i).getClass(), key))) {
+                        received.set(i, null); // Superseded by a later message in the batch
+                    }
+                }
+                for (ProxyMessage proxyMessage : received) {
+                    if (proxyMessage == null) continue;
+                    blackhole.consume(proxyMessage);
+                    traffic.processed++;
+                }
+            }
+        }
+    }
+
+    private String encodeBatch(Traffic traffic, ByteArrayDataOutput batch, int batchCount) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeByte(PROTOCOL_VERSION);
+        out.writeLong(proxy.getMostSignificantBits());
+        out.writeLong(proxy.getLeastSignificantBits());
+        out.writeInt(batchCount);
+        out.write(batch.toByteArray());
+        String encoded = Base64.getEncoder().encodeToString(out.toByteArray());
+        traffic.publish(encoded);
+        return encoded;
+    }
+}
@@ -0,0 +1,63 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.chat.EnumChatFormat;
+import me.neznamy.chat.TextColor;
+import me.neznamy.chat.component.TabComponent;
+import me.neznamy.chat.rgb.RGBUtils;
+import me.neznamy.chat.util.TriFunction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Compares the single-pass RGB lexer with the previous regex-based conversion
+ * on formats commonly used in TAB configurations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RGBFormatBenchmark {
+
+    private static final TriFunction<TextColor, String, TextColor, String> GRADIENT =
+            (start, text, end) -> "#" + start.getHexCode() + text + "#" + end.getHexCode();
+
+    private static final Function<TextColor, String> RGB = color -> "#" + color.getHexCode();
+
+    @Param({
+            "&7[&bAdmin&7] &f",
+            "&8[&7Ping: &a37ms&8]",
+            "#FFAA00Owner &7| &fNotch",
+            "&x&F&F&5&5&0&0Notch &7(&#55FF55Online&7)",
+            "{#FF0000>}Server Network{#0000FF<} &7- &f123 players",
+            "<#FFAA00>Premium Member</#FF5500> &f%player%",
+            "<gradient:#55FFFF>play.example.net</gradient:#5555FF>"
+    })
+    public String text;
+
+    private String colored;
+
+    @Setup
+    public void setup() {
+        colored = EnumChatFormat.color(text);
+    }
+
+    @Benchmark
+    public String lexer() {
+        return RGBUtils.getInstance().applyFormats(colored, GRADIENT, RGB);
+    }
+
+    @Benchmark
+    public String regex() {
+        return RegexRGBFormats.applyFormats(colored, GRADIENT, RGB);
+    }
+
+    @Benchmark
+    public void component(Blackhole blackhole) {
+        blackhole.consume(TabComponent.fromColoredText(text));
+    }
+}
@@ -0,0 +1,100 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.chat.TextColor;
+import me.neznamy.chat.util.TriFunction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Copy of the regex-based RGB and gradient conversion RGBUtils used before
+ * the single-pass lexer, kept as a baseline for {@link RGBFormatBenchmark}.
+ */
+public class RegexRGBFormats {
+
+    private static final Pattern CMI_SHORTCUT = Pattern.compile("\\{#[0-9a-fA-F]{6}<>}");
+    private static final Pattern CMI_GRADIENT = Pattern.compile("\\{#[0-9a-fA-F]{6}>}[^{]*\\{#[0-9a-fA-F]{6}<}");
+    private static final Pattern HTML_GRADIENT = Pattern.compile("<#[0-9a-fA-F]{6}>.*?</#[0-9a-fA-F]{6}>");
+    private static final Pattern DOLLAR_GRADIENT = Pattern.compile("<\\$#[0-9a-fA-F]{6}>.*?<\\$#[0-9a-fA-F]{6}>");
+    private static final Pattern NEX_GRADIENT = Pattern.compile("<gradient:#([A-Fa-f0-9]{6})>(.*?)</gradient:#([A-Fa-f0-9]{6})>");
+    private static final Pattern BUKKIT = Pattern.compile("§x[§\\p{XDigit}]{12}");
+    private static final Pattern CMI = Pattern.compile("\\{#[0-9a-fA-F]{6}}");
+    private static final Pattern SECTION = Pattern.compile("§#[0-9a-fA-F]{6}");
+    private static final Pattern HTML = Pattern.compile("#<[0-9a-fA-F]{6}>");
+
+    /**
+     * Applies all gradient and RGB formats the way the previous implementation did.
+     *
+     * @param   text
+     *          original text
+     * @param   gradientFunction
+     *          Function for reformatting gradient to new text
+     * @param   rgbFunction
+     *          Function for converting RGB codes to desired format
+     * @return  converted text
+     */
+    @NotNull
+    public static String applyFormats(@NotNull String text, @NotNull TriFunction<TextColor, String, TextColor, String> gradientFunction,
+                                      @NotNull Function<TextColor, String> rgbFunction) {
+        String replaced = text;
+        if (replaced.contains("<>}")) {
+            Matcher m = CMI_SHORTCUT.matcher(replaced);
+            while (m.find()) {
+                String format = m.group();
+                String code = format.substring(2, 8);
+                replaced = replaced.replace(format, "{#" + code + "<}{#" + code + ">}");
+            }
+        }
+        replaced = gradient(replaced, gradientFunction, CMI_GRADIENT, "{#", 2, 10, 8);
+        replaced = gradient(replaced, gradientFunction, HTML_GRADIENT, "<#", 2, 9, 7);
+        replaced = gradient(replaced, gradientFunction, DOLLAR_GRADIENT, "<$", 3, 10, 7);
+        if (replaced.contains("<grad")) {
+            Matcher m = NEX_GRADIENT.matcher(replaced);
+            while (m.find()) {
+                replaced = replaced.replace(m.group(), gradientFunction.apply(new TextColor(m.group(1)), m.group(2), new TextColor(m.group(3))));
+            }
+        }
+        if (replaced.contains("§x")) {
+            Matcher m = BUKKIT.matcher(replaced);
+            while (m.find()) {
+                String group = m.group();
+                String hexCode = new String(new char[] {group.charAt(3), group.charAt(5), group.charAt(7), group.charAt(9), group.charAt(11), group.charAt(13)});
+                replaced = replaced.replace(group, rgbFunction.apply(new TextColor(hexCode)));
+            }
+        }
+        replaced = rgb(replaced, rgbFunction, CMI, "{#");
+        replaced = rgb(replaced, rgbFunction, SECTION, "§#");
+        replaced = rgb(replaced, rgbFunction, HTML, "#<");
+        return replaced;
+    }
+
+    @NotNull
+    private static String gradient(@NotNull String text, @NotNull TriFunction<TextColor, String, TextColor, String> gradientFunction,
+                                   @NotNull Pattern pattern, @NotNull String containCheck, int startColorStart, int messageStart, int endColorStartSub) {
+        if (!text.contains(containCheck)) return text;
+        String replaced = text;
+        Matcher m = pattern.matcher(replaced);
+        while (m.find()) {
+            String format = m.group();
+            TextColor start = new TextColor(format.substring(startColorStart, startColorStart + 6));
+            String message = format.substring(messageStart, format.length() - 10);
+            TextColor end = new TextColor(format.substring(format.length() - endColorStartSub, format.length() - endColorStartSub + 6));
+            replaced = replaced.replace(format, gradientFunction.apply(start, message, end));
+        }
+        return replaced;
+    }
+
+    @NotNull
+    private static String rgb(@NotNull String text, @NotNull Function<TextColor, String> rgbFunction, @NotNull Pattern pattern, @NotNull String stringCheck) {
+        if (!text.contains(stringCheck)) return text;
+        String replaced = text;
+        Matcher m = pattern.matcher(replaced);
+        while (m.find()) {
+            String group = m.group();
+            replaced = replaced.replace(group, rgbFunction.apply(new TextColor(group.substring(2, 8))));
+        }
+        return replaced;
+    }
+}
@@ -0,0 +1,117 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshBuffer;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshEngine;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshTask;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.RelationalPlaceholderImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures one refresh of a relational placeholder with a configured input, where
+ * the input of one player changes on every refresh, so only pairs with that player
+ * are requested again. Results are processed once by reading only pairs marked as
+ * changed and once by polling all viewer and target pairs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelationalRefreshBenchmark {
+
+    /** Amount of teams players are spread across */
+    private static final int TEAMS = 4;
+
+    @Param({"100", "500", "1000"})
+    public int players;
+
+    private TAB tab;
+    private PlaceholderRefreshEngine engine;
+    private PlayerPlaceholderImpl team;
+    private RelationalPlaceholderImpl relation;
+
+    /** Released once results of a refresh were processed */
+    private final Semaphore processed = new Semaphore(0);
+
+    /** Incremented on every refresh to move one player into another team */
+    private int tick;
+
+    /** Amount of changed values seen, so processing cannot be optimized away */
+    public int changed;
+
+    @Setup
+    public void setup() throws Exception {
+        tab = BenchmarkPlatform.load(players);
+        tab.getConfiguration().getConfig().getRelationalInputs().getInputs()
+                .put("%rel_benchmark_relation%", Collections.singletonList("%benchmark_team%"));
+        team = tab.getPlaceholderManager().registerPlayerPlaceholder("%benchmark_team%", -1, player -> "0");
+        relation = new RelationalPlaceholderImpl("%rel_benchmark_relation%", 50,
+                (viewer, target) -> team.getLastValueSafe((TabPlayer) viewer).equals(team.getLastValueSafe((TabPlayer) target)) ? "&aAlly" : "&cEnemy");
+        TabPlayer[] online = tab.getOnlinePlayers();
+        for (int i = 0; i < online.length; i++) {
+            team.hasValueChanged(online[i], String.valueOf(i % TEAMS), false);
+        }
+        engine = new PlaceholderRefreshEngine(tab.getCpu(), "Benchmark", 1000);
+        // Initial refresh requests all pairs
+        refresh(this::processChangedPairs);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkPlatform.unload();
+    }
+
+    @Benchmark
+    public void changedPairs() throws InterruptedException {
+        refresh(this::processChangedPairs);
+    }
+
+    @Benchmark
+    public void allPairs() throws InterruptedException {
+        refresh(this::processAllPairs);
+    }
+
+    private void refresh(Consumer<PlaceholderRefreshTask> handler) throws InterruptedException {
+        TabPlayer[] online = tab.getOnlinePlayers();
+        TabPlayer moved = online[tick++ % online.length];
+        team.hasValueChanged(moved, String.valueOf(tick % TEAMS), false);
+        PlaceholderRefreshBuffer buffer;
+        while ((buffer = engine.tryAcquire(relation)) == null) {
+            // Previous refresh is still releasing its buffer in the processing thread
+            Thread.yield();
+        }
+        engine.refresh(Collections.singletonList(buffer), online, handler);
+        processed.acquire();
+    }
+
+    private void processChangedPairs(PlaceholderRefreshTask task) {
+        for (PlaceholderRefreshBuffer buffer : task.getCompleted()) {
+            int pairs = buffer.collectChangedPairs();
+            for (int i = 0; i < pairs; i++) {
+                if (buffer.pollChangedValue(i) != null) changed++;
+            }
+        }
+        processed.release();
+    }
+
+    private void processAllPairs(PlaceholderRefreshTask task) {
+        for (PlaceholderRefreshBuffer buffer : task.getCompleted()) {
+            for (TabPlayer viewer : task.getPlayers()) {
+                for (TabPlayer target : task.getPlayers()) {
+                    if (buffer.pollRelationalValue(viewer, target) != null) changed++;
+                }
+            }
+            buffer.collectChangedPairs(); // Only to not let the lists grow
+        }
+        processed.release();
+    }
+}
@@ -0,0 +1,138 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.chat.component.TabComponent;
+import me.neznamy.tab.shared.platform.TabList.Action;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures packets and allocations a single viewer receives when display name
+ * and latency of every entry change in one processing thread task, once sending
+ * one packet per update and once merging updates per entry and sending one packet
+ * per action, like Bukkit's PacketTabList18 does. Packet objects are modelled,
+ * because NMS classes are not available outside the Bukkit module.
+ * <p>
+ * Packets per operation are reported as {@code packets} divided by the amount
+ * of operations of the iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TabListBatchBenchmark {
+
+    /** Actions which are sent in batches, in order they are sent in */
+    private static final Action[] UPDATE_ACTIONS = {Action.UPDATE_GAME_MODE, Action.UPDATE_LATENCY, Action.UPDATE_DISPLAY_NAME};
+
+    @Param({"100", "500"})
+    public int players;
+
+    private UUID[] entries;
+    private TabComponent[] displayNames;
+
+    /** Pending updates of the viewer, reused like the tablist of a viewer is */
+    private final Map<UUID, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+
+    @Setup
+    public void setup() {
+        entries = new UUID[players];
+        displayNames = new TabComponent[players];
+        for (int i = 0; i < players; i++) {
+            entries[i] = UUID.randomUUID();
+            displayNames[i] = TabComponent.fromColoredText("&7[&bMember&7] &fPlayer" + i);
+        }
+    }
+
+    /**
+     * Counts packets sent to the viewer.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sent {
+
+        public long packets;
+
+        private void send(Blackhole blackhole, Packet packet) {
+            blackhole.consume(packet);
+            packets++;
+        }
+    }
+
+    @Benchmark
+    public void unbatched(Sent sent, Blackhole blackhole) {
+        for (int i = 0; i < players; i++) {
+            sent.send(blackhole, new Packet(Action.UPDATE_DISPLAY_NAME, Collections.singletonList(
+                    new EntryData(entries[i], 0, 0, displayNames[i]))));
+            sent.send(blackhole, new Packet(Action.UPDATE_LATENCY, Collections.singletonList(
+                    new EntryData(entries[i], i, 0, null))));
+        }
+    }
+
+    @Benchmark
+    public void batched(Sent sent, Blackhole blackhole) {
+        for (int i = 0; i < players; i++) {
+            queue(entries[i], Action.UPDATE_DISPLAY_NAME).displayName = displayNames[i];
+            queue(entries[i], Action.UPDATE_LATENCY).latency = i;
+        }
+        List<PendingUpdate> updates = new ArrayList<>(pendingUpdates.values());
+        pendingUpdates.clear();
+        for (Action action : UPDATE_ACTIONS) {
+            List<Object> data = new ArrayList<>();
+            for (PendingUpdate update : updates) {
+                if (!update.actions.contains(action)) continue;
+                data.add(new EntryData(update.id, update.latency, update.gameMode, update.displayName));
+            }
+            if (!data.isEmpty()) sent.send(blackhole, new Packet(action, data));
+        }
+    }
+
+    private PendingUpdate queue(UUID entry, Action action) {
+        PendingUpdate update = pendingUpdates.computeIfAbsent(entry, PendingUpdate::new);
+        update.actions.add(action);
+        return update;
+    }
+
+    private static class Packet {
+
+        private final Action action;
+        private final List<Object> entries;
+
+        private Packet(Action action, List<Object> entries) {
+            this.action = action;
+            this.entries = entries;
+        }
+    }
+
+    private static class EntryData {
+
+        private final UUID id;
+        private final int latency;
+        private final int gameMode;
+        private final TabComponent displayName;
+
+        private EntryData(UUID id, int latency, int gameMode, TabComponent displayName) {
+            this.id = id;
+            this.latency = latency;
+            this.gameMode = gameMode;
+            this.displayName = displayName;
+        }
+    }
+
+    private static class PendingUpdate {
+
+        private final UUID id;
+        private final EnumSet<Action> actions = EnumSet.noneOf(Action.class);
+        private TabComponent displayName;
+        private int latency;
+        private int gameMode;
+
+        private PendingUpdate(UUID id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package me.neznamy.tab.shared.benchmark;
+
+import me.neznamy.tab.shared.features.sorting.TeamNameRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures allocating team names for players joining one by one, all sharing
+ * the same sorting prefix, once using the indexed registry and once using the
+ * previous approach of trying suffixes and checking team names of all players
+ * for each of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamNameBenchmark {
+
+    /** Sorting prefix shared by all players */
+    private static final String PREFIX = "00000000Player";
+
+    @Param({"500", "2000"})
+    public int players;
+
+    private UUID[] uuids;
+
+    @Setup
+    public void setup() {
+        uuids = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            uuids[i] = UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public TeamNameRegistry registry() {
+        TeamNameRegistry registry = new TeamNameRegistry();
+        for (UUID uuid : uuids) {
+            registry.allocate(uuid, PREFIX);
+        }
+        return registry;
+    }
+
+    @Benchmark
+    public String[] scan() {
+        // Team names of online players, like sortingData.shortTeamName
+        String[] teamNames = new String[players];
+        for (int i = 0; i < players; i++) {
+            char id = 'A';
+            while (true) {
+                String potentialTeamName = PREFIX + id;
+                boolean nameTaken = false;
+                for (String teamName : teamNames) {
+                    if (potentialTeamName.equals(teamName)) {
+                        nameTaken = true;
+                        break;
+                    }
+                }
+                if (!nameTaken) {
+                    teamNames[i] = potentialTeamName;
+                    break;
+                }
+                id++;
+            }
+        }
+        return teamNames;
+    }
+}
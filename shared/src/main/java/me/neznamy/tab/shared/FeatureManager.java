@@ -6,6 +6,7 @@ import me.neznamy.tab.api.placeholder.PlayerPlaceholder;
 import me.neznamy.tab.shared.TabConstants.CpuUsageCategory;
 import me.neznamy.tab.shared.config.files.Config;
 import me.neznamy.tab.shared.config.mysql.MySQLUserConfiguration;
+import me.neznamy.tab.shared.cpu.CpuManager;
 import me.neznamy.tab.shared.cpu.TimedCaughtTask;
 import me.neznamy.tab.shared.features.*;
 import me.neznamy.tab.shared.features.belowname.BelowName;
@@ -32,7 +33,10 @@ import me.neznamy.tab.shared.proxy.message.outgoing.Unload;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Feature registration which offers calls to all features
@@ -40,6 +44,25 @@ import java.util.*;
  */
 public class FeatureManager {
 
+    /** Names of features which can be replaced without reloading the plugin by their config.yml section */
+    private static final Map<String, String> REPLACEABLE_FEATURES = new LinkedHashMap<>();
+
+    /** Prefixes of names of all features registered by a replaceable feature, including itself */
+    private static final Map<String, String[]> OWNED_FEATURE_PREFIXES = new HashMap<>();
+
+    static {
+        REPLACEABLE_FEATURES.put("header-footer", TabConstants.Feature.HEADER_FOOTER);
+        REPLACEABLE_FEATURES.put("bossbar", TabConstants.Feature.BOSS_BAR);
+        REPLACEABLE_FEATURES.put("scoreboard", TabConstants.Feature.SCOREBOARD);
+        REPLACEABLE_FEATURES.put("playerlist-objective", TabConstants.Feature.YELLOW_NUMBER);
+        REPLACEABLE_FEATURES.put("belowname-objective", TabConstants.Feature.BELOW_NAME);
+        OWNED_FEATURE_PREFIXES.put(TabConstants.Feature.HEADER_FOOTER, new String[] {TabConstants.Feature.HEADER_FOOTER});
+        OWNED_FEATURE_PREFIXES.put(TabConstants.Feature.BOSS_BAR, new String[] {TabConstants.Feature.BOSS_BAR});
+        OWNED_FEATURE_PREFIXES.put(TabConstants.Feature.SCOREBOARD, new String[] {TabConstants.Feature.SCOREBOARD, "scoreboard-"});
+        OWNED_FEATURE_PREFIXES.put(TabConstants.Feature.YELLOW_NUMBER, new String[] {TabConstants.Feature.YELLOW_NUMBER});
+        OWNED_FEATURE_PREFIXES.put(TabConstants.Feature.BELOW_NAME, new String[] {TabConstants.Feature.BELOW_NAME});
+    }
+
     /** Map of all registered feature where key is feature's identifier */
     private final Map<String, TabFeature> features = new LinkedHashMap<>();
 
@@ -47,14 +70,28 @@ public class FeatureManager {
     @NotNull
     private TabFeature[] values = new TabFeature[0];
 
-    /** Flag tracking presence of a feature listening to latency change for faster check with better performance */
-    private boolean hasLatencyChangeListener;
-
-    /** Flag tracking presence of a feature listening to command preprocess for faster check with better performance */
-    private boolean hasCommandListener;
-
     /** Commands features listen to */
-    private final List<String> listeningCommands = new ArrayList<>();
+    @NotNull
+    private List<String> listeningCommands = new ArrayList<>();
+
+    // Features implementing each listener, rebuilt on feature registration to avoid type checks on every event
+    @NotNull private GroupListener[] groupListeners = new GroupListener[0];
+    @NotNull private GameModeListener[] gameModeListeners = new GameModeListener[0];
+    @NotNull private JoinListener[] joinListeners = new JoinListener[0];
+    @NotNull private QuitListener[] quitListeners = new QuitListener[0];
+    @NotNull private WorldSwitchListener[] worldSwitchListeners = new WorldSwitchListener[0];
+    @NotNull private ServerSwitchListener[] serverSwitchListeners = new ServerSwitchListener[0];
+    @NotNull private CommandListener[] commandListeners = new CommandListener[0];
+    @NotNull private DisplayObjectiveListener[] displayObjectiveListeners = new DisplayObjectiveListener[0];
+    @NotNull private ObjectiveListener[] objectiveListeners = new ObjectiveListener[0];
+    @NotNull private VanishListener[] vanishListeners = new VanishListener[0];
+    @NotNull private EntryAddListener[] entryAddListeners = new EntryAddListener[0];
+    @NotNull private LatencyListener[] latencyListeners = new LatencyListener[0];
+    @NotNull private TabListClearListener[] tabListClearListeners = new TabListClearListener[0];
+    @NotNull private ProxyFeature[] proxyFeatures = new ProxyFeature[0];
+
+    /** Player joins which are still being processed by features with their own thread */
+    private final Set<JoinBarrier> pendingJoins = ConcurrentHashMap.newKeySet();
 
     /**
      * Calls load() on all features.
@@ -82,6 +119,7 @@ public class FeatureManager {
         for (TabFeature f : values) {
             if (f instanceof CustomThreaded) {
                 ((CustomThreaded) f).getCustomThread().shutdown();
+                onThreadShutdown(f);
             }
             if (f instanceof UnLoadable) {
                 long time = System.currentTimeMillis();
@@ -94,6 +132,7 @@ public class FeatureManager {
         }
         long time = System.currentTimeMillis();
         for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
+            ((TrackedTabList<?>)player.getTabList()).flush();
             player.getScoreboard().clear();
             player.getBossBar().clear();
         }
@@ -113,15 +152,30 @@ public class FeatureManager {
      *          player with new group
      */
     public void onGroupChange(@NotNull TabPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof GroupListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((GroupListener) f).onGroupChange(player), f.getFeatureName(), CpuUsageCategory.GROUP_CHANGE);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (GroupListener listener : groupListeners) {
+            dispatch(listener, CpuUsageCategory.GROUP_CHANGE, (l, p, b, c) -> l.onGroupChange(p), player, null, null);
+        }
+    }
+
+    /**
+     * Calls onGroupChange to all features implementing {@link GroupListener} for all
+     * given players. Each feature processes the whole batch in a single task.
+     *
+     * @param   players
+     *          players with new group
+     */
+    public void onGroupChange(@NotNull Collection<TabPlayer> players) {
+        if (players.isEmpty()) return;
+        for (GroupListener listener : groupListeners) {
+            dispatch(listener, CpuUsageCategory.GROUP_CHANGE, (l, changed, b, c) -> {
+                for (TabPlayer player : changed) {
+                    try {
+                        l.onGroupChange(player);
+                    } catch (Exception | LinkageError | StackOverflowError e) {
+                        TAB.getInstance().getErrorManager().taskThrewError(e);
+                    }
+                }
+            }, players, null, null);
         }
     }
 
@@ -132,15 +186,8 @@ public class FeatureManager {
      *          Player whose gamemode has changed.
      */
     public void onGameModeChange(@NotNull TabPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof GameModeListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((GameModeListener) f).onGameModeChange(player), f.getFeatureName(), CpuUsageCategory.GAMEMODE_CHANGE);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (GameModeListener listener : gameModeListeners) {
+            dispatch(listener, CpuUsageCategory.GAMEMODE_CHANGE, (l, p, b, c) -> l.onGameModeChange(p), player, null, null);
         }
     }
 
@@ -154,16 +201,10 @@ public class FeatureManager {
         if (disconnectedPlayer == null) return;
         disconnectedPlayer.markOffline();
         long millis = System.currentTimeMillis();
-        for (TabFeature f : values) {
-            if (!(f instanceof QuitListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((QuitListener) f).onQuit(disconnectedPlayer), f.getFeatureName(), CpuUsageCategory.PLAYER_QUIT);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (QuitListener listener : quitListeners) {
+            dispatch(listener, CpuUsageCategory.PLAYER_QUIT, (l, p, b, c) -> l.onQuit(p), disconnectedPlayer, null, null);
         }
+        ((TrackedTabList<?>)disconnectedPlayer.getTabList()).flush();
         TAB.getInstance().removePlayer(disconnectedPlayer);
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             ((TrackedTabList<?>)all.getTabList()).getExpectedDisplayNames().remove(disconnectedPlayer.getTablistId());
@@ -178,29 +219,42 @@ public class FeatureManager {
      *          Player who joined
      */
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
-        long millis = System.currentTimeMillis();
         TAB.getInstance().addPlayer(connectedPlayer);
-        for (TabFeature f : values) {
-            if (!(f instanceof JoinListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(), () -> {
-                long time = System.nanoTime();
-                ((JoinListener) f).onJoin(connectedPlayer);
-                TAB.getInstance().debug("Feature " + f.getClass().getSimpleName() + " processed player join in " + (System.nanoTime()-time)/1000000 + "ms");
-            }, f.getFeatureName(), CpuUsageCategory.PLAYER_JOIN);
+        // Features with their own thread process the join in parallel, load event is fired once the slowest one finishes
+        JoinBarrier barrier = new JoinBarrier(connectedPlayer);
+        pendingJoins.add(barrier);
+        for (JoinListener listener : joinListeners) {
+            TabFeature f = (TabFeature) listener;
             if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
+                barrier.expect(f);
+                boolean submitted = ((CustomThreaded) f).getCustomThread().execute(new TimedCaughtTask(TAB.getInstance().getCpu(), () -> {
+                    try {
+                        processJoin(f, listener, connectedPlayer);
+                    } finally {
+                        barrier.done(f, false);
+                    }
+                }, f.getFeatureName(), CpuUsageCategory.PLAYER_JOIN));
+                if (!submitted) barrier.done(f, false);
             } else {
-                task.run();
+                new TimedCaughtTask(TAB.getInstance().getCpu(), () -> processJoin(f, listener, connectedPlayer),
+                        f.getFeatureName(), CpuUsageCategory.PLAYER_JOIN).run();
             }
         }
-        connectedPlayer.markAsLoaded(true);
-        TAB.getInstance().debug("Player join of " + connectedPlayer.getName() + " processed in " + (System.currentTimeMillis()-millis) + "ms");
+        // Mark as loaded right away, feature threads process changes after the join as tasks are executed in order
+        connectedPlayer.markAsLoaded();
+        barrier.done(barrier, true);
         if (TAB.getInstance().getConfiguration().getUsers() instanceof MySQLUserConfiguration) {
             MySQLUserConfiguration users = (MySQLUserConfiguration) TAB.getInstance().getConfiguration().getUsers();
             users.load(connectedPlayer);
         }
     }
 
+    private void processJoin(@NotNull TabFeature feature, @NotNull JoinListener listener, @NotNull TabPlayer connectedPlayer) {
+        long time = System.nanoTime();
+        listener.onJoin(connectedPlayer);
+        TAB.getInstance().debug("Feature " + feature.getClass().getSimpleName() + " processed player join in " + (System.nanoTime()-time)/1000000 + "ms");
+    }
+
     /**
      * Processed world change and forwards it to all features.
      *
@@ -214,15 +268,8 @@ public class FeatureManager {
         if (changed == null) return;
         String from = changed.world;
         changed.world = to;
-        for (TabFeature f : values) {
-            if (!(f instanceof WorldSwitchListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((WorldSwitchListener) f).onWorldChange(changed, from, to), f.getFeatureName(), CpuUsageCategory.WORLD_SWITCH);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (WorldSwitchListener listener : worldSwitchListeners) {
+            dispatch(listener, CpuUsageCategory.WORLD_SWITCH, (l, p, f, t) -> l.onWorldChange(p, f, t), changed, from, to);
         }
         ((PlayerPlaceholder)TAB.getInstance().getPlaceholderManager().getPlaceholder(TabConstants.Placeholder.WORLD)).updateValue(changed, to);
     }
@@ -241,15 +288,8 @@ public class FeatureManager {
         String from = changed.server;
         changed.server = to;
         ((ProxyTabPlayer)changed).sendJoinPluginMessage();
-        for (TabFeature f : values) {
-            if (!(f instanceof ServerSwitchListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((ServerSwitchListener) f).onServerChange(changed, from, to), f.getFeatureName(), CpuUsageCategory.SERVER_SWITCH);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (ServerSwitchListener listener : serverSwitchListeners) {
+            dispatch(listener, CpuUsageCategory.SERVER_SWITCH, (l, p, f, t) -> l.onServerChange(p, f, t), changed, from, to);
         }
         ((PlayerPlaceholder)TAB.getInstance().getPlaceholderManager().getPlaceholder(TabConstants.Placeholder.SERVER)).updateValue(changed, to);
     }
@@ -265,14 +305,13 @@ public class FeatureManager {
      * @return  {@code true} if event should be cancelled, {@code false} if not.
      */
     public boolean onCommand(@Nullable TabPlayer sender, @NotNull String command) {
-        if (!hasCommandListener || sender == null) return false;
+        if (commandListeners.length == 0 || sender == null) return false;
         if (!listeningCommands.contains(command)) return false;
         boolean cancel = false;
-        for (TabFeature f : values) {
-            if (!(f instanceof CommandListener)) continue;
+        for (CommandListener listener : commandListeners) {
             long time = System.nanoTime();
-            if (((CommandListener)f).onCommand(sender, command)) cancel = true;
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), CpuUsageCategory.COMMAND_PREPROCESS, System.nanoTime()-time);
+            if (listener.onCommand(sender, command)) cancel = true;
+            TAB.getInstance().getCPUManager().addTime(((TabFeature) listener).getFeatureName(), CpuUsageCategory.COMMAND_PREPROCESS, System.nanoTime()-time);
         }
         return cancel;
     }
@@ -288,15 +327,8 @@ public class FeatureManager {
      *          Objective name
      */
     public void onDisplayObjective(@NotNull TabPlayer packetReceiver, int slot, @NotNull String objective) {
-        for (TabFeature f : values) {
-            if (!(f instanceof DisplayObjectiveListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((DisplayObjectiveListener) f).onDisplayObjective(packetReceiver, slot, objective), f.getFeatureName(), CpuUsageCategory.SCOREBOARD_PACKET_CHECK);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (DisplayObjectiveListener listener : displayObjectiveListeners) {
+            dispatch(listener, CpuUsageCategory.SCOREBOARD_PACKET_CHECK, (l, p, s, o) -> l.onDisplayObjective(p, s, o), packetReceiver, slot, objective);
         }
     }
 
@@ -311,15 +343,8 @@ public class FeatureManager {
      *          Objective name
      */
     public void onObjective(@NotNull TabPlayer packetReceiver, int action, @NotNull String objective) {
-        for (TabFeature f : values) {
-            if (!(f instanceof ObjectiveListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((ObjectiveListener) f).onObjective(packetReceiver, action, objective), f.getFeatureName(), CpuUsageCategory.SCOREBOARD_PACKET_CHECK);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (ObjectiveListener listener : objectiveListeners) {
+            dispatch(listener, CpuUsageCategory.SCOREBOARD_PACKET_CHECK, (l, p, a, o) -> l.onObjective(p, a, o), packetReceiver, action, objective);
         }
     }
 
@@ -330,15 +355,8 @@ public class FeatureManager {
      *          Player whose vanish status changed
      */
     public void onVanishStatusChange(@NotNull TabPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof VanishListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((VanishListener) f).onVanishStatusChange(player), f.getFeatureName(), CpuUsageCategory.VANISH_CHANGE);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (VanishListener listener : vanishListeners) {
+            dispatch(listener, CpuUsageCategory.VANISH_CHANGE, (l, p, b, c) -> l.onVanishStatusChange(p), player, null, null);
         }
     }
 
@@ -353,11 +371,10 @@ public class FeatureManager {
      *          Player name of the entry
      */
     public void onEntryAdd(TabPlayer packetReceiver, UUID id, String name) {
-        for (TabFeature f : values) {
-            if (!(f instanceof EntryAddListener)) continue;
+        for (EntryAddListener listener : entryAddListeners) {
             long time = System.nanoTime();
-            ((EntryAddListener)f).onEntryAdd(packetReceiver, id, name);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), CpuUsageCategory.NICK_PLUGIN_COMPATIBILITY, System.nanoTime() - time);
+            listener.onEntryAdd(packetReceiver, id, name);
+            TAB.getInstance().getCPUManager().addTime(((TabFeature) listener).getFeatureName(), CpuUsageCategory.NICK_PLUGIN_COMPATIBILITY, System.nanoTime() - time);
         }
     }
 
@@ -373,13 +390,11 @@ public class FeatureManager {
      * @return  New latency to use
      */
     public int onLatencyChange(TabPlayer packetReceiver, UUID id, int latency) {
-        if (!hasLatencyChangeListener) return latency;
         int newLatency = latency;
-        for (TabFeature f : values) {
-            if (!(f instanceof LatencyListener)) continue;
+        for (LatencyListener listener : latencyListeners) {
             long time = System.nanoTime();
-            newLatency = ((LatencyListener)f).onLatencyChange(packetReceiver, id, newLatency);
-            TAB.getInstance().getCPUManager().addTime(f.getFeatureName(), CpuUsageCategory.PING_CHANGE, System.nanoTime() - time);
+            newLatency = listener.onLatencyChange(packetReceiver, id, newLatency);
+            TAB.getInstance().getCPUManager().addTime(((TabFeature) listener).getFeatureName(), CpuUsageCategory.PING_CHANGE, System.nanoTime() - time);
         }
         return newLatency;
     }
@@ -391,15 +406,8 @@ public class FeatureManager {
      *          Player whose tablist got cleared
      */
     public void onTabListClear(TabPlayer packetReceiver) {
-        for (TabFeature f : values) {
-            if (!(f instanceof TabListClearListener)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((TabListClearListener) f).onTabListClear(packetReceiver), f.getFeatureName(), CpuUsageCategory.TABLIST_CLEAR);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (TabListClearListener listener : tabListClearListeners) {
+            dispatch(listener, CpuUsageCategory.TABLIST_CLEAR, (l, p, b, c) -> l.onTabListClear(p), packetReceiver, null, null);
         }
     }
 
@@ -407,15 +415,8 @@ public class FeatureManager {
      * Called when another proxy is reloaded to request all data again.
      */
     public void onProxyLoadRequest() {
-        for (TabFeature f : values) {
-            if (!(f instanceof ProxyFeature)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((ProxyFeature) f).onProxyLoadRequest(), f.getFeatureName(), CpuUsageCategory.PROXY_RELOAD);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (ProxyFeature listener : proxyFeatures) {
+            dispatch(listener, CpuUsageCategory.PROXY_RELOAD, (l, a, b, c) -> l.onProxyLoadRequest(), null, null, null);
         }
     }
 
@@ -426,15 +427,8 @@ public class FeatureManager {
      *          Player who joined
      */
     public void onJoin(@NotNull ProxyPlayer connectedPlayer) {
-        for (TabFeature f : values) {
-            if (!(f instanceof ProxyFeature)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((ProxyFeature) f).onJoin(connectedPlayer), f.getFeatureName(), CpuUsageCategory.PLAYER_JOIN);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (ProxyFeature listener : proxyFeatures) {
+            dispatch(listener, CpuUsageCategory.PLAYER_JOIN, (l, p, b, c) -> l.onJoin(p), connectedPlayer, null, null);
         }
     }
 
@@ -445,15 +439,8 @@ public class FeatureManager {
      *          Player who joined
      */
     public void onServerSwitch(@NotNull ProxyPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof ProxyFeature)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((ProxyFeature) f).onServerSwitch(player), f.getFeatureName(), CpuUsageCategory.SERVER_SWITCH);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (ProxyFeature listener : proxyFeatures) {
+            dispatch(listener, CpuUsageCategory.SERVER_SWITCH, (l, p, b, c) -> l.onServerSwitch(p), player, null, null);
         }
     }
 
@@ -464,15 +451,8 @@ public class FeatureManager {
      *          Player who left
      */
     public void onQuit(@NotNull ProxyPlayer disconnectedPlayer) {
-        for (TabFeature f : values) {
-            if (!(f instanceof ProxyFeature)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((ProxyFeature) f).onQuit(disconnectedPlayer), f.getFeatureName(), CpuUsageCategory.PLAYER_QUIT);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (ProxyFeature listener : proxyFeatures) {
+            dispatch(listener, CpuUsageCategory.PLAYER_QUIT, (l, p, b, c) -> l.onQuit(p), disconnectedPlayer, null, null);
         }
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             ((TrackedTabList<?>)all.getTabList()).getExpectedDisplayNames().remove(disconnectedPlayer.getUniqueId());
@@ -486,18 +466,81 @@ public class FeatureManager {
      *          Player whose vanish status changed
      */
     public void onVanishStatusChange(@NotNull ProxyPlayer player) {
-        for (TabFeature f : values) {
-            if (!(f instanceof ProxyFeature)) continue;
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(),
-                    () -> ((ProxyFeature) f).onVanishStatusChange(player), f.getFeatureName(), CpuUsageCategory.VANISH_CHANGE);
-            if (f instanceof CustomThreaded) {
-                ((CustomThreaded) f).getCustomThread().execute(task);
-            } else {
-                task.run();
-            }
+        for (ProxyFeature listener : proxyFeatures) {
+            dispatch(listener, CpuUsageCategory.VANISH_CHANGE, (l, p, b, c) -> l.onVanishStatusChange(p), player, null, null);
         }
     }
 
+    /**
+     * Calls listener method using given call, either in feature's thread if it has one or in current thread.
+     * When called in current thread, the call is timed directly without creating any task. The call
+     * must not capture any variables, so it is not allocated on every event.
+     *
+     * @param   listener
+     *          Feature the call belongs to
+     * @param   type
+     *          CPU usage category of the call
+     * @param   call
+     *          Call of the listener method
+     * @param   a
+     *          First argument of the call
+     * @param   b
+     *          Second argument of the call
+     * @param   c
+     *          Third argument of the call
+     * @param   <L>
+     *          Listener type
+     * @param   <A>
+     *          Type of first argument
+     * @param   <B>
+     *          Type of second argument
+     * @param   <C>
+     *          Type of third argument
+     */
+    private <L, A, B, C> void dispatch(@NotNull L listener, @NotNull String type, @NotNull ListenerCall<L, A, B, C> call, A a, B b, C c) {
+        TabFeature feature = (TabFeature) listener;
+        CpuManager cpu = TAB.getInstance().getCpu();
+        if (feature instanceof CustomThreaded) {
+            ((CustomThreaded) feature).getCustomThread().execute(new TimedCaughtTask(cpu, () -> call.call(listener, a, b, c), feature.getFeatureName(), type));
+            return;
+        }
+        try {
+            long time = System.nanoTime();
+            call.call(listener, a, b, c);
+            cpu.addTime(feature.getFeatureName(), type, System.nanoTime() - time);
+        } catch (Exception | LinkageError | StackOverflowError e) {
+            TAB.getInstance().getErrorManager().taskThrewError(e);
+        }
+    }
+
+    /**
+     * Marks all pending joins as processed by given feature, whose thread was shut down
+     * and will not run tasks which were still queued.
+     *
+     * @param   feature
+     *          Feature whose thread was shut down
+     */
+    private void onThreadShutdown(@NotNull TabFeature feature) {
+        for (JoinBarrier barrier : pendingJoins) {
+            barrier.done(feature, false);
+        }
+    }
+
+    /**
+     * Returns all registered features implementing given listener in registration order.
+     *
+     * @param   type
+     *          Listener interface
+     * @return  Features implementing given listener
+     * @param   <T>
+     *          Listener type
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private <T> T[] getListeners(@NotNull Class<T> type) {
+        return Arrays.stream(values).filter(type::isInstance).toArray(size -> (T[]) Array.newInstance(type, size));
+    }
+
     /**
      * Registers feature with given parameters.
      *
@@ -508,20 +551,13 @@ public class FeatureManager {
      */
     public synchronized void registerFeature(@NotNull String featureName, @NotNull TabFeature featureHandler) {
         features.put(featureName, featureHandler);
-        values = features.values().toArray(new TabFeature[0]);
+        updateValues();
         if (featureHandler instanceof VanishListener) {
             TAB.getInstance().getPlaceholderManager().addUsedPlaceholder(TabConstants.Placeholder.VANISHED);
         }
         if (featureHandler instanceof GameModeListener) {
             TAB.getInstance().getPlaceholderManager().addUsedPlaceholder(TabConstants.Placeholder.GAMEMODE);
         }
-        if (featureHandler instanceof LatencyListener) {
-            hasLatencyChangeListener = true;
-        }
-        if (featureHandler instanceof CommandListener) {
-            hasCommandListener = true;
-            listeningCommands.add(((CommandListener) featureHandler).getCommand());
-        }
     }
 
     /**
@@ -530,9 +566,36 @@ public class FeatureManager {
      * @param   featureName
      *          Name of the feature it was previously registered with.
      */
-    public void unregisterFeature(@NotNull String featureName) {
+    public synchronized void unregisterFeature(@NotNull String featureName) {
         features.remove(featureName);
+        updateValues();
+    }
+
+    /**
+     * Rebuilds array of features and arrays of features implementing each listener.
+     */
+    private void updateValues() {
         values = features.values().toArray(new TabFeature[0]);
+        groupListeners = getListeners(GroupListener.class);
+        gameModeListeners = getListeners(GameModeListener.class);
+        joinListeners = getListeners(JoinListener.class);
+        quitListeners = getListeners(QuitListener.class);
+        worldSwitchListeners = getListeners(WorldSwitchListener.class);
+        serverSwitchListeners = getListeners(ServerSwitchListener.class);
+        displayObjectiveListeners = getListeners(DisplayObjectiveListener.class);
+        objectiveListeners = getListeners(ObjectiveListener.class);
+        vanishListeners = getListeners(VanishListener.class);
+        entryAddListeners = getListeners(EntryAddListener.class);
+        latencyListeners = getListeners(LatencyListener.class);
+        tabListClearListeners = getListeners(TabListClearListener.class);
+        proxyFeatures = getListeners(ProxyFeature.class);
+        CommandListener[] commandListeners = getListeners(CommandListener.class);
+        List<String> commands = new ArrayList<>();
+        for (CommandListener listener : commandListeners) {
+            commands.add(listener.getCommand());
+        }
+        listeningCommands = commands;
+        this.commandListeners = commandListeners;
     }
 
     /**
@@ -641,4 +704,201 @@ public class FeatureManager {
 
         featureManager.registerFeature(TabConstants.Feature.NICK_COMPATIBILITY, new NickCompatibility());
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns {@code true} if all given config.yml sections belong to features
+     * which can be replaced without reloading the entire plugin.
+     *
+     * @param   sections
+     *          Changed top-level sections of config.yml
+     * @return  {@code true} if all features of given sections can be replaced, {@code false} if not
+     */
+    public boolean canReplaceFeatures(@NotNull Collection<String> sections) {
+        return REPLACEABLE_FEATURES.keySet().containsAll(sections);
+    }
+
+    /**
+     * Replaces features configured in given config.yml sections with new instances created
+     * from currently loaded configuration. Old instances remove everything they display to
+     * players first, other features are not affected. Returns time each feature took to replace.
+     *
+     * @param   sections
+     *          Changed top-level sections of config.yml, all of them must be replaceable
+     * @return  Time in milliseconds each feature took to replace by feature name
+     */
+    @NotNull
+    public Map<String, Long> replaceFeatures(@NotNull Collection<String> sections) {
+        Config config = TAB.getInstance().getConfiguration().getConfig();
+        Map<String, Long> times = new LinkedHashMap<>();
+        for (String section : sections) {
+            String featureName = REPLACEABLE_FEATURES.get(section);
+            long time = System.currentTimeMillis();
+            removeOwnedFeatures(featureName);
+            TabFeature feature = createReplaceableFeature(featureName, config);
+            if (feature != null) {
+                registerFeature(featureName, feature);
+                for (TabFeature owned : getOwnedFeatures(featureName).values()) {
+                    if (owned instanceof Loadable) ((Loadable) owned).load();
+                }
+            }
+            times.put(featureName, System.currentTimeMillis() - time);
+        }
+        if (!times.isEmpty()) {
+            // Holds references to belowname and playerlist objective
+            registerFeature(TabConstants.Feature.NICK_COMPATIBILITY, new NickCompatibility());
+        }
+        return times;
+    }
+
+    /**
+     * Unloads and unregisters feature with given name and all features it registered.
+     *
+     * @param   featureName
+     *          Name of replaceable feature
+     */
+    private void removeOwnedFeatures(@NotNull String featureName) {
+        TabFeature feature = features.get(featureName);
+        if (feature instanceof CustomThreaded) {
+            ((CustomThreaded) feature).getCustomThread().shutdown();
+            onThreadShutdown(feature);
+        }
+        if (feature instanceof HotReloadable) {
+            ((HotReloadable) feature).unloadForReplacement();
+            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
+                ((TrackedTabList<?>)player.getTabList()).flush();
+            }
+        }
+        for (Map.Entry<String, TabFeature> entry : getOwnedFeatures(featureName).entrySet()) {
+            entry.getValue().deactivate();
+            unregisterFeature(entry.getKey());
+            TAB.getInstance().getPlaceholderManager().removeUsedPlaceholders(entry.getValue());
+        }
+    }
+
+    /**
+     * Returns all currently registered features registered by replaceable feature
+     * with given name, including the feature itself.
+     *
+     * @param   featureName
+     *          Name of replaceable feature
+     * @return  Features registered by given feature by their names
+     */
+    @NotNull
+    private synchronized Map<String, TabFeature> getOwnedFeatures(@NotNull String featureName) {
+        Map<String, TabFeature> owned = new LinkedHashMap<>();
+        for (Map.Entry<String, TabFeature> entry : features.entrySet()) {
+            for (String prefix : OWNED_FEATURE_PREFIXES.get(featureName)) {
+                if (entry.getKey().startsWith(prefix)) {
+                    owned.put(entry.getKey(), entry.getValue());
+                    break;
+                }
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * Creates new instance of replaceable feature from given configuration.
+     * Returns {@code null} if the feature is disabled.
+     *
+     * @param   featureName
+     *          Name of replaceable feature
+     * @param   config
+     *          Configuration to create the feature from
+     * @return  New instance of the feature or {@code null} if disabled
+     */
+    @Nullable
+    private TabFeature createReplaceableFeature(@NotNull String featureName, @NotNull Config config) {
+        switch (featureName) {
+            case TabConstants.Feature.HEADER_FOOTER:
+                return config.getHeaderFooter() == null ? null : new HeaderFooter(config.getHeaderFooter());
+            case TabConstants.Feature.BOSS_BAR:
+                return config.getBossbar() == null ? null : new BossBarManagerImpl(config.getBossbar());
+            case TabConstants.Feature.SCOREBOARD:
+                return config.getScoreboard() == null ? null : new ScoreboardManagerImpl(config.getScoreboard());
+            case TabConstants.Feature.YELLOW_NUMBER:
+                return config.getPlayerlistObjective() == null ? null : new YellowNumber(config.getPlayerlistObjective());
+            case TabConstants.Feature.BELOW_NAME:
+                return config.getBelowname() == null ? null : new BelowName(config.getBelowname());
+            default:
+                throw new IllegalArgumentException("Feature " + featureName + " cannot be replaced");
+        }
+    }
+
+    /**
+     * Call of a listener method with up to 3 arguments.
+     *
+     * @param   <L>
+     *          Listener type
+     * @param   <A>
+     *          Type of first argument
+     * @param   <B>
+     *          Type of second argument
+     * @param   <C>
+     *          Type of third argument
+     */
+    @FunctionalInterface
+    private interface ListenerCall<L, A, B, C> {
+
+        void call(@NotNull L listener, A a, B b, C c);
+    }
+
+    /**
+     * Join of a player which is processed by features in their own threads.
+     * Player load event is fired once all of them finish.
+     */
+    private class JoinBarrier {
+
+        /** Player who joined */
+        @NotNull private final TabPlayer player;
+
+        /** Time when join started processing */
+        private final long startTime = System.currentTimeMillis();
+
+        /** Parts of the join which did not finish yet, features and the barrier itself for the synchronous part */
+        private final Set<Object> pending = ConcurrentHashMap.newKeySet();
+
+        /** Amount of parts which did not finish yet */
+        private final AtomicInteger remaining = new AtomicInteger();
+
+        private JoinBarrier(@NotNull TabPlayer player) {
+            this.player = player;
+            expect(this);
+        }
+
+        /**
+         * Adds a part of the join which must finish before the event is fired.
+         *
+         * @param   part
+         *          Feature processing the join
+         */
+        private void expect(@NotNull Object part) {
+            if (pending.add(part)) remaining.incrementAndGet();
+        }
+
+        /**
+         * Marks part of the join as finished. Calling this multiple times for the same
+         * part has no effect. Once all parts are finished, the load event is fired on
+         * the processing thread.
+         *
+         * @param   part
+         *          Part which finished
+         * @param   processingThread
+         *          Whether this is called from the processing thread
+         */
+        private void done(@NotNull Object part, boolean processingThread) {
+            if (!pending.remove(part) || remaining.decrementAndGet() > 0) return;
+            pendingJoins.remove(this);
+            if (processingThread) {
+                fire();
+            } else {
+                TAB.getInstance().getCpu().getProcessingThread().execute(this::fire);
+            }
+        }
+
+        private void fire() {
+            player.fireLoadEvent(true);
+            TAB.getInstance().debug("Player join of " + player.getName() + " processed in " + (System.currentTimeMillis() - startTime) + "ms");
+        }
+    }
+}
@@ -1,15 +1,20 @@
 package me.neznamy.tab.shared;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import me.neznamy.tab.shared.cpu.TimedCaughtTask;
+import me.neznamy.tab.shared.hook.LuckPermsHook;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.task.GroupRefreshTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.function.Function;
 
 /**
- * Permission group manager retrieving groups from permission plugin
+ * Permission group manager retrieving groups from permission plugin. Groups are
+ * polled periodically and, if LuckPerms is installed, refreshed immediately
+ * when LuckPerms recalculates data of a player.
  */
 @Getter
 public class GroupManager {
@@ -23,6 +28,14 @@ public class GroupManager {
     /** Function for retrieving player's group */
     private final Function<TabPlayer, String> detectGroup = TAB.getInstance().getConfiguration().getConfig().isGroupsByPermissions() ? this::getByPermission : this::getByPrimary;
 
+    /** Task refreshing groups of players */
+    @NotNull private final GroupRefreshTask refreshTask = new GroupRefreshTask(detectGroup);
+
+    /** Subscription to LuckPerms events requesting group refresh, {@code null} if not subscribed */
+    @Nullable
+    @Getter(AccessLevel.NONE)
+    private AutoCloseable luckPermsSubscription;
+
     /**
      * Constructs new instance with given permission plugin and registers group placeholder.
      *
@@ -34,8 +47,31 @@ public class GroupManager {
     public GroupManager(@NotNull String permissionPlugin, @NotNull Function<TabPlayer, String> groupFunction) {
         this.permissionPlugin = permissionPlugin;
         this.groupFunction = groupFunction;
-        TAB.getInstance().getCpu().getGroupRefreshingThread().repeatTask(new TimedCaughtTask(TAB.getInstance().getCpu(), new GroupRefreshTask(detectGroup),
+        TAB.getInstance().getCpu().getGroupRefreshingThread().repeatTask(new TimedCaughtTask(TAB.getInstance().getCpu(), refreshTask,
                 "Permission group refreshing", "Periodic task"), TAB.getInstance().getConfiguration().getConfig().getPermissionRefreshInterval());
+        if (LuckPermsHook.getInstance().isInstalled()) {
+            try {
+                luckPermsSubscription = LuckPermsHook.getInstance().subscribeToDataRecalculation(uuid -> {
+                    TabPlayer player = TAB.getInstance().getPlayer(uuid);
+                    if (player != null) refreshTask.requestRefresh(player);
+                });
+            } catch (IllegalStateException e) {
+                // LuckPerms is present but not loaded, polling only
+            }
+        }
+    }
+
+    /**
+     * Unsubscribes from permission plugin events.
+     */
+    public void unload() {
+        if (luckPermsSubscription == null) return;
+        try {
+            luckPermsSubscription.close();
+        } catch (Exception e) {
+            TAB.getInstance().getErrorManager().printError("Failed to unsubscribe from LuckPerms events", e);
+        }
+        luckPermsSubscription = null;
     }
 
     /**
@@ -2,6 +2,8 @@ package me.neznamy.tab.shared;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.Getter;
 import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
@@ -41,18 +43,34 @@ public class Property {
     /** Raw value assigned via API, null if not set */
     @Nullable @Getter private String temporaryValue;
 
+    /** Reusable buffer for rendering values to avoid allocating a new one on every update */
+    private static final ThreadLocal<StringBuilder> renderBuffer = ThreadLocal.withInitial(StringBuilder::new);
+
     /**
-     * Raw value using %s for each placeholder ready to be inserted
-     * into String formatter, which results in about 5x lower
-     * memory allocations as well as better performance.
+     * Compiled template of the raw value. Text between placeholders with static colors
+     * already applied. Has one more entry than {@link #dynamicPlaceholders}, entry at
+     * index {@code i} is placed before placeholder at index {@code i}.
      */
-    private String rawFormattedValue;
+    private String[] literals;
+
+    /** Non-relational placeholders in the text in the same order they are used */
+    private String[] dynamicPlaceholders;
+
+    /** Last known outputs of {@link #dynamicPlaceholders}, used to skip rendering if none changed */
+    private String[] lastPlaceholderValues;
 
     /** Last known value after parsing non-relational placeholders */
     private String lastReplacedValue;
 
     /** Flag tracking whether last replaced value may contain relational placeholders or not */
     private boolean mayContainRelPlaceholders;
+
+    /**
+     * Positions of relational placeholders in {@link #lastReplacedValue}, created
+     * on first {@link #getFormat(TabPlayer)} call after value changed.
+     */
+    @Nullable
+    private volatile RelationalTemplate relationalTemplate;
     
     /** Source defining value of the text, displayed in debug command */
     @Nullable private String source;
@@ -110,54 +128,55 @@ public class Property {
     }
 
     /**
-     * Finds all placeholders used in the value and prepares it for
-     * String formatter using %s for each placeholder.
+     * Finds all placeholders used in the value and compiles it into
+     * static text segments separated by placeholders.
      *
      * @param   value
      *          raw value to analyze
      */
     private void analyze(@NotNull String value) {
-        // Identify placeholders used directly
+        // Make \n work even if used in '', which snakeyaml does not convert to newline
+        if (value.contains("\\n")) {
+            value = value.replace("\\n", "\n");
+        }
+
+        // Identify placeholders used directly and split the text around them
         List<String> placeholders0 = new ArrayList<>();
         List<String> relPlaceholders0 = new ArrayList<>();
+        List<String> dynamicPlaceholders0 = new ArrayList<>();
+        List<String> literals0 = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int cursor = 0;
         for (String identifier : PlaceholderManagerImpl.detectPlaceholders(value)) {
             placeholders0.add(identifier);
+            int index = value.indexOf(identifier, cursor);
+            literal.append(value, cursor, index);
+            cursor = index + identifier.length();
             if (identifier.startsWith("%rel_")) {
+                // Relational placeholders stay as identifiers until getFormat is called
                 relPlaceholders0.add(identifier);
+                literal.append(identifier);
+            } else {
+                dynamicPlaceholders0.add(identifier);
+                literals0.add(EnumChatFormat.color(literal.toString()));
+                literal.setLength(0);
             }
         }
-
-        // Convert all placeholders to %s for String formatter
-        String rawFormattedValue0 = value;
-        for (String placeholder : placeholders0) {
-            rawFormattedValue0 = replaceFirst(rawFormattedValue0, placeholder);
-        }
-
-        // Make % symbol not break String formatter by adding another one to display it
-        if (!placeholders0.isEmpty() && rawFormattedValue0.contains("%")) {
-            int index = rawFormattedValue0.lastIndexOf('%');
-            if (rawFormattedValue0.length() == index+1 || rawFormattedValue0.charAt(index+1) != 's') {
-                StringBuilder sb = new StringBuilder(rawFormattedValue0);
-                sb.insert(index+1, "%");
-                rawFormattedValue0 = sb.toString();
-            }
-        }
-
-        // Make \n work even if used in '', which snakeyaml does not convert to newline
-        if (rawFormattedValue0.contains("\\n")) {
-            rawFormattedValue0 = rawFormattedValue0.replace("\\n", "\n");
-        }
-
-        // Apply static colors to not need to do it on every refresh
-        rawFormattedValue = EnumChatFormat.color(rawFormattedValue0);
+        literal.append(value, cursor, value.length());
+        literals0.add(EnumChatFormat.color(literal.toString()));
 
         // Update and save values
         placeholders = placeholders0.toArray(new String[0]);
         relPlaceholders = relPlaceholders0.toArray(new String[0]);
+        dynamicPlaceholders = dynamicPlaceholders0.toArray(new String[0]);
+        literals = literals0.toArray(new String[0]);
+        lastPlaceholderValues = new String[dynamicPlaceholders.length];
         if (listener != null) {
             listener.addUsedPlaceholders(placeholders0);
         }
-        lastReplacedValue = rawFormattedValue;
+        lastReplacedValue = literals.length == 1 ? literals[0] : "";
+        mayContainRelPlaceholders = lastReplacedValue.indexOf('%') != -1;
+        relationalTemplate = null;
         update();
         if (name != null) {
             TabExpansion expansion = TAB.getInstance().getPlaceholderManager().getTabExpansion();
@@ -166,15 +185,6 @@ public class Property {
         }
     }
 
-    private String replaceFirst(String original, String searchString) {
-        int index = original.indexOf(searchString);
-        if (index != -1) {
-            return original.substring(0, index) + "%s" + original.substring(index + searchString.length());
-        } else {
-            return original;
-        }
-    }
-
     /**
      * Changes raw value to new provided value and performs all
      * operations related to it.
@@ -258,27 +268,31 @@ public class Property {
      * @return  if updating changed value or not
      */
     public boolean update() {
-        if (placeholders.length == 0) return false;
-        String string;
-        if ("%s".equals(rawFormattedValue)) {
-            string = TAB.getInstance().getPlaceholderManager().getPlaceholder(placeholders[0]).set(placeholders[0], owner);
-        } else {
-            Object[] values = new String[placeholders.length];
-            for (int i=0; i<placeholders.length; i++) {
-                values[i] = TAB.getInstance().getPlaceholderManager().getPlaceholder(placeholders[i]).set(placeholders[i], owner);
+        if (dynamicPlaceholders.length == 0) return false;
+        boolean changed = false;
+        for (int i=0; i<dynamicPlaceholders.length; i++) {
+            String value = TAB.getInstance().getPlaceholderManager().getPlaceholder(dynamicPlaceholders[i]).set(dynamicPlaceholders[i], owner);
+            if (!value.equals(lastPlaceholderValues[i])) {
+                lastPlaceholderValues[i] = value;
+                changed = true;
             }
-            string = String.format(rawFormattedValue, values);
         }
-        string = EnumChatFormat.color(string);
-        if (!lastReplacedValue.equals(string)) {
-            lastReplacedValue = string;
-            mayContainRelPlaceholders = lastReplacedValue.indexOf('%') != -1;
-            if (name != null) {
-                TAB.getInstance().getPlaceholderManager().getTabExpansion().setPropertyValue(owner, name, lastReplacedValue);
-            }
-            return true;
+        if (!changed) return false;
+        StringBuilder buffer = renderBuffer.get();
+        buffer.setLength(0);
+        for (int i=0; i<dynamicPlaceholders.length; i++) {
+            buffer.append(literals[i]).append(lastPlaceholderValues[i]);
         }
-        return false;
+        buffer.append(literals[dynamicPlaceholders.length]);
+        EnumChatFormat.color(buffer);
+        if (lastReplacedValue.contentEquals(buffer)) return false;
+        lastReplacedValue = buffer.toString();
+        mayContainRelPlaceholders = lastReplacedValue.indexOf('%') != -1;
+        relationalTemplate = null;
+        if (name != null) {
+            TAB.getInstance().getPlaceholderManager().getTabExpansion().setPropertyValue(owner, name, lastReplacedValue);
+        }
+        return true;
     }
 
     /**
@@ -299,15 +313,29 @@ public class Property {
      */
     public @NotNull String getFormat(@NotNull TabPlayer viewer) {
         if (!mayContainRelPlaceholders) return lastReplacedValue;
-        String format = lastReplacedValue;
-        // Direct placeholders
-        for (String identifier : relPlaceholders) {
-            RelationalPlaceholderImpl pl = (RelationalPlaceholderImpl) TAB.getInstance().getPlaceholderManager().getPlaceholder(identifier);
-            format = format.replace(pl.getIdentifier(), EnumChatFormat.color(pl.getLastValue(viewer, owner)));
+        RelationalTemplate template = relationalTemplate;
+        if (template == null || template.source != lastReplacedValue) {
+            template = new RelationalTemplate(lastReplacedValue);
+            relationalTemplate = template;
         }
+        return template.format(viewer);
+    }
 
-        // Nested placeholders
-        for (String identifier : PlaceholderManagerImpl.detectPlaceholders(format)) {
+    /**
+     * Replaces relational placeholders in given text by scanning it for them.
+     * Used as a fallback when output of a relational placeholder contains
+     * another relational placeholder.
+     *
+     * @param   text
+     *          Text to replace placeholders in
+     * @param   viewer
+     *          the viewer
+     * @return  Text with replaced relational placeholders
+     */
+    @NotNull
+    private String replaceNestedRelational(@NotNull String text, @NotNull TabPlayer viewer) {
+        String format = text;
+        for (String identifier : PlaceholderManagerImpl.detectPlaceholders(text)) {
             if (!identifier.startsWith("%rel_")) continue;
             RelationalPlaceholderImpl pl = (RelationalPlaceholderImpl) TAB.getInstance().getPlaceholderManager().getPlaceholder(identifier);
             format = format.replace(pl.getIdentifier(), EnumChatFormat.color(pl.getLastValue(viewer, owner)));
@@ -315,4 +343,84 @@ public class Property {
         }
         return format;
     }
-}
\ No newline at end of file
+
+    /**
+     * Last replaced value split at positions of relational placeholders, so formatting
+     * it for a viewer does not need to search for them. Formatted values are remembered
+     * by outputs of the relational placeholders, so viewers seeing the same outputs
+     * get the same string instance.
+     */
+    private class RelationalTemplate {
+
+        /** Maximum amount of remembered formatted values */
+        private static final int MEMO_LIMIT = 64;
+
+        /** Value this template was created from */
+        @NotNull private final String source;
+
+        /** Text between relational placeholders, has one more entry than {@link #identifiers} */
+        @NotNull private final String[] literals;
+
+        /** Relational placeholders in the same order they are used */
+        @NotNull private final String[] identifiers;
+
+        /** Formatted values by outputs of relational placeholders joined together */
+        @NotNull private final Map<String, String> memo = new ConcurrentHashMap<>();
+
+        private RelationalTemplate(@NotNull String source) {
+            this.source = source;
+            List<String> literals0 = new ArrayList<>();
+            List<String> identifiers0 = new ArrayList<>();
+            int cursor = 0;
+            for (String identifier : PlaceholderManagerImpl.detectPlaceholders(source)) {
+                if (!identifier.startsWith("%rel_")) continue;
+                int index = source.indexOf(identifier, cursor);
+                literals0.add(source.substring(cursor, index));
+                identifiers0.add(identifier);
+                cursor = index + identifier.length();
+                if (listener != null && !contains(relPlaceholders, identifier)) listener.addUsedPlaceholder(identifier);
+            }
+            literals0.add(source.substring(cursor));
+            literals = literals0.toArray(new String[0]);
+            identifiers = identifiers0.toArray(new String[0]);
+        }
+
+        /**
+         * Returns the value formatted for given viewer.
+         *
+         * @param   viewer
+         *          the viewer
+         * @return  format for the viewer
+         */
+        @NotNull
+        private String format(@NotNull TabPlayer viewer) {
+            if (identifiers.length == 0) return source;
+            String[] values = new String[identifiers.length];
+            for (int i = 0; i < identifiers.length; i++) {
+                values[i] = ((RelationalPlaceholderImpl) TAB.getInstance().getPlaceholderManager().getPlaceholder(identifiers[i])).getLastValue(viewer, owner);
+            }
+            String key = values.length == 1 ? values[0] : String.join("\0", values);
+            String format = memo.get(key);
+            if (format != null) return format;
+            StringBuilder sb = new StringBuilder(source.length() + key.length());
+            boolean nested = false;
+            for (int i = 0; i < identifiers.length; i++) {
+                String value = EnumChatFormat.color(values[i]);
+                nested |= value.contains("%rel_");
+                sb.append(literals[i]).append(value);
+            }
+            sb.append(literals[identifiers.length]);
+            format = sb.toString();
+            if (nested) return replaceNestedRelational(format, viewer);
+            if (memo.size() < MEMO_LIMIT) memo.put(key, format);
+            return format;
+        }
+
+        private boolean contains(@NotNull String[] array, @NotNull String value) {
+            for (String element : array) {
+                if (element.equals(value)) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -14,8 +14,10 @@ import me.neznamy.tab.api.tablist.TabListFormatManager;
 import me.neznamy.tab.api.tablist.layout.LayoutManager;
 import me.neznamy.tab.shared.command.DisabledCommand;
 import me.neznamy.tab.shared.command.TabCommand;
+import me.neznamy.tab.shared.config.ConfigurationChanges;
 import me.neznamy.tab.shared.config.Configs;
 import me.neznamy.tab.shared.config.helper.ConfigHelper;
+import me.neznamy.tab.shared.config.mysql.MySQLUserConfiguration;
 import me.neznamy.tab.shared.cpu.CpuManager;
 import me.neznamy.tab.shared.event.EventBusImpl;
 import me.neznamy.tab.shared.event.impl.TabLoadEventImpl;
@@ -24,14 +26,18 @@ import me.neznamy.tab.shared.features.nametags.NameTag;
 import me.neznamy.tab.shared.platform.Platform;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.proxy.ProxyPlatform;
+import me.neznamy.tab.shared.util.PlayerRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.yaml.snakeyaml.error.YAMLException;
 
 import java.io.File;
+import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * Main class of the plugin storing data and implementing API
@@ -52,8 +58,8 @@ public class TAB extends TabAPI {
     /** Players by their TabList UUID for faster lookup */
     private final Map<UUID, TabPlayer> playersByTabListId = new ConcurrentHashMap<>();
 
-    /** Online player array to avoid memory allocation when iterating */
-    private volatile TabPlayer[] onlinePlayers = new TabPlayer[0];
+    /** Online players with their slots */
+    private final PlayerRegistry playerRegistry = new PlayerRegistry();
 
     /** Instance of plugin's main command */
     private TabCommand command;
@@ -195,7 +201,7 @@ public class TAB extends TabAPI {
             platform.loadPlayers();
             command = new TabCommand();
             featureManager.load();
-            for (TabPlayer p : onlinePlayers) p.markAsLoaded(false);
+            for (TabPlayer p : getOnlinePlayers()) p.markAsLoaded(false);
             if (eventBus != null) eventBus.fire(TabLoadEventImpl.getInstance());
             cpu.enable();
             configHelper.startup().printWarnCount();
@@ -213,6 +219,56 @@ public class TAB extends TabAPI {
         }
     }
 
+    /**
+     * Reloads configuration files. If only sections of features which can be replaced
+     * changed, or groups and users changed, only these features are rebuilt and properties
+     * are re-evaluated, keeping everything else displayed to players untouched.
+     * Otherwise, the plugin is fully unloaded and loaded again.
+     * Returns reload status message, which is either success or failure.
+     *
+     * @return  Reload status message.
+     */
+    public String reload() {
+        if (pluginDisabled) return load();
+        long time = System.currentTimeMillis();
+        Configs newConfiguration;
+        try {
+            newConfiguration = new Configs();
+        } catch (Throwable e) {
+            // Let full reload report the error
+            unload();
+            return load();
+        }
+        ConfigurationChanges changes = new ConfigurationChanges(configuration, newConfiguration);
+        if (changes.isMysql() || changes.isOtherFilesChanged() || !featureManager.canReplaceFeatures(changes.getChangedSections())) {
+            try {
+                if (newConfiguration.getMysql() != null) newConfiguration.getMysql().closeConnection();
+            } catch (SQLException e) {
+                errorManager.printError("Failed to close MySQL connection", e);
+            }
+            unload();
+            return load();
+        }
+        try {
+            configuration = newConfiguration;
+            Map<String, Long> times = featureManager.replaceFeatures(changes.getChangedSections());
+            if (changes.isPropertiesChanged()) {
+                long propertyTime = System.currentTimeMillis();
+                featureManager.onGroupChange(Arrays.asList(getOnlinePlayers()));
+                times.put("Properties", System.currentTimeMillis() - propertyTime);
+            }
+            configHelper.startup().printWarnCount();
+            platform.logInfo(new TextComponent("Reloaded " + (times.isEmpty() ? "without changes" : times.entrySet().stream()
+                    .map(e -> e.getKey() + " (" + e.getValue() + "ms)").collect(Collectors.joining(", "))) +
+                    " in " + (System.currentTimeMillis()-time) + "ms", TextColor.GREEN));
+            return configuration.getMessages().getReloadSuccess();
+        } catch (Throwable e) {
+            errorManager.criticalError("Failed to reload changed features", e);
+            unload();
+            return load();
+        }
+    }
+
     /**
      * Unloads all features by sending clear packets, resets variables
      * and cancels all tasks.
@@ -221,7 +277,10 @@ public class TAB extends TabAPI {
         if (pluginDisabled) return;
         try {
             long time = System.currentTimeMillis();
-            if (configuration.getMysql() != null) configuration.getMysql().closeConnection();
+            if (configuration.getMysql() != null) {
+                if (configuration.getUsers() instanceof MySQLUserConfiguration) ((MySQLUserConfiguration) configuration.getUsers()).flush();
+                configuration.getMysql().closeConnection();
+            }
             featureManager.unload();
             platform.logInfo(new TextComponent("Disabled in " + (System.currentTimeMillis()-time) + "ms", TextColor.GREEN));
         } catch (Throwable e) {
@@ -238,7 +297,8 @@ public class TAB extends TabAPI {
         data.clear();
         playersByName.clear();
         playersByTabListId.clear();
-        onlinePlayers = new TabPlayer[0];
+        playerRegistry.clear();
+        if (groupManager != null) groupManager.unload();
         cpu.cancelAllTasks();
     }
 
@@ -249,10 +309,10 @@ public class TAB extends TabAPI {
      *          Player to add
      */
     public void addPlayer(@NotNull TabPlayer player) {
+        playerRegistry.add(player);
         data.put(player.getUniqueId(), player);
         playersByName.put(player.getName(), player);
         playersByTabListId.put(player.getTablistId(), player);
-        onlinePlayers = data.values().toArray(new TabPlayer[0]);
     }
 
     /**
@@ -265,7 +325,12 @@ public class TAB extends TabAPI {
         data.remove(player.getUniqueId());
         playersByName.remove(player.getName());
         playersByTabListId.remove(player.getTablistId());
-        onlinePlayers = data.values().toArray(new TabPlayer[0]);
+        playerRegistry.remove(player);
+    }
+
+    @Override
+    public @NotNull TabPlayer[] getOnlinePlayers() {
+        return playerRegistry.getPlayers();
     }
 
     /**
@@ -6,12 +6,14 @@ import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.chat.component.TabComponent;
 import me.neznamy.tab.shared.cpu.CpuReport;
 import me.neznamy.tab.shared.platform.TabPlayer;
+import me.neznamy.tab.shared.util.cache.Cache;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.text.DecimalFormat;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 
 /**
  * Handler for "/tab cpu" subcommand
@@ -53,6 +55,9 @@ public class CpuCommand extends SubCommand {
             sendToConsole(features);
         }
         sendMessage(sender, "&8&l" + LINE_CHAR + "&8&m                                                    ");
+        sendMessage(sender, "&8&l" + LINE_CHAR + " &6Caches (since plugin load):");
+        printCaches(sender);
+        sendMessage(sender, "&8&l" + LINE_CHAR + "&8&m                                                    ");
         sendMessage(sender, String.format("&8&l%s &6&lPlaceholders Total: &a&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getPlaceholderUsageTotal()), 10, 5)));
         sendMessage(sender, String.format("&8&l%s &6&lPlugin internals: &a&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getFeatureUsageTotal()-report.getPlaceholderUsageTotal()), 10, 5)));
         sendMessage(sender, String.format("&8&l%s &6&lTotal: &e&l%s%%", LINE_CHAR, colorize(decimal3.format(report.getFeatureUsageTotal()), 10, 5)));
@@ -72,6 +77,27 @@ public class CpuCommand extends SubCommand {
         }
     }
 
+    private void printCaches(@Nullable TabPlayer sender) {
+        Map<String, long[]> caches = new TreeMap<>();
+        for (Cache<?, ?> cache : Cache.getInstances()) {
+            long[] stats = caches.computeIfAbsent(cache.getName(), n -> new long[5]);
+            stats[0] += cache.getHits();
+            stats[1] += cache.getMisses();
+            stats[2] += cache.getEvictions();
+            stats[3] += cache.size();
+            stats[4] += cache.getCacheSize();
+        }
+        for (Entry<String, long[]> entry : caches.entrySet()) {
+            long[] stats = entry.getValue();
+            long accesses = stats[0] + stats[1];
+            if (accesses == 0) continue;
+            float hitRate = (float) stats[0] * 100 / accesses;
+            String colorized = hitRate >= 90 ? "&a" : hitRate >= 50 ? "&e" : "&c";
+            sendMessage(sender, String.format("&8&l%s &7%s - %s%s%% &7hit rate &8(%d hits, %d misses, %d evictions, %d/%d entries)",
+                    LINE_CHAR, entry.getKey(), colorized, decimal3.format(hitRate), stats[0], stats[1], stats[2], stats[3], stats[4]));
+        }
+    }
+
     private void sendToConsole(@NotNull Map<String, Map<String, Float>> features) {
         TAB.getInstance().getPlatform().logInfo(TabComponent.fromColoredText("&8&l" + LINE_CHAR + " &6Features:"));
         for (Entry<String, Map<String, Float>> entry : features.entrySet()) {
@@ -20,7 +20,6 @@ public class ReloadCommand extends SubCommand {
 
     @Override
     public void execute(@Nullable TabPlayer sender, @NotNull String[] args) {
-        TAB.getInstance().unload();
-        sendMessage(sender, TAB.getInstance().load());
+        sendMessage(sender, TAB.getInstance().reload());
     }
 }
\ No newline at end of file
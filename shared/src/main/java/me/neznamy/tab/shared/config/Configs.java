@@ -1,6 +1,8 @@
 package me.neznamy.tab.shared.config;
 
 import lombok.Getter;
+import me.neznamy.chat.TextColor;
+import me.neznamy.chat.component.TextComponent;
 import me.neznamy.tab.shared.FeatureManager;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
@@ -67,6 +69,7 @@ public class Configs {
             try {
                 mysql = new MySQL(config.getMysql());
                 mysql.openConnection();
+                TAB.getInstance().getPlatform().logInfo(new TextComponent("Successfully connected to MySQL", TextColor.GREEN));
                 groups = new MySQLGroupConfiguration(mysql);
                 users = new MySQLUserConfiguration(mysql);
                 return;
@@ -0,0 +1,56 @@
+package me.neznamy.tab.shared.config;
+
+import lombok.Getter;
+import me.neznamy.tab.shared.config.file.ConfigurationFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Differences between currently loaded configuration and newly loaded configuration,
+ * used to decide whether new configuration can be applied without reloading the entire plugin.
+ */
+@Getter
+public class ConfigurationChanges {
+
+    /** Top-level sections of config.yml with different content */
+    @NotNull
+    private final Set<String> changedSections = new LinkedHashSet<>();
+
+    /** Whether animations.yml or messages.yml changed */
+    private final boolean otherFilesChanged;
+
+    /** Whether groups.yml or users.yml changed */
+    private final boolean propertiesChanged;
+
+    /** Whether MySQL is used by either configuration, in which case groups and users are not compared */
+    private final boolean mysql;
+
+    /**
+     * Compares given configurations.
+     *
+     * @param   oldConfiguration
+     *          Currently loaded configuration
+     * @param   newConfiguration
+     *          Newly loaded configuration
+     */
+    public ConfigurationChanges(@NotNull Configs oldConfiguration, @NotNull Configs newConfiguration) {
+        Map<Object, Object> oldValues = oldConfiguration.getConfig().getConfig().getValues();
+        Map<Object, Object> newValues = newConfiguration.getConfig().getConfig().getValues();
+        Set<Object> sections = new LinkedHashSet<>(oldValues.keySet());
+        sections.addAll(newValues.keySet());
+        for (Object section : sections) {
+            if (!Objects.equals(oldValues.get(section), newValues.get(section))) changedSections.add(section.toString());
+        }
+        otherFilesChanged = !sameValues(oldConfiguration.getAnimations().getAnimationFile(), newConfiguration.getAnimations().getAnimationFile()) ||
+                !sameValues(oldConfiguration.getMessages(), newConfiguration.getMessages());
+        mysql = oldConfiguration.getMysql() != null || newConfiguration.getMysql() != null;
+        propertiesChanged = mysql || !sameValues(oldConfiguration.getGroups(), newConfiguration.getGroups()) ||
+                !sameValues(oldConfiguration.getUsers(), newConfiguration.getUsers());
+    }
+
+    private boolean sameValues(@NotNull Object oldFile, @NotNull Object newFile) {
+        return oldFile instanceof ConfigurationFile && newFile instanceof ConfigurationFile &&
+                ((ConfigurationFile) oldFile).getValues().equals(((ConfigurationFile) newFile).getValues());
+    }
+}
@@ -0,0 +1,191 @@
+package me.neznamy.tab.shared.config.file;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.TabConstants;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Properties of groups.yml or users.yml compiled into hash lookups indexed by
+ * group or user, property, world group and server group. Resolved values are
+ * cached together with their source per world and server, so repeated lookups
+ * of the same property do not walk the configuration or allocate new arrays.
+ */
+public class PropertyResolutionTable {
+
+    /** Result returned when property is not set */
+    private static final String[] NOT_SET = new String[0];
+
+    /** Lowercase default group name */
+    private static final String DEFAULT_GROUP = TabConstants.DEFAULT_GROUP.toLowerCase();
+
+    /** Type of entries, either "group" or "user" */
+    @NotNull private final String category;
+
+    /** Entries by lowercase group or user name and lowercase property name */
+    @NotNull private final Map<String, Map<String, Entry>> entries = new HashMap<>();
+
+    /**
+     * Constructs new instance with given category.
+     *
+     * @param   category
+     *          Type of entries, either "group" or "user"
+     */
+    public PropertyResolutionTable(@NonNull String category) {
+        this.category = category;
+    }
+
+    /**
+     * Adds value defined for all worlds and servers. If value is already present,
+     * it is kept, matching case-insensitive lookup of the configuration file.
+     *
+     * @param   name
+     *          Group or user name as defined in the file
+     * @param   property
+     *          Property name
+     * @param   value
+     *          Property value
+     */
+    public void addGlobal(@NonNull String name, @NonNull String property, @NonNull String value) {
+        Entry entry = getEntry(name, property);
+        if (entry.global == null) entry.global = new String[] {value, category + "=" + name};
+    }
+
+    /**
+     * Adds value defined for a world group.
+     *
+     * @param   worldGroup
+     *          World group name as defined in the file
+     * @param   name
+     *          Group or user name as defined in the file
+     * @param   property
+     *          Property name
+     * @param   value
+     *          Property value
+     */
+    public void addPerWorld(@NonNull String worldGroup, @NonNull String name, @NonNull String property, @NonNull String value) {
+        getEntry(name, property).perWorld.putIfAbsent(worldGroup.toLowerCase(), value);
+    }
+
+    /**
+     * Adds value defined for a server group.
+     *
+     * @param   serverGroup
+     *          Server group name as defined in the file
+     * @param   name
+     *          Group or user name as defined in the file
+     * @param   property
+     *          Property name
+     * @param   value
+     *          Property value
+     */
+    public void addPerServer(@NonNull String serverGroup, @NonNull String name, @NonNull String property, @NonNull String value) {
+        getEntry(name, property).perServer.putIfAbsent(serverGroup.toLowerCase(), value);
+    }
+
+    @NotNull
+    private Entry getEntry(@NotNull String name, @NotNull String property) {
+        return entries.computeIfAbsent(name.toLowerCase(), n -> new HashMap<>())
+                .computeIfAbsent(property.toLowerCase(), p -> new Entry(category + "=" + name));
+    }
+
+    /**
+     * Resolves property value using the standard priority: per-world value of the entry,
+     * per-world value of default group, per-server value of the entry, per-server value
+     * of default group, global value of the entry and global value of default group.
+     *
+     * @param   name
+     *          Group or user name
+     * @param   property
+     *          Property name
+     * @param   server
+     *          Server name
+     * @param   serverGroup
+     *          Server group the server belongs to
+     * @param   world
+     *          World name
+     * @param   worldGroup
+     *          World group the world belongs to
+     * @return  Array with value and its source, or empty array if not set
+     */
+    @NotNull
+    public String[] resolve(@NonNull String name, @NonNull String property, @Nullable String server,
+                            @Nullable String serverGroup, @Nullable String world, @Nullable String worldGroup) {
+        String lowercaseProperty = property.toLowerCase();
+        Entry own = getEntry(entries.get(name.toLowerCase()), lowercaseProperty);
+        Entry def = getEntry(entries.get(DEFAULT_GROUP), lowercaseProperty);
+        if (own == null && def == null) return NOT_SET;
+        String[] value;
+        if (world != null && worldGroup != null) {
+            String lowercaseGroup = worldGroup.toLowerCase();
+            if (own != null && (value = own.getPerWorld(lowercaseGroup, world)) != null) return value;
+            if (def != null && (value = def.getPerWorld(lowercaseGroup, world)) != null) return value;
+        }
+        if (server != null && serverGroup != null) {
+            String lowercaseGroup = serverGroup.toLowerCase();
+            if (own != null && (value = own.getPerServer(lowercaseGroup, server)) != null) return value;
+            if (def != null && (value = def.getPerServer(lowercaseGroup, server)) != null) return value;
+        }
+        if (own != null && own.global != null) return own.global;
+        if (def != null && def.global != null) return def.global;
+        return NOT_SET;
+    }
+
+    @Nullable
+    private Entry getEntry(@Nullable Map<String, Entry> properties, @NotNull String property) {
+        return properties == null ? null : properties.get(property);
+    }
+
+    /**
+     * Values of a single property of a group or user.
+     */
+    @RequiredArgsConstructor
+    private static class Entry {
+
+        /** Source prefix, such as "group=default" */
+        @NotNull private final String source;
+
+        /** Value with source defined for all worlds and servers */
+        @Nullable private String[] global;
+
+        /** Values by lowercase world group */
+        @NotNull private final Map<String, String> perWorld = new HashMap<>();
+
+        /** Values by lowercase server group */
+        @NotNull private final Map<String, String> perServer = new HashMap<>();
+
+        /** Resolved values with source by world name */
+        @NotNull private final Map<String, String[]> worldResults = new ConcurrentHashMap<>();
+
+        /** Resolved values with source by server name */
+        @NotNull private final Map<String, String[]> serverResults = new ConcurrentHashMap<>();
+
+        @Nullable
+        private String[] getPerWorld(@NotNull String worldGroup, @NotNull String world) {
+            return getResult(perWorld, worldResults, worldGroup, world, ", world=");
+        }
+
+        @Nullable
+        private String[] getPerServer(@NotNull String serverGroup, @NotNull String server) {
+            return getResult(perServer, serverResults, serverGroup, server, ", server=");
+        }
+
+        @Nullable
+        private String[] getResult(@NotNull Map<String, String> values, @NotNull Map<String, String[]> results,
+                                   @NotNull String group, @NotNull String element, @NotNull String type) {
+            if (values.isEmpty()) return null;
+            String[] result = results.get(element);
+            if (result != null) return result;
+            String value = values.get(group);
+            if (value == null) return null;
+            result = new String[] {value, source + type + element};
+            results.put(element, result);
+            return result;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package me.neznamy.tab.shared.config.file;
 
 import me.neznamy.tab.shared.TAB;
-import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.config.PropertyConfiguration;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -11,6 +10,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +25,16 @@ public class YamlPropertyConfigurationFile extends YamlConfigurationFile impleme
     private final Collection<String> worldGroups = new ArrayList<>(this.<String, Object>getMap(PER_WORLD).keySet());
     private final Collection<String> serverGroups = new ArrayList<>(this.<String, Object>getMap(PER_SERVER).keySet());
 
+    /** World groups by world name */
+    private final Map<String, String> worldGroupCache = new ConcurrentHashMap<>();
+
+    /** Server groups by server name */
+    private final Map<String, String> serverGroupCache = new ConcurrentHashMap<>();
+
+    /** Compiled property values, {@code null} if file was modified and table needs to be rebuilt */
+    @Nullable
+    private volatile PropertyResolutionTable table;
+
     /**
      * Constructs new instance and attempts to load specified configuration file.
      * If file does not exist, default file is copied from {@code source}.
@@ -68,10 +78,48 @@ public class YamlPropertyConfigurationFile extends YamlConfigurationFile impleme
                 }
             }
         }
+        table = compile();
+    }
+
+    /**
+     * Compiles all values in the file into a new resolution table.
+     *
+     * @return  Resolution table with all values from the file
+     */
+    @NotNull
+    private PropertyResolutionTable compile() {
+        PropertyResolutionTable table = new PropertyResolutionTable(category);
+        for (Map.Entry<Object, Object> entry : getValues().entrySet()) {
+            if (!(entry.getValue() instanceof Map)) continue;
+            String key = entry.getKey().toString();
+            if (key.equals(PER_WORLD) || key.equals(PER_SERVER)) {
+                for (Map.Entry<?, ?> group : ((Map<?, ?>) entry.getValue()).entrySet()) {
+                    if (!(group.getValue() instanceof Map)) continue;
+                    for (Map.Entry<?, ?> name : ((Map<?, ?>) group.getValue()).entrySet()) {
+                        if (!(name.getValue() instanceof Map)) continue;
+                        for (Map.Entry<?, ?> property : ((Map<?, ?>) name.getValue()).entrySet()) {
+                            if (property.getValue() == null) continue;
+                            String value = toString(property.getValue());
+                            if (key.equals(PER_WORLD)) {
+                                table.addPerWorld(group.getKey().toString(), name.getKey().toString(), property.getKey().toString(), value);
+                            } else {
+                                table.addPerServer(group.getKey().toString(), name.getKey().toString(), property.getKey().toString(), value);
+                            }
+                        }
+                    }
+                }
+            } else {
+                for (Map.Entry<?, ?> property : ((Map<?, ?>) entry.getValue()).entrySet()) {
+                    if (property.getValue() == null) continue;
+                    table.addGlobal(key, property.getKey().toString(), toString(property.getValue()));
+                }
+            }
+        }
+        return table;
     }
 
     @Override
-    public void setProperty(@NotNull String name, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
+    public synchronized void setProperty(@NotNull String name, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
         if (world != null) {
             set(String.format("%s.%s.%s.%s", PER_WORLD, world, name, property), fromString(value));
         } else if (server != null) {
@@ -79,37 +127,31 @@ public class YamlPropertyConfigurationFile extends YamlConfigurationFile impleme
         } else {
             set(String.format("%s.%s", name, property), fromString(value));
         }
+        table = null;
     }
 
     @Override
     public String[] getProperty(@NotNull String name, @NotNull String property, @Nullable String server, @Nullable String world) {
-        Object value;
-        if ((value = getObject(new String[] {PER_WORLD, TAB.getInstance().getConfiguration().getGroup(worldGroups, world), name, property})) != null) {
-            return new String[] {toString(value), category + "=" + name + ", world=" + world};
-        }
-        if ((value = getObject(new String[] {PER_WORLD, TAB.getInstance().getConfiguration().getGroup(worldGroups, world), TabConstants.DEFAULT_GROUP, property})) != null) {
-            return new String[] {toString(value), category + "=" + TabConstants.DEFAULT_GROUP + ", world=" + world};
-        }
-        if ((value = getObject(new String[] {PER_SERVER, TAB.getInstance().getConfiguration().getServerGroup(serverGroups, server), name, property})) != null) {
-            return new String[] {toString(value), category + "=" + name + ", server=" + server};
-        }
-        if ((value = getObject(new String[] {PER_SERVER, TAB.getInstance().getConfiguration().getServerGroup(serverGroups, server), TabConstants.DEFAULT_GROUP, property})) != null) {
-            return new String[] {toString(value), category + "=" + TabConstants.DEFAULT_GROUP + ", server=" + server};
-        }
-        if ((value = getObject(new String[] {name, property})) != null) {
-            return new String[] {toString(value), category + "=" + name};
-        }
-        if ((value = getObject(new String[] {TabConstants.DEFAULT_GROUP, property})) != null) {
-            return new String[] {toString(value), category + "=" + TabConstants.DEFAULT_GROUP};
+        PropertyResolutionTable table = this.table;
+        if (table == null) {
+            synchronized (this) {
+                if (this.table == null) this.table = compile();
+                table = this.table;
+            }
         }
-        return new String[0];
+        String worldGroup = world == null ? null : worldGroupCache.computeIfAbsent(world,
+                w -> TAB.getInstance().getConfiguration().getGroup(worldGroups, w));
+        String serverGroup = server == null ? null : serverGroupCache.computeIfAbsent(server,
+                s -> TAB.getInstance().getConfiguration().getServerGroup(serverGroups, s));
+        return table.resolve(name, property, server, serverGroup, world, worldGroup);
     }
 
     @Override
-    public void remove(@NotNull String name) {
+    public synchronized void remove(@NotNull String name) {
         set(name, null);
         getMap(PER_WORLD).keySet().forEach(world -> set(PER_WORLD + "." + world + "." + name, null));
         getMap(PER_SERVER).keySet().forEach(server -> set(PER_SERVER + "." + server + "." + name, null));
+        table = null;
     }
 
     @Override
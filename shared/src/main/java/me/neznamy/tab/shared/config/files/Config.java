@@ -21,6 +21,7 @@ import me.neznamy.tab.shared.features.sorting.SortingConfiguration;
 import me.neznamy.tab.shared.placeholders.PlaceholderRefreshConfiguration;
 import me.neznamy.tab.shared.placeholders.PlaceholderReplacementsConfiguration;
 import me.neznamy.tab.shared.placeholders.PlaceholdersConfiguration;
+import me.neznamy.tab.shared.placeholders.RelationalPlaceholderInputsConfiguration;
 import me.neznamy.tab.shared.placeholders.conditions.ConditionsSection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -48,6 +49,7 @@ public class Config {
     @NotNull private final PlaceholderRefreshConfiguration refresh;
     @NotNull private final PlaceholderReplacementsConfiguration replacements;
     @NotNull private final PlaceholdersConfiguration placeholders;
+    @NotNull private final RelationalPlaceholderInputsConfiguration relationalInputs;
     @Nullable private PlayerListObjectiveConfiguration playerlistObjective;
     @Nullable private ScoreboardConfiguration scoreboard;
     @Nullable private SortingConfiguration sorting;
@@ -60,6 +62,7 @@ public class Config {
     private final boolean onlineUuidInTabList = config.getBoolean("use-online-uuid-in-tablist", true);
     private final boolean pipelineInjection = getSecretOption("pipeline-injection", true);
     @NotNull private final String serverName = getSecretOption("server-name", "N/A");
+    private final int placeholderRefreshTimeout = getSecretOption("placeholder-refresh-timeout", 1000);
     private final int permissionRefreshInterval = config.getInt("permission-refresh-interval", 1000);
     private final boolean enableProxySupport = config.getBoolean("proxy-support.enabled", true);
     private final boolean packetEventsCompensation = config.getBoolean("compensate-for-packetevents-bug", false) && !TAB.getInstance().getPlatform().isSafeFromPacketEventsBug();
@@ -84,6 +87,7 @@ public class Config {
         refresh = PlaceholderRefreshConfiguration.fromSection(config.getConfigurationSection("placeholderapi-refresh-intervals"));
         replacements = PlaceholderReplacementsConfiguration.fromSection(config.getConfigurationSection("placeholder-output-replacements"));
         placeholders = PlaceholdersConfiguration.fromSection(config.getConfigurationSection("placeholders"));
+        relationalInputs = RelationalPlaceholderInputsConfiguration.fromSection(config.getConfigurationSection("relational-placeholder-inputs"));
         if (config.getBoolean("belowname-objective.enabled", false)) belowname = BelowNameConfiguration.fromSection(config.getConfigurationSection("belowname-objective"));
         if (config.getBoolean("bossbar.enabled", false)) bossbar = BossBarConfiguration.fromSection(config.getConfigurationSection("bossbar"));
         if (config.getBoolean("global-playerlist.enabled", false)) globalPlayerList = GlobalPlayerListConfiguration.fromSection(config.getConfigurationSection("global-playerlist"));
@@ -2,72 +2,232 @@ package me.neznamy.tab.shared.config.mysql;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import me.neznamy.tab.shared.TAB;
-import me.neznamy.chat.TextColor;
-import me.neznamy.chat.component.TextComponent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.sql.rowset.CachedRowSet;
 import javax.sql.rowset.RowSetProvider;
 import java.sql.*;
-import java.util.Properties;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * MySQL access using a small pool of connections. Each connection caches
+ * prepared statements of queries it has executed, so repeated queries are
+ * only prepared once per connection.
+ */
 @RequiredArgsConstructor
 public class MySQL {
 
-    private Connection con;
+    /** How long to wait for a connection to be returned to the pool before failing */
+    private static final int ACQUIRE_TIMEOUT_SECONDS = 10;
+
     @NotNull private final MySQLConfiguration configuration;
 
-    public void openConnection() throws SQLException {
-        if (isConnected()) return;
-        Properties properties = new Properties();
-        properties.setProperty("user", configuration.getUsername());
-        properties.setProperty("password", configuration.getPassword());
-        properties.setProperty("useSSL", String.valueOf(configuration.isUseSSL()));
-        properties.setProperty("characterEncoding", "UTF-8");
-        con = DriverManager.getConnection(String.format("jdbc:mysql://%s:%d/%s", configuration.getHost(), configuration.getPort(), configuration.getDatabase()), properties);
-        TAB.getInstance().getPlatform().logInfo(new TextComponent("Successfully connected to MySQL", TextColor.GREEN));
-    }
-    
-    public void closeConnection() throws SQLException {
-        if (isConnected()) con.close();
+    /** Connections which are not currently in use */
+    private BlockingQueue<PooledConnection> idle;
+
+    /** All open connections, including the ones currently in use */
+    private final Set<PooledConnection> connections = new HashSet<>();
+
+    public synchronized void openConnection() throws SQLException {
+        if (idle != null) return;
+        idle = new ArrayBlockingQueue<>(configuration.getPoolSize());
+        idle.add(createConnection());
     }
 
-    private boolean isConnected() throws SQLException {
-        return con != null && !con.isClosed();
+    public synchronized void closeConnection() throws SQLException {
+        for (PooledConnection connection : connections) {
+            connection.connection.close();
+        }
+        connections.clear();
+        idle = null;
     }
 
     public void execute(@NonNull String query, @Nullable Object... vars) throws SQLException {
-        try (PreparedStatement ps = prepareStatement(query, vars)) {
-            ps.execute();
+        PooledConnection connection = acquire();
+        boolean success = false;
+        try {
+            connection.prepare(query, vars).execute();
+            success = true;
+        } finally {
+            releaseOrDiscard(connection, success);
         }
     }
 
-    private PreparedStatement prepareStatement(@NonNull String query, @Nullable Object... vars) throws SQLException {
-        if (!isConnected()) openConnection();
-        PreparedStatement ps = con.prepareStatement(query);
-        int i = 0;
-        if (query.contains("?")) {
-            for (Object obj : vars) {
-                i++;
-                ps.setObject(i, obj);
+    /**
+     * Executes all given queries in a single transaction. Each query is executed
+     * as a JDBC batch with all of its parameter rows. Queries are executed in
+     * iteration order of the map.
+     *
+     * @param   batches
+     *          Map of queries and their parameter rows
+     * @throws  SQLException
+     *          If any of the queries failed, in which case none of them are committed
+     */
+    public void executeBatches(@NonNull Map<String, List<Object[]>> batches) throws SQLException {
+        PooledConnection connection = acquire();
+        boolean success = false;
+        try {
+            connection.connection.setAutoCommit(false);
+            try {
+                for (Map.Entry<String, List<Object[]>> entry : batches.entrySet()) {
+                    if (entry.getValue().isEmpty()) continue;
+                    PreparedStatement ps = null;
+                    for (Object[] vars : entry.getValue()) {
+                        ps = connection.prepare(entry.getKey(), vars);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                connection.connection.commit();
+            } catch (SQLException e) {
+                connection.connection.rollback();
+                throw e;
+            } finally {
+                connection.connection.setAutoCommit(true);
             }
+            success = true;
+        } finally {
+            releaseOrDiscard(connection, success);
         }
-        return ps;
     }
 
     public CachedRowSet getCRS(@NonNull String query, @NonNull Object... vars) throws SQLException {
-        PreparedStatement ps = prepareStatement(query, vars);
-        ResultSet rs = ps.executeQuery();
-        CachedRowSet crs;
-        try {
-            crs = RowSetProvider.newFactory().createCachedRowSet();
+        PooledConnection connection = acquire();
+        boolean success = false;
+        try (ResultSet rs = connection.prepare(query, vars).executeQuery()) {
+            CachedRowSet crs = RowSetProvider.newFactory().createCachedRowSet();
             crs.populate(rs);
+            success = true;
             return crs;
         } finally {
-            rs.close();
-            ps.close();
+            releaseOrDiscard(connection, success);
+        }
+    }
+
+    /**
+     * Takes a connection from the pool. If there is no idle connection and the pool
+     * is not full, a new connection is opened. Otherwise, waits for a connection to be released.
+     *
+     * @return  Connection ready to be used
+     * @throws  SQLException
+     *          If connection could not be opened or no connection was released in time
+     */
+    @NotNull
+    private PooledConnection acquire() throws SQLException {
+        if (idle == null) openConnection();
+        BlockingQueue<PooledConnection> idle = this.idle;
+        PooledConnection connection = idle.poll();
+        if (connection == null) {
+            synchronized (this) {
+                if (connections.size() < configuration.getPoolSize()) return createConnection();
+            }
+            try {
+                connection = idle.poll(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            }
+            if (connection == null) throw new SQLException("No connection became available in " + ACQUIRE_TIMEOUT_SECONDS + " seconds");
+        }
+        if (connection.connection.isClosed()) {
+            discard(connection);
+            return acquire();
+        }
+        return connection;
+    }
+
+    /**
+     * Returns connection to the pool if it was used successfully. Otherwise, including
+     * when an unchecked exception was thrown, the connection is discarded.
+     *
+     * @param   connection
+     *          Connection which is no longer used
+     * @param   success
+     *          Whether the connection was used without any error
+     */
+    private void releaseOrDiscard(@NotNull PooledConnection connection, boolean success) {
+        if (success) {
+            release(connection);
+        } else {
+            discard(connection);
+        }
+    }
+
+    private void release(@NotNull PooledConnection connection) {
+        BlockingQueue<PooledConnection> idle = this.idle;
+        if (idle == null || !idle.offer(connection)) discard(connection);
+    }
+
+    /**
+     * Closes connection and removes it from the pool. Used when connection
+     * failed, as its state can no longer be trusted.
+     *
+     * @param   connection
+     *          Connection to discard
+     */
+    private synchronized void discard(@NotNull PooledConnection connection) {
+        connections.remove(connection);
+        try {
+            connection.connection.close();
+        } catch (SQLException ignored) {
+            // Already broken
+        }
+    }
+
+    @NotNull
+    private synchronized PooledConnection createConnection() throws SQLException {
+        PooledConnection connection = new PooledConnection(connect());
+        connections.add(connection);
+        return connection;
+    }
+
+    /**
+     * Opens a new connection to the configured database.
+     *
+     * @return  New connection
+     * @throws  SQLException
+     *          If connection could not be opened
+     */
+    @NotNull
+    Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", configuration.getUsername());
+        properties.setProperty("password", configuration.getPassword());
+        properties.setProperty("useSSL", String.valueOf(configuration.isUseSSL()));
+        properties.setProperty("characterEncoding", "UTF-8");
+        properties.setProperty("rewriteBatchedStatements", "true");
+        return DriverManager.getConnection(String.format("jdbc:mysql://%s:%d/%s",
+                configuration.getHost(), configuration.getPort(), configuration.getDatabase()), properties);
+    }
+
+    /**
+     * Connection with cached prepared statements.
+     */
+    @RequiredArgsConstructor
+    private static class PooledConnection {
+
+        @NotNull private final Connection connection;
+        @NotNull private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        @NotNull
+        private PreparedStatement prepare(@NotNull String query, @Nullable Object... vars) throws SQLException {
+            PreparedStatement ps = statements.get(query);
+            if (ps == null || ps.isClosed()) {
+                ps = connection.prepareStatement(query);
+                statements.put(query, ps);
+            } else {
+                ps.clearParameters();
+            }
+            if (vars != null) {
+                for (int i = 0; i < vars.length; i++) {
+                    ps.setObject(i + 1, vars[i]);
+                }
+            }
+            return ps;
         }
     }
-}
\ No newline at end of file
+}
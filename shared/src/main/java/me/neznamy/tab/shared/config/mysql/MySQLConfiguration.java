@@ -20,6 +20,7 @@ public class MySQLConfiguration {
     @NotNull private final String username;
     @NotNull private final String password;
     private final boolean useSSL;
+    private final int poolSize;
 
     /**
      * Returns instance of this class created from given configuration section. If there are
@@ -32,7 +33,8 @@ public class MySQLConfiguration {
     @NotNull
     public static MySQLConfiguration fromSection(@NotNull ConfigurationSection section) {
         // Check keys
-        section.checkForUnknownKey(Arrays.asList("enabled", "host", "port", "database", "username", "password", "useSSL"));
+        section.checkForUnknownKey(Arrays.asList("enabled", "host", "port", "database", "username", "password", "useSSL", "pool-size"));
+        Integer poolSize = section.getInt("pool-size");
 
         return new MySQLConfiguration(
                 section.getString("host", "127.0.0.1"),
@@ -40,7 +42,8 @@ public class MySQLConfiguration {
                 section.getString("database", "tab"),
                 section.getString("username", "user"),
                 section.getString("password", "password"),
-                section.getBoolean("useSSL", true)
+                section.getBoolean("useSSL", true),
+                poolSize == null ? 2 : Math.max(1, poolSize)
         );
     }
 }
@@ -9,11 +9,44 @@ import org.jetbrains.annotations.Nullable;
 import javax.sql.rowset.CachedRowSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MySQLUserConfiguration implements PropertyConfiguration {
 
+    /** How long to wait for more players to join before loading queued players and writing queued changes */
+    private static final int FLUSH_INTERVAL = 50;
+
+    /** Maximum amount of players loaded with a single query */
+    static final int MAX_LOAD_BATCH = 32;
+
+    /** Query loading up to {@link #MAX_LOAD_BATCH} players by both name and UUID */
+    static final String LOAD_QUERY = "select * from `tab_users` where `user` in (" +
+            String.join(", ", Collections.nCopies(MAX_LOAD_BATCH * 2, "?")) + ")";
+
+    /** Query removing all data of a user */
+    private static final String DELETE_USER_QUERY = "delete from `tab_users` where `user` = ?";
+
+    /** Query removing a property of a user, with null world or server matching null (MySQL's {@code <=>} is not portable) */
+    private static final String DELETE_PROPERTY_QUERY = "delete from `tab_users` where `user` = ? and `property` = ? and " +
+            "coalesce(world, '') = coalesce(?, '') and coalesce(server, '') = coalesce(?, '')";
+
+    /** Query inserting a property of a user */
+    private static final String INSERT_QUERY = "insert into `tab_users` (`user`, `property`, `value`, `world`, `server`) values (?, ?, ?, ?, ?)";
+
     private final MySQL mysql;
 
+    /** Players waiting to have their data loaded */
+    private final Set<TabPlayer> pendingLoads = new LinkedHashSet<>();
+
+    /**
+     * Changes waiting to be written. Keys are {@code [user, property, world, server]} for
+     * property changes with empty value meaning removal, or {@code [user]} for removing all data of user.
+     */
+    private final Map<List<String>, Optional<String>> pendingWrites = new LinkedHashMap<>();
+
+    /** Whether a flush of pending loads and writes is already scheduled */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
     private final WeakHashMap<TabPlayer, Map<String, Object>> values = new WeakHashMap<>();
     private final Map<String, WeakHashMap<TabPlayer, Map<String, Object>>> perWorld = new HashMap<>();
     private final Map<String, WeakHashMap<TabPlayer, Map<String, Object>>> perServer = new HashMap<>();
@@ -26,20 +59,48 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
     @Override
     public void setProperty(@NotNull String user, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
         TabPlayer p = getPlayer(user);
-        String lowercaseUser = user.toLowerCase();
-        try {
-            if (getProperty(lowercaseUser, property, server, world) != null) {
-                mysql.execute("delete from `tab_users` where `user` = ? and `property` = ? and world " + querySymbol(world == null) + " ? and server " + querySymbol(server == null) + " ?", lowercaseUser, property, world, server);
-            }
-            if (p != null) setProperty0(p, property, server, world, value);
-            if (value != null) mysql.execute("insert into `tab_users` (`user`, `property`, `value`, `world`, `server`) values (?, ?, ?, ?, ?)", lowercaseUser, property, value, world, server);
-        } catch (SQLException e) {
-            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
+        if (p != null) setProperty0(p, property, server, world, value);
+        queueWrite(user, property, server, world, value);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues a property change to be written on next flush, replacing
+     * previously queued change of the same property.
+     *
+     * @param   user
+     *          Name or UUID of the user
+     * @param   property
+     *          Property name
+     * @param   server
+     *          Server the property applies to, {@code null} for all servers
+     * @param   world
+     *          World the property applies to, {@code null} for all worlds
+     * @param   value
+     *          New value, {@code null} to remove the property
+     */
+    void queueWrite(@NotNull String user, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
+        synchronized (pendingWrites) {
+            List<String> key = Arrays.asList(user.toLowerCase(), property, world, server);
+            pendingWrites.remove(key); // Move to the end
+            pendingWrites.put(key, Optional.ofNullable(value));
         }
     }
 
-    private String querySymbol(boolean isNull) {
-        return isNull ? "is" : "=";
+    /**
+     * Queues removal of all data of a user to be written on next flush, replacing
+     * all previously queued changes of the user.
+     *
+     * @param   user
+     *          Name or UUID of the user
+     */
+    void queueRemoval(@NotNull String user) {
+        synchronized (pendingWrites) {
+            // Earlier changes of this user would be deleted anyway
+            String lowercaseName = user.toLowerCase();
+            pendingWrites.keySet().removeIf(key -> key.get(0).equals(lowercaseName));
+            pendingWrites.put(Collections.singletonList(lowercaseName), Optional.empty());
+        }
     }
 
     private void setProperty0(@NotNull TabPlayer user, @NotNull String property, @Nullable String server, @Nullable String world, @Nullable String value) {
@@ -71,11 +132,8 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
 
     @Override
     public void remove(@NotNull String player) {
-        try {
-            mysql.execute("delete from `tab_users` where `user` = ?", player);
-        } catch (SQLException e) {
-            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
-        }
+        queueRemoval(player);
+        scheduleFlush();
         TabPlayer user = getPlayer(player);
         if (user == null) return;
         values.remove(user);
@@ -119,37 +177,136 @@ public class MySQLUserConfiguration implements PropertyConfiguration {
         return p;
     }
 
+    /**
+     * Queues loading of player's data. All players queued within {@link #FLUSH_INTERVAL}
+     * are loaded using a single query.
+     *
+     * @param   player
+     *          Player to load data of
+     */
     public void load(@NotNull TabPlayer player) {
-        TAB.getInstance().getCPUManager().getMysqlThread().execute(() -> {
+        synchronized (pendingLoads) {
+            pendingLoads.add(player);
+        }
+        scheduleFlush();
+    }
 
-            try {
-                CachedRowSet crs = mysql.getCRS("select * from `tab_users` where `user` = ?", player.getName().toLowerCase());
-                while (crs.next()) {
-                    String user = crs.getString("user");
-                    String property = crs.getString("property");
-                    String value = crs.getString("value");
-                    String world = crs.getString("world");
-                    String server = crs.getString("server");
-                    TAB.getInstance().debug("Loaded user line: " + String.format("%s, %s, %s, %s, %s", user, property, value, world, server));
-                    setProperty0(player, property, server, world, value);
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            TAB.getInstance().getCPUManager().getMysqlThread().executeLater(() -> {
+                flushScheduled.set(false);
+                flush();
+            }, FLUSH_INTERVAL);
+        }
+    }
+
+    /**
+     * Writes all queued changes into the database and then loads data of all
+     * queued players. Writes are done first, so loads never see outdated data.
+     */
+    public synchronized void flush() {
+        flushWrites();
+        flushLoads();
+    }
+
+    /**
+     * Writes all queued changes in a single transaction.
+     */
+    void flushWrites() {
+        List<Object[]> userDeletes = new ArrayList<>();
+        List<Object[]> propertyDeletes = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        synchronized (pendingWrites) {
+            if (pendingWrites.isEmpty()) return;
+            for (Map.Entry<List<String>, Optional<String>> entry : pendingWrites.entrySet()) {
+                List<String> key = entry.getKey();
+                if (key.size() == 1) {
+                    userDeletes.add(key.toArray());
+                    continue;
                 }
-                CachedRowSet crs2 = mysql.getCRS("select * from `tab_users` where `user` = ?", player.getUniqueId().toString());
-                while (crs2.next()) {
-                    String user = crs2.getString("user");
-                    String property = crs2.getString("property");
-                    String value = crs2.getString("value");
-                    String world = crs2.getString("world");
-                    String server = crs2.getString("server");
-                    TAB.getInstance().debug("Loaded user line: " + String.format("%s, %s, %s, %s, %s", user, property, value, world, server));
-                    setProperty0(player, property, server, world, value);
+                propertyDeletes.add(key.toArray());
+                entry.getValue().ifPresent(value -> inserts.add(new Object[]{key.get(0), key.get(1), value, key.get(2), key.get(3)}));
+            }
+            pendingWrites.clear();
+        }
+        Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+        batches.put(DELETE_USER_QUERY, userDeletes);
+        batches.put(DELETE_PROPERTY_QUERY, propertyDeletes);
+        batches.put(INSERT_QUERY, inserts);
+        try {
+            mysql.executeBatches(batches);
+        } catch (SQLException e) {
+            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
+        }
+    }
+
+    private void flushLoads() {
+        List<TabPlayer> players;
+        synchronized (pendingLoads) {
+            if (pendingLoads.isEmpty()) return;
+            players = new ArrayList<>(pendingLoads);
+            pendingLoads.clear();
+        }
+        for (int i = 0; i < players.size(); i += MAX_LOAD_BATCH) {
+            load(players.subList(i, Math.min(players.size(), i + MAX_LOAD_BATCH)));
+        }
+    }
+
+    /**
+     * Loads data of all given players using a single query, then processes
+     * lines matching player names before lines matching UUIDs, so UUID lines
+     * take priority.
+     *
+     * @param   players
+     *          Players to load data of
+     */
+    private void load(@NotNull List<TabPlayer> players) {
+        Map<String, List<TabPlayer>> byName = new HashMap<>();
+        Map<String, List<TabPlayer>> byUUID = new HashMap<>();
+        for (TabPlayer player : players) {
+            byName.computeIfAbsent(player.getName().toLowerCase(), n -> new ArrayList<>()).add(player);
+            byUUID.computeIfAbsent(player.getUniqueId().toString(), n -> new ArrayList<>()).add(player);
+        }
+        // Always use the same amount of parameters to reuse the prepared statement
+        Object[] vars = new Object[MAX_LOAD_BATCH * 2];
+        int index = 0;
+        for (String name : byName.keySet()) vars[index++] = name;
+        for (String uuid : byUUID.keySet()) vars[index++] = uuid;
+        Arrays.fill(vars, index, vars.length, vars[0]);
+        try {
+            CachedRowSet crs = mysql.getCRS(LOAD_QUERY, vars);
+            List<String[]> uuidLines = new ArrayList<>();
+            Set<TabPlayer> changed = new HashSet<>();
+            while (crs.next()) {
+                String[] line = {crs.getString("user"), crs.getString("property"), crs.getString("value"), crs.getString("world"), crs.getString("server")};
+                // Database lookup is case-insensitive
+                String user = line[0].toLowerCase();
+                if (byUUID.containsKey(user)) {
+                    uuidLines.add(line);
+                } else {
+                    loadLine(byName.get(user), line, changed);
                 }
+            }
+            for (String[] line : uuidLines) {
+                loadLine(byUUID.get(line[0].toLowerCase()), line, changed);
+            }
+            for (TabPlayer player : players) {
                 TAB.getInstance().debug("Loaded MySQL data of " + player.getName());
-                if (crs.size() > 0 || crs2.size() > 0) {
-                    TAB.getInstance().getFeatureManager().onGroupChange(player);
-                }
-            } catch (SQLException e) {
-                TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
             }
-        });
+            for (TabPlayer player : changed) {
+                TAB.getInstance().getFeatureManager().onGroupChange(player);
+            }
+        } catch (SQLException e) {
+            TAB.getInstance().getErrorManager().mysqlQueryFailed(e);
+        }
+    }
+
+    private void loadLine(@Nullable List<TabPlayer> players, @NotNull String[] line, @NotNull Set<TabPlayer> changed) {
+        if (players == null) return;
+        TAB.getInstance().debug("Loaded user line: " + String.join(", ", line));
+        for (TabPlayer player : players) {
+            setProperty0(player, line[1], line[4], line[3], line[2]);
+            changed.add(player);
+        }
     }
-}
\ No newline at end of file
+}
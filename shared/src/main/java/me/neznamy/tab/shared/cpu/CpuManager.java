@@ -19,6 +19,12 @@ public class CpuManager {
 
     private final int UPDATE_RATE_SECONDS = 10;
 
+    /** Amount of threads used for requesting placeholder values */
+    private final int PLACEHOLDER_WORKER_COUNT = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    /** Amount of threads used for MySQL tasks, so a long command query does not delay loading of joining players */
+    private final int MYSQL_THREAD_COUNT = 2;
+
     /** Active time in current time period saved as nanoseconds from features */
     private volatile Map<String, Map<String, AtomicLong>> featureUsageCurrent = new ConcurrentHashMap<>();
 
@@ -34,6 +40,9 @@ public class CpuManager {
     /** Scheduler for placeholder refreshing task to prevent inefficient placeholders from lagging the entire plugin */
     private final ThreadExecutor placeholderThread = new ThreadExecutor("TAB Placeholder Refreshing Thread");
 
+    /** Worker pool executing placeholder refresh shards, so one slow placeholder does not stall all the others */
+    private final ThreadExecutor placeholderWorkers = new ThreadExecutor("TAB Placeholder Refreshing Worker #%d", PLACEHOLDER_WORKER_COUNT);
+
     /** Scheduler for refreshing permission groups */
     private final ThreadExecutor groupRefreshingThread = new ThreadExecutor("TAB Permission Group Refreshing Thread");
 
@@ -48,7 +57,7 @@ public class CpuManager {
     private final ThreadExecutor pluginMessageDecodeThread = new ThreadExecutor("TAB Plugin Message Decoding Thread");
 
     /** Scheduler for MySQL tasks */
-    private final ThreadExecutor mysqlThread = new ThreadExecutor("TAB MySQL Thread");
+    private final ThreadExecutor mysqlThread = new ThreadExecutor("TAB MySQL Thread #%d", MYSQL_THREAD_COUNT);
 
     /** Tasks submitted to main thread before plugin was fully enabled */
     private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
@@ -82,6 +91,7 @@ public class CpuManager {
     public void cancelAllTasks() {
         processingThread.shutdown();
         placeholderThread.shutdown();
+        placeholderWorkers.shutdown();
         groupRefreshingThread.shutdown();
         tablistEntryCheckThread.shutdown();
         pluginMessageDecodeThread.shutdown();
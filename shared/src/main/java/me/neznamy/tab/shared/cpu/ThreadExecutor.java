@@ -6,12 +6,13 @@ import me.neznamy.tab.shared.TAB;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Thread executor for accepting tasks to execute them in a single threaded executor.
- * All tasks are try/catch-ed and might track CPU usage if needed.
+ * Thread executor for accepting tasks to execute them in a single threaded executor
+ * or a fixed-size pool of threads. All tasks are try/catch-ed and might track CPU usage if needed.
  */
 public class ThreadExecutor {
 
@@ -29,6 +30,20 @@ public class ThreadExecutor {
         executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat(threadName).build());
     }
 
+    /**
+     * Constructs new instance and starts a fixed-size pool of threads. Thread name format
+     * may contain {@code %d}, which will be replaced with index of the thread.
+     *
+     * @param   threadNameFormat
+     *          Name format of the created threads
+     * @param   threadCount
+     *          Amount of threads in the pool
+     */
+    public ThreadExecutor(@NotNull String threadNameFormat, int threadCount) {
+        threadName = threadNameFormat;
+        executor = Executors.newScheduledThreadPool(threadCount, new ThreadFactoryBuilder().setNameFormat(threadNameFormat).build());
+    }
+
     /**
      * Shuts down the executor.
      */
@@ -41,14 +56,54 @@ public class ThreadExecutor {
         }
     }
 
-    public void execute(@NotNull Runnable task) {
-        if (executor.isShutdown()) return;
-        executor.execute(new CaughtTask(task));
+    /**
+     * Submits task to be executed. If the executor is shut down, the task is ignored.
+     *
+     * @param   task
+     *          Task to execute
+     * @return  {@code true} if task was accepted, {@code false} if executor is shut down
+     */
+    public boolean execute(@NotNull Runnable task) {
+        return submit(new CaughtTask(task));
+    }
+
+    /**
+     * Submits task to be executed. If the executor is shut down, the task is ignored.
+     *
+     * @param   task
+     *          Task to execute
+     * @return  {@code true} if task was accepted, {@code false} if executor is shut down
+     */
+    public boolean execute(@NotNull TimedCaughtTask task) {
+        return submit(task);
+    }
+
+    /**
+     * Submits task which is already try/catch-ed to be executed. If the executor is shut down,
+     * the task is ignored. Allows reusing the same instance instead of wrapping it every time.
+     *
+     * @param   task
+     *          Task to execute
+     * @return  {@code true} if task was accepted, {@code false} if executor is shut down
+     */
+    public boolean execute(@NotNull CaughtTask task) {
+        return submit(task);
+    }
+
+    private boolean submit(@NotNull Runnable task) {
+        if (executor.isShutdown()) return false;
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Shut down in the meantime
+            return false;
+        }
     }
 
-    public void execute(@NotNull TimedCaughtTask task) {
+    public void executeLater(@NotNull Runnable task, int delayMillis) {
         if (executor.isShutdown()) return;
-        executor.execute(task);
+        executor.schedule(new CaughtTask(task), delayMillis, TimeUnit.MILLISECONDS);
     }
 
     public void executeLater(@NotNull TimedCaughtTask task, int delayMillis) {
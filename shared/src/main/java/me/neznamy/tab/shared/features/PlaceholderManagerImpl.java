@@ -14,7 +14,11 @@ import me.neznamy.tab.shared.features.types.CustomThreaded;
 import me.neznamy.tab.shared.features.types.JoinListener;
 import me.neznamy.tab.shared.features.types.Loadable;
 import me.neznamy.tab.shared.features.types.RefreshableFeature;
+import me.neznamy.tab.shared.features.types.TabFeature;
+import me.neznamy.tab.shared.placeholders.PlaceholderDependencyGraph;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshBuffer;
 import me.neznamy.tab.shared.placeholders.PlaceholderRefreshConfiguration;
+import me.neznamy.tab.shared.placeholders.PlaceholderRefreshEngine;
 import me.neznamy.tab.shared.placeholders.PlaceholderRefreshTask;
 import me.neznamy.tab.shared.placeholders.expansion.EmptyTabExpansion;
 import me.neznamy.tab.shared.placeholders.expansion.TabExpansion;
@@ -30,6 +34,7 @@ import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
@@ -44,10 +49,21 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
 
     @NotNull private final PlaceholderRefreshConfiguration configuration;
 
-    private final Map<String, Placeholder> registeredPlaceholders = new HashMap<>();
+    private final Map<String, Placeholder> registeredPlaceholders = new ConcurrentHashMap<>();
 
     //map of String-Set of features using placeholder
     private final Map<String, Set<RefreshableFeature>> placeholderUsage = new ConcurrentHashMap<>();
+
+    /**
+     * Usage of relational placeholder inputs added on behalf of features using the relational
+     * placeholder, by relational placeholder identifier and input identifier. Only contains
+     * features which did not use the input directly, so that the usage can be removed again.
+     */
+    private final Map<String, Map<String, Set<RefreshableFeature>>> inputUsage = new HashMap<>();
+
+    /** Graph of placeholders using other placeholders */
+    @NotNull @Getter private final PlaceholderDependencyGraph dependencyGraph = new PlaceholderDependencyGraph(this, placeholderUsage);
+
     private Placeholder[] usedPlaceholders = new Placeholder[0];
 
     @Getter private int loopTime;
@@ -56,6 +72,18 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
 
     private final CpuManager cpu;
 
+    /** Engine refreshing placeholders in worker threads */
+    @NotNull private final PlaceholderRefreshEngine refreshEngine;
+
+    /** Reusable list of buffers of placeholders refreshed in current loop, only used in processing thread */
+    @NotNull private final List<PlaceholderRefreshBuffer> refreshBuffers = new ArrayList<>();
+
+    /** Reusable result handler of placeholder refresh */
+    @NotNull private final Consumer<PlaceholderRefreshTask> resultHandler = this::processRefreshResults;
+
+    /** Live view of all online players, shared by all features which should be refreshed for everyone */
+    @NotNull private final Collection<TabPlayer> allPlayers = TAB.getInstance().getData().values();
+
     /** Placeholders which are refreshed on backend server */
     @Getter
     private final Map<String, Integer> bridgePlaceholders = new ConcurrentHashMap<>();
@@ -71,133 +99,148 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
     public PlaceholderManagerImpl(@NotNull CpuManager cpu, @NotNull PlaceholderRefreshConfiguration configuration) {
         this.cpu = cpu;
         this.configuration = configuration;
+        refreshEngine = new PlaceholderRefreshEngine(cpu, getFeatureName(), TAB.getInstance().getConfiguration().getConfig().getPlaceholderRefreshTimeout());
         tabExpansion = TAB.getInstance().getConfiguration().getConfig().getPlaceholders().isRegisterTabExpansion() ?
                 TAB.getInstance().getPlatform().createTabExpansion() : new EmptyTabExpansion();
     }
 
     private void refresh() {
         loopTime += TabConstants.Placeholder.MINIMUM_REFRESH_INTERVAL;
-        List<Placeholder> placeholders = new ArrayList<>();
+        refreshBuffers.clear();
         for (Placeholder placeholder : usedPlaceholders) {
             if (placeholder.getRefresh() == -1 || loopTime % placeholder.getRefresh() != 0) continue;
-            placeholders.add(placeholder);
+            PlaceholderRefreshBuffer buffer = refreshEngine.tryAcquire(placeholder);
+            if (buffer == null) continue; // Still running from previous refresh
+            refreshBuffers.add(buffer);
         }
-        if (placeholders.isEmpty()) return;
-        PlaceholderRefreshTask task = new PlaceholderRefreshTask(placeholders);
-        cpu.getPlaceholderThread().execute(new TimedCaughtTask(cpu, () -> {
-            // Run in placeholder refreshing thread
-            task.run();
-
-            // Back to main thread
-            cpu.getProcessingThread().execute(() -> processRefreshResults(task));
-        }, getFeatureName(), CpuUsageCategory.PLACEHOLDER_REQUEST));
+        if (refreshBuffers.isEmpty()) return;
+        refreshEngine.refresh(refreshBuffers, TAB.getInstance().getOnlinePlayers(), resultHandler);
     }
 
     private void processRefreshResults(@NotNull PlaceholderRefreshTask task) {
         long time = System.nanoTime();
-        Map<RefreshableFeature, Collection<TabPlayer>> update = new HashMap<>();
-        for (RefreshableFeature f : updateServerPlaceholders(task.getServerPlaceholderResults())) {
-            update.put(f, new HashSet<>(TAB.getInstance().getData().values()));
+        Map<RefreshableFeature, Collection<TabPlayer>> update = null;
+        Map<RefreshableFeature, Collection<TabPlayer>> forceUpdate = null;
+        for (PlaceholderRefreshBuffer buffer : task.getCompleted()) {
+            Placeholder placeholder = buffer.getPlaceholder();
+            if (placeholder instanceof ServerPlaceholderImpl) {
+                update = updateServerPlaceholder((ServerPlaceholderImpl) placeholder, buffer, update);
+            }
+            if (placeholder instanceof PlayerPlaceholderImpl) {
+                update = updatePlayerPlaceholder((PlayerPlaceholderImpl) placeholder, buffer, task.getPlayers(), update);
+            }
+            if (placeholder instanceof RelationalPlaceholderImpl) {
+                forceUpdate = updateRelationalPlaceholder((RelationalPlaceholderImpl) placeholder, buffer, forceUpdate);
+            }
+            if (cpu.isTrackUsage()) cpu.addPlaceholderTime(placeholder.getIdentifier(), buffer.getNanoTime());
         }
-        updatePlayerPlaceholders(task.getPlayerPlaceholderResults(), update);
-        Map<RefreshableFeature, Collection<TabPlayer>> forceUpdate = updateRelationalPlaceholders(task.getRelationalPlaceholderResults());
         cpu.addTime(getFeatureName(), CpuUsageCategory.PLACEHOLDER_SAVE, System.nanoTime() - time);
-        cpu.addPlaceholderTimes(task.getUsedTime());
-
-        refreshFeatures(forceUpdate, update);
+        if (update != null) refreshFeatures(update, false);
+        if (forceUpdate != null) refreshFeatures(forceUpdate, true);
     }
-    
-    private void refreshFeatures(@NotNull Map<RefreshableFeature, Collection<TabPlayer>> forceUpdate, @NotNull Map<RefreshableFeature, Collection<TabPlayer>> update) {
+
+    private void refreshFeatures(@NotNull Map<RefreshableFeature, Collection<TabPlayer>> update, boolean force) {
         for (Entry<RefreshableFeature, Collection<TabPlayer>> entry : update.entrySet()) {
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(), () -> {
-                for (TabPlayer player : entry.getValue()) {
-                    entry.getKey().refresh(player, false);
-                }
-            }, entry.getKey().getFeatureName(), entry.getKey().getRefreshDisplayName());
-            if (entry.getKey() instanceof CustomThreaded) {
-                ((CustomThreaded) entry.getKey()).getCustomThread().execute(task);
-            } else {
-                task.run();
+            RefreshableFeature feature = entry.getKey();
+            if (feature instanceof CustomThreaded) {
+                ((CustomThreaded) feature).getCustomThread().execute(new TimedCaughtTask(cpu,
+                        () -> refreshFeature(feature, entry.getValue(), force), feature.getFeatureName(), feature.getRefreshDisplayName()));
+                continue;
             }
-        }
-        for (Entry<RefreshableFeature, Collection<TabPlayer>> entry : forceUpdate.entrySet()) {
-            TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(), () -> {
-                for (TabPlayer player : entry.getValue()) {
-                    entry.getKey().refresh(player, true);
-                }
-            }, entry.getKey().getFeatureName(), entry.getKey().getRefreshDisplayName());
-            if (entry.getKey() instanceof CustomThreaded) {
-                ((CustomThreaded) entry.getKey()).getCustomThread().execute(task);
-            } else {
-                task.run();
+            // Same as running TimedCaughtTask, without creating it
+            try {
+                long time = System.nanoTime();
+                refreshFeature(feature, entry.getValue(), force);
+                cpu.addTime(feature.getFeatureName(), feature.getRefreshDisplayName(), System.nanoTime() - time);
+            } catch (Exception | LinkageError | StackOverflowError e) {
+                TAB.getInstance().getErrorManager().taskThrewError(e);
             }
         }
     }
 
-    @NotNull
-    private Map<RefreshableFeature, Collection<TabPlayer>> updateRelationalPlaceholders(
-            @Nullable Map<RelationalPlaceholderImpl, Map<TabPlayer, Map<TabPlayer, String>>> results) {
-        if (results == null) return Collections.emptyMap();
-        Map<RefreshableFeature, Collection<TabPlayer>> update = new HashMap<>();
-        for (Entry<RelationalPlaceholderImpl, Map<TabPlayer, Map<TabPlayer, String>>> entry : results.entrySet()) {
-            RelationalPlaceholderImpl placeholder = entry.getKey();
-            Collection<RefreshableFeature> placeholderUsage = getPlaceholderUsage(placeholder.getIdentifier());
-            for (Entry<TabPlayer, Map<TabPlayer, String>> viewerResult : entry.getValue().entrySet()) {
-                TabPlayer viewer = viewerResult.getKey();
-                if (!viewer.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
-                for (Entry<TabPlayer, String> targetResult : viewerResult.getValue().entrySet()) {
-                    TabPlayer target = targetResult.getKey();
-                    if (!target.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
-                    if (placeholder.hasValueChanged(viewer, target, targetResult.getValue())) {
-                        placeholder.updateParents(target);
-                        for (RefreshableFeature f : placeholderUsage) {
-                            update.computeIfAbsent(f, c -> new HashSet<>()).add(target);
-                        }
-                    }
+    private void refreshFeature(@NotNull RefreshableFeature feature, @NotNull Collection<TabPlayer> players, boolean force) {
+        for (TabPlayer player : players) {
+            feature.refresh(player, force);
+        }
+    }
+
+    /**
+     * Adds player to players the feature should be refreshed for. If the feature
+     * is already refreshed for all online players, nothing is added.
+     *
+     * @param   update
+     *          Players to refresh by feature
+     * @param   feature
+     *          Feature to refresh
+     * @param   player
+     *          Player to refresh the feature for
+     */
+    private void addUpdate(@NotNull Map<RefreshableFeature, Collection<TabPlayer>> update, @NotNull RefreshableFeature feature,
+                           @NotNull TabPlayer player) {
+        Collection<TabPlayer> players = update.get(feature);
+        if (players == allPlayers) return; // Already refreshing everyone
+        if (players == null) update.put(feature, players = new HashSet<>());
+        players.add(player);
+    }
+
+    @Nullable
+    private Map<RefreshableFeature, Collection<TabPlayer>> updateRelationalPlaceholder(@NotNull RelationalPlaceholderImpl placeholder,
+            @NotNull PlaceholderRefreshBuffer buffer, @Nullable Map<RefreshableFeature, Collection<TabPlayer>> update) {
+        Collection<RefreshableFeature> placeholderUsage = null;
+        int changedPairs = buffer.collectChangedPairs();
+        for (int i = 0; i < changedPairs; i++) {
+            String value = buffer.pollChangedValue(i);
+            if (value == null) continue;
+            TabPlayer viewer = buffer.getChangedViewer(i);
+            TabPlayer target = buffer.getChangedTarget(i);
+            // Player disconnected in the meantime while refreshing in another thread
+            if (!viewer.isOnline() || !target.isOnline()) continue;
+            if (placeholder.hasValueChanged(viewer, target, value)) {
+                if (placeholderUsage == null) placeholderUsage = getPlaceholderUsage(placeholder.getIdentifier());
+                if (update == null) update = new HashMap<>();
+                for (RefreshableFeature f : placeholderUsage) {
+                    addUpdate(update, f, target);
                 }
             }
         }
         return update;
     }
 
-    private void updatePlayerPlaceholders(@NotNull Map<PlayerPlaceholderImpl, Map<TabPlayer, String>> results,
-                                          @NotNull Map<RefreshableFeature, Collection<TabPlayer>> update) {
-        if (results.isEmpty()) return;
-        for (Entry<PlayerPlaceholderImpl, Map<TabPlayer, String>> entry : results.entrySet()) {
-            PlayerPlaceholderImpl placeholder = entry.getKey();
-            Set<RefreshableFeature> placeholderUsage = getPlaceholderUsage(placeholder.getIdentifier());
-            for (Entry<TabPlayer, String> playerResult : entry.getValue().entrySet()) {
-                TabPlayer player = playerResult.getKey();
-                if (!player.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
-                if (placeholder.hasValueChanged(player, playerResult.getValue(), true)) {
-                    placeholder.updateParents(player);
-                    for (RefreshableFeature f : placeholderUsage) {
-                        update.computeIfAbsent(f, c -> new HashSet<>()).add(player);
-                    }
-                    if (placeholder.getIdentifier().equals(TabConstants.Placeholder.VANISHED)) {
-                        TAB.getInstance().getFeatureManager().onVanishStatusChange(player);
-                    }
-                    if (placeholder.getIdentifier().equals(TabConstants.Placeholder.GAMEMODE)) {
-                        TAB.getInstance().getFeatureManager().onGameModeChange(player);
-                    }
+    @Nullable
+    private Map<RefreshableFeature, Collection<TabPlayer>> updatePlayerPlaceholder(@NotNull PlayerPlaceholderImpl placeholder,
+            @NotNull PlaceholderRefreshBuffer buffer, @NotNull TabPlayer[] players, @Nullable Map<RefreshableFeature, Collection<TabPlayer>> update) {
+        Set<RefreshableFeature> placeholderUsage = null;
+        for (TabPlayer player : players) {
+            String value = buffer.pollPlayerValue(player);
+            if (value == null) continue;
+            if (!player.isOnline()) continue; // Player disconnected in the meantime while refreshing in another thread
+            if (placeholder.hasValueChanged(player, value, true)) {
+                if (placeholderUsage == null) placeholderUsage = getPlaceholderUsage(placeholder.getIdentifier());
+                if (update == null) update = new HashMap<>();
+                for (RefreshableFeature f : placeholderUsage) {
+                    addUpdate(update, f, player);
+                }
+                if (placeholder.getIdentifier().equals(TabConstants.Placeholder.VANISHED)) {
+                    TAB.getInstance().getFeatureManager().onVanishStatusChange(player);
+                }
+                if (placeholder.getIdentifier().equals(TabConstants.Placeholder.GAMEMODE)) {
+                    TAB.getInstance().getFeatureManager().onGameModeChange(player);
                 }
             }
         }
+        return update;
     }
 
-    @NotNull
-    private Set<RefreshableFeature> updateServerPlaceholders(@NotNull Map<ServerPlaceholderImpl, String> results) {
-        Set<RefreshableFeature> set = new HashSet<>();
-        for (Entry<ServerPlaceholderImpl, String> entry : results.entrySet()) {
-            ServerPlaceholderImpl placeholder = entry.getKey();
-            if (placeholder.hasValueChanged(entry.getValue())) {
-                set.addAll(getPlaceholderUsage(placeholder.getIdentifier()));
-                for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-                    placeholder.updateParents(all);
-                }
-            }
+    @Nullable
+    private Map<RefreshableFeature, Collection<TabPlayer>> updateServerPlaceholder(@NotNull ServerPlaceholderImpl placeholder,
+            @NotNull PlaceholderRefreshBuffer buffer, @Nullable Map<RefreshableFeature, Collection<TabPlayer>> update) {
+        String value = buffer.pollServerValue();
+        if (value == null || !placeholder.hasValueChanged(value)) return update;
+        if (update == null) update = new HashMap<>();
+        for (RefreshableFeature f : getPlaceholderUsage(placeholder.getIdentifier())) {
+            update.put(f, allPlayers);
         }
-        return set;
+        return update;
     }
 
     /**
@@ -234,6 +277,12 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
     public synchronized <T extends Placeholder> T registerPlaceholder(@NotNull T placeholder) {
         boolean override = registeredPlaceholders.containsKey(placeholder.getIdentifier());
         registeredPlaceholders.put(placeholder.getIdentifier(), placeholder);
+        Set<RefreshableFeature> usage = placeholderUsage.get(placeholder.getIdentifier());
+        if (usage != null && placeholder instanceof RelationalPlaceholderImpl) {
+            for (RefreshableFeature feature : new ArrayList<>(usage)) {
+                addInputUsage((RelationalPlaceholderImpl) placeholder, feature);
+            }
+        }
         recalculateUsedPlaceholders();
         if (override && placeholderUsage.containsKey(placeholder.getIdentifier())) {
             for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
@@ -303,11 +352,84 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
      */
     public synchronized void addUsedPlaceholder(@NonNull String identifier, @NonNull RefreshableFeature feature) {
         if (placeholderUsage.computeIfAbsent(identifier, x -> new HashSet<>()).add(feature)) {
-            recalculateUsedPlaceholders();
             TabPlaceholder p = getPlaceholder(identifier);
+            if (p instanceof RelationalPlaceholderImpl) addInputUsage((RelationalPlaceholderImpl) p, feature);
+            dependencyGraph.invalidate();
+            recalculateUsedPlaceholders();
             for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
                 tabExpansion.setPlaceholderValue(all, p.getIdentifier(), p.getLastValueSafe(all));
             }
+        } else {
+            // Used directly now, keep the usage even if a relational placeholder using it is removed
+            for (Map<String, Set<RefreshableFeature>> inputs : inputUsage.values()) {
+                Set<RefreshableFeature> features = inputs.get(identifier);
+                if (features != null) features.remove(feature);
+            }
+        }
+    }
+
+    /**
+     * Marks configured inputs of relational placeholder as used by the feature using the
+     * relational placeholder, so they are refreshed even if they are not displayed anywhere.
+     *
+     * @param   placeholder
+     *          Relational placeholder used by the feature
+     * @param   feature
+     *          Feature using the relational placeholder
+     */
+    private void addInputUsage(@NotNull RelationalPlaceholderImpl placeholder, @NotNull RefreshableFeature feature) {
+        List<String> inputs = placeholder.getInputs();
+        if (inputs == null) return;
+        for (String input : inputs) {
+            Set<RefreshableFeature> usage = placeholderUsage.get(input);
+            if (usage != null && usage.contains(feature)) continue;
+            inputUsage.computeIfAbsent(placeholder.getIdentifier(), x -> new HashMap<>())
+                    .computeIfAbsent(input, x -> new HashSet<>()).add(feature);
+            addUsedPlaceholder(input, feature);
+        }
+    }
+
+    /**
+     * Removes usage of inputs which was added because of given relational placeholder.
+     *
+     * @param   identifier
+     *          Identifier of relational placeholder
+     */
+    private void removeInputUsage(@NotNull String identifier) {
+        Map<String, Set<RefreshableFeature>> inputs = inputUsage.remove(identifier);
+        if (inputs == null) return;
+        for (Entry<String, Set<RefreshableFeature>> entry : inputs.entrySet()) {
+            Set<RefreshableFeature> usage = placeholderUsage.get(entry.getKey());
+            if (usage == null) continue;
+            usage.removeAll(entry.getValue());
+            if (usage.isEmpty()) placeholderUsage.remove(entry.getKey());
+        }
+    }
+
+    /**
+     * Removes feature from usage of all placeholders. Placeholders which are
+     * no longer used by any feature stop being refreshed.
+     *
+     * @param   feature
+     *          Feature to remove
+     */
+    public synchronized void removeUsedPlaceholders(@NonNull TabFeature feature) {
+        boolean changed = false;
+        for (Iterator<Set<RefreshableFeature>> iterator = placeholderUsage.values().iterator(); iterator.hasNext();) {
+            Set<RefreshableFeature> usage = iterator.next();
+            if (usage.remove(feature)) {
+                changed = true;
+                if (usage.isEmpty()) iterator.remove();
+            }
+        }
+        for (Map<String, Set<RefreshableFeature>> inputs : inputUsage.values()) {
+            for (Set<RefreshableFeature> features : inputs.values()) {
+                features.remove(feature);
+            }
+        }
+        if (changed) {
+            dependencyGraph.invalidate();
+            recalculateUsedPlaceholders();
         }
     }
 
@@ -316,6 +438,7 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
      */
     private void recalculateUsedPlaceholders() {
         usedPlaceholders = placeholderUsage.keySet().stream().map(this::getPlaceholder).distinct().toArray(Placeholder[]::new);
+        refreshEngine.retainPlaceholders(Arrays.asList(usedPlaceholders));
     }
 
     /**
@@ -334,7 +457,8 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
     }
 
     /**
-     * Returns set of features using specified placeholder.
+     * Returns set of features using specified placeholder directly
+     * or through another placeholder. The returned set is not modifiable.
      *
      * @param   identifier
      *          Placeholder to get usage of
@@ -342,11 +466,7 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
      */
     @NotNull
     public Set<RefreshableFeature> getPlaceholderUsage(@NotNull String identifier) {
-        Set<RefreshableFeature> usage = placeholderUsage.getOrDefault(identifier, new HashSet<>());
-        for (String parent : getPlaceholder(identifier).getParents()) {
-            usage.addAll(getPlaceholderUsage(parent));
-        }
-        return usage;
+        return dependencyGraph.getUsage(identifier);
     }
 
     @Override
@@ -461,10 +581,12 @@ public class PlaceholderManagerImpl extends RefreshableFeature implements Placeh
     }
 
     @Override
-    public void unregisterPlaceholder(@NonNull String identifier) {
+    public synchronized void unregisterPlaceholder(@NonNull String identifier) {
         ensureActive();
         registeredPlaceholders.remove(identifier);
         placeholderUsage.remove(identifier);
+        removeInputUsage(identifier);
+        dependencyGraph.invalidate();
         recalculateUsedPlaceholders();
     }
 
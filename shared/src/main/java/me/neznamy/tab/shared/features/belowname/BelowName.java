@@ -24,7 +24,7 @@ import java.util.Map;
  * Feature handler for BelowName feature
  */
 public class BelowName extends RefreshableFeature implements JoinListener, QuitListener, Loadable,
-        WorldSwitchListener, ServerSwitchListener, CustomThreaded, ProxyFeature, VanishListener {
+        WorldSwitchListener, ServerSwitchListener, CustomThreaded, ProxyFeature, VanishListener, HotReloadable {
 
     /** Objective name used by this feature */
     public static final String OBJECTIVE_NAME = "TAB-BelowName";
@@ -94,6 +94,14 @@ public class BelowName extends RefreshableFeature implements JoinListener, QuitL
         player.belowNameData.defaultNumberFormat = new Property(textRefresher, player, configuration.getFancyValueDefault());
     }
 
+    @Override
+    public void unloadForReplacement() {
+        for (TabPlayer p : onlinePlayers.getPlayers()) {
+            if (!p.belowNameData.disabled.get()) p.getScoreboard().unregisterObjective(OBJECTIVE_NAME);
+            p.belowNameData.disabled.set(false);
+        }
+    }
+
     @Override
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         onlinePlayers.addPlayer(connectedPlayer);
@@ -33,6 +33,12 @@ public class BelowNameUpdateProxyPlayer extends ProxyMessage {
         return feature.getCustomThread();
     }
 
+    @Override
+    @NotNull
+    public Object getCollapseKey() {
+        return playerId;
+    }
+
     @Override
     public void write(@NotNull ByteArrayDataOutput out) {
         writeUUID(out, playerId);
@@ -28,7 +28,7 @@ import java.util.stream.Collectors;
  * Class for handling BossBar feature
  */
 public class BossBarManagerImpl extends RefreshableFeature implements BossBarManager, JoinListener, CommandListener, Loadable,
-        QuitListener, CustomThreaded {
+        QuitListener, CustomThreaded, HotReloadable {
 
     @Getter private final StringToComponentCache cache = new StringToComponentCache("BossBar", 1000);
     @Getter private final ThreadExecutor customThread = new ThreadExecutor("TAB BossBar Thread");
@@ -86,6 +86,16 @@ public class BossBarManagerImpl extends RefreshableFeature implements BossBarMan
         }
     }
 
+    @Override
+    public void unloadForReplacement() {
+        for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
+            for (BossBarLine line : new ArrayList<>(p.bossbarData.visibleBossBars.keySet())) {
+                line.removePlayer(p);
+            }
+            p.bossbarData.visible = false;
+        }
+    }
+
     @NotNull
     @Override
     public String getRefreshDisplayName() {
@@ -22,7 +22,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Feature handler for header and footer.
  */
 public class HeaderFooter extends RefreshableFeature implements HeaderFooterManager, JoinListener, Loadable, UnLoadable,
-        WorldSwitchListener, ServerSwitchListener, CustomThreaded, GroupListener {
+        WorldSwitchListener, ServerSwitchListener, CustomThreaded, GroupListener, HotReloadable {
 
     private final StringToComponentCache headerCache = new StringToComponentCache("Header", 1000);
     private final StringToComponentCache footerCache = new StringToComponentCache("Footer", 1000);
@@ -57,6 +57,14 @@ public class HeaderFooter extends RefreshableFeature implements HeaderFooterMana
         }
     }
 
+    @Override
+    public void unloadForReplacement() {
+        unload();
+        for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
+            p.headerFooterData.disabled.set(false);
+        }
+    }
+
     @Override
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         connectedPlayer.headerFooterData.header = new Property(this, connectedPlayer, getFromConfig(connectedPlayer, "header"));
@@ -73,7 +73,7 @@ public class LayoutManagerImpl extends RefreshableFeature implements LayoutManag
             p.layoutData.currentLayout = new LayoutData(view);
             view.send();
         }
-        tickAllLayouts();
+        updatePlayer(p);
 
         // Unformat original entries for players who can see a layout to avoid spaces due to unparsed placeholders and such
         if (highest == null) return;
@@ -87,7 +87,7 @@ public class LayoutManagerImpl extends RefreshableFeature implements LayoutManag
         sortedPlayers.remove(p);
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             if (all == p) continue;
-            if (all.layoutData.currentLayout != null) all.layoutData.currentLayout.view.tick();
+            if (all.layoutData.currentLayout != null) all.layoutData.currentLayout.view.removePlayer(p);
         }
     }
 
@@ -124,7 +124,7 @@ public class LayoutManagerImpl extends RefreshableFeature implements LayoutManag
 
     @Override
     public void onVanishStatusChange(@NotNull TabPlayer p) {
-        tickAllLayouts();
+        updatePlayer(p);
     }
 
     private @Nullable LayoutPattern getHighestLayout(@NotNull TabPlayer p) {
@@ -143,7 +143,7 @@ public class LayoutManagerImpl extends RefreshableFeature implements LayoutManag
         sortedPlayers.remove(p);
         p.layoutData.sortingString = teamName;
         sortedPlayers.put(p, teamName);
-        tickAllLayouts();
+        updatePlayer(p);
     }
 
     @Override
@@ -152,11 +152,15 @@ public class LayoutManagerImpl extends RefreshableFeature implements LayoutManag
     }
 
     /**
-     * Ticks layouts for all players.
+     * Updates position of player in layouts of all players. Only groups
+     * the player left or joined are updated.
+     *
+     * @param   p
+     *          Player whose visibility or sorting changed
      */
-    public void tickAllLayouts() {
+    public void updatePlayer(@NotNull TabPlayer p) {
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            if (all.layoutData.currentLayout != null) all.layoutData.currentLayout.view.tick();
+            if (all.layoutData.currentLayout != null) all.layoutData.currentLayout.view.updatePlayer(p);
         }
     }
 
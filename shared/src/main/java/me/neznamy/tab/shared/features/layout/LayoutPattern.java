@@ -3,6 +3,7 @@ package me.neznamy.tab.shared.features.layout;
 import lombok.Getter;
 import lombok.NonNull;
 import me.neznamy.tab.api.tablist.layout.Layout;
+import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.features.layout.LayoutConfiguration.LayoutDefinition;
 import me.neznamy.tab.shared.features.layout.LayoutConfiguration.LayoutDefinition.FixedSlotDefinition;
@@ -24,6 +25,12 @@ public class LayoutPattern extends RefreshableFeature implements Layout {
     private final Map<Integer, FixedSlot> fixedSlots = new HashMap<>();
     private final List<GroupPattern> groups = new ArrayList<>();
 
+    /** Conditions of groups, {@code null} for groups without a condition */
+    private final List<Condition> groupConditions = new ArrayList<>();
+
+    /** Index of the first group each player meets condition of, shared by all viewers of this layout */
+    private final Map<TabPlayer, Integer> groupIndexes = Collections.synchronizedMap(new WeakHashMap<>());
+
     public LayoutPattern(@NotNull LayoutManagerImpl manager, @NotNull String name, @NotNull LayoutDefinition def) {
         this.manager = manager;
         this.name = name;
@@ -44,9 +51,36 @@ public class LayoutPattern extends RefreshableFeature implements Layout {
 
     public void addGroup(@NotNull String name, @Nullable String condition, int[] slots) {
         groups.add(new GroupPattern(name, condition, Arrays.stream(slots).filter(slot -> !fixedSlots.containsKey(slot)).toArray()));
+        groupConditions.add(Condition.getCondition(condition));
+        groupIndexes.clear();
         if (condition != null) addUsedPlaceholder(TabConstants.Placeholder.condition(Condition.getCondition(condition).getName()));
     }
 
+    /**
+     * Returns index of the first group the player meets condition of, or {@code -1}
+     * if none. Result is cached until the player's conditions change.
+     *
+     * @param   p
+     *          Player to get group of
+     * @return  Index of player's group or {@code -1} if the player does not belong to any group
+     */
+    public int getGroupIndex(@NotNull TabPlayer p) {
+        Integer index = groupIndexes.get(p);
+        if (index == null) {
+            index = computeGroupIndex(p);
+            groupIndexes.put(p, index);
+        }
+        return index;
+    }
+
+    private int computeGroupIndex(@NotNull TabPlayer p) {
+        for (int i = 0; i < groupConditions.size(); i++) {
+            Condition condition = groupConditions.get(i);
+            if (condition == null || condition.isMet(p)) return i;
+        }
+        return -1;
+    }
+
     public boolean isConditionMet(@NotNull TabPlayer p) {
         return condition == null || condition.isMet(p);
     }
@@ -59,7 +93,13 @@ public class LayoutPattern extends RefreshableFeature implements Layout {
 
     @Override
     public void refresh(@NotNull TabPlayer refreshed, boolean force) {
-        manager.tickAllLayouts();
+        int index = computeGroupIndex(refreshed);
+        Integer previous = groupIndexes.put(refreshed, index);
+        if (previous != null && previous == index) return;
+        for (TabPlayer viewer : TAB.getInstance().getOnlinePlayers()) {
+            LayoutManagerImpl.LayoutData layout = viewer.layoutData.currentLayout;
+            if (layout != null && layout.view.getPattern() == this) layout.view.updatePlayer(refreshed);
+        }
     }
 
     // ------------------
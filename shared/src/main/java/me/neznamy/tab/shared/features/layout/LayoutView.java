@@ -9,9 +9,9 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 @Getter
 public class LayoutView {
@@ -24,6 +24,9 @@ public class LayoutView {
     private final Collection<FixedSlot> fixedSlots;
     private final List<ParentGroup> groups = new ArrayList<>();
 
+    /** Groups players visible to the viewer are currently in */
+    private final Map<TabPlayer, ParentGroup> assignments = new ConcurrentHashMap<>();
+
     public LayoutView(LayoutManagerImpl manager, LayoutPattern pattern, TabPlayer viewer) {
         this.manager = manager;
         this.viewer = viewer;
@@ -70,20 +73,67 @@ public class LayoutView {
         }
     }
 
-    public void tick() {
-        Stream<TabPlayer> str = manager.getSortedPlayers().keySet().stream().filter(viewer::canSee);
-        List<TabPlayer> players = str.collect(Collectors.toList());
+    /**
+     * Rebuilds all groups from scratch. Used when the layout is first sent.
+     */
+    public synchronized void tick() {
+        assignments.clear();
+        for (ParentGroup group : groups) {
+            group.clear();
+        }
+        synchronized (manager.getSortedPlayers()) {
+            for (TabPlayer target : manager.getSortedPlayers().keySet()) {
+                if (!viewer.canSee(target)) continue;
+                int index = pattern.getGroupIndex(target);
+                if (index == -1 || index >= groups.size()) continue;
+                ParentGroup group = groups.get(index);
+                group.addPlayer(target); // Players are iterated in order, so this only appends
+                assignments.put(target, group);
+            }
+        }
         for (ParentGroup group : groups) {
-            group.tick(players);
+            group.tick();
         }
     }
 
-    public PlayerSlot getSlot(@NotNull TabPlayer target) {
-        for (ParentGroup group : groups) {
-            if (group.getPlayers().containsKey(target)) {
-                return group.getPlayers().get(target);
+    /**
+     * Moves player into the group it currently belongs to and updates slots of
+     * groups the player left and joined. Other groups are left untouched.
+     *
+     * @param   target
+     *          Player whose visibility, sorting or group may have changed
+     */
+    public synchronized void updatePlayer(@NotNull TabPlayer target) {
+        ParentGroup oldGroup = assignments.remove(target);
+        if (oldGroup != null) oldGroup.removePlayer(target);
+        ParentGroup newGroup = null;
+        if (manager.getSortedPlayers().containsKey(target) && viewer.canSee(target)) {
+            int index = pattern.getGroupIndex(target);
+            if (index != -1 && index < groups.size()) {
+                newGroup = groups.get(index);
+                newGroup.addPlayer(target);
+                assignments.put(target, newGroup);
             }
         }
-        return null;
+        if (oldGroup != null) oldGroup.tick();
+        if (newGroup != null && newGroup != oldGroup) newGroup.tick();
+    }
+
+    /**
+     * Removes player from this layout and updates slots of the group the player was in.
+     *
+     * @param   target
+     *          Player to remove
+     */
+    public synchronized void removePlayer(@NotNull TabPlayer target) {
+        ParentGroup group = assignments.remove(target);
+        if (group == null) return;
+        group.removePlayer(target);
+        group.tick();
+    }
+
+    public PlayerSlot getSlot(@NotNull TabPlayer target) {
+        ParentGroup group = assignments.get(target);
+        return group == null ? null : group.getPlayers().get(target);
     }
 }
@@ -2,28 +2,27 @@ package me.neznamy.tab.shared.features.layout;
 
 import lombok.Getter;
 import me.neznamy.tab.shared.features.layout.LayoutConfiguration.LayoutDefinition.GroupPattern;
-import me.neznamy.tab.shared.placeholders.conditions.Condition;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 public class ParentGroup {
 
+    /** Comparator sorting players the same way as the layout does */
+    private static final Comparator<TabPlayer> ORDER = Comparator.comparing(p -> p.layoutData.sortingString);
+
     @NotNull private final LayoutView layout;
-    @Nullable private final Condition condition;
     @Getter private final int[] slots;
     private final TabPlayer viewer;
     @Getter private final Map<Integer, PlayerSlot> playerSlots = new HashMap<>();
     @Getter private final Map<TabPlayer, PlayerSlot> players = new HashMap<>();
 
+    /** Sorted players visible to the viewer which belong to this group */
+    private final List<TabPlayer> meetingCondition = new ArrayList<>();
+
     public ParentGroup(@NotNull LayoutView layout, @NotNull GroupPattern pattern, @NotNull TabPlayer viewer) {
         this.layout = layout;
-        condition = Condition.getCondition(pattern.getCondition());
         slots = pattern.getSlots();
         this.viewer = viewer;
         for (int slot : slots) {
@@ -31,13 +30,41 @@ public class ParentGroup {
         }
     }
 
-    public void tick(@NotNull List<TabPlayer> remainingPlayers) {
+    /**
+     * Adds player into this group at position given by sorting. Slots
+     * are not updated until {@link #tick()} is called.
+     *
+     * @param   player
+     *          Player to add
+     */
+    public void addPlayer(@NotNull TabPlayer player) {
+        int index = Collections.binarySearch(meetingCondition, player, ORDER);
+        meetingCondition.add(index < 0 ? -index - 1 : index, player);
+    }
+
+    /**
+     * Removes player from this group. Slots are not updated until {@link #tick()} is called.
+     *
+     * @param   player
+     *          Player to remove
+     */
+    public void removePlayer(@NotNull TabPlayer player) {
+        meetingCondition.remove(player);
+    }
+
+    /**
+     * Removes all players from this group. Slots are not updated until {@link #tick()} is called.
+     */
+    public void clear() {
+        meetingCondition.clear();
+    }
+
+    /**
+     * Updates slots to display current players of this group. Only slots
+     * which changed content are sent to the viewer.
+     */
+    public void tick() {
         players.clear();
-        List<TabPlayer> meetingCondition = new ArrayList<>();
-        for (TabPlayer p : remainingPlayers) {
-            if (condition == null || condition.isMet(p)) meetingCondition.add(p);
-        }
-        remainingPlayers.removeAll(meetingCondition);
         for (int index = 0; index < slots.length; index++) {
             int slot = slots[index];
             if (layout.getManager().getConfiguration().isRemainingPlayersTextEnabled() && index == slots.length - 1 && playerSlots.size() < meetingCondition.size()) {
@@ -53,10 +80,10 @@ public class ParentGroup {
             }
         }
     }
-    
+
     public void sendSlots() {
         for (PlayerSlot s : playerSlots.values()) {
             viewer.getTabList().addEntry(s.getSlot(viewer));
         }
     }
-}
\ No newline at end of file
+}
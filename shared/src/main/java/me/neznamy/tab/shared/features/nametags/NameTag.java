@@ -16,6 +16,7 @@ import me.neznamy.tab.shared.cpu.TimedCaughtTask;
 import me.neznamy.tab.shared.features.proxy.ProxyPlayer;
 import me.neznamy.tab.shared.features.proxy.ProxySupport;
 import me.neznamy.tab.shared.features.proxy.message.ProxyMessage;
+import me.neznamy.tab.shared.features.sorting.Sorting;
 import me.neznamy.tab.shared.features.types.*;
 import me.neznamy.tab.shared.placeholders.conditions.Condition;
 import me.neznamy.tab.shared.platform.decorators.SafeScoreboard;
@@ -739,6 +740,12 @@ public class NameTag extends RefreshableFeature implements NameTagManager, JoinL
             return customThread;
         }
 
+        @Override
+        @NotNull
+        public Object getCollapseKey() {
+            return playerId;
+        }
+
         @Override
         public void write(@NotNull ByteArrayDataOutput out) {
             writeUUID(out, playerId);
@@ -810,30 +817,9 @@ public class NameTag extends RefreshableFeature implements NameTagManager, JoinL
 
         @NotNull
         private String checkTeamName(@NotNull ProxyPlayer player, @NotNull String currentName15) {
-            char id = 'A';
-            while (true) {
-                String potentialTeamName = currentName15 + id;
-                boolean nameTaken = false;
-                for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-                    if (potentialTeamName.equals(all.sortingData.shortTeamName)) {
-                        nameTaken = true;
-                        break;
-                    }
-                }
-                if (!nameTaken && proxy != null) {
-                    for (ProxyPlayer all : proxy.getProxyPlayers().values()) {
-                        if (all == player) continue;
-                        if (potentialTeamName.equals(all.getTeamName())) {
-                            nameTaken = true;
-                            break;
-                        }
-                    }
-                }
-                if (!nameTaken) {
-                    return potentialTeamName;
-                }
-                id++;
-            }
+            Sorting sorting = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.SORTING);
+            if (sorting == null) return currentName15 + "A";
+            return sorting.getTeamNames().allocate(player.getUniqueId(), currentName15);
         }
     }
 }
\ No newline at end of file
@@ -428,6 +428,12 @@ public class PlayerList extends RefreshableFeature implements TabListFormatManag
         private UUID playerId;
         private String format;
 
+        @Override
+        @NotNull
+        public Object getCollapseKey() {
+            return playerId;
+        }
+
         @Override
         public void write(@NotNull ByteArrayDataOutput out) {
             writeUUID(out, playerId);
@@ -34,7 +34,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * PLAYER_LIST display slot (in tablist).
  */
 public class YellowNumber extends RefreshableFeature implements JoinListener, QuitListener, Loadable,
-        CustomThreaded, ProxyFeature {
+        CustomThreaded, ProxyFeature, HotReloadable {
 
     /** Objective name used by this feature */
     public static final String OBJECTIVE_NAME = "TAB-PlayerList";
@@ -123,6 +123,14 @@ public class YellowNumber extends RefreshableFeature implements JoinListener, Qu
         }
     }
 
+    @Override
+    public void unloadForReplacement() {
+        for (TabPlayer p : onlinePlayers.getPlayers()) {
+            if (!p.playerlistObjectiveData.disabled.get()) p.getScoreboard().unregisterObjective(OBJECTIVE_NAME);
+            p.playerlistObjectiveData.disabled.set(false);
+        }
+    }
+
     @Override
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         onlinePlayers.addPlayer(connectedPlayer);
@@ -302,6 +310,12 @@ public class YellowNumber extends RefreshableFeature implements JoinListener, Qu
             return customThread;
         }
 
+        @Override
+        @NotNull
+        public Object getCollapseKey() {
+            return playerId;
+        }
+
         @Override
         public void write(@NotNull ByteArrayDataOutput out) {
             writeUUID(out, playerId);
@@ -3,6 +3,7 @@ package me.neznamy.tab.shared.features.proxy;
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
+import lombok.AccessLevel;
 import lombok.Getter;
 import me.neznamy.tab.api.event.EventHandler;
 import me.neznamy.tab.shared.TAB;
@@ -33,12 +34,39 @@ public abstract class ProxySupport extends TabFeature implements JoinListener, Q
     /** Proxy players on other proxies by their UUID */
     @NotNull protected final Map<UUID, ProxyPlayer> proxyPlayers = new ConcurrentHashMap<>();
 
+    /** Format version written at the start of each message to detect incompatible proxies */
+    private static final byte PROTOCOL_VERSION = 2;
+
+    /** Maximum time in milliseconds a message waits for other messages before being sent */
+    private static final int BATCH_INTERVAL = 50;
+
+    /** Size in bytes of queued messages which causes them to be sent immediately */
+    private static final int MAX_BATCH_SIZE = 32 * 1024;
+
     /** UUID of this proxy to ignore messages coming from the same proxy */
     @NotNull private final UUID proxy = UUID.randomUUID();
 
     private EventHandler<TabPlaceholderRegisterEvent> eventHandler;
-    @NotNull private final Map<String, Supplier<ProxyMessage>> messages = new HashMap<>();
-    @NotNull private final Map<Class<? extends ProxyMessage>, String> classStringMap = new HashMap<>();
+    @NotNull private final Map<Integer, Supplier<ProxyMessage>> messages = new HashMap<>();
+    @NotNull private final Map<Class<? extends ProxyMessage>, Integer> classIdMap = new HashMap<>();
+    @NotNull private final Map<Integer, String> messageNames = new HashMap<>();
+
+    /** Serialized messages waiting to be sent, each one as id, length and content */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private ByteArrayDataOutput batch = ByteStreams.newDataOutput();
+
+    /** Amount of messages in {@link #batch} */
+    @Getter(AccessLevel.NONE)
+    private int batchCount;
+
+    /** Size of messages in {@link #batch} in bytes */
+    @Getter(AccessLevel.NONE)
+    private int batchSize;
+
+    /** Flag tracking whether sending of current batch is already scheduled or not */
+    @Getter(AccessLevel.NONE)
+    private boolean batchScheduled;
 
     protected ProxySupport() {
         registerMessage("load", Load.class, Load::new);
@@ -56,29 +84,52 @@ public abstract class ProxySupport extends TabFeature implements JoinListener, Q
     }
 
     /**
-     * Processes incoming proxy message
+     * Processes incoming proxy message containing a batch of messages. If the batch
+     * contains multiple messages updating the same state of the same player,
+     * only the last one is processed.
      *
      * @param   msg
-     *          json message to process
+     *          Base64-encoded message to process
      */
     public void processMessage(@NotNull String msg) {
         // Queue the task to make sure it does not execute before load does, causing NPE
         TAB.getInstance().getCpu().runMeasuredTask(getFeatureName(), CpuUsageCategory.PROXY_MESSAGE, () -> {
             ByteArrayDataInput in = ByteStreams.newDataInput(Base64.getDecoder().decode(msg));
-            String proxy = in.readUTF();
-            if (proxy.equals(this.proxy.toString())) return; // Message coming from current proxy
-            String action = in.readUTF();
-            Supplier<ProxyMessage> supplier = messages.get(action);
-            if (supplier == null) {
-                TAB.getInstance().getErrorManager().unknownProxyMessage(action);
+            if (in.readByte() != PROTOCOL_VERSION) {
+                TAB.getInstance().getErrorManager().printError("ProxySupport received a message in an unsupported format. " +
+                        "Make sure all proxies are running the same version of the plugin.", null);
                 return;
             }
-            ProxyMessage proxyMessage = supplier.get();
-            proxyMessage.read(in);
-            if (proxyMessage.getCustomThread() != null) {
-                proxyMessage.getCustomThread().execute(new TimedCaughtTask(TAB.getInstance().getCpu(), () -> proxyMessage.process(this), getFeatureName(), CpuUsageCategory.PROXY_MESSAGE));
-            } else {
-                proxyMessage.process(this);
+            if (proxy.equals(new UUID(in.readLong(), in.readLong()))) return; // Message coming from current proxy
+            int count = in.readInt();
+            List<ProxyMessage> received = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = in.readInt();
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                Supplier<ProxyMessage> supplier = messages.get(id);
+                if (supplier == null) {
+                    TAB.getInstance().getErrorManager().unknownProxyMessage("#" + id);
+                    continue;
+                }
+                ProxyMessage proxyMessage = supplier.get();
+                proxyMessage.read(ByteStreams.newDataInput(content));
+                received.add(proxyMessage);
+            }
+            Set<List<Object>> updatedStates = new HashSet<>();
+            for (int i = received.size() - 1; i >= 0; i--) {
+                Object key = received.get(i).getCollapseKey();
+                if (key != null && !updatedStates.add(Arrays.asList(received.get(i).getClass(), key))) {
+                    received.set(i, null); // Superseded by a later message in the batch
+                }
+            }
+            for (ProxyMessage proxyMessage : received) {
+                if (proxyMessage == null) continue;
+                if (proxyMessage.getCustomThread() != null) {
+                    proxyMessage.getCustomThread().execute(new TimedCaughtTask(TAB.getInstance().getCpu(), () -> proxyMessage.process(this), getFeatureName(), CpuUsageCategory.PROXY_MESSAGE));
+                } else {
+                    proxyMessage.process(this);
+                }
             }
         });
     }
@@ -163,6 +214,7 @@ public abstract class ProxySupport extends TabFeature implements JoinListener, Q
     public void unload() {
         for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) onQuit(p);
         TAB.getInstance().getEventBus().unregister(eventHandler);
+        sendBatch();
         unregister();
     }
 
@@ -182,21 +234,53 @@ public abstract class ProxySupport extends TabFeature implements JoinListener, Q
     }
 
     /**
-     * Sends message to other proxies.
+     * Queues message to be sent to other proxies. Messages are sent in batches,
+     * either once {@link #BATCH_INTERVAL} passes or once the batch reaches {@link #MAX_BATCH_SIZE}.
      *
      * @param   message
      *          Message to send
      */
     public void sendMessage(@NotNull ProxyMessage message) {
+        ByteArrayDataOutput content = ByteStreams.newDataOutput();
+        message.write(content);
+        byte[] bytes = content.toByteArray();
+        synchronized (this) {
+            batch.writeInt(classIdMap.get(message.getClass()));
+            batch.writeInt(bytes.length);
+            batch.write(bytes);
+            batchCount++;
+            batchSize += bytes.length;
+            if (batchSize >= MAX_BATCH_SIZE) {
+                sendBatch();
+            } else if (!batchScheduled) {
+                batchScheduled = true;
+                TAB.getInstance().getCpu().getProcessingThread().executeLater(new TimedCaughtTask(TAB.getInstance().getCpu(),
+                        this::sendBatch, getFeatureName(), CpuUsageCategory.PROXY_MESSAGE), BATCH_INTERVAL);
+            }
+        }
+    }
+
+    /**
+     * Sends all queued messages to other proxies in a single message.
+     */
+    public synchronized void sendBatch() {
+        batchScheduled = false;
+        if (batchCount == 0) return;
         ByteArrayDataOutput out = ByteStreams.newDataOutput();
-        out.writeUTF(proxy.toString());
-        out.writeUTF(classStringMap.get(message.getClass()));
-        message.write(out);
+        out.writeByte(PROTOCOL_VERSION);
+        out.writeLong(proxy.getMostSignificantBits());
+        out.writeLong(proxy.getLeastSignificantBits());
+        out.writeInt(batchCount);
+        out.write(batch.toByteArray());
+        batch = ByteStreams.newDataOutput();
+        batchCount = 0;
+        batchSize = 0;
         sendMessage(Base64.getEncoder().encodeToString(out.toByteArray()));
     }
 
     /**
-     * Registers proxy message.
+     * Registers proxy message. Its numeric id is derived from the name,
+     * so it is the same on all proxies regardless of registration order.
      *
      * @param   name
      *          Message name
@@ -206,8 +290,13 @@ public abstract class ProxySupport extends TabFeature implements JoinListener, Q
      *          Message supplier
      */
     public void registerMessage(@NotNull String name, @NotNull Class<? extends ProxyMessage> clazz, @NotNull Supplier<ProxyMessage> supplier) {
-        messages.put(name, supplier);
-        classStringMap.put(clazz, name);
+        int id = name.hashCode();
+        String existing = messageNames.put(id, name);
+        if (existing != null && !existing.equals(name)) {
+            throw new IllegalArgumentException("Proxy message \"" + name + "\" has the same id as \"" + existing + "\"");
+        }
+        messages.put(id, supplier);
+        classIdMap.put(clazz, id);
     }
 
     @Override
@@ -16,6 +16,18 @@ public abstract class ProxyMessage {
         return null;
     }
 
+    /**
+     * Returns key of the state this message updates. If a received batch contains multiple
+     * messages of the same class with the same key, only the last one is processed.
+     * Returns {@code null} if the message should always be processed.
+     *
+     * @return  Key of updated state or {@code null} if message should always be processed
+     */
+    @Nullable
+    public Object getCollapseKey() {
+        return null;
+    }
+
     public void writeUUID(@NotNull ByteArrayDataOutput out, @NotNull UUID id) {
         out.writeLong(id.getMostSignificantBits());
         out.writeLong(id.getLeastSignificantBits());
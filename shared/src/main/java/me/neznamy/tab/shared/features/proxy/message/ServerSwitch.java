@@ -18,6 +18,12 @@ public class ServerSwitch extends ProxyMessage {
     private UUID playerId;
     private String newServer;
 
+    @Override
+    @NotNull
+    public Object getCollapseKey() {
+        return playerId;
+    }
+
     @Override
     public void write(@NotNull ByteArrayDataOutput out) {
         writeUUID(out, playerId);
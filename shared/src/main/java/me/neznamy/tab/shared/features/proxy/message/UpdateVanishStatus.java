@@ -18,6 +18,12 @@ public class UpdateVanishStatus extends ProxyMessage {
     private UUID playerId;
     private boolean vanished;
 
+    @Override
+    @NotNull
+    public Object getCollapseKey() {
+        return playerId;
+    }
+
     @Override
     public void write(@NotNull ByteArrayDataOutput out) {
         writeUUID(out, playerId);
@@ -106,7 +106,9 @@ public class ScoreboardImpl extends RefreshableFeature implements me.neznamy.tab
     }
 
     /**
-     * Registers line with given text and line number
+     * Registers line with given text and line number. Text without placeholders
+     * is displayed using {@link LongLine}, text with placeholders using {@link StableDynamicLine}.
+     * Both render text once for all viewers if it only contains server placeholders.
      *
      * @param lineNumber ID of line
      * @param text       text to display
@@ -175,14 +177,13 @@ public class ScoreboardImpl extends RefreshableFeature implements me.neznamy.tab
             ScoreboardLine line = (ScoreboardLine) l;
             if (line.isShownTo(p)) {
                 p.getScoreboard().unregisterTeam(line.getTeamName());
-                line.removePlayerSilently(p);
             }
+            line.removePlayerSilently(p);
         }
         players.remove(p);
         p.scoreboardData.activeScoreboard = null;
         p.scoreboardData.titleProperty = null;
         p.scoreboardData.lineProperties.clear();
-        p.scoreboardData.lineNameProperties.clear();
         p.scoreboardData.numberFormatProperties.clear();
         TAB.getInstance().getPlaceholderManager().getTabExpansion().setScoreboardName(p, "");
     }
@@ -216,8 +217,7 @@ public class ScoreboardImpl extends RefreshableFeature implements me.neznamy.tab
         Collections.reverse(linesReversed);
         int score = manager.getConfiguration().getStaticNumber();
         for (Line line : linesReversed) {
-            Property pr = p.scoreboardData.lineProperties.get((ScoreboardLine) line);
-            if (pr.getCurrentRawValue().isEmpty() || (!pr.getCurrentRawValue().isEmpty() && !pr.get().isEmpty())) {
+            if (((ScoreboardLine) line).isDisplayed(p)) {
                 p.getScoreboard().setScore(
                         ScoreboardManagerImpl.OBJECTIVE_NAME,
                         ((ScoreboardLine) line).getPlayerName(p),
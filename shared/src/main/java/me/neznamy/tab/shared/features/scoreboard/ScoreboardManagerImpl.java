@@ -27,7 +27,7 @@ import java.util.Map.Entry;
  */
 public class ScoreboardManagerImpl extends RefreshableFeature implements ScoreboardManager, JoinListener,
         CommandListener, DisplayObjectiveListener, ObjectiveListener, Loadable,
-        QuitListener, CustomThreaded, ServerSwitchListener {
+        QuitListener, CustomThreaded, ServerSwitchListener, HotReloadable {
 
     /** Objective name used by this feature */
     public static final String OBJECTIVE_NAME = "TAB-Scoreboard";
@@ -80,6 +80,17 @@ public class ScoreboardManagerImpl extends RefreshableFeature implements Scorebo
         }
     }
 
+    @Override
+    public void unloadForReplacement() {
+        for (TabPlayer p : TAB.getInstance().getOnlinePlayers()) {
+            if (p.scoreboardData.activeScoreboard != null) p.scoreboardData.activeScoreboard.removePlayer(p);
+            p.scoreboardData.forcedScoreboard = null;
+            p.scoreboardData.joinDelayed = false;
+            p.scoreboardData.visible = false;
+            ((SafeScoreboard<?>)p.getScoreboard()).setAntiOverrideScoreboard(false);
+        }
+    }
+
     @NotNull
     @Override
     public String getRefreshDisplayName() {
@@ -385,10 +396,6 @@ public class ScoreboardManagerImpl extends RefreshableFeature implements Scorebo
         @NotNull
         public final Map<ScoreboardLine, Property> lineProperties = new IdentityHashMap<>();
 
-        /** Map of line player name properties (used in long lines) */
-        @NotNull
-        public final Map<ScoreboardLine, Property> lineNameProperties = new IdentityHashMap<>();
-
         /** Map of line NumberFormat properties */
         @NotNull
         public final Map<ScoreboardLine, Property> numberFormatProperties = new IdentityHashMap<>();
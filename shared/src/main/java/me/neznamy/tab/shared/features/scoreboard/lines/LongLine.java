@@ -2,7 +2,6 @@ package me.neznamy.tab.shared.features.scoreboard.lines;
 
 import lombok.NonNull;
 import me.neznamy.tab.shared.Limitations;
-import me.neznamy.tab.shared.Property;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardImpl;
@@ -10,6 +9,7 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * Line using all 3 values - prefix, name and suffix. Line may flicker when placeholder changes value.
+ * Text which does not depend on viewer is rendered and split once for all players.
  * Limitations:
  *   1.5.x - 1.7.x: up to 42 characters
  *   1.8.x - 1.12.x: up to 66 characters
@@ -17,6 +17,15 @@ import org.jetbrains.annotations.NotNull;
  */
 public class LongLine extends ScoreboardLine {
 
+    /** Number of client variants of shared text, 1.8+ and older */
+    private static final int VARIANT_COUNT = 2;
+
+    /** Current and previous shared text {@link #variants} were computed from */
+    private final String[] variantSources = new String[2];
+
+    /** Prefix, name and suffix of current and previous shared text for each client variant, computed on first use */
+    private final String[][][] variants = new String[2][VARIANT_COUNT][];
+
     /**
      * Constructs new instance with given parameters
      *
@@ -34,61 +43,123 @@ public class LongLine extends ScoreboardLine {
     @Override
     public void refresh(@NotNull TabPlayer refreshed, boolean force) {
         if (refreshed.scoreboardData.activeScoreboard != parent) return; //player has different scoreboard displayed
-        Property lineProperty = refreshed.scoreboardData.lineProperties.get(this);
-        if (lineProperty.update()) {
-            if (refreshed.getVersion().getMinorVersion() >= 13 && !TAB.getInstance().getConfiguration().getConfig().isPacketEventsCompensation()) {
-                updateTeam(refreshed, lineProperty.get(), "");
-            } else {
-                removeLine(refreshed, refreshed.scoreboardData.lineNameProperties.get(this).get());
-                String[] values = splitText(
-                        getPlayerName(lineNumber),
-                        parent.getManager().getCache().get(lineProperty.get()).toLegacyText(),
-                        refreshed.getVersion().getMinorVersion() >= 8 ? Limitations.SCOREBOARD_SCORE_LENGTH_1_8 : Limitations.SCOREBOARD_SCORE_LENGTH_1_7
-                );
-                addLine(refreshed, values[1], values[0], values[2]);
-                refreshed.scoreboardData.lineNameProperties.get(this).changeRawValue(values[1]);
-            }
+        String before = sentValues.get(refreshed);
+        if (before == null) return; //not actually loaded yet
+        String value = getText(refreshed);
+        if (value.equals(before)) return;
+        sentValues.put(refreshed, value);
+        if (!isSplit(refreshed)) {
+            updateTeam(refreshed, value, "");
+        } else {
+            removeLine(refreshed, getValues(refreshed, before)[1]);
+            String[] values = getValues(refreshed, value);
+            addLine(refreshed, values[1], values[0], values[2]);
         }
     }
 
     @Override
     public void register(@NonNull TabPlayer p) {
-        p.scoreboardData.lineProperties.put(this, new Property(this, p, text));
+        createProperty(p);
         getScoreRefresher().registerProperties(p);
-        String value = p.scoreboardData.lineProperties.get(this).get();
-        if (p.getVersion().getMinorVersion() >= 13 && !TAB.getInstance().getConfiguration().getConfig().isPacketEventsCompensation()) {
+        String value = getText(p);
+        sentValues.put(p, value);
+        if (!isSplit(p)) {
             addLine(p, playerName, value, "");
-            p.scoreboardData.lineNameProperties.put(this, new Property(this, p, playerName));
         } else {
-            String[] values = splitText(
-                    playerName,
-                    parent.getManager().getCache().get(value).toLegacyText(),
-                    p.getVersion().getMinorVersion() >= 8 ? Limitations.SCOREBOARD_SCORE_LENGTH_1_8 : Limitations.SCOREBOARD_SCORE_LENGTH_1_7
-            );
+            String[] values = getValues(p, value);
             addLine(p, values[1], values[0], values[2]);
-            p.scoreboardData.lineNameProperties.put(this, new Property(this, p, values[1]));
         }
     }
 
     @Override
     public void unregister(@NonNull TabPlayer p) {
-        if (p.scoreboardData.activeScoreboard == parent) {
-            removeLine(p, p.scoreboardData.lineNameProperties.get(this).get());
+        String sent = sentValues.remove(p);
+        if (p.scoreboardData.activeScoreboard == parent && sent != null) {
+            removeLine(p, getPlayerName(p, sent));
+        }
+    }
+
+    /**
+     * Returns prefix, name and suffix of given text for given player. Shared text
+     * is split only once for each client variant.
+     *
+     * @param   p
+     *          player to split text for
+     * @param   text
+     *          text to split
+     * @return  array of 3 elements for prefix, name and suffix
+     */
+    @NotNull
+    private String[] getValues(@NotNull TabPlayer p, @NotNull String text) {
+        int variant = p.getVersion().getMinorVersion() >= 8 ? 0 : 1;
+        if (!isShared()) return render(variant, text);
+        int index;
+        if (text == variantSources[0]) {
+            index = 0;
+        } else if (text == variantSources[1]) {
+            index = 1;
+        } else {
+            // New shared text, keep the previous one for removing lines which still display it
+            variantSources[1] = variantSources[0];
+            variants[1] = variants[0];
+            variantSources[0] = text;
+            variants[0] = new String[VARIANT_COUNT][];
+            index = 0;
+        }
+        String[] values = variants[index][variant];
+        if (values == null) {
+            values = render(variant, text);
+            variants[index][variant] = values;
         }
+        return values;
+    }
+
+    /**
+     * Converts text to legacy colors and splits it into prefix, name and suffix.
+     *
+     * @param   variant
+     *          client variant, {@code 0} for 1.8+, {@code 1} for older versions
+     * @param   text
+     *          text to split
+     * @return  array of 3 elements for prefix, name and suffix
+     */
+    @NotNull
+    private String[] render(int variant, @NotNull String text) {
+        return splitText(
+                playerName,
+                parent.getManager().getCache().get(text).toLegacyText(),
+                variant == 0 ? Limitations.SCOREBOARD_SCORE_LENGTH_1_8 : Limitations.SCOREBOARD_SCORE_LENGTH_1_7
+        );
+    }
+
+    /**
+     * Returns name of fake player displaying given text to given player.
+     *
+     * @param   viewer
+     *          player viewing the line
+     * @param   text
+     *          text displayed to the player
+     * @return  name of fake player
+     */
+    @NotNull
+    private String getPlayerName(@NotNull TabPlayer viewer, @NotNull String text) {
+        return isSplit(viewer) ? getValues(viewer, text)[1] : playerName;
     }
 
     @Override
     public void setText(@NonNull String text) {
         ensureActive();
         initializeText(text);
+        classify();
         for (TabPlayer p : parent.getPlayers()) {
-            p.scoreboardData.lineProperties.get(this).changeRawValue(text);
+            updateProperty(p);
             refresh(p, false);
         }
     }
 
     @Override
     public String getPlayerName(@NonNull TabPlayer viewer) {
-        return viewer.scoreboardData.lineNameProperties.get(this).get();
+        String sent = sentValues.get(viewer);
+        return sent == null ? playerName : getPlayerName(viewer, sent);
     }
-}
\ No newline at end of file
+}
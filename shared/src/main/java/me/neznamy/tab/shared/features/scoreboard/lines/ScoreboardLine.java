@@ -5,25 +5,36 @@ import lombok.NonNull;
 import me.neznamy.chat.TextColor;
 import me.neznamy.tab.api.scoreboard.Line;
 import me.neznamy.tab.shared.Limitations;
+import me.neznamy.tab.shared.Property;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.TabConstants;
 import me.neznamy.tab.shared.cpu.ThreadExecutor;
+import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
 import me.neznamy.tab.shared.features.scoreboard.ScoreRefresher;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardImpl;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardManagerImpl;
 import me.neznamy.tab.shared.features.types.CustomThreaded;
 import me.neznamy.tab.shared.features.types.RefreshableFeature;
 import me.neznamy.tab.shared.necrotempus.NecroTempusAsk;
+import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
 import me.neznamy.tab.shared.platform.Scoreboard;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Abstract class representing a line of scoreboard
+ * Abstract class representing a line of scoreboard.
+ * <p>
+ * Lines which only use server placeholders (or no placeholders at all) display
+ * the same text to all viewers. Such lines are rendered once and the result is
+ * shared by all players. Other lines are rendered for each player separately.
  */
 @Getter
 public abstract class ScoreboardLine extends RefreshableFeature implements Line, CustomThreaded {
@@ -47,6 +58,21 @@ public abstract class ScoreboardLine extends RefreshableFeature implements Line,
     private final ScoreRefresher scoreRefresher;
 
     private final Set<TabPlayer> shownPlayers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /** Text last sent to each player */
+    protected final Map<TabPlayer, String> sentValues = new ConcurrentHashMap<>();
+
+    /** Server placeholders used in text if it does not depend on viewer, {@code null} if rendered per player */
+    @Nullable
+    private ServerPlaceholderImpl[] serverPlaceholders;
+
+    /** Values of server placeholders shared text was last rendered with */
+    @Nullable
+    private String[] renderedValues;
+
+    /** Text rendered once for all viewers, {@code null} until first render */
+    @Nullable
+    private Property sharedProperty;
     
     /**
      * Constructs new instance with given parameters
@@ -64,6 +90,147 @@ public abstract class ScoreboardLine extends RefreshableFeature implements Line,
         playerName = getPlayerName(lineNumber);
         scoreRefresher = new ScoreRefresher(this, numberFormat);
         TAB.getInstance().getFeatureManager().registerFeature(TabConstants.Feature.scoreboardScore(parent.getName(), lineNumber), scoreRefresher);
+        classify();
+    }
+
+    /**
+     * Checks whether text only uses server placeholders and can therefore be
+     * rendered once for all viewers.
+     */
+    protected void classify() {
+        serverPlaceholders = null;
+        renderedValues = null;
+        sharedProperty = null;
+        List<String> identifiers = PlaceholderManagerImpl.detectPlaceholders(text);
+        ServerPlaceholderImpl[] placeholders = new ServerPlaceholderImpl[identifiers.size()];
+        for (int i = 0; i < placeholders.length; i++) {
+            TabPlaceholder placeholder = TAB.getInstance().getPlaceholderManager().getPlaceholder(identifiers.get(i));
+            if (!(placeholder instanceof ServerPlaceholderImpl)) return;
+            placeholders[i] = (ServerPlaceholderImpl) placeholder;
+        }
+        serverPlaceholders = placeholders;
+    }
+
+    /**
+     * Returns {@code true} if text of this line is rendered once for all viewers,
+     * {@code false} if it is rendered for each player separately.
+     *
+     * @return  {@code true} if text is shared, {@code false} if not
+     */
+    protected boolean isShared() {
+        return serverPlaceholders != null;
+    }
+
+    /**
+     * Creates text property for player if this line is rendered per player.
+     *
+     * @param   p
+     *          player to create property for
+     */
+    protected void createProperty(@NotNull TabPlayer p) {
+        if (serverPlaceholders == null) {
+            p.scoreboardData.lineProperties.put(this, new Property(this, p, text));
+        }
+    }
+
+    /**
+     * Updates text property of player after text changed. Removes it if text is now
+     * shared, otherwise creates it or changes its raw value.
+     *
+     * @param   p
+     *          player to update property of
+     */
+    protected void updateProperty(@NotNull TabPlayer p) {
+        if (serverPlaceholders != null) {
+            p.scoreboardData.lineProperties.remove(this);
+        } else {
+            Property property = p.scoreboardData.lineProperties.get(this);
+            if (property == null) {
+                p.scoreboardData.lineProperties.put(this, new Property(this, p, text));
+            } else {
+                property.changeRawValue(text);
+            }
+        }
+    }
+
+    /**
+     * Returns current text of this line for given player. Shared text is used
+     * if possible, otherwise player's own property is updated.
+     *
+     * @param   p
+     *          player to get text for
+     * @return  text with replaced placeholders
+     */
+    @NotNull
+    protected String getText(@NotNull TabPlayer p) {
+        if (serverPlaceholders != null && updateSharedText(p)) return sharedProperty.get();
+        return p.scoreboardData.lineProperties.get(this).updateAndGet();
+    }
+
+    /**
+     * Renders shared text again if any of the server placeholders changed value since the last render.
+     * Placeholders are compared by identity of their values, so checking an unchanged line
+     * for another player does not replace anything. If one of the placeholders was replaced
+     * by a different placeholder type or its output contains nested placeholders, which are
+     * resolved for each player, the line switches to per-player rendering.
+     *
+     * @param   owner
+     *          player to create shared property with if it does not exist yet
+     * @return  {@code true} if shared text can be used, {@code false} if line switched to per-player rendering
+     */
+    private boolean updateSharedText(@NotNull TabPlayer owner) {
+        if (sharedProperty == null) {
+            renderedValues = new String[serverPlaceholders.length];
+            sharedProperty = new Property(this, owner, text);
+        }
+        boolean changed = false;
+        for (int i = 0; i < serverPlaceholders.length; i++) {
+            String value = serverPlaceholders[i].getLastValue(null);
+            if (value != renderedValues[i]) {
+                renderedValues[i] = value;
+                changed = true;
+            }
+        }
+        if (!changed) return true;
+        for (ServerPlaceholderImpl placeholder : serverPlaceholders) {
+            if (TAB.getInstance().getPlaceholderManager().getPlaceholder(placeholder.getIdentifier()) != placeholder ||
+                    !placeholder.getNestedPlaceholders(placeholder.getLastValue(null)).isEmpty()) {
+                switchToPerPlayer(owner);
+                return false;
+            }
+        }
+        sharedProperty.update();
+        return true;
+    }
+
+    /**
+     * Stops sharing text between players and creates a property for each player
+     * this line is registered to.
+     *
+     * @param   current
+     *          player whose text is being rendered, who may not be registered yet
+     */
+    private void switchToPerPlayer(@NotNull TabPlayer current) {
+        serverPlaceholders = null;
+        renderedValues = null;
+        sharedProperty = null;
+        for (TabPlayer p : sentValues.keySet()) {
+            p.scoreboardData.lineProperties.put(this, new Property(this, p, text));
+        }
+        if (!current.scoreboardData.lineProperties.containsKey(this)) {
+            current.scoreboardData.lineProperties.put(this, new Property(this, current, text));
+        }
+    }
+
+    /**
+     * Returns {@code true} if text must be split into prefix and suffix for given player.
+     *
+     * @param   p
+     *          player to check
+     * @return  {@code true} if text must be split, {@code false} if not
+     */
+    protected boolean isSplit(@NotNull TabPlayer p) {
+        return p.getVersion().getMinorVersion() < 13 || TAB.getInstance().getConfiguration().getConfig().isPacketEventsCompensation();
     }
     
     /**
@@ -226,6 +393,20 @@ public abstract class ScoreboardLine extends RefreshableFeature implements Line,
         return shownPlayers.contains(player);
     }
 
+    /**
+     * Returns {@code true} if this line takes a score position for specified player.
+     * Lines with empty configured text always do, lines which became empty after
+     * replacing placeholders are hidden and do not.
+     *
+     * @param   player
+     *          Player to check
+     * @return  {@code true} if line takes a score position, {@code false} if not
+     */
+    public boolean isDisplayed(@NonNull TabPlayer player) {
+        String sent = sentValues.get(player);
+        return text.isEmpty() || (sent != null && !sent.isEmpty());
+    }
+
     /**
      * Splits text using {@code "||"} string, where first part is text to display and
      * second part is number format (optional)
@@ -274,6 +455,7 @@ public abstract class ScoreboardLine extends RefreshableFeature implements Line,
      */
     public void removePlayerSilently(@NonNull TabPlayer player) {
         shownPlayers.remove(player);
+        sentValues.remove(player);
     }
 
     @Override
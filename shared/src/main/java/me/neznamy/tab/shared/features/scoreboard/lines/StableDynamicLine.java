@@ -2,22 +2,36 @@ package me.neznamy.tab.shared.features.scoreboard.lines;
 
 import lombok.NonNull;
 import me.neznamy.tab.shared.Limitations;
-import me.neznamy.tab.shared.Property;
-import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.features.scoreboard.ScoreboardImpl;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
 
 /**
  * Line of text with placeholder support
  * Limitations:
  *   1.5.x - 1.12.x: 28 - 32 characters (depending on used magic codes)
  *   1.13+: unlimited
+ * <p>
+ * Prefix/suffix of text shared by all viewers is computed once per client
+ * variant (RGB support and 1.13+ length limits).
  */
 public class StableDynamicLine extends ScoreboardLine {
 
     private final String[] EMPTY_ARRAY = new String[0];
 
+    /** Number of client variants of shared text, see {@link #getVariantIndex(TabPlayer)} */
+    private static final int VARIANT_COUNT = 4;
+
+    /** Shared text {@link #variants} were computed from */
+    @Nullable
+    private String variantSource;
+
+    /** Prefix and suffix of shared text for each client variant, computed on first use */
+    private final String[][] variants = new String[VARIANT_COUNT][];
+
     /**
      * Constructs new instance with given parameters
      *
@@ -42,16 +56,19 @@ public class StableDynamicLine extends ScoreboardLine {
 
     @Override
     public void register(@NonNull TabPlayer p) {
-        p.scoreboardData.lineProperties.put(this, new Property(this, p, text));
+        createProperty(p);
         getScoreRefresher().registerProperties(p);
-        String[] prefixSuffix = replaceText(p, true, true);
-        if (prefixSuffix.length == 0) return;
+        String value = getText(p);
+        sentValues.put(p, value);
+        String[] prefixSuffix = getPrefixSuffix(p, value);
+        if (prefixSuffix[0].isEmpty() && prefixSuffix[1].isEmpty()) return;
         addLine(p, getPlayerName(), prefixSuffix[0], prefixSuffix[1]);
     }
 
     @Override
     public void unregister(@NonNull TabPlayer p) {
-        if (p.scoreboardData.activeScoreboard == parent && !p.scoreboardData.lineProperties.get(this).get().isEmpty()) {
+        String sent = sentValues.remove(p);
+        if (p.scoreboardData.activeScoreboard == parent && sent != null && !sent.isEmpty()) {
             removeLine(p, getPlayerName());
         }
     }
@@ -69,17 +86,14 @@ public class StableDynamicLine extends ScoreboardLine {
      * @return  array of 2 elements for prefix/suffix
      */
     private String[] replaceText(TabPlayer p, boolean force, boolean suppressToggle) {
-        Property scoreProperty = p.scoreboardData.lineProperties.get(this);
-        if (scoreProperty == null) return EMPTY_ARRAY; //not actually loaded yet (force refresh called from placeholder manager register method)
-        boolean emptyBefore = scoreProperty.get().isEmpty();
-        if (!scoreProperty.update() && !force) return EMPTY_ARRAY;
-        String replaced = scoreProperty.get();
-        if (!p.getVersion().supportsRGB()) {
-            replaced = parent.getManager().getCache().get(replaced).toLegacyText(); //converting RGB to legacy here to avoid splitting in the middle of RGB code
-        }
-        String[] split = split(p, replaced);
-        if (!replaced.isEmpty()) {
-            if (emptyBefore) {
+        String before = sentValues.get(p);
+        if (before == null) return EMPTY_ARRAY; //not actually loaded yet (force refresh called from placeholder manager register method)
+        String replaced = getText(p);
+        if (!force && replaced.equals(before)) return EMPTY_ARRAY;
+        sentValues.put(p, replaced);
+        String[] split = getPrefixSuffix(p, replaced);
+        if (!split[0].isEmpty() || !split[1].isEmpty()) {
+            if (before.isEmpty()) {
                 //was "", now it is not
                 addLine(p, getPlayerName(), split[0], split[1]);
                 parent.recalculateScores(p);
@@ -97,6 +111,62 @@ public class StableDynamicLine extends ScoreboardLine {
         }
     }
 
+    /**
+     * Returns prefix and suffix of given text for given player. Shared text is split
+     * only once for each client variant.
+     *
+     * @param   p
+     *          player to get prefix and suffix for
+     * @param   text
+     *          text to split
+     * @return  array of 2 elements for prefix and suffix
+     */
+    @NotNull
+    private String[] getPrefixSuffix(@NotNull TabPlayer p, @NotNull String text) {
+        if (!isShared()) return render(p, text);
+        if (text != variantSource) {
+            Arrays.fill(variants, null);
+            variantSource = text;
+        }
+        int index = getVariantIndex(p);
+        String[] variant = variants[index];
+        if (variant == null) {
+            variant = render(p, text);
+            variants[index] = variant;
+        }
+        return variant;
+    }
+
+    /**
+     * Returns index of client variant of given player. Players with the same index
+     * receive the same prefix and suffix for the same text.
+     *
+     * @param   p
+     *          player to get variant index of
+     * @return  index of client variant
+     */
+    private int getVariantIndex(@NotNull TabPlayer p) {
+        return (p.getVersion().supportsRGB() ? 0 : 1) | (isSplit(p) ? 2 : 0);
+    }
+
+    /**
+     * Converts text to legacy colors for clients without RGB support and splits it into prefix/suffix.
+     *
+     * @param   p
+     *          player to render text for
+     * @param   text
+     *          text to render
+     * @return  array of 2 elements for prefix and suffix
+     */
+    @NotNull
+    private String[] render(@NotNull TabPlayer p, @NotNull String text) {
+        String replaced = text;
+        if (!p.getVersion().supportsRGB()) {
+            replaced = parent.getManager().getCache().get(replaced).toLegacyText(); //converting RGB to legacy here to avoid splitting in the middle of RGB code
+        }
+        return split(p, replaced);
+    }
+
     /**
      * Splits text into 2 values (prefix/suffix) based on client version and text itself
      *
@@ -107,7 +177,7 @@ public class StableDynamicLine extends ScoreboardLine {
      * @return  array of 2 elements for prefix and suffix
      */
     private String[] split(@NonNull TabPlayer p, @NonNull String text) {
-        if (p.getVersion().getMinorVersion() >= 13 && !TAB.getInstance().getConfiguration().getConfig().isPacketEventsCompensation()) return new String[] {text, ""};
+        if (!isSplit(p)) return new String[] {text, ""};
         int charLimit = Limitations.TEAM_PREFIX_SUFFIX_PRE_1_13;
         if (text.length() > charLimit) {
             StringBuilder prefix = new StringBuilder(text);
@@ -130,8 +200,10 @@ public class StableDynamicLine extends ScoreboardLine {
     public void setText(@NonNull String text) {
         ensureActive();
         initializeText(text);
+        classify();
+        variantSource = null;
         for (TabPlayer p : parent.getPlayers()) {
-            p.scoreboardData.lineProperties.get(this).changeRawValue(text);
+            updateProperty(p);
             String[] prefixSuffix = replaceText(p, true, true);
             if (prefixSuffix.length == 0) {
                 if (text.isEmpty()) {
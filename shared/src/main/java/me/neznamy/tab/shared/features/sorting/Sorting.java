@@ -13,6 +13,8 @@ import me.neznamy.tab.shared.features.proxy.ProxySupport;
 import me.neznamy.tab.shared.features.sorting.types.*;
 import me.neznamy.tab.shared.features.types.JoinListener;
 import me.neznamy.tab.shared.features.types.Loadable;
+import me.neznamy.tab.shared.features.types.ProxyFeature;
+import me.neznamy.tab.shared.features.types.QuitListener;
 import me.neznamy.tab.shared.features.types.RefreshableFeature;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
@@ -25,7 +27,7 @@ import java.util.stream.Collectors;
 /**
  * Class for handling player sorting rules
  */
-public class Sorting extends RefreshableFeature implements SortingManager, JoinListener, Loadable {
+public class Sorting extends RefreshableFeature implements SortingManager, JoinListener, QuitListener, Loadable, ProxyFeature {
 
     private NameTag nameTags;
     private LayoutManagerImpl layout;
@@ -40,6 +42,11 @@ public class Sorting extends RefreshableFeature implements SortingManager, JoinL
     
     //active sorting types
     private final SortingType[] usedSortingTypes;
+
+    /** Team names taken by players */
+    @Getter
+    @NotNull
+    private final TeamNameRegistry teamNames = new TeamNameRegistry();
     
     /**
      * Constructs new instance.
@@ -81,6 +88,11 @@ public class Sorting extends RefreshableFeature implements SortingManager, JoinL
         nameTags = TAB.getInstance().getNameTagManager();
         layout = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.LAYOUT);
         proxy = TAB.getInstance().getFeatureManager().getFeature(TabConstants.Feature.PROXY_SUPPORT);
+        if (proxy != null) {
+            for (ProxyPlayer player : proxy.getProxyPlayers().values()) {
+                if (player.getTeamName() != null) teamNames.claim(player.getUniqueId(), player.getTeamName());
+            }
+        }
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
             onJoin(all);
         }
@@ -90,6 +102,16 @@ public class Sorting extends RefreshableFeature implements SortingManager, JoinL
     public void onJoin(@NotNull TabPlayer connectedPlayer) {
         constructTeamNames(connectedPlayer);
     }
+
+    @Override
+    public void onQuit(@NotNull TabPlayer disconnectedPlayer) {
+        teamNames.release(disconnectedPlayer.getUniqueId());
+    }
+
+    @Override
+    public void onQuit(@NotNull ProxyPlayer player) {
+        teamNames.release(player.getUniqueId());
+    }
     
     /**
      * Compiles sorting type list into classes
@@ -142,7 +164,7 @@ public class Sorting extends RefreshableFeature implements SortingManager, JoinL
     }
 
     /**
-     * Checks if team name is available and proceeds to try new values until free name is found
+     * Allocates first available team name starting with given text for the player
      *
      * @param   p
      *          player to build team name for
@@ -152,30 +174,7 @@ public class Sorting extends RefreshableFeature implements SortingManager, JoinL
      */
     @NotNull
     private String checkTeamName(@NotNull TabPlayer p, @NotNull StringBuilder currentName) {
-        char id = 'A';
-        while (true) {
-            String potentialTeamName = currentName.toString() + id;
-            boolean nameTaken = false;
-            for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-                if (all == p) continue;
-                if (potentialTeamName.equals(all.sortingData.shortTeamName)) {
-                    nameTaken = true;
-                    break;
-                }
-            }
-            if (!nameTaken && proxy != null && nameTags != null) {
-                for (ProxyPlayer all : proxy.getProxyPlayers().values()) {
-                    if (potentialTeamName.equals(all.getTeamName())) {
-                        nameTaken = true;
-                        break;
-                    }
-                }
-            }
-            if (!nameTaken) {
-                return potentialTeamName;
-            }
-            id++;
-        }
+        return teamNames.allocate(p.getUniqueId(), currentName.toString());
     }
     
     /**
@@ -0,0 +1,82 @@
+package me.neznamy.tab.shared.features.sorting;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registry of team names taken by players on this server and players connected
+ * to other proxies. Names are indexed by their first 15 characters, so allocating
+ * a free name does not need to check every player.
+ */
+public class TeamNameRegistry {
+
+    /** First character used as the last character of team name */
+    private static final char FIRST_ID = 'A';
+
+    /** Taken last characters (offset by {@link #FIRST_ID}) of team names by the first 15 characters */
+    private final Map<String, BitSet> takenIds = new HashMap<>();
+
+    /** Team names by UUID of players they belong to */
+    private final Map<UUID, String> teamNames = new HashMap<>();
+
+    /**
+     * Finds the first available team name starting with given text, assigns it
+     * to given player and returns it. Team name previously assigned to the player is released first.
+     *
+     * @param   player
+     *          UUID of player to allocate team name for
+     * @param   currentName15
+     *          Up to 15 characters long start of the team name
+     * @return  First available team name
+     */
+    @NotNull
+    public synchronized String allocate(@NonNull UUID player, @NonNull String currentName15) {
+        release(player);
+        BitSet ids = takenIds.computeIfAbsent(currentName15, n -> new BitSet());
+        int id = ids.nextClearBit(0);
+        ids.set(id);
+        String teamName = currentName15 + (char) (FIRST_ID + id);
+        teamNames.put(player, teamName);
+        return teamName;
+    }
+
+    /**
+     * Marks team name as taken by given player. Used for players whose team name
+     * was allocated before this registry was created. Team name previously assigned
+     * to the player is released first.
+     *
+     * @param   player
+     *          UUID of player who has the team name
+     * @param   teamName
+     *          Team name of the player
+     */
+    public synchronized void claim(@NonNull UUID player, @NonNull String teamName) {
+        release(player);
+        if (teamName.isEmpty()) return;
+        int id = teamName.charAt(teamName.length() - 1) - FIRST_ID;
+        if (id < 0) return; // Cannot be allocated by this registry
+        takenIds.computeIfAbsent(teamName.substring(0, teamName.length() - 1), n -> new BitSet()).set(id);
+        teamNames.put(player, teamName);
+    }
+
+    /**
+     * Releases team name of given player, making it available for other players.
+     *
+     * @param   player
+     *          UUID of player to release team name of
+     */
+    public synchronized void release(@NonNull UUID player) {
+        String teamName = teamNames.remove(player);
+        if (teamName == null) return;
+        String currentName15 = teamName.substring(0, teamName.length() - 1);
+        BitSet ids = takenIds.get(currentName15);
+        if (ids == null) return;
+        ids.clear(teamName.charAt(teamName.length() - 1) - FIRST_ID);
+        if (ids.isEmpty()) takenIds.remove(currentName15);
+    }
+}
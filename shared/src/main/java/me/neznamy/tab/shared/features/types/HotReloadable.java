@@ -0,0 +1,15 @@
+package me.neznamy.tab.shared.features.types;
+
+/**
+ * Interface for features which can be replaced by a new instance when only
+ * their configuration changed, without reloading the entire plugin.
+ */
+public interface HotReloadable {
+
+    /**
+     * Removes everything this feature displays to players and resets their
+     * data of this feature, so a new instance can be loaded in its place.
+     * Called after the feature's thread was shut down.
+     */
+    void unloadForReplacement();
+}
@@ -8,10 +8,13 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.util.ReflectionUtils;
 import net.luckperms.api.LuckPermsProvider;
 import net.luckperms.api.cacheddata.CachedMetaData;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import net.luckperms.api.model.user.User;
 import net.luckperms.api.query.QueryOptions;
 
 import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -36,6 +39,19 @@ public class LuckPermsHook {
         return p.luckPermsUser.getPrimaryGroup();
     };
 
+    /**
+     * Subscribes to recalculation of user data, which happens when groups
+     * or permissions of a user change.
+     *
+     * @param   handler
+     *          Handler receiving UUID of user whose data was recalculated
+     * @return  Subscription which unsubscribes the handler when closed
+     */
+    public AutoCloseable subscribeToDataRecalculation(@NonNull Consumer<UUID> handler) {
+        return LuckPermsProvider.get().getEventBus().subscribe(UserDataRecalculateEvent.class,
+                event -> handler.accept(event.getUser().getUniqueId()));
+    }
+
     /**
      * Returns player's prefix configured in LuckPerms
      *
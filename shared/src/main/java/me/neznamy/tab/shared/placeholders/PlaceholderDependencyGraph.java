@@ -0,0 +1,251 @@
+package me.neznamy.tab.shared.placeholders;
+
+import lombok.NonNull;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.features.PlaceholderManagerImpl;
+import me.neznamy.tab.shared.features.types.RefreshableFeature;
+import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Graph of placeholders using other placeholders, which includes nested placeholders
+ * in outputs, conditions, animations and replacement patterns. Edges creating a cycle
+ * are rejected. Transitive feature usage and update order of all placeholders depending
+ * on a placeholder are cached until the graph or usage changes.
+ */
+public class PlaceholderDependencyGraph {
+
+    /** Empty array for placeholders without any dependents */
+    private static final String[] EMPTY = new String[0];
+
+    /** Placeholder manager for resolving placeholders */
+    @NotNull private final PlaceholderManagerImpl manager;
+
+    /** Features directly using each placeholder */
+    @NotNull private final Map<String, Set<RefreshableFeature>> directUsage;
+
+    /** Placeholders directly using each placeholder */
+    @NotNull private final Map<String, Set<String>> parents = new ConcurrentHashMap<>();
+
+    /** Placeholders each placeholder directly uses */
+    @NotNull private final Map<String, Set<String>> children = new ConcurrentHashMap<>();
+
+    /** Dependencies which were rejected because they would create a cycle, as child → parents */
+    @NotNull private final Map<String, Set<String>> rejected = new ConcurrentHashMap<>();
+
+    /** Cached placeholders depending on each placeholder sorted so that each one comes after all placeholders it uses */
+    @NotNull private final Map<String, String[]> updateOrder = new ConcurrentHashMap<>();
+
+    /** Cached features using each placeholder directly or through another placeholder */
+    @NotNull private final Map<String, Set<RefreshableFeature>> usage = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs new instance with given parameters.
+     *
+     * @param   manager
+     *          Placeholder manager for resolving placeholders
+     * @param   directUsage
+     *          Features directly using each placeholder
+     */
+    public PlaceholderDependencyGraph(@NonNull PlaceholderManagerImpl manager, @NonNull Map<String, Set<RefreshableFeature>> directUsage) {
+        this.manager = manager;
+        this.directUsage = directUsage;
+    }
+
+    /**
+     * Marks placeholder as using another placeholder. If it would create a cycle,
+     * the dependency is not added and an error is logged. Rejected dependencies are
+     * remembered, so the error is only logged once and repeated attempts are cheap.
+     *
+     * @param   child
+     *          Placeholder being used
+     * @param   parent
+     *          Placeholder using the child placeholder
+     * @return  {@code true} if dependency is present, {@code false} if it was rejected
+     */
+    public boolean addDependency(@NonNull String child, @NonNull String parent) {
+        Set<String> current = parents.get(child);
+        if (current != null && current.contains(parent)) return true;
+        Set<String> rejectedParents = rejected.get(child);
+        if (rejectedParents != null && rejectedParents.contains(parent)) return false;
+        synchronized (this) {
+            current = parents.get(child);
+            if (current != null && current.contains(parent)) return true;
+            rejectedParents = rejected.get(child);
+            if (rejectedParents != null && rejectedParents.contains(parent)) return false;
+            if (child.equals(parent) || getUpdateOrder(parent, false).contains(child)) {
+                rejected.computeIfAbsent(child, c -> ConcurrentHashMap.newKeySet()).add(parent);
+                TAB.getInstance().getConfigHelper().runtime().error("Placeholder " + parent + " cannot use placeholder " + child +
+                        ", because " + child + " already depends on " + parent + ". This dependency will be ignored.");
+                return false;
+            }
+            parents.computeIfAbsent(child, c -> ConcurrentHashMap.newKeySet()).add(parent);
+            children.computeIfAbsent(parent, c -> ConcurrentHashMap.newKeySet()).add(child);
+            invalidate();
+            return true;
+        }
+    }
+
+    /**
+     * Clears cached usage and update order. Must be called when features using
+     * placeholders change.
+     */
+    public synchronized void invalidate() {
+        updateOrder.clear();
+        usage.clear();
+    }
+
+    /**
+     * Returns set of features using specified placeholder directly or through
+     * another placeholder.
+     *
+     * @param   identifier
+     *          Placeholder to get usage of
+     * @return  Set of features using the placeholder
+     */
+    @NotNull
+    public Set<RefreshableFeature> getUsage(@NonNull String identifier) {
+        Set<RefreshableFeature> cached = usage.get(identifier);
+        if (cached != null) return cached;
+        synchronized (this) {
+            return usage.computeIfAbsent(identifier, id -> {
+                Set<RefreshableFeature> features = new HashSet<>(directUsage.getOrDefault(id, Collections.emptySet()));
+                for (String parent : getUpdateOrder(id)) {
+                    features.addAll(directUsage.getOrDefault(parent, Collections.emptySet()));
+                }
+                return Collections.unmodifiableSet(features);
+            });
+        }
+    }
+
+    /**
+     * Returns all placeholders depending on specified placeholder in order
+     * they should be updated in.
+     *
+     * @param   identifier
+     *          Placeholder to get dependents of
+     * @return  Dependent placeholders in update order
+     */
+    @NotNull
+    public String[] getUpdateOrder(@NonNull String identifier) {
+        String[] cached = updateOrder.get(identifier);
+        if (cached != null) return cached;
+        synchronized (this) {
+            return updateOrder.computeIfAbsent(identifier, id -> {
+                List<String> order = getUpdateOrder(id, true);
+                return order.isEmpty() ? EMPTY : order.toArray(EMPTY);
+            });
+        }
+    }
+
+    /**
+     * Collects all placeholders depending on specified placeholder using depth-first search.
+     * If sorting is requested, reversed post-order is returned, which places each placeholder
+     * after all of placeholders it uses.
+     *
+     * @param   identifier
+     *          Placeholder to get dependents of
+     * @param   sort
+     *          Whether result should be sorted or not
+     * @return  All placeholders depending on specified placeholder
+     */
+    @NotNull
+    private List<String> getUpdateOrder(@NotNull String identifier, boolean sort) {
+        List<String> postOrder = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        Deque<Iterator<String>> stack = new ArrayDeque<>();
+        Deque<String> path = new ArrayDeque<>();
+        stack.push(parents.getOrDefault(identifier, Collections.emptySet()).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<String> it = stack.peek();
+            if (it.hasNext()) {
+                String next = it.next();
+                if (visited.add(next)) {
+                    path.push(next);
+                    stack.push(parents.getOrDefault(next, Collections.emptySet()).iterator());
+                }
+            } else {
+                stack.pop();
+                if (!path.isEmpty() && stack.size() == path.size()) postOrder.add(path.pop());
+            }
+        }
+        if (sort) Collections.reverse(postOrder);
+        return postOrder;
+    }
+
+    /**
+     * Updates all placeholders depending on specified placeholder for given player.
+     * Each dependent placeholder is updated at most once and only if at least one
+     * of placeholders it uses changed value.
+     *
+     * @param   identifier
+     *          Placeholder which changed value
+     * @param   player
+     *          Player to update placeholders for
+     */
+    public void propagate(@NonNull String identifier, @NonNull TabPlayer player) {
+        String[] order = getUpdateOrder(identifier);
+        if (order.length == 0) return;
+        Set<String> changed = new HashSet<>();
+        changed.add(identifier);
+        for (String id : order) {
+            if (!usesAny(id, changed)) continue;
+            TabPlaceholder placeholder = (TabPlaceholder) manager.getPlaceholderRaw(id);
+            if (placeholder != null && placeholder.updateFromNested(player)) changed.add(id);
+        }
+    }
+
+    /**
+     * Updates all placeholders depending on specified placeholder for all given players.
+     * Each dependent placeholder is updated at most once per player (or once in total for
+     * server placeholders) and only if at least one of placeholders it uses changed value.
+     *
+     * @param   identifier
+     *          Placeholder which changed value for all players
+     * @param   players
+     *          Players to update placeholders for
+     */
+    public void propagate(@NonNull String identifier, @NonNull TabPlayer[] players) {
+        String[] order = getUpdateOrder(identifier);
+        if (order.length == 0 || players.length == 0) return;
+        Map<String, boolean[]> changed = new HashMap<>();
+        boolean[] all = new boolean[players.length];
+        Arrays.fill(all, true);
+        changed.put(identifier, all);
+        for (String id : order) {
+            boolean[] trigger = new boolean[players.length];
+            boolean any = false;
+            for (String child : children.getOrDefault(id, Collections.emptySet())) {
+                boolean[] childChanged = changed.get(child);
+                if (childChanged == null) continue;
+                for (int i = 0; i < players.length; i++) {
+                    if (childChanged[i]) trigger[i] = any = true;
+                }
+            }
+            if (!any) continue;
+            TabPlaceholder placeholder = (TabPlaceholder) manager.getPlaceholderRaw(id);
+            if (placeholder == null) continue;
+            if (placeholder instanceof ServerPlaceholderImpl) {
+                if (placeholder.updateFromNested(players[0])) changed.put(id, all);
+                continue;
+            }
+            boolean[] result = new boolean[players.length];
+            for (int i = 0; i < players.length; i++) {
+                if (trigger[i]) result[i] = placeholder.updateFromNested(players[i]);
+            }
+            changed.put(id, result);
+        }
+    }
+
+    private boolean usesAny(@NotNull String identifier, @NotNull Set<String> placeholders) {
+        for (String child : children.getOrDefault(identifier, Collections.emptySet())) {
+            if (placeholders.contains(child)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,543 @@
+package me.neznamy.tab.shared.placeholders;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.neznamy.tab.api.placeholder.Placeholder;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.RelationalPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.TabPlaceholder;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable result storage of a single placeholder. Requested values are stored in arrays
+ * indexed by player slot (viewer and target slot for relational placeholders) and compared
+ * with previous values directly in worker threads, so only changed slots are marked for
+ * processing. Once the arrays are large enough for all online players, refreshing does
+ * not allocate any memory per player.
+ * <p>
+ * Relational placeholders with configured inputs are evaluated incrementally. Only pairs
+ * where inputs of the viewer or the target changed are requested again. Optionally, viewers
+ * with identical inputs are grouped into buckets and the placeholder is only requested for
+ * the first viewer of each bucket, with the result shared with the rest of the bucket.
+ * Shards remember which pairs changed, so processing does not need to check all pairs.
+ */
+public class PlaceholderRefreshBuffer {
+
+    /** Shards of this placeholder are still running */
+    static final int RUNNING = 0;
+
+    /** All shards finished and results were collected */
+    static final int DONE = 1;
+
+    /** Task was finished due to timeout before all shards finished */
+    static final int ABANDONED = 2;
+
+    /** Placeholder this buffer belongs to */
+    @Getter
+    @NotNull
+    private final Placeholder placeholder;
+
+    /** Flag tracking whether this placeholder is being refreshed or results are waiting to be processed */
+    @NotNull
+    private final AtomicBoolean acquired = new AtomicBoolean();
+
+    /** Amount of shards which are still running */
+    @NotNull
+    final AtomicInteger pendingShards = new AtomicInteger();
+
+    /** Current refresh state of this placeholder */
+    @NotNull
+    final AtomicInteger state = new AtomicInteger();
+
+    /** Time it took the placeholder to retrieve values in current refresh (in nanoseconds) */
+    @NotNull
+    final AtomicLong nanoTime = new AtomicLong();
+
+    /** Task currently using this buffer */
+    @Nullable
+    PlaceholderRefreshTask task;
+
+    /** Whether the placeholder is no longer used and buffer should be removed once released */
+    volatile boolean retired;
+
+    /** Amount of player slots the arrays are currently able to hold */
+    private int capacity;
+
+    /** Players occupying each slot when values were last requested */
+    @NotNull
+    private TabPlayer[] owners = new TabPlayer[0];
+
+    /** Slots which are occupied by a different player than in previous refresh */
+    @NotNull
+    private boolean[] fresh = new boolean[0];
+
+    /** Last requested values */
+    @NotNull
+    private String[] values = new String[0];
+
+    /** Values which changed and were not processed yet */
+    @NotNull
+    private boolean[] changed = new boolean[0];
+
+    /** Reusable shards */
+    @NotNull
+    private Shard[] shards = new Shard[0];
+
+    /** Input placeholders of relational placeholder, {@code null} if not configured */
+    @Nullable
+    private final TabPlaceholder[] inputs;
+
+    /** Whether viewers with identical inputs share evaluated values or not */
+    private final boolean bucketViewers;
+
+    /** Last known input values indexed by slot * input count + input index */
+    @NotNull
+    private String[] inputValues = new String[0];
+
+    /** Input values of each slot joined into a single key for bucketing */
+    @NotNull
+    private String[] inputKeys = new String[0];
+
+    /** Slots whose inputs changed since previous refresh */
+    @NotNull
+    private boolean[] dirty = new boolean[0];
+
+    /** Slot of the first viewer in bucket of each slot */
+    @NotNull
+    private int[] bucketHead = new int[0];
+
+    /** Slot of the next viewer in the same bucket, -1 if last */
+    @NotNull
+    private int[] bucketNext = new int[0];
+
+    /** Slot of the last viewer in bucket, indexed by slot of the first viewer */
+    @NotNull
+    private int[] bucketTail = new int[0];
+
+    /** Whether any viewer in bucket is dirty, indexed by slot of the first viewer */
+    @NotNull
+    private boolean[] bucketDirty = new boolean[0];
+
+    /** Reusable map of input keys and first viewer with such key */
+    @NotNull
+    private final Map<String, TabPlayer> bucketHeads = new HashMap<>();
+
+    /** Indexes of changed relational values collected from all shards */
+    @NotNull
+    private int[] changedPairs = new int[0];
+
+    /**
+     * Constructs new instance for given placeholder.
+     *
+     * @param   placeholder
+     *          Placeholder to store results of
+     */
+    public PlaceholderRefreshBuffer(@NonNull Placeholder placeholder) {
+        this.placeholder = placeholder;
+        if (placeholder instanceof ServerPlaceholderImpl) {
+            values = new String[1];
+            changed = new boolean[1];
+        }
+        inputs = placeholder instanceof RelationalPlaceholderImpl ? ((RelationalPlaceholderImpl) placeholder).getInputPlaceholders() : null;
+        bucketViewers = inputs != null && TAB.getInstance().getConfiguration().getConfig().getRelationalInputs().isBucketViewers();
+    }
+
+    /**
+     * Marks the buffer as used and returns {@code true} if it was not used already.
+     *
+     * @return  {@code true} if placeholder can be refreshed, {@code false} if it is still running
+     */
+    public boolean tryAcquire() {
+        return acquired.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the buffer as no longer used.
+     */
+    public void release() {
+        task = null;
+        acquired.set(false);
+    }
+
+    /**
+     * Prepares the buffer for new refresh of given players.
+     *
+     * @param   task
+     *          Task using this buffer
+     * @param   players
+     *          Players the placeholder will be refreshed for
+     * @param   slotCapacity
+     *          Highest player slot + 1
+     */
+    void prepare(@NotNull PlaceholderRefreshTask task, @NotNull TabPlayer[] players, int slotCapacity) {
+        this.task = task;
+        state.set(RUNNING);
+        nanoTime.set(0);
+        if (placeholder instanceof ServerPlaceholderImpl) return;
+        if (slotCapacity > capacity) {
+            int newCapacity = Math.max(slotCapacity, capacity * 2);
+            TabPlayer[] newOwners = new TabPlayer[newCapacity];
+            System.arraycopy(owners, 0, newOwners, 0, capacity);
+            owners = newOwners;
+            fresh = new boolean[newCapacity];
+            if (placeholder instanceof RelationalPlaceholderImpl) {
+                // Layout depends on capacity, start over
+                values = new String[newCapacity * newCapacity];
+                changed = new boolean[newCapacity * newCapacity];
+                for (int i = 0; i < capacity; i++) owners[i] = null;
+                for (Shard shard : shards) {
+                    if (shard != null) shard.changedCount = 0;
+                }
+                if (inputs != null) {
+                    inputValues = new String[newCapacity * inputs.length];
+                    inputKeys = new String[newCapacity];
+                    dirty = new boolean[newCapacity];
+                    bucketHead = new int[newCapacity];
+                    bucketNext = new int[newCapacity];
+                    bucketTail = new int[newCapacity];
+                    bucketDirty = new boolean[newCapacity];
+                }
+            } else {
+                String[] newValues = new String[newCapacity];
+                System.arraycopy(values, 0, newValues, 0, capacity);
+                values = newValues;
+                boolean[] newChanged = new boolean[newCapacity];
+                System.arraycopy(changed, 0, newChanged, 0, capacity);
+                changed = newChanged;
+            }
+            capacity = newCapacity;
+        }
+        for (TabPlayer player : players) {
+            int slot = player.getSlot();
+            fresh[slot] = owners[slot] != player;
+            owners[slot] = player;
+        }
+        if (inputs != null) prepareInputs(players);
+    }
+
+    /**
+     * Compares current input values of all players with previous ones to find
+     * players whose relational values must be requested again and groups viewers
+     * with identical inputs into buckets if enabled.
+     *
+     * @param   players
+     *          Players the placeholder will be refreshed for
+     */
+    private void prepareInputs(@NotNull TabPlayer[] players) {
+        TabPlaceholder[] inputs = this.inputs;
+        if (inputs == null) return;
+        for (TabPlayer player : players) {
+            int slot = player.getSlot();
+            boolean inputChanged = fresh[slot];
+            for (int i = 0; i < inputs.length; i++) {
+                String value = inputs[i].getLastValueSafe(player);
+                int index = slot * inputs.length + i;
+                if (!value.equals(inputValues[index])) {
+                    inputValues[index] = value;
+                    inputChanged = true;
+                }
+            }
+            dirty[slot] = inputChanged;
+            if (inputChanged || inputKeys[slot] == null) {
+                StringBuilder key = new StringBuilder();
+                for (int i = 0; i < inputs.length; i++) {
+                    key.append(inputValues[slot * inputs.length + i]).append('\0');
+                }
+                inputKeys[slot] = key.toString();
+            }
+        }
+        if (!bucketViewers) return;
+        bucketHeads.clear();
+        for (TabPlayer player : players) {
+            int slot = player.getSlot();
+            bucketNext[slot] = -1;
+            TabPlayer head = bucketHeads.putIfAbsent(inputKeys[slot], player);
+            if (head == null) {
+                bucketHead[slot] = slot;
+                bucketTail[slot] = slot;
+                bucketDirty[slot] = dirty[slot];
+            } else {
+                int headSlot = head.getSlot();
+                bucketHead[slot] = headSlot;
+                bucketNext[bucketTail[headSlot]] = slot;
+                bucketTail[headSlot] = slot;
+                bucketDirty[headSlot] |= dirty[slot];
+            }
+        }
+    }
+
+    /**
+     * Returns time it took the placeholder to retrieve values in last refresh (in nanoseconds).
+     *
+     * @return  Time it took to retrieve values in nanoseconds
+     */
+    public long getNanoTime() {
+        return nanoTime.get();
+    }
+
+    /**
+     * Returns reusable shard with given index, creating it if it does not exist yet.
+     *
+     * @param   index
+     *          Shard index
+     * @param   from
+     *          Index of first player to request value for (inclusive)
+     * @param   to
+     *          Index of last player to request value for (exclusive)
+     * @return  Shard with given index configured for given range
+     */
+    @NotNull
+    Shard getShard(int index, int from, int to) {
+        if (index >= shards.length) {
+            Shard[] newShards = new Shard[index + 1];
+            System.arraycopy(shards, 0, newShards, 0, shards.length);
+            shards = newShards;
+        }
+        if (shards[index] == null) shards[index] = new Shard();
+        Shard shard = shards[index];
+        shard.from = from;
+        shard.to = to;
+        return shard;
+    }
+
+    /**
+     * Requests values of the placeholder for players (or viewers) in given range
+     * and marks values which changed.
+     *
+     * @param   players
+     *          Players to request values for
+     * @param   shard
+     *          Shard with range of players to request values for
+     * @param   trackUsage
+     *          Whether time spent requesting values should be measured or not
+     */
+    void request(@NotNull TabPlayer[] players, @NotNull Shard shard, boolean trackUsage) {
+        int from = shard.from;
+        int to = shard.to;
+        long nanoTime = 0;
+        if (placeholder instanceof ServerPlaceholderImpl) {
+            long startTime = trackUsage ? System.nanoTime() : 0;
+            String value = ((ServerPlaceholderImpl) placeholder).request();
+            if (trackUsage) nanoTime += System.nanoTime()-startTime;
+            store(0, value, false);
+        }
+        if (placeholder instanceof PlayerPlaceholderImpl) {
+            PlayerPlaceholderImpl playerPlaceholder = (PlayerPlaceholderImpl) placeholder;
+            for (int i = from; i < to; i++) {
+                TabPlayer player = players[i];
+                long startTime = trackUsage ? System.nanoTime() : 0;
+                String value = playerPlaceholder.request(player);
+                if (trackUsage) nanoTime += System.nanoTime()-startTime;
+                store(player.getSlot(), value, fresh[player.getSlot()]);
+            }
+        }
+        if (placeholder instanceof RelationalPlaceholderImpl) {
+            RelationalPlaceholderImpl relationalPlaceholder = (RelationalPlaceholderImpl) placeholder;
+            for (int i = from; i < to; i++) {
+                TabPlayer viewer = players[i];
+                int viewerSlot = viewer.getSlot();
+                boolean viewerDirty;
+                if (inputs == null) {
+                    viewerDirty = true;
+                } else if (bucketViewers) {
+                    if (bucketHead[viewerSlot] != viewerSlot) continue; // Evaluated by first viewer in bucket
+                    viewerDirty = bucketDirty[viewerSlot];
+                } else {
+                    viewerDirty = dirty[viewerSlot];
+                }
+                for (TabPlayer target : players) {
+                    int targetSlot = target.getSlot();
+                    if (!viewerDirty && !dirty[targetSlot]) continue; // Inputs of neither player changed
+                    long startTime = trackUsage ? System.nanoTime() : 0;
+                    String value = relationalPlaceholder.request(viewer, target);
+                    if (trackUsage) nanoTime += System.nanoTime()-startTime;
+                    if (bucketViewers) {
+                        for (int member = viewerSlot; member != -1; member = bucketNext[member]) {
+                            int index = member * capacity + targetSlot;
+                            if (store(index, value, fresh[member] || fresh[targetSlot])) shard.addChangedPair(index);
+                        }
+                    } else {
+                        int index = viewerSlot * capacity + targetSlot;
+                        if (store(index, value, fresh[viewerSlot] || fresh[targetSlot])) shard.addChangedPair(index);
+                    }
+                }
+            }
+        }
+        this.nanoTime.addAndGet(nanoTime);
+    }
+
+    /**
+     * Saves value into given index and marks it as changed if it differs from previous value.
+     *
+     * @param   index
+     *          Array index to save value to
+     * @param   value
+     *          Requested value
+     * @param   force
+     *          Whether value should be marked as changed even if it is identical
+     * @return  {@code true} if value was marked as changed, {@code false} if it did not change
+     *          or was already marked as changed before
+     */
+    private boolean store(int index, @Nullable String value, boolean force) {
+        if (value == null) return false; // Bridge placeholders, they are updated using updateValue method
+        if (!force && value.equals(values[index])) return false;
+        values[index] = value;
+        if (changed[index]) return false; // Previous change was not processed yet, already marked
+        changed[index] = true;
+        return true;
+    }
+
+    /**
+     * Returns new value of server placeholder if it changed, {@code null} otherwise.
+     *
+     * @return  New value if it changed, {@code null} otherwise
+     */
+    @Nullable
+    public String pollServerValue() {
+        return poll(0);
+    }
+
+    /**
+     * Returns new value of player placeholder for given player if it changed, {@code null} otherwise.
+     *
+     * @param   player
+     *          Player to get value for
+     * @return  New value if it changed, {@code null} otherwise
+     */
+    @Nullable
+    public String pollPlayerValue(@NotNull TabPlayer player) {
+        return poll(player.getSlot());
+    }
+
+    /**
+     * Returns new value of relational placeholder for given players if it changed, {@code null} otherwise.
+     *
+     * @param   viewer
+     *          Player viewing the placeholder
+     * @param   target
+     *          Player the placeholder is displayed on
+     * @return  New value if it changed, {@code null} otherwise
+     */
+    @Nullable
+    public String pollRelationalValue(@NotNull TabPlayer viewer, @NotNull TabPlayer target) {
+        return poll(viewer.getSlot() * capacity + target.getSlot());
+    }
+
+    /**
+     * Collects viewer and target pairs whose relational values changed since they were
+     * last collected. Changes of refreshes which did not finish in time are included as well.
+     * Collected pairs can then be read using {@link #getChangedViewer(int)},
+     * {@link #getChangedTarget(int)} and {@link #pollChangedValue(int)}.
+     *
+     * @return  Amount of collected pairs
+     */
+    public int collectChangedPairs() {
+        int count = 0;
+        for (Shard shard : shards) {
+            if (shard == null || shard.changedCount == 0) continue;
+            if (count + shard.changedCount > changedPairs.length) {
+                int[] newChangedPairs = new int[Math.max(count + shard.changedCount, changedPairs.length * 2)];
+                System.arraycopy(changedPairs, 0, newChangedPairs, 0, count);
+                changedPairs = newChangedPairs;
+            }
+            System.arraycopy(shard.changedPairs, 0, changedPairs, count, shard.changedCount);
+            count += shard.changedCount;
+            shard.changedCount = 0;
+        }
+        return count;
+    }
+
+    /**
+     * Returns viewer of collected changed pair with given index.
+     *
+     * @param   pair
+     *          Index of collected pair
+     * @return  Viewer of the pair
+     */
+    @NotNull
+    public TabPlayer getChangedViewer(int pair) {
+        return owners[changedPairs[pair] / capacity];
+    }
+
+    /**
+     * Returns target of collected changed pair with given index.
+     *
+     * @param   pair
+     *          Index of collected pair
+     * @return  Target of the pair
+     */
+    @NotNull
+    public TabPlayer getChangedTarget(int pair) {
+        return owners[changedPairs[pair] % capacity];
+    }
+
+    /**
+     * Returns new value of collected changed pair with given index, {@code null}
+     * if it was already polled.
+     *
+     * @param   pair
+     *          Index of collected pair
+     * @return  New value if it was not polled yet, {@code null} otherwise
+     */
+    @Nullable
+    public String pollChangedValue(int pair) {
+        return poll(changedPairs[pair]);
+    }
+
+    @Nullable
+    private String poll(int index) {
+        if (!changed[index]) return null;
+        changed[index] = false;
+        return values[index];
+    }
+
+    /**
+     * Reusable runnable requesting values for a range of players.
+     */
+    class Shard implements Runnable {
+
+        /** Index of first player to request value for (inclusive) */
+        private int from;
+
+        /** Index of last player to request value for (exclusive) */
+        private int to;
+
+        /** Indexes of relational values marked as changed by this shard which were not collected yet */
+        @NotNull
+        private int[] changedPairs = new int[0];
+
+        /** Amount of valid entries in {@link #changedPairs} */
+        private int changedCount;
+
+        @Override
+        public void run() {
+            PlaceholderRefreshTask task = PlaceholderRefreshBuffer.this.task;
+            if (task != null) task.runShard(PlaceholderRefreshBuffer.this, this);
+        }
+
+        /**
+         * Remembers index of relational value marked as changed.
+         *
+         * @param   index
+         *          Index of changed value
+         */
+        private void addChangedPair(int index) {
+            if (changedCount == changedPairs.length) {
+                int[] newChangedPairs = new int[Math.max(16, changedPairs.length * 2)];
+                System.arraycopy(changedPairs, 0, newChangedPairs, 0, changedCount);
+                changedPairs = newChangedPairs;
+            }
+            changedPairs[changedCount++] = index;
+        }
+    }
+}
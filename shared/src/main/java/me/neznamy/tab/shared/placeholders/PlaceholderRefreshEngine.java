@@ -0,0 +1,195 @@
+package me.neznamy.tab.shared.placeholders;
+
+import lombok.Getter;
+import lombok.NonNull;
+import me.neznamy.tab.api.placeholder.Placeholder;
+import me.neznamy.tab.shared.cpu.CaughtTask;
+import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.cpu.TimedCaughtTask;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Engine for refreshing placeholders in parallel. Work is split into shards by placeholder
+ * and player, which run in {@link CpuManager#getPlaceholderWorkers()}. A placeholder which
+ * is still running from previous refresh is not refreshed again until it finishes, so one
+ * slow placeholder cannot occupy the entire worker pool or delay refreshing of others
+ * for longer than configured timeout. Each placeholder has a reusable result buffer,
+ * so refreshing does not allocate memory per player. Refresh tasks and their runnables
+ * are reused as well, so a refresh does not allocate any objects of its own.
+ */
+public class PlaceholderRefreshEngine {
+
+    /** CPU manager providing threads */
+    @NotNull private final CpuManager cpu;
+
+    /** Feature name for CPU usage tracking */
+    @NotNull private final String featureName;
+
+    /** Maximum time in milliseconds to wait for placeholders before processing results without them */
+    @Getter private final int timeout;
+
+    /** Reusable result buffers of all refreshed placeholders */
+    @NotNull private final Map<Placeholder, PlaceholderRefreshBuffer> buffers = new ConcurrentHashMap<>();
+
+    /** Refresh tasks which finished and can be reused */
+    @NotNull private final ArrayDeque<PlaceholderRefreshTask> idleTasks = new ArrayDeque<>();
+
+    /**
+     * Constructs new instance with given parameters.
+     *
+     * @param   cpu
+     *          CPU manager providing threads
+     * @param   featureName
+     *          Feature name for CPU usage tracking
+     * @param   timeout
+     *          Maximum time in milliseconds to wait for placeholders
+     */
+    public PlaceholderRefreshEngine(@NonNull CpuManager cpu, @NonNull String featureName, int timeout) {
+        this.cpu = cpu;
+        this.featureName = featureName;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Marks placeholder as running and returns its result buffer. If it is still
+     * running from previous refresh, returns {@code null}.
+     *
+     * @param   placeholder
+     *          Placeholder to mark as running
+     * @return  Result buffer of the placeholder or {@code null} if it is still running
+     */
+    @Nullable
+    public PlaceholderRefreshBuffer tryAcquire(@NonNull Placeholder placeholder) {
+        PlaceholderRefreshBuffer buffer = buffers.computeIfAbsent(placeholder, PlaceholderRefreshBuffer::new);
+        return buffer.tryAcquire() ? buffer : null;
+    }
+
+    /**
+     * Removes result buffers of placeholders which are no longer refreshed. Buffers which
+     * are currently being refreshed are only marked as retired and removed once released,
+     * so the placeholder cannot be refreshed again with a new buffer while still running.
+     *
+     * @param   usedPlaceholders
+     *          Placeholders which are still used
+     */
+    public void retainPlaceholders(@NonNull Collection<Placeholder> usedPlaceholders) {
+        for (Map.Entry<Placeholder, PlaceholderRefreshBuffer> entry : buffers.entrySet()) {
+            PlaceholderRefreshBuffer buffer = entry.getValue();
+            if (usedPlaceholders.contains(entry.getKey())) {
+                buffer.retired = false;
+                continue;
+            }
+            buffer.retired = true;
+            removeIfIdle(buffer);
+        }
+    }
+
+    /**
+     * Releases given buffer, allowing the placeholder to be refreshed again.
+     * If the placeholder is no longer used, the buffer is removed.
+     *
+     * @param   buffer
+     *          Buffer to release
+     */
+    void release(@NotNull PlaceholderRefreshBuffer buffer) {
+        buffer.release();
+        if (buffer.retired) removeIfIdle(buffer);
+    }
+
+    /**
+     * Removes given buffer if it is not being refreshed. The buffer is acquired
+     * for removal and never released, so anyone still holding a reference to it
+     * cannot use it anymore.
+     *
+     * @param   buffer
+     *          Buffer to remove
+     */
+    private void removeIfIdle(@NotNull PlaceholderRefreshBuffer buffer) {
+        if (buffer.tryAcquire()) buffers.remove(buffer.getPlaceholder(), buffer);
+    }
+
+    /**
+     * Returns amount of worker threads available for refreshing.
+     *
+     * @return  amount of worker threads
+     */
+    public int getWorkers() {
+        return cpu.getPLACEHOLDER_WORKER_COUNT();
+    }
+
+    /**
+     * Submits a shard into the worker pool.
+     *
+     * @param   shard
+     *          Shard to run
+     */
+    public void submit(@NonNull Runnable shard) {
+        cpu.getPlaceholderWorkers().execute(shard);
+    }
+
+    /**
+     * Refreshes given placeholders for given players. Buffers must be acquired using
+     * {@link #tryAcquire(Placeholder)} first. Once all placeholders finish refreshing or
+     * timeout is reached, result handler is called in the processing thread with results of
+     * all placeholders that finished in time. Buffers are released after the handler finishes.
+     * The given list is copied, so the caller may reuse it.
+     *
+     * @param   buffers
+     *          Buffers of placeholders to refresh
+     * @param   players
+     *          Players to refresh placeholders for
+     * @param   resultHandler
+     *          Function processing the results
+     */
+    public void refresh(@NonNull List<PlaceholderRefreshBuffer> buffers, @NonNull TabPlayer[] players,
+                        @NonNull Consumer<PlaceholderRefreshTask> resultHandler) {
+        PlaceholderRefreshTask task;
+        synchronized (idleTasks) {
+            task = idleTasks.pollLast();
+        }
+        if (task == null) task = new PlaceholderRefreshTask(this, cpu, featureName);
+        task.prepare(buffers, players, resultHandler);
+        cpu.getPlaceholderThread().execute(task.getStartTask());
+    }
+
+    /**
+     * Schedules timeout of a refresh task.
+     *
+     * @param   timeoutTask
+     *          Task to run once timeout is reached
+     */
+    void scheduleTimeout(@NotNull TimedCaughtTask timeoutTask) {
+        cpu.getPlaceholderThread().executeLater(timeoutTask, timeout);
+    }
+
+    /**
+     * Submits processing of refresh results into the processing thread.
+     *
+     * @param   resultTask
+     *          Task processing the results
+     */
+    void submitResults(@NotNull CaughtTask resultTask) {
+        cpu.getProcessingThread().execute(resultTask);
+    }
+
+    /**
+     * Returns a task which is no longer used, so it can be reused by a future refresh.
+     *
+     * @param   task
+     *          Task to reuse
+     */
+    void recycle(@NotNull PlaceholderRefreshTask task) {
+        synchronized (idleTasks) {
+            idleTasks.addLast(task);
+        }
+    }
+}
@@ -1,84 +1,270 @@
 package me.neznamy.tab.shared.placeholders;
 
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import me.neznamy.tab.api.placeholder.Placeholder;
+import lombok.NonNull;
 import me.neznamy.tab.shared.TAB;
-import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
-import me.neznamy.tab.shared.placeholders.types.RelationalPlaceholderImpl;
+import me.neznamy.tab.shared.TabConstants.CpuUsageCategory;
+import me.neznamy.tab.shared.cpu.CaughtTask;
+import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.cpu.TimedCaughtTask;
 import me.neznamy.tab.shared.placeholders.types.ServerPlaceholderImpl;
 import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
- * A class that refreshes all requested placeholders using given refresh
- * function and returns the results.
+ * A class that refreshes all requested placeholders by splitting the work into
+ * shards by placeholder and player, which are executed in placeholder worker pool.
+ * Results are written into reusable {@link PlaceholderRefreshBuffer}s. Once all shards
+ * finish or the refresh timeout is reached, buffers of all placeholders that finished
+ * in time are passed to the result handler in a single step.
+ * <p>
+ * Tasks are reused by {@link PlaceholderRefreshEngine} together with their runnables.
+ * A task is only reused once its results were processed, its timeout ran and all of
+ * its shards finished, including shards of placeholders which did not finish in time.
  */
-@RequiredArgsConstructor
 @Getter
-public class PlaceholderRefreshTask implements Runnable {
+public class PlaceholderRefreshTask {
 
-    /** Placeholders that should be refreshed in this loop */
-    private final Collection<Placeholder> placeholdersToRefresh;
+    /** Minimum amount of players (or viewers for relational placeholders) requested by a single shard */
+    private static final int MIN_SHARD_SIZE = 32;
 
-    /** Map of server placeholder results */
-    private final Map<ServerPlaceholderImpl, String> serverPlaceholderResults = new HashMap<>();
+    /** Players of a task which is not in use */
+    private static final TabPlayer[] NO_PLAYERS = new TabPlayer[0];
 
-    /** Map of player placeholder results */
-    private final Map<PlayerPlaceholderImpl, Map<TabPlayer, String>> playerPlaceholderResults = new HashMap<>();
+    /** Refresh engine this task belongs to */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private final PlaceholderRefreshEngine engine;
 
-    /** Map of relational placeholder results */
+    /** Online players at the time of starting the refresh */
+    @NotNull
+    private TabPlayer[] players = NO_PLAYERS;
+
+    /** Buffers of all placeholders refreshed by this task */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private final List<PlaceholderRefreshBuffer> buffers = new ArrayList<>();
+
+    /** Buffers of placeholders which finished in time, filled once the task finishes */
+    @NotNull
+    private final List<PlaceholderRefreshBuffer> completed = new ArrayList<>();
+
+    /** Amount of placeholders which did not finish refreshing yet */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private final AtomicInteger pendingPlaceholders = new AtomicInteger();
+
+    /** Flag tracking whether results were already collected or not */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    /**
+     * Amount of parts of the refresh still using this task, which are placeholders whose
+     * shards did not finish yet, the timeout and result processing. Once it reaches 0,
+     * the task can be reused.
+     */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private final AtomicInteger references = new AtomicInteger();
+
+    /** Function to call with this task once results are collected */
+    @Getter(AccessLevel.NONE)
     @Nullable
-    private Map<RelationalPlaceholderImpl, Map<TabPlayer, Map<TabPlayer, String>>> relationalPlaceholderResults;
-
-    /** Time it took placeholders to retrieve value (in nanoseconds) */
-    private final Map<String, Long> usedTime = new HashMap<>();
-
-    @Override
-    public void run() {
-        boolean trackUsage = TAB.getInstance().getCpu().isTrackUsage();
-        TabPlayer[] players = TAB.getInstance().getOnlinePlayers();
-        for (Placeholder placeholder : placeholdersToRefresh) {
-            long nanoTime = 0;
-            if (placeholder instanceof ServerPlaceholderImpl) {
-                ServerPlaceholderImpl serverPlaceholder = (ServerPlaceholderImpl) placeholder;
-                long startTime = System.nanoTime();
-                String result = serverPlaceholder.request();
-                nanoTime += System.nanoTime()-startTime;
-                serverPlaceholderResults.put(serverPlaceholder, result);
+    private Consumer<PlaceholderRefreshTask> resultHandler;
+
+    /** Whether time spent requesting values should be measured or not */
+    @Getter(AccessLevel.NONE)
+    private boolean trackUsage;
+
+    /** Reusable runnable starting the refresh in placeholder thread */
+    @Getter(AccessLevel.PACKAGE)
+    @NotNull
+    private final TimedCaughtTask startTask;
+
+    /** Reusable runnable finishing the refresh once timeout is reached */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private final TimedCaughtTask timeoutTask;
+
+    /** Reusable runnable passing results to the result handler in processing thread */
+    @Getter(AccessLevel.NONE)
+    @NotNull
+    private final CaughtTask resultTask = new CaughtTask(this::processResults);
+
+    /**
+     * Constructs new instance with given parameters.
+     *
+     * @param   engine
+     *          Refresh engine this task belongs to
+     * @param   cpu
+     *          CPU manager for tracking usage
+     * @param   featureName
+     *          Feature name for CPU usage tracking
+     */
+    PlaceholderRefreshTask(@NonNull PlaceholderRefreshEngine engine, @NonNull CpuManager cpu, @NonNull String featureName) {
+        this.engine = engine;
+        startTask = new TimedCaughtTask(cpu, this::start, featureName, CpuUsageCategory.PLACEHOLDER_REQUEST);
+        timeoutTask = new TimedCaughtTask(cpu, this::timeout, featureName, CpuUsageCategory.PLACEHOLDER_REQUEST);
+    }
+
+    /**
+     * Prepares the task for refreshing given placeholders.
+     *
+     * @param   buffers
+     *          Acquired buffers of placeholders that should be refreshed
+     * @param   players
+     *          Online players to refresh placeholders for
+     * @param   resultHandler
+     *          Function to call once results are collected
+     */
+    void prepare(@NotNull List<PlaceholderRefreshBuffer> buffers, @NotNull TabPlayer[] players,
+                 @NotNull Consumer<PlaceholderRefreshTask> resultHandler) {
+        for (PlaceholderRefreshBuffer buffer : buffers) {
+            this.buffers.add(buffer);
+        }
+        this.players = players;
+        this.resultHandler = resultHandler;
+        finished.set(false);
+        pendingPlaceholders.set(buffers.size());
+        references.set(buffers.size() + 2);
+    }
+
+    /**
+     * Splits all placeholders into shards, submits them into the worker pool
+     * and schedules the timeout.
+     */
+    private void start() {
+        engine.scheduleTimeout(timeoutTask);
+        if (buffers.isEmpty()) {
+            finish();
+            return;
+        }
+        trackUsage = TAB.getInstance().getCpu().isTrackUsage();
+        int slotCapacity = 0;
+        for (TabPlayer player : players) {
+            slotCapacity = Math.max(slotCapacity, player.getSlot() + 1);
+        }
+        int maxShards = Math.max(1, engine.getWorkers() / 2);
+        for (PlaceholderRefreshBuffer buffer : buffers) {
+            buffer.prepare(this, players, slotCapacity);
+            if (buffer.getPlaceholder() instanceof ServerPlaceholderImpl) {
+                buffer.pendingShards.set(1);
+                engine.submit(buffer.getShard(0, 0, 0));
+                continue;
             }
-            if (placeholder instanceof PlayerPlaceholderImpl) {
-                PlayerPlaceholderImpl playerPlaceholder = (PlayerPlaceholderImpl) placeholder;
-                Map<TabPlayer, String> playerResults = new HashMap<>();
-                for (TabPlayer player : players) {
-                    long startTime = System.nanoTime();
-                    String result = playerPlaceholder.request(player);
-                    nanoTime += System.nanoTime()-startTime;
-                    playerResults.put(player, result);
-                }
-                playerPlaceholderResults.put(playerPlaceholder, playerResults);
+            int shardCount = Math.min(maxShards, (players.length + MIN_SHARD_SIZE - 1) / MIN_SHARD_SIZE);
+            if (shardCount == 0) {
+                buffer.pendingShards.set(1);
+                completeShard(buffer);
+                continue;
             }
-            if (placeholder instanceof RelationalPlaceholderImpl) {
-                RelationalPlaceholderImpl relationalPlaceholder = (RelationalPlaceholderImpl) placeholder;
-                Map<TabPlayer, Map<TabPlayer, String>> viewerMap = new HashMap<>();
-                for (TabPlayer viewer : players) {
-                    Map<TabPlayer, String> targetMap = new HashMap<>();
-                    for (TabPlayer target : players) {
-                        long startTime = System.nanoTime();
-                        String result = relationalPlaceholder.request(viewer, target);
-                        nanoTime += System.nanoTime()-startTime;
-                        targetMap.put(target, result);
-                    }
-                    viewerMap.put(viewer, targetMap);
-                }
-                if (relationalPlaceholderResults == null) relationalPlaceholderResults = new HashMap<>();
-                relationalPlaceholderResults.put(relationalPlaceholder, viewerMap);
+            int shardSize = (players.length + shardCount - 1) / shardCount;
+            buffer.pendingShards.set(shardCount);
+            int index = 0;
+            for (int from = 0; from < players.length; from += shardSize) {
+                engine.submit(buffer.getShard(index++, from, Math.min(players.length, from + shardSize)));
             }
-            if (trackUsage) usedTime.put(placeholder.getIdentifier(), nanoTime);
         }
     }
+
+    /**
+     * Requests values of placeholder for players (or viewers) in given range.
+     *
+     * @param   buffer
+     *          Buffer of the placeholder to request values of
+     * @param   shard
+     *          Shard with range of players to request values for
+     */
+    void runShard(@NotNull PlaceholderRefreshBuffer buffer, @NotNull PlaceholderRefreshBuffer.Shard shard) {
+        try {
+            buffer.request(players, shard, trackUsage);
+        } finally {
+            completeShard(buffer);
+        }
+    }
+
+    /**
+     * Marks one shard of the placeholder as completed. If it was the last shard
+     * of the last placeholder, results are collected. If the task already finished
+     * due to timeout, the placeholder is released, so it can be refreshed again.
+     *
+     * @param   buffer
+     *          Buffer of the placeholder the shard belongs to
+     */
+    private void completeShard(@NotNull PlaceholderRefreshBuffer buffer) {
+        if (buffer.pendingShards.decrementAndGet() != 0) return;
+        if (!buffer.state.compareAndSet(PlaceholderRefreshBuffer.RUNNING, PlaceholderRefreshBuffer.DONE)) {
+            // Task timed out before this placeholder finished, results were skipped
+            engine.release(buffer);
+        } else if (pendingPlaceholders.decrementAndGet() == 0) {
+            finish();
+        }
+        unreference();
+    }
+
+    /**
+     * Collects results once the refresh timeout was reached. Placeholders which did not finish
+     * in time are skipped and remain blocked from refreshing until they finish.
+     */
+    private void timeout() {
+        try {
+            finish();
+        } finally {
+            unreference();
+        }
+    }
+
+    /**
+     * Collects buffers of all placeholders which finished refreshing and submits
+     * them for processing. Only the first call of this method does something.
+     */
+    private void finish() {
+        if (!finished.compareAndSet(false, true)) return;
+        for (PlaceholderRefreshBuffer buffer : buffers) {
+            if (buffer.state.compareAndSet(PlaceholderRefreshBuffer.RUNNING, PlaceholderRefreshBuffer.ABANDONED)) {
+                TAB.getInstance().debug("Placeholder " + buffer.getPlaceholder().getIdentifier() + " did not finish refreshing in " +
+                        engine.getTimeout() + "ms, skipping it until it finishes");
+                continue;
+            }
+            completed.add(buffer);
+        }
+        engine.submitResults(resultTask);
+    }
+
+    /**
+     * Passes this task to the result handler and releases buffers of all placeholders
+     * which finished in time, allowing them to be refreshed again.
+     */
+    private void processResults() {
+        try {
+            if (resultHandler != null) resultHandler.accept(this);
+        } finally {
+            for (PlaceholderRefreshBuffer buffer : completed) {
+                engine.release(buffer);
+            }
+            unreference();
+        }
+    }
+
+    /**
+     * Marks one part of the refresh as no longer using this task. Once no part uses
+     * it anymore, the task is cleared and returned to the engine for reuse.
+     */
+    private void unreference() {
+        if (references.decrementAndGet() != 0) return;
+        players = NO_PLAYERS;
+        buffers.clear();
+        completed.clear();
+        resultHandler = null;
+        engine.recycle(this);
+    }
 }
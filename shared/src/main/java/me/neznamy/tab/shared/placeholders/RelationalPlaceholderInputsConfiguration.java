@@ -0,0 +1,66 @@
+package me.neznamy.tab.shared.placeholders;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.config.file.ConfigurationSection;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class storing configuration of relational placeholder inputs. A relational placeholder
+ * with configured inputs is only re-evaluated for player pairs where value of at least one
+ * of the inputs of either player changed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class RelationalPlaceholderInputsConfiguration {
+
+    /** Whether viewers with identical input values should share evaluated values or not */
+    private final boolean bucketViewers;
+
+    /** Map of relational placeholders and player placeholders their output depends on */
+    @NotNull private final Map<String, List<String>> inputs;
+
+    /**
+     * Returns instance of this class created from given configuration section. If there are
+     * issues in the configuration, console warns are printed.
+     *
+     * @param   section
+     *          Configuration section to load from
+     * @return  Loaded instance from given configuration section
+     */
+    @NotNull
+    public static RelationalPlaceholderInputsConfiguration fromSection(@NotNull ConfigurationSection section) {
+        section.checkForUnknownKey(Arrays.asList("bucket-viewers", "placeholders"));
+        Boolean bucketViewers = section.getBoolean("bucket-viewers");
+        Map<String, List<String>> inputs = new HashMap<>();
+        ConfigurationSection placeholders = section.getConfigurationSection("placeholders");
+        for (Object key : placeholders.getKeys()) {
+            String identifier = key.toString();
+            if (!identifier.startsWith("%rel_") || !identifier.endsWith("%")) {
+                section.startupWarn("Relational placeholder inputs have a value for \"" + identifier + "\", which is not " +
+                        "a valid relational placeholder pattern (relational placeholders must start with %rel_ and end with %)");
+                continue;
+            }
+            List<String> list = placeholders.getStringList(identifier);
+            if (list == null || list.isEmpty()) {
+                section.startupWarn("Relational placeholder " + identifier + " does not have any inputs defined.");
+                continue;
+            }
+            boolean valid = true;
+            for (String input : list) {
+                if (!input.startsWith("%") || !input.endsWith("%") || input.startsWith("%rel_")) {
+                    section.startupWarn("Input \"" + input + "\" of relational placeholder " + identifier +
+                            " is not a valid player placeholder.");
+                    valid = false;
+                }
+            }
+            if (valid) inputs.put(identifier, list);
+        }
+        return new RelationalPlaceholderInputsConfiguration(bucketViewers == null || bucketViewers, inputs);
+    }
+}
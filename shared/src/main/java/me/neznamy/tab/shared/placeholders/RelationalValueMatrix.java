@@ -0,0 +1,110 @@
+package me.neznamy.tab.shared.placeholders;
+
+import lombok.NonNull;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compact storage of relational placeholder values indexed by viewer and target
+ * player slot. Values of a slot are forgotten once it is taken by another player.
+ * Reading is lock-free, writing is synchronized.
+ */
+public class RelationalValueMatrix {
+
+    /** Current storage, replaced when capacity is increased */
+    @NotNull
+    private volatile Storage storage = new Storage(0);
+
+    /**
+     * Returns stored value for given players or {@code null} if not present.
+     *
+     * @param   viewer
+     *          Player viewing the placeholder
+     * @param   target
+     *          Player the placeholder is displayed on
+     * @return  Stored value or {@code null} if not present
+     */
+    @Nullable
+    public String get(@NonNull TabPlayer viewer, @NonNull TabPlayer target) {
+        Storage storage = this.storage;
+        int viewerSlot = viewer.getSlot();
+        int targetSlot = target.getSlot();
+        if (viewerSlot < 0 || targetSlot < 0 || viewerSlot >= storage.capacity || targetSlot >= storage.capacity) return null;
+        if (storage.owners[viewerSlot] != viewer || storage.owners[targetSlot] != target) return null;
+        return storage.values[viewerSlot * storage.capacity + targetSlot];
+    }
+
+    /**
+     * Saves value for given players. If any of the players does not have a slot assigned,
+     * the value is not saved.
+     *
+     * @param   viewer
+     *          Player viewing the placeholder
+     * @param   target
+     *          Player the placeholder is displayed on
+     * @param   value
+     *          Value to save
+     */
+    public synchronized void set(@NonNull TabPlayer viewer, @NonNull TabPlayer target, @NonNull String value) {
+        int viewerSlot = viewer.getSlot();
+        int targetSlot = target.getSlot();
+        if (viewerSlot < 0 || targetSlot < 0) return;
+        Storage storage = ensureCapacity(Math.max(viewerSlot, targetSlot) + 1);
+        storage.claim(viewerSlot, viewer);
+        storage.claim(targetSlot, target);
+        storage.values[viewerSlot * storage.capacity + targetSlot] = value;
+    }
+
+    @NotNull
+    private Storage ensureCapacity(int capacity) {
+        Storage current = storage;
+        if (capacity <= current.capacity) return current;
+        Storage larger = new Storage(Math.max(capacity, current.capacity * 2));
+        for (int viewer = 0; viewer < current.capacity; viewer++) {
+            larger.owners[viewer] = current.owners[viewer];
+            System.arraycopy(current.values, viewer * current.capacity, larger.values, viewer * larger.capacity, current.capacity);
+        }
+        storage = larger;
+        return larger;
+    }
+
+    /**
+     * Arrays of a fixed capacity.
+     */
+    private static class Storage {
+
+        /** Amount of player slots this storage can hold */
+        private final int capacity;
+
+        /** Players occupying each slot */
+        @NotNull private final TabPlayer[] owners;
+
+        /** Values indexed by viewer slot * capacity + target slot */
+        @NotNull private final String[] values;
+
+        private Storage(int capacity) {
+            this.capacity = capacity;
+            owners = new TabPlayer[capacity];
+            values = new String[capacity * capacity];
+        }
+
+        /**
+         * Assigns slot to given player. If it was previously taken by another player,
+         * all values of the slot are cleared first.
+         *
+         * @param   slot
+         *          Slot to claim
+         * @param   player
+         *          Player to claim the slot for
+         */
+        private void claim(int slot, @NotNull TabPlayer player) {
+            if (owners[slot] == player) return;
+            for (int i = 0; i < capacity; i++) {
+                values[slot * capacity + i] = null;
+                values[i * capacity + slot] = null;
+            }
+            owners[slot] = player;
+        }
+    }
+}
@@ -127,7 +127,11 @@ public class UniversalPlaceholderRegistry {
         }
         for (Entry<String, AnimationDefinition> entry : TAB.getInstance().getConfiguration().getAnimations().getAnimations().getAnimations().entrySet()) {
             Animation a = new Animation((PlaceholderManagerImpl) manager, entry.getKey(), entry.getValue());
-            manager.registerPlayerPlaceholder(TabConstants.Placeholder.animation(a.getName()), a.getRefresh(), p -> a.getMessage());
+            String identifier = TabConstants.Placeholder.animation(a.getName());
+            manager.registerPlayerPlaceholder(identifier, a.getRefresh(), p -> a.getMessage());
+            for (String nested : a.getNestedPlaceholders()) {
+                ((PlaceholderManagerImpl) manager).getDependencyGraph().addDependency(nested, identifier);
+            }
         }
         Condition.clearConditions();
         for (Entry<String, ConditionDefinition> condition : TAB.getInstance().getConfiguration().getConfig().getConditions().getConditions().entrySet()) {
@@ -36,6 +36,9 @@ public class Animation {
      * such as this being a slow animation with a fast nested animation.
      */
     @Getter private final int refresh;
+
+    /** Placeholders used in frames of the animation */
+    @Getter private final List<String> nestedPlaceholders = new ArrayList<>();
     
     /**
      * Constructs new instance with given arguments which are fixed if necessary, such as when
@@ -54,7 +57,6 @@ public class Animation {
         messages = configuration.getTexts().toArray(new String[0]);
         interval = configuration.getChangeInterval();
         int refresh = interval;
-        List<String> nestedPlaceholders = new ArrayList<>();
         for (int i=0; i<messages.length; i++) {
             messages[i] = EnumChatFormat.color(messages[i]);
             nestedPlaceholders.addAll(PlaceholderManagerImpl.detectPlaceholders(messages[i]));
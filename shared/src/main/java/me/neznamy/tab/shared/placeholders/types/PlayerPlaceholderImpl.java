@@ -116,8 +116,8 @@ public class PlayerPlaceholderImpl extends TabPlaceholder implements PlayerPlace
     }
 
     @Override
-    public void updateFromNested(@NonNull TabPlayer player) {
-        hasValueChanged(player, request(player), true);
+    public boolean updateFromNested(@NonNull TabPlayer player) {
+        return hasValueChanged(player, request(player), false);
     }
 
     @NotNull
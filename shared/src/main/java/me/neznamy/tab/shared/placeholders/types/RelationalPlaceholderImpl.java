@@ -1,15 +1,18 @@
 package me.neznamy.tab.shared.placeholders.types;
 
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.function.BiFunction;
 
+import lombok.Getter;
 import lombok.NonNull;
 import me.neznamy.tab.shared.cpu.TimedCaughtTask;
 import me.neznamy.tab.shared.features.types.CustomThreaded;
 import me.neznamy.tab.shared.features.types.RefreshableFeature;
+import me.neznamy.tab.shared.placeholders.RelationalValueMatrix;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.chat.EnumChatFormat;
 import me.neznamy.tab.api.placeholder.RelationalPlaceholder;
@@ -26,6 +29,21 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     /** Placeholder function returning fresh output on request */
     @NonNull private final BiFunction<me.neznamy.tab.api.TabPlayer, me.neznamy.tab.api.TabPlayer, String> function;
 
+    /** Last known values for each player pair after applying replacements */
+    @NonNull private final RelationalValueMatrix lastValues = new RelationalValueMatrix();
+
+    /**
+     * Configured placeholders the output of this placeholder depends on, {@code null} if not configured.
+     * If configured, the placeholder is only re-evaluated for player pairs where one of these changed.
+     */
+    @Getter
+    @Nullable
+    private final List<String> inputs;
+
+    /** Resolved input placeholders, initialized on first use */
+    @Nullable
+    private TabPlaceholder[] inputPlaceholders;
+
     /**
      * Constructs new instance with given parameters
      *
@@ -42,6 +60,22 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
         super(identifier, refresh);
         if (!identifier.startsWith("%rel_")) throw new IllegalArgumentException("Relational placeholder identifiers must start with \"rel_\"");
         this.function = function;
+        inputs = TAB.getInstance().getConfiguration().getConfig().getRelationalInputs().getInputs().get(identifier);
+    }
+
+    /**
+     * Returns placeholders this placeholder's output depends on. If no inputs
+     * are configured, returns {@code null}.
+     *
+     * @return  Input placeholders or {@code null} if not configured
+     */
+    @Nullable
+    public synchronized TabPlaceholder[] getInputPlaceholders() {
+        if (inputs == null) return null;
+        if (inputPlaceholders == null) {
+            inputPlaceholders = inputs.stream().map(TAB.getInstance().getPlaceholderManager()::getPlaceholder).toArray(TabPlaceholder[]::new);
+        }
+        return inputPlaceholders;
     }
 
     @Override
@@ -64,6 +98,39 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
         }
     }
 
+    /**
+     * Bulk-updates all listed placeholders for a viewer. The advantage of using this method is that
+     * {@link RefreshableFeature#refresh(TabPlayer, boolean)} is only called a single time for each
+     * target instead of for every changed placeholder, causing inefficiency.
+     *
+     * @param   viewer
+     *          Player viewing the placeholders
+     * @param   values
+     *          Map of placeholders and their new values by target player
+     */
+    public static void bulkUpdateValues(@NotNull TabPlayer viewer, @NotNull Map<RelationalPlaceholderImpl, Map<TabPlayer, String>> values) {
+        Map<TabPlayer, Set<RefreshableFeature>> features = new HashMap<>();
+        for (Map.Entry<RelationalPlaceholderImpl, Map<TabPlayer, String>> entry : values.entrySet()) {
+            for (Map.Entry<TabPlayer, String> target : entry.getValue().entrySet()) {
+                if (entry.getKey().hasValueChanged(viewer, target.getKey(), target.getValue())) {
+                    features.computeIfAbsent(target.getKey(), t -> new HashSet<>())
+                            .addAll(TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(entry.getKey().identifier));
+                }
+            }
+        }
+        for (Map.Entry<TabPlayer, Set<RefreshableFeature>> entry : features.entrySet()) {
+            for (RefreshableFeature r : entry.getValue()) {
+                TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(), () -> r.refresh(entry.getKey(), true),
+                        r.getFeatureName(), r.getRefreshDisplayName());
+                if (r instanceof CustomThreaded) {
+                    ((CustomThreaded) r).getCustomThread().execute(task);
+                } else {
+                    task.run();
+                }
+            }
+        }
+    }
+
     /**
      * Updates placeholder value and returns {@code true} if value changed, {@code false} if not.
      *
@@ -78,9 +145,9 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     public boolean hasValueChanged(@NonNull TabPlayer viewer, @NonNull TabPlayer target, @Nullable String value) {
         if (value == null) return false; //bridge placeholders, they are updated using updateValue method
         String newValue = replacements.findReplacement(value);
-        Map<TabPlayer, String> viewerMap = viewer.lastRelationalValues.computeIfAbsent(this, v -> Collections.synchronizedMap(new WeakHashMap<>()));
-        if (!viewerMap.getOrDefault(target, identifier).equals(newValue)) {
-            viewerMap.put(target, newValue);
+        String lastValue = lastValues.get(viewer, target);
+        if (!(lastValue == null ? identifier : lastValue).equals(newValue)) {
+            lastValues.set(viewer, target, newValue);
             updateParents(viewer);
             updateParents(target);
             return true;
@@ -89,13 +156,13 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
     }
 
     @Override
-    public void updateFromNested(@NonNull TabPlayer viewer) {
+    public boolean updateFromNested(@NonNull TabPlayer viewer) {
         Set<RefreshableFeature> usage = TAB.getInstance().getPlaceholderManager().getPlaceholderUsage(identifier);
         for (TabPlayer target : TAB.getInstance().getOnlinePlayers()) {
             String value = request(viewer, target);
             String s = replacements.findReplacement(String.valueOf(value));
-            viewer.lastRelationalValues.computeIfAbsent(this, v -> Collections.synchronizedMap(new WeakHashMap<>())).put(target, s);
-            if (!target.isLoaded()) return; // Updated on join
+            lastValues.set(viewer, target, s);
+            if (!target.isLoaded()) return true; // Updated on join
             for (RefreshableFeature f : usage) {
                 TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(), () -> f.refresh(target, true),
                         f.getFeatureName(), f.getRefreshDisplayName());
@@ -105,9 +172,9 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
                     task.run();
                 }
             }
-            updateParents(target);
+            if (target != viewer) updateParents(target);
         }
-        if (!viewer.isLoaded()) return; // Updated on join
+        if (!viewer.isLoaded()) return true; // Updated on join
         for (RefreshableFeature f : usage) {
             TimedCaughtTask task = new TimedCaughtTask(TAB.getInstance().getCpu(), () -> f.refresh(viewer, true),
                     f.getFeatureName(), f.getRefreshDisplayName());
@@ -117,7 +184,7 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
                 task.run();
             }
         }
-        updateParents(viewer);
+        return true;
     }
 
     /**
@@ -131,13 +198,12 @@ public class RelationalPlaceholderImpl extends TabPlaceholder implements Relatio
      * @return  last known value for entered player duo
      */
     public String getLastValue(@NonNull TabPlayer viewer, @NonNull TabPlayer target) {
-        return setPlaceholders(
-                EnumChatFormat.color(
-                        viewer.lastRelationalValues.computeIfAbsent(this, v -> Collections.synchronizedMap(new WeakHashMap<>()))
-                                .computeIfAbsent(target, t -> retrieveValue(viewer, target))
-                ),
-                target
-        );
+        String value = lastValues.get(viewer, target);
+        if (value == null) {
+            value = retrieveValue(viewer, target);
+            lastValues.set(viewer, target, value);
+        }
+        return setPlaceholders(EnumChatFormat.color(value), target);
     }
 
     @NotNull
@@ -67,24 +67,46 @@ public class ServerPlaceholderImpl extends TabPlaceholder implements ServerPlace
         }
     }
 
+    /**
+     * Updates placeholder value and returns {@code true} if value changed, {@code false} if not.
+     * Placeholders using this placeholder are updated as well.
+     *
+     * @param   value
+     *          New value
+     * @return  {@code true} if value changed, {@code false} if not
+     */
     public boolean hasValueChanged(@Nullable String value) {
+        return hasValueChanged(value, true);
+    }
+
+    /**
+     * Updates placeholder value and returns {@code true} if value changed, {@code false} if not.
+     *
+     * @param   value
+     *          New value
+     * @param   updateParents
+     *          Whether parents should be updated or not
+     * @return  {@code true} if value changed, {@code false} if not
+     */
+    public boolean hasValueChanged(@Nullable String value, boolean updateParents) {
         if (value == null) return false;
         String newValue = setPlaceholders(replacements.findReplacement(value), null);
 
         if (!ERROR_VALUE.equals(newValue) && !identifier.equals(newValue) && !lastValue.equals(newValue)) {
             lastValue = newValue;
-            for (TabPlayer player : TAB.getInstance().getOnlinePlayers()) {
-                updateParents(player);
+            TabPlayer[] players = TAB.getInstance().getOnlinePlayers();
+            for (TabPlayer player : players) {
                 TAB.getInstance().getPlaceholderManager().getTabExpansion().setPlaceholderValue(player, identifier, newValue);
             }
+            if (updateParents) TAB.getInstance().getPlaceholderManager().getDependencyGraph().propagate(identifier, players);
             return true;
         }
         return false;
     }
 
     @Override
-    public void updateFromNested(@NonNull TabPlayer unused) {
-        hasValueChanged(request());
+    public boolean updateFromNested(@NonNull TabPlayer unused) {
+        return hasValueChanged(request(), false);
     }
 
     @Override
@@ -11,7 +11,6 @@ import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -36,13 +35,6 @@ public abstract class TabPlaceholder implements Placeholder {
     /** Configured placeholder output replacements */
     @NonNull protected final PlaceholderReplacementPattern replacements;
 
-    /**
-     * List of placeholders using this placeholder as a nested placeholder,
-     * mutual tracking allows faster parent placeholder changes when a nested
-     * placeholder changed value.
-     */
-    protected final List<String> parents = new ArrayList<>();
-
     /**
      * Constructs new instance with given parameters and loads placeholder output replacements
      *
@@ -132,7 +124,7 @@ public abstract class TabPlaceholder implements Placeholder {
         for (String s : getNestedPlaceholders(text)) {
             if (s.equals(identifier) || (identifier.startsWith("%sync:") && ("%" + identifier.substring(6)).equals(s)) || s.startsWith("%rel_")) continue;
             TabPlaceholder nested = TAB.getInstance().getPlaceholderManager().getPlaceholder(s);
-            nested.addParent(identifier);
+            if (!nested.addParent(identifier)) continue;
             replaced = nested.set(replaced, p);
         }
         return replaced;
@@ -144,9 +136,10 @@ public abstract class TabPlaceholder implements Placeholder {
      *
      * @param   parent
      *          parent placeholder using this placeholder in output
+     * @return  {@code true} if placeholder can be used by the parent, {@code false} if it would create a cycle
      */
-    public void addParent(@NonNull String parent) {
-        if (!parents.contains(parent)) parents.add(parent);
+    public boolean addParent(@NonNull String parent) {
+        return TAB.getInstance().getPlaceholderManager().getDependencyGraph().addDependency(identifier, parent);
     }
 
     /**
@@ -157,21 +150,18 @@ public abstract class TabPlaceholder implements Placeholder {
      *          Player to update placeholders for.
      */
     public void updateParents(@NonNull TabPlayer player) {
-        if (parents.isEmpty()) return;
-        for (String id : new ArrayList<>(parents)) {
-            TabPlaceholder pl = TAB.getInstance().getPlaceholderManager().getPlaceholder(id);
-            pl.updateFromNested(player);
-            pl.updateParents(player);
-        }
+        TAB.getInstance().getPlaceholderManager().getDependencyGraph().propagate(identifier, player);
     }
 
     /**
-     * Updates the placeholder with force mark for requested player
+     * Updates the placeholder with force mark for requested player. Placeholders
+     * using this placeholder are not updated, that is handled by the caller.
      *
      * @param   player
      *          player to update placeholder for
+     * @return  {@code true} if value changed, {@code false} if not
      */
-    public abstract void updateFromNested(@NonNull TabPlayer player);
+    public abstract boolean updateFromNested(@NonNull TabPlayer player);
 
     /**
      * Returns last known value of defined player
@@ -5,7 +5,6 @@ import lombok.NonNull;
 import lombok.Setter;
 import me.neznamy.tab.api.integration.VanishIntegration;
 import me.neznamy.tab.api.placeholder.PlayerPlaceholder;
-import me.neznamy.tab.api.placeholder.RelationalPlaceholder;
 import me.neznamy.tab.shared.Property;
 import me.neznamy.tab.shared.ProtocolVersion;
 import me.neznamy.tab.shared.TAB;
@@ -54,6 +53,9 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
     /** Player's unique ID */
     @Getter private final UUID uniqueId;
 
+    /** Player's UUID as string, used for looking up properties in users file */
+    @NotNull private final String uniqueIdString;
+
     /** Player's tablist UUID */
     @Getter private final UUID tablistId;
 
@@ -90,6 +92,9 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
     /** Flag tracking whether the player is online or not */
     @Getter private boolean online = true;
 
+    /** Dense index of the player among online players, reused by another player after this one quits */
+    @Getter @Setter private int slot = -1;
+
     /** Data for sorting */
     public final Sorting.PlayerData sortingData = new Sorting.PlayerData();
 
@@ -129,9 +134,6 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
     /** Last known values for each player placeholder after applying replacements and nested placeholders */
     public final Map<PlayerPlaceholder, String> lastPlaceholderValues = new ConcurrentHashMap<>();
 
-    /** Last known values for each relational placeholder after applying replacements and nested placeholders */
-    public final Map<RelationalPlaceholder, Map<TabPlayer, String>> lastRelationalValues = new ConcurrentHashMap<>();
-
     /** Player's scoreboard */
     @Getter
     @NotNull
@@ -170,6 +172,7 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
         this.platform = platform;
         this.player = player;
         this.uniqueId = uniqueId;
+        uniqueIdString = uniqueId.toString();
         this.name = name;
         this.server = server;
         this.world = world;
@@ -190,7 +193,25 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
      *          {@code true} if this is a player join, {@code false} if reload
      */
     public void markAsLoaded(boolean join) {
+        markAsLoaded();
+        fireLoadEvent(join);
+    }
+
+    /**
+     * Marks the player as loaded without firing the load event. Used on join,
+     * where the event is fired once all features finished processing the join.
+     */
+    public void markAsLoaded() {
         loaded = true;
+    }
+
+    /**
+     * Fires player load event.
+     *
+     * @param   join
+     *          {@code true} if this is a player join, {@code false} if reload
+     */
+    public void fireLoadEvent(boolean join) {
         if (TAB.getInstance().getEventBus() != null) TAB.getInstance().getEventBus().fire(new PlayerLoadEventImpl(this, join));
     }
 
@@ -201,10 +222,22 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
      *          New permission group
      */
     public void setGroup(@NotNull String permissionGroup) {
-        if (this.permissionGroup.equals(permissionGroup)) return;
+        if (updateGroup(permissionGroup)) TAB.getInstance().getFeatureManager().onGroupChange(this);
+    }
+
+    /**
+     * Changes player's group to provided value without refreshing features. Used
+     * when features are refreshed for multiple players at once.
+     *
+     * @param   permissionGroup
+     *          New permission group
+     * @return  {@code true} if group changed, {@code false} if not
+     */
+    public boolean updateGroup(@NotNull String permissionGroup) {
+        if (this.permissionGroup.equals(permissionGroup)) return false;
         this.permissionGroup = permissionGroup;
         ((PlayerPlaceholder)TAB.getInstance().getPlaceholderManager().getPlaceholder(TabConstants.Placeholder.GROUP)).updateValue(this, getGroup());
-        TAB.getInstance().getFeatureManager().onGroupChange(this);
+        return true;
     }
 
     @Override
@@ -262,13 +295,7 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
      * @return  {@code true} if value did not exist or changed, {@code false} otherwise
      */
     public Property loadPropertyFromConfig(@Nullable RefreshableFeature feature, @NotNull String property, @NotNull String ifNotSet) {
-        String[] value = TAB.getInstance().getConfiguration().getUsers().getProperty(name, property, server, world);
-        if (value.length == 0) {
-            value = TAB.getInstance().getConfiguration().getUsers().getProperty(uniqueId.toString(), property, server, world);
-        }
-        if (value.length == 0) {
-            value = TAB.getInstance().getConfiguration().getGroups().getProperty(getGroup(), property, server, world);
-        }
+        String[] value = resolvePropertyFromConfig(property);
         if (value.length > 0) {
             return new Property(property, feature, this, value[0], value[1]);
         }
@@ -286,19 +313,33 @@ public abstract class TabPlayer implements me.neznamy.tab.api.TabPlayer {
      * @return  {@code true} if value did not exist or changed, {@code false} otherwise
      */
     public boolean updatePropertyFromConfig(@NotNull Property property, @NotNull String ifNotSet) {
-        String[] value = TAB.getInstance().getConfiguration().getUsers().getProperty(name, property.getName(), server, world);
-        if (value.length == 0) {
-            value = TAB.getInstance().getConfiguration().getUsers().getProperty(uniqueId.toString(), property.getName(), server, world);
-        }
-        if (value.length == 0) {
-            value = TAB.getInstance().getConfiguration().getGroups().getProperty(getGroup(), property.getName(), server, world);
-        }
+        String[] value = resolvePropertyFromConfig(property.getName());
         if (value.length > 0) {
             return property.changeRawValue(value[0], value[1]);
         }
         return property.changeRawValue(ifNotSet, "None");
     }
 
+    /**
+     * Resolves property value from users by name, users by UUID and groups,
+     * in this order, for player's current server and world.
+     *
+     * @param   property
+     *          Property name to resolve
+     * @return  Array with value and its source, or empty array if not set
+     */
+    @NotNull
+    private String[] resolvePropertyFromConfig(@NotNull String property) {
+        String[] value = TAB.getInstance().getConfiguration().getUsers().getProperty(name, property, server, world);
+        if (value.length == 0) {
+            value = TAB.getInstance().getConfiguration().getUsers().getProperty(uniqueIdString, property, server, world);
+        }
+        if (value.length == 0) {
+            value = TAB.getInstance().getConfiguration().getGroups().getProperty(getGroup(), property, server, world);
+        }
+        return value;
+    }
+
     /**
      * Makes sure the player is loaded. If not, throws {@link IllegalStateException}.
      *
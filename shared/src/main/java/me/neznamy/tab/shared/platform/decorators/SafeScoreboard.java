@@ -34,10 +34,10 @@ public abstract class SafeScoreboard<T extends TabPlayer> implements Scoreboard
     protected final T player;
 
     /** Map of blocked team adds, key is player and value is team name */
-    private final Map<String, String> blockedTeamAdds = new HashMap<>();
+    private final Map<String, String> blockedTeamAdds = new ConcurrentHashMap<>();
 
     /** Map of allowed team adds, key is player and value is team name */
-    private final Map<String, String> allowedTeamAdds = new HashMap<>();
+    private final Map<String, String> allowedTeamAdds = new ConcurrentHashMap<>();
 
     /** Flag tracking time between Login packet send and its processing */
     private boolean frozen;
@@ -48,6 +48,9 @@ public abstract class SafeScoreboard<T extends TabPlayer> implements Scoreboard
     /** Registered teams */
     private final Map<String, Team> teams = new ConcurrentHashMap<>();
 
+    /** Registered teams by their entries for fast lookup of expected team when checking team packets */
+    private final Map<String, Team> teamsByPlayer = new ConcurrentHashMap<>();
+
     /** Flag tracking anti-override value for teams */
     @Getter
     private boolean antiOverrideTeams;
@@ -129,9 +132,12 @@ public abstract class SafeScoreboard<T extends TabPlayer> implements Scoreboard
                                    @NonNull NameVisibility visibility, @NonNull CollisionRule collision,
                                    @NonNull Collection<String> players, int options, @NonNull TextColor color) {
         Team team = new Team(createTeam(name), name, prefix, suffix, visibility, collision, players, options, color);
-        if (teams.put(name, team) != null) {
+        Team previous = teams.put(name, team);
+        if (previous != null) removeFromIndex(previous);
+        addToIndex(team);
+        if (previous != null) {
             error("Tried to register team %s with entry %s, while this team already exists with entry %s to player ",
-                    name, players.toString(), teams.get(name).players.toString());
+                    name, players.toString(), previous.players.toString());
             return;
         }
         if (frozen) return;
@@ -145,6 +151,7 @@ public abstract class SafeScoreboard<T extends TabPlayer> implements Scoreboard
             error("Tried to unregister non-existing team %s for player ", teamName);
             return;
         }
+        removeFromIndex(team);
         if (frozen) return;
         unregisterTeam(team);
     }
@@ -229,10 +236,37 @@ public abstract class SafeScoreboard<T extends TabPlayer> implements Scoreboard
      */
     public synchronized void unregisterTeamSafe(@NonNull String teamName) {
         Team team = teams.remove(teamName);
-        if (team == null || frozen) return;
+        if (team == null) return;
+        removeFromIndex(team);
+        if (frozen) return;
         unregisterTeam(team);
     }
 
+    /**
+     * Adds entries of the team into the player to team index.
+     *
+     * @param   team
+     *          Team to add entries of
+     */
+    private void addToIndex(@NonNull Team team) {
+        for (String entry : team.players) {
+            teamsByPlayer.put(entry, team);
+        }
+    }
+
+    /**
+     * Removes entries of the team from the player to team index. Entries which
+     * already point to another team are kept.
+     *
+     * @param   team
+     *          Team to remove entries of
+     */
+    private void removeFromIndex(@NonNull Team team) {
+        for (String entry : team.players) {
+            teamsByPlayer.remove(entry, team);
+        }
+    }
+
     /**
      * Prints a debug message if attempted to perform an invalid operation.
      *
@@ -336,10 +370,7 @@ public abstract class SafeScoreboard<T extends TabPlayer> implements Scoreboard
 
     @Nullable
     private Team getExpectedTeam(@NotNull String player) {
-        for (Team team : teams.values()) {
-            if (team.getPlayers().contains(player)) return team;
-        }
-        return null;
+        return teamsByPlayer.get(player);
     }
 
     /**
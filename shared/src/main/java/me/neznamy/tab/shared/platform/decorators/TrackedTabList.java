@@ -54,6 +54,14 @@ public abstract class TrackedTabList<P extends TabPlayer> implements TabList {
         // Empty by default, overridden by Sponge7, Sponge8 and Velocity
     }
 
+    /**
+     * Sends entry updates which are waiting to be sent. Called when the
+     * viewer leaves and when features are unloaded, so no update is lost.
+     */
+    public void flush() {
+        // Empty by default, overridden by platforms which batch entry updates
+    }
+
     /**
      * Processes packet for anti-override, ping spoof and nick compatibility.
      *
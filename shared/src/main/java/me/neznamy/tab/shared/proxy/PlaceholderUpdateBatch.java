@@ -0,0 +1,87 @@
+package me.neznamy.tab.shared.proxy;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.TabConstants.CpuUsageCategory;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.RelationalPlaceholderImpl;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Placeholder values received from bridge for a single player which were not applied yet.
+ * Values received in a burst are applied together once all queued plugin messages were
+ * processed, so each feature is refreshed once for all changed placeholders instead of
+ * once per placeholder. A newer value of the same placeholder replaces the pending one.
+ * All methods must be called from the processing thread.
+ */
+@RequiredArgsConstructor
+public class PlaceholderUpdateBatch {
+
+    /** Player the values belong to */
+    @NotNull private final ProxyTabPlayer player;
+
+    /** Pending values of player placeholders */
+    @NotNull private Map<PlayerPlaceholderImpl, String> playerValues = new LinkedHashMap<>();
+
+    /** Pending values of relational placeholders by target player */
+    @NotNull private Map<RelationalPlaceholderImpl, Map<TabPlayer, String>> relationalValues = new LinkedHashMap<>();
+
+    /** Whether task applying pending values is already queued */
+    private boolean scheduled;
+
+    /**
+     * Adds new value of a player placeholder.
+     *
+     * @param   placeholder
+     *          Placeholder to update
+     * @param   value
+     *          New value
+     */
+    public void addValue(@NonNull PlayerPlaceholderImpl placeholder, @NonNull String value) {
+        playerValues.put(placeholder, value);
+        schedule();
+    }
+
+    /**
+     * Adds new value of a relational placeholder.
+     *
+     * @param   placeholder
+     *          Placeholder to update
+     * @param   target
+     *          Player the placeholder is displayed on
+     * @param   value
+     *          New value
+     */
+    public void addValue(@NonNull RelationalPlaceholderImpl placeholder, @NonNull TabPlayer target, @NonNull String value) {
+        relationalValues.computeIfAbsent(placeholder, p -> new HashMap<>()).put(target, value);
+        schedule();
+    }
+
+    /**
+     * Queues application of pending values behind plugin messages which were already received.
+     */
+    private void schedule() {
+        if (scheduled) return;
+        scheduled = true;
+        TAB.getInstance().getCpu().runMeasuredTask("Plugin message handling", CpuUsageCategory.PLUGIN_MESSAGE_PROCESS, this::apply);
+    }
+
+    /**
+     * Applies all pending values and refreshes features using them.
+     */
+    private void apply() {
+        scheduled = false;
+        Map<PlayerPlaceholderImpl, String> playerValues = this.playerValues;
+        Map<RelationalPlaceholderImpl, Map<TabPlayer, String>> relationalValues = this.relationalValues;
+        this.playerValues = new LinkedHashMap<>();
+        this.relationalValues = new LinkedHashMap<>();
+        if (!playerValues.isEmpty()) PlayerPlaceholderImpl.bulkUpdateValues(player, playerValues);
+        if (!relationalValues.isEmpty()) RelationalPlaceholderImpl.bulkUpdateValues(player, relationalValues);
+    }
+}
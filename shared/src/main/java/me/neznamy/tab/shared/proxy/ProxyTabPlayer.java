@@ -1,23 +1,23 @@
 package me.neznamy.tab.shared.proxy;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import me.neznamy.tab.api.integration.VanishIntegration;
 import me.neznamy.tab.api.placeholder.PlayerPlaceholder;
 import me.neznamy.tab.shared.TabConstants;
-import me.neznamy.tab.shared.cpu.CpuManager;
 import me.neznamy.tab.shared.placeholders.expansion.TabExpansion;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessage;
+import me.neznamy.tab.shared.proxy.message.outgoing.OutgoingMessageQueue;
 import me.neznamy.tab.shared.proxy.message.outgoing.PermissionRequest;
 import me.neznamy.tab.shared.proxy.message.outgoing.PlayerJoin;
-import me.neznamy.tab.shared.task.PluginMessageEncodeTask;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract class for player on proxy containing variables and methods
@@ -45,7 +45,18 @@ public abstract class ProxyTabPlayer extends TabPlayer {
     private int gamemode;
 
     /** Map of player's requested permissions */
-    private final Map<String, Boolean> permissions = new HashMap<>();
+    private final Map<String, Boolean> permissions = new ConcurrentHashMap<>();
+
+    /** Time of the last request sent to bridge by permission node */
+    @Getter(AccessLevel.NONE)
+    private final Map<String, Long> permissionRequestTimes = new ConcurrentHashMap<>();
+
+    /** Placeholder values received from bridge which were not applied yet */
+    private final PlaceholderUpdateBatch placeholderUpdates = new PlaceholderUpdateBatch(this);
+
+    /** Plugin messages waiting to be sent */
+    @Getter(AccessLevel.NONE)
+    private final OutgoingMessageQueue messageQueue = new OutgoingMessageQueue(this);
 
     /**
      * Constructs new instance with given parameters and sends a message
@@ -76,6 +87,7 @@ public abstract class ProxyTabPlayer extends TabPlayer {
      */
     public void sendJoinPluginMessage() {
         bridgeConnected = false; // Reset on server switch
+        permissionRequestTimes.clear(); // Request permissions from new server
         sendPluginMessage(new PlayerJoin(
                 getVersion().getNetworkId(),
                 TAB.getInstance().getGroupManager().getPermissionPlugin().contains("Vault") &&
@@ -152,20 +164,38 @@ public abstract class ProxyTabPlayer extends TabPlayer {
     @Override
     public boolean hasPermission(@NotNull String permission) {
         if (TAB.getInstance().getConfiguration().getConfig().isBukkitPermissions()) {
-            sendPluginMessage(new PermissionRequest(permission));
-            return permissions != null && permissions.getOrDefault(permission, false);
+            requestPermission(permission);
+            return permissions.getOrDefault(permission, false);
         }
         return hasPermission0(permission);
     }
 
     /**
-     * Sends plugin message to the player.
+     * Requests permission status from bridge unless it was already requested
+     * in the last permission refresh interval. Permission is requested when first
+     * checked and then refreshed at most once per interval while it is being checked,
+     * instead of sending a request on every check.
+     *
+     * @param   permission
+     *          Permission node to request
+     */
+    private void requestPermission(@NotNull String permission) {
+        long now = System.currentTimeMillis();
+        Long lastRequest = permissionRequestTimes.get(permission);
+        if (lastRequest != null && now - lastRequest < TAB.getInstance().getConfiguration().getConfig().getPermissionRefreshInterval()) return;
+        permissionRequestTimes.put(permission, now);
+        sendPluginMessage(new PermissionRequest(permission));
+    }
+
+    /**
+     * Queues plugin message to be sent to the player. Messages updating state are
+     * sent once per tick with superseded updates merged, see {@link OutgoingMessageQueue}.
      *
      * @param   message
      *          Plugin message to send
      */
     public void sendPluginMessage(@NotNull OutgoingMessage message) {
-        CpuManager.getPluginMessageEncodeThread().execute(new PluginMessageEncodeTask(this, message));
+        messageQueue.add(message);
     }
 
     @Override
@@ -2,9 +2,9 @@ package me.neznamy.tab.shared.proxy.message.incoming;
 
 import com.google.common.io.ByteArrayDataInput;
 import me.neznamy.tab.api.placeholder.Placeholder;
-import me.neznamy.tab.api.placeholder.PlayerPlaceholder;
-import me.neznamy.tab.api.placeholder.RelationalPlaceholder;
 import me.neznamy.tab.shared.TAB;
+import me.neznamy.tab.shared.placeholders.types.PlayerPlaceholderImpl;
+import me.neznamy.tab.shared.placeholders.types.RelationalPlaceholderImpl;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
 import org.jetbrains.annotations.NotNull;
@@ -29,15 +29,16 @@ public class UpdatePlaceholder implements IncomingMessage {
         // It is also in bridge memory, but bridge will not return the correct value, so ignore it.
         if (!TAB.getInstance().getPlaceholderManager().getBridgePlaceholders().containsKey(identifier)) return;
 
+        // Values are applied in batches to refresh features once for all placeholders changed at once
         Placeholder placeholder = TAB.getInstance().getPlaceholderManager().getPlaceholderRaw(identifier);
         if (placeholder == null) return;
-        if (placeholder instanceof RelationalPlaceholder) {
+        if (placeholder instanceof RelationalPlaceholderImpl) {
             TabPlayer other = TAB.getInstance().getPlayer(target);
             if (other != null) { // Backend player did not connect via this proxy if null
-                ((RelationalPlaceholder)placeholder).updateValue(player, other, value);
+                player.getPlaceholderUpdates().addValue((RelationalPlaceholderImpl) placeholder, other, value);
             }
-        } else if (placeholder instanceof PlayerPlaceholder) {
-            ((PlayerPlaceholder)placeholder).updateValue(player, value);
+        } else if (placeholder instanceof PlayerPlaceholderImpl) {
+            player.getPlaceholderUpdates().addValue((PlayerPlaceholderImpl) placeholder, value);
         }
     }
 }
@@ -10,7 +10,7 @@ import org.jetbrains.annotations.NotNull;
  */
 @AllArgsConstructor
 @SuppressWarnings("UnstableApiUsage")
-public class ExpansionPlaceholder implements OutgoingMessage {
+public class ExpansionPlaceholder implements MergeableMessage {
 
     private String placeholder;
     private String value;
@@ -24,4 +24,16 @@ public class ExpansionPlaceholder implements OutgoingMessage {
         out.writeUTF(value);
         return out;
     }
+
+    @Override
+    @NotNull
+    public Object getMergeKey() {
+        return placeholder;
+    }
+
+    @Override
+    @NotNull
+    public OutgoingMessage mergeInto(@NotNull OutgoingMessage pending) {
+        return this;
+    }
 }
@@ -0,0 +1,33 @@
+package me.neznamy.tab.shared.proxy.message.outgoing;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Outgoing message setting the full state of something identified by a key,
+ * such as a placeholder value. Such message may be merged with a message
+ * of the same type and key which was not sent yet.
+ */
+public interface MergeableMessage extends OutgoingMessage {
+
+    /**
+     * Returns key identifying state changed by this message. Keys are only
+     * compared between messages of the same class.
+     *
+     * @return  Key identifying changed state
+     */
+    @NotNull
+    Object getMergeKey();
+
+    /**
+     * Merges this message with a pending message of the same class and key.
+     * Returns message to send instead of both, or {@code null}
+     * if the messages cannot be merged and both must be sent.
+     *
+     * @param   pending
+     *          Message of the same class and key which was not sent yet
+     * @return  Merged message or {@code null} if messages cannot be merged
+     */
+    @Nullable
+    OutgoingMessage mergeInto(@NotNull OutgoingMessage pending);
+}
@@ -0,0 +1,104 @@
+package me.neznamy.tab.shared.proxy.message.outgoing;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import me.neznamy.tab.shared.cpu.CpuManager;
+import me.neznamy.tab.shared.proxy.ProxyTabPlayer;
+import me.neznamy.tab.shared.task.PluginMessageEncodeTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue of plugin messages waiting to be sent to a player. {@link MergeableMessage}s
+ * are sent once per tick and a message replacing state of a pending message is merged
+ * with it, so only the latest state is sent. The merged message takes the position of
+ * the newer message, so it is never sent before messages queued in between. Other
+ * messages are sent immediately together with all pending messages, keeping the
+ * original order.
+ */
+@RequiredArgsConstructor
+public class OutgoingMessageQueue {
+
+    /** Delay before sending mergeable messages, one tick */
+    private static final int FLUSH_DELAY_MILLIS = 50;
+
+    /** Player to send messages to */
+    @NotNull private final ProxyTabPlayer player;
+
+    /** Messages waiting to be sent in order they were queued, {@code null} for messages merged into a later one */
+    @NotNull private List<OutgoingMessage> messages = new ArrayList<>();
+
+    /** Positions of the last mergeable message in {@link #messages} by message class and key */
+    @NotNull private final Map<Class<?>, Map<Object, Integer>> lastIndexes = new HashMap<>();
+
+    /** Whether a delayed flush is already scheduled */
+    private boolean flushScheduled;
+
+    /**
+     * Queues message to be sent to the player. This method is thread-safe.
+     *
+     * @param   message
+     *          Message to send
+     */
+    public void add(@NonNull OutgoingMessage message) {
+        synchronized (this) {
+            if (message instanceof MergeableMessage) {
+                if (merge((MergeableMessage) message)) return;
+                messages.add(message);
+                if (flushScheduled) return;
+                flushScheduled = true;
+            } else {
+                messages.add(message);
+                lastIndexes.clear(); // Messages queued after this one must not be merged before it
+            }
+        }
+        if (message instanceof MergeableMessage) {
+            CpuManager.getPluginMessageEncodeThread().executeLater(this::flush, FLUSH_DELAY_MILLIS);
+        } else {
+            CpuManager.getPluginMessageEncodeThread().execute(this::flush);
+        }
+    }
+
+    /**
+     * Merges the message with the last pending message with the same class and key if possible.
+     * The merged message is moved to the end of the queue. If the messages cannot be merged,
+     * saves the position the message will be inserted at.
+     *
+     * @param   message
+     *          Message to merge
+     * @return  {@code true} if message was merged and queued, {@code false} if it should be added
+     */
+    private boolean merge(@NotNull MergeableMessage message) {
+        Map<Object, Integer> indexes = lastIndexes.computeIfAbsent(message.getClass(), c -> new HashMap<>());
+        Object key = message.getMergeKey();
+        Integer index = indexes.put(key, messages.size());
+        if (index == null) return false;
+        OutgoingMessage merged = message.mergeInto(messages.get(index));
+        if (merged == null) return false;
+        messages.set(index, null);
+        messages.add(merged);
+        return true;
+    }
+
+    /**
+     * Encodes and sends all pending messages.
+     */
+    private void flush() {
+        List<OutgoingMessage> pending;
+        synchronized (this) {
+            flushScheduled = false;
+            if (messages.isEmpty()) return;
+            pending = messages;
+            messages = new ArrayList<>();
+            lastIndexes.clear();
+        }
+        for (OutgoingMessage message : pending) {
+            if (message == null) continue;
+            new PluginMessageEncodeTask(player, message).run();
+        }
+    }
+}
@@ -7,7 +7,7 @@ import org.jetbrains.annotations.NotNull;
 
 @AllArgsConstructor
 @SuppressWarnings("UnstableApiUsage")
-public class PermissionRequest implements OutgoingMessage {
+public class PermissionRequest implements MergeableMessage {
 
     private String permission;
 
@@ -19,4 +19,16 @@ public class PermissionRequest implements OutgoingMessage {
         out.writeUTF(permission);
         return out;
     }
+
+    @Override
+    @NotNull
+    public Object getMergeKey() {
+        return permission;
+    }
+
+    @Override
+    @NotNull
+    public OutgoingMessage mergeInto(@NotNull OutgoingMessage pending) {
+        return pending; // Same request is already pending
+    }
 }
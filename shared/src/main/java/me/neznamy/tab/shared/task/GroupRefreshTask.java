@@ -1,5 +1,6 @@
 package me.neznamy.tab.shared.task;
 
+import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import me.neznamy.tab.shared.TAB;
 import me.neznamy.tab.shared.cpu.CpuManager;
@@ -7,28 +8,136 @@ import me.neznamy.tab.shared.cpu.TimedCaughtTask;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 /**
- * Task for refreshing permission groups of players.
+ * Task for refreshing permission groups of players. Players whose group did not change
+ * are checked less often, backing off up to every {@link #MAX_BACKOFF}-th run. Players
+ * can also be requested to be refreshed by permission plugin events, in which case they
+ * are checked immediately. All changes found by a single check are applied in one task
+ * on the processing thread and features are notified once for the whole batch.
  */
 @RequiredArgsConstructor
 public class GroupRefreshTask implements Runnable {
 
+    /** Maximum amount of runs between two checks of a player whose group does not change */
+    private static final int MAX_BACKOFF = 8;
+
     /** Function for getting group of a player */
     @NotNull
     private final Function<TabPlayer, String> detectGroup;
 
+    /** Polling state of players, only accessed from group refreshing thread */
+    private final Map<TabPlayer, PollState> states = new WeakHashMap<>();
+
+    /** Players requested to be refreshed by permission plugin events */
+    private final Set<TabPlayer> pending = ConcurrentHashMap.newKeySet();
+
+    /** Whether a task refreshing pending players is already queued */
+    private final AtomicBoolean pendingScheduled = new AtomicBoolean();
+
     @Override
     public void run() {
+        Map<TabPlayer, String> changes = new LinkedHashMap<>();
         for (TabPlayer all : TAB.getInstance().getOnlinePlayers()) {
-            String oldGroup = all.getPermissionGroup();
-            String newGroup = detectGroup.apply(all);
-            if (!oldGroup.equals(newGroup)) {
-                // Back to main thread to avoid concurrency issues
-                CpuManager cpu = TAB.getInstance().getCpu();
-                cpu.getProcessingThread().execute(new TimedCaughtTask(cpu, () -> all.setGroup(newGroup), "Permission group refreshing", "Applying changes"));
+            PollState state = states.computeIfAbsent(all, p -> new PollState());
+            if (--state.remaining > 0) continue;
+            if (check(all, changes)) {
+                state.backoff = 1;
+            } else {
+                state.backoff = Math.min(state.backoff * 2, MAX_BACKOFF);
             }
+            state.remaining = state.backoff;
+        }
+        apply(changes);
+    }
+
+    /**
+     * Requests group of the player to be refreshed as soon as possible. Multiple
+     * requests arriving before the refresh runs are merged into a single check.
+     * This method is thread-safe.
+     *
+     * @param   player
+     *          Player whose group may have changed
+     */
+    public void requestRefresh(@NonNull TabPlayer player) {
+        pending.add(player);
+        if (!pendingScheduled.compareAndSet(false, true)) return;
+        CpuManager cpu = TAB.getInstance().getCpu();
+        cpu.getGroupRefreshingThread().execute(new TimedCaughtTask(cpu, this::refreshPending,
+                "Permission group refreshing", "Processing permission plugin events"));
+    }
+
+    /**
+     * Checks all players requested to be refreshed and resets their backoff.
+     */
+    private void refreshPending() {
+        pendingScheduled.set(false);
+        Map<TabPlayer, String> changes = new LinkedHashMap<>();
+        for (Iterator<TabPlayer> iterator = pending.iterator(); iterator.hasNext();) {
+            TabPlayer player = iterator.next();
+            iterator.remove();
+            if (!player.isOnline()) continue;
+            check(player, changes);
+            PollState state = states.computeIfAbsent(player, p -> new PollState());
+            state.backoff = 1;
+            state.remaining = 1;
         }
+        apply(changes);
+    }
+
+    /**
+     * Detects group of the player and saves it into given map if it changed.
+     *
+     * @param   player
+     *          Player to check
+     * @param   changes
+     *          Map to save new group into
+     * @return  {@code true} if group changed, {@code false} if not
+     */
+    private boolean check(@NotNull TabPlayer player, @NotNull Map<TabPlayer, String> changes) {
+        String newGroup = detectGroup.apply(player);
+        if (player.getPermissionGroup().equals(newGroup)) return false;
+        changes.put(player, newGroup);
+        return true;
+    }
+
+    /**
+     * Applies all group changes on the processing thread and notifies features
+     * once for all players whose group changed.
+     *
+     * @param   changes
+     *          New groups of players
+     */
+    private void apply(@NotNull Map<TabPlayer, String> changes) {
+        if (changes.isEmpty()) return;
+        // Back to main thread to avoid concurrency issues
+        CpuManager cpu = TAB.getInstance().getCpu();
+        cpu.getProcessingThread().execute(new TimedCaughtTask(cpu, () -> {
+            List<TabPlayer> changed = new ArrayList<>(changes.size());
+            for (Map.Entry<TabPlayer, String> entry : changes.entrySet()) {
+                try {
+                    if (entry.getKey().isOnline() && entry.getKey().updateGroup(entry.getValue())) changed.add(entry.getKey());
+                } catch (Exception | LinkageError | StackOverflowError e) {
+                    TAB.getInstance().getErrorManager().taskThrewError(e);
+                }
+            }
+            TAB.getInstance().getFeatureManager().onGroupChange(changed);
+        }, "Permission group refreshing", "Applying changes"));
+    }
+
+    /**
+     * Polling backoff of a player.
+     */
+    private static class PollState {
+
+        /** Amount of runs between checks of the player */
+        private int backoff = 1;
+
+        /** Amount of runs remaining until the next check */
+        private int remaining;
     }
 }
@@ -1,6 +1,5 @@
 package me.neznamy.tab.shared.util;
 
-import lombok.Getter;
 import me.neznamy.tab.shared.platform.TabPlayer;
 import org.jetbrains.annotations.NotNull;
 
@@ -10,7 +9,9 @@ import java.util.stream.Collectors;
 
 /**
  * Class for tracking online players and returning them as an array
- * to save resources when iterating.
+ * to save resources when iterating. The array is rebuilt on first
+ * access after a change, so multiple changes with no access in
+ * between only rebuild it once.
  */
 public class OnlinePlayers {
 
@@ -18,8 +19,10 @@ public class OnlinePlayers {
     private final Set<TabPlayer> playerSet;
 
     /** Player array for fast access without creating iterator */
-    @Getter
-    private TabPlayer[] players;
+    private volatile TabPlayer[] players;
+
+    /** Whether players changed since {@link #players} was built */
+    private volatile boolean dirty;
 
     /**
      * Constructs new instance with given players.
@@ -38,9 +41,8 @@ public class OnlinePlayers {
      * @param   player
      *          Player to add
      */
-    public void addPlayer(@NotNull TabPlayer player) {
-        playerSet.add(player);
-        players = playerSet.toArray(new TabPlayer[0]);
+    public synchronized void addPlayer(@NotNull TabPlayer player) {
+        if (playerSet.add(player)) dirty = true;
     }
 
     /**
@@ -49,8 +51,24 @@ public class OnlinePlayers {
      * @param   player
      *          Player to remove
      */
-    public void removePlayer(@NotNull TabPlayer player) {
-        playerSet.remove(player);
-        players = playerSet.toArray(new TabPlayer[0]);
+    public synchronized void removePlayer(@NotNull TabPlayer player) {
+        if (playerSet.remove(player)) dirty = true;
+    }
+
+    /**
+     * Returns array of tracked players. The array is shared and must not be modified.
+     *
+     * @return  Array of tracked players
+     */
+    @NotNull
+    public TabPlayer[] getPlayers() {
+        if (!dirty) return players;
+        synchronized (this) {
+            if (dirty) {
+                players = playerSet.toArray(new TabPlayer[0]);
+                dirty = false;
+            }
+            return players;
+        }
     }
 }
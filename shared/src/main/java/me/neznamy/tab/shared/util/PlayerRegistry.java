@@ -0,0 +1,106 @@
+package me.neznamy.tab.shared.util;
+
+import lombok.NonNull;
+import me.neznamy.tab.shared.platform.TabPlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Registry of online players which assigns each player a small slot number,
+ * reusing slots of players who left. Slots allow features to store per-player
+ * data in arrays indexed by {@link TabPlayer#getSlot()}. Adding and removing
+ * players does not copy the player array, instead the array returned by
+ * {@link #getPlayers()} is rebuilt on first access after a change. Rebuilding
+ * takes linear time, so changes only share a rebuild when nothing reads the
+ * array in between. A join, which is followed by features iterating online
+ * players, still costs one rebuild, same as copying the array on every change.
+ */
+public class PlayerRegistry {
+
+    /** Empty array to return when no players are online */
+    private static final TabPlayer[] EMPTY = new TabPlayer[0];
+
+    /** Slots which are currently taken by online players */
+    private final BitSet usedSlots = new BitSet();
+
+    /** Online players by their slot */
+    private TabPlayer[] playersBySlot = new TabPlayer[16];
+
+    /** Number of online players */
+    private int size;
+
+    /** Online player array to avoid memory allocation when iterating */
+    private volatile TabPlayer[] snapshot = EMPTY;
+
+    /** Whether players changed since {@link #snapshot} was built */
+    private volatile boolean dirty;
+
+    /**
+     * Assigns the lowest free slot to the player and adds the player.
+     *
+     * @param   player
+     *          Player to add
+     */
+    public synchronized void add(@NonNull TabPlayer player) {
+        int slot = usedSlots.nextClearBit(0);
+        usedSlots.set(slot);
+        player.setSlot(slot);
+        if (slot >= playersBySlot.length) {
+            playersBySlot = Arrays.copyOf(playersBySlot, Math.max(slot + 1, playersBySlot.length * 2));
+        }
+        playersBySlot[slot] = player;
+        size++;
+        dirty = true;
+    }
+
+    /**
+     * Removes the player and frees their slot for reuse.
+     *
+     * @param   player
+     *          Player to remove
+     */
+    public synchronized void remove(@NonNull TabPlayer player) {
+        int slot = player.getSlot();
+        if (slot < 0 || slot >= playersBySlot.length || playersBySlot[slot] != player) return;
+        playersBySlot[slot] = null;
+        usedSlots.clear(slot);
+        size--;
+        dirty = true;
+    }
+
+    /**
+     * Removes all players.
+     */
+    public synchronized void clear() {
+        usedSlots.clear();
+        Arrays.fill(playersBySlot, null);
+        size = 0;
+        snapshot = EMPTY;
+        dirty = false;
+    }
+
+    /**
+     * Returns array of online players ordered by their slots. The array
+     * is shared and must not be modified.
+     *
+     * @return  Array of online players
+     */
+    @NotNull
+    public TabPlayer[] getPlayers() {
+        if (!dirty) return snapshot;
+        synchronized (this) {
+            if (dirty) {
+                TabPlayer[] players = new TabPlayer[size];
+                int index = 0;
+                for (int slot = usedSlots.nextSetBit(0); slot >= 0; slot = usedSlots.nextSetBit(slot + 1)) {
+                    players[index++] = playersBySlot[slot];
+                }
+                snapshot = players;
+                dirty = false;
+            }
+            return snapshot;
+        }
+    }
+}
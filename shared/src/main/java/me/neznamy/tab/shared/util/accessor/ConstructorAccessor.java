@@ -0,0 +1,175 @@
+package me.neznamy.tab.shared.util.accessor;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * Constructor access using a method handle instead of reflection. Calls with up to
+ * {@value #MAX_ARITY} arguments go through fixed-arity overloads, which do not
+ * allocate an argument array. The JIT only inlines object creation if the accessor
+ * is stored in a {@code static final} field, otherwise the handle is called like
+ * a virtual method, which still skips reflection's access checks.
+ */
+public class ConstructorAccessor {
+
+    /** Maximum number of arguments supported by fixed-arity overloads */
+    public static final int MAX_ARITY = 5;
+
+    /** Reflective constructor this accessor was created from */
+    @Getter
+    @NotNull
+    private final Constructor<?> constructor;
+
+    /** Constructor handle taking all arguments as {@code Object}, returning {@code Object} */
+    @NotNull
+    private final MethodHandle handle;
+
+    /** Constructor handle with {@code (Object[])Object} signature for calls with more arguments */
+    @NotNull
+    private final MethodHandle spreader;
+
+    /**
+     * Constructs new instance from given constructor. The constructor must be accessible.
+     *
+     * @param   constructor
+     *          Constructor to access
+     * @throws  IllegalAccessException
+     *          If constructor is not accessible
+     */
+    public ConstructorAccessor(@NonNull Constructor<?> constructor) throws IllegalAccessException {
+        this.constructor = constructor;
+        handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                .asType(MethodType.genericMethodType(constructor.getParameterCount()));
+        spreader = handle
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    /**
+     * Creates new instance without arguments.
+     *
+     * @return  Created object
+     */
+    @SneakyThrows
+    @NotNull
+    public Object newInstance() {
+        return (Object) handle.invokeExact();
+    }
+
+    /**
+     * Creates new instance using 1 argument.
+     *
+     * @param   arg1
+     *          Constructor argument
+     * @return  Created object
+     */
+    @SneakyThrows
+    @NotNull
+    public Object newInstance(@Nullable Object arg1) {
+        return (Object) handle.invokeExact(arg1);
+    }
+
+    /**
+     * Creates new instance using 2 arguments.
+     *
+     * @param   arg1
+     *          First constructor argument
+     * @param   arg2
+     *          Second constructor argument
+     * @return  Created object
+     */
+    @SneakyThrows
+    @NotNull
+    public Object newInstance(@Nullable Object arg1, @Nullable Object arg2) {
+        return (Object) handle.invokeExact(arg1, arg2);
+    }
+
+    /**
+     * Creates new instance using 3 arguments.
+     *
+     * @param   arg1
+     *          First constructor argument
+     * @param   arg2
+     *          Second constructor argument
+     * @param   arg3
+     *          Third constructor argument
+     * @return  Created object
+     */
+    @SneakyThrows
+    @NotNull
+    public Object newInstance(@Nullable Object arg1, @Nullable Object arg2, @Nullable Object arg3) {
+        return (Object) handle.invokeExact(arg1, arg2, arg3);
+    }
+
+    /**
+     * Creates new instance using 4 arguments.
+     *
+     * @param   arg1
+     *          First constructor argument
+     * @param   arg2
+     *          Second constructor argument
+     * @param   arg3
+     *          Third constructor argument
+     * @param   arg4
+     *          Fourth constructor argument
+     * @return  Created object
+     */
+    @SneakyThrows
+    @NotNull
+    public Object newInstance(@Nullable Object arg1, @Nullable Object arg2, @Nullable Object arg3, @Nullable Object arg4) {
+        return (Object) handle.invokeExact(arg1, arg2, arg3, arg4);
+    }
+
+    /**
+     * Creates new instance using 5 arguments.
+     *
+     * @param   arg1
+     *          First constructor argument
+     * @param   arg2
+     *          Second constructor argument
+     * @param   arg3
+     *          Third constructor argument
+     * @param   arg4
+     *          Fourth constructor argument
+     * @param   arg5
+     *          Fifth constructor argument
+     * @return  Created object
+     */
+    @SneakyThrows
+    @NotNull
+    public Object newInstance(@Nullable Object arg1, @Nullable Object arg2, @Nullable Object arg3, @Nullable Object arg4, @Nullable Object arg5) {
+        return (Object) handle.invokeExact(arg1, arg2, arg3, arg4, arg5);
+    }
+
+    /**
+     * Creates new instance using given arguments. This creates an argument array,
+     * fixed-arity overloads should be preferred when possible.
+     *
+     * @param   args
+     *          Constructor arguments
+     * @return  Created object
+     */
+    @SneakyThrows
+    @NotNull
+    public Object newInstance(@NonNull Object... args) {
+        return (Object) spreader.invokeExact(args);
+    }
+
+    /**
+     * Returns parameter types of the constructor.
+     *
+     * @return  Parameter types of the constructor
+     */
+    @NotNull
+    public Class<?>[] getParameterTypes() {
+        return constructor.getParameterTypes();
+    }
+}
@@ -0,0 +1,123 @@
+package me.neznamy.tab.shared.util.accessor;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Instance field access using method handles instead of reflection. The JIT only
+ * inlines the access if the accessor is stored in a {@code static final} field,
+ * otherwise the handle is called like a virtual method, which still skips reflection's
+ * access checks and boxing of primitive values. If the field cannot be written to
+ * using a method handle, writes fall back to reflection.
+ */
+public class FieldAccessor {
+
+    /** Reflective field this accessor was created from */
+    @Getter
+    @NotNull
+    private final Field field;
+
+    /** Getter with {@code (Object)Object} signature */
+    @NotNull
+    private final MethodHandle getter;
+
+    /** Getter returning primitive {@code int}, {@code null} if field is not an int */
+    @Nullable
+    private final MethodHandle intGetter;
+
+    /** Getter returning primitive {@code boolean}, {@code null} if field is not a boolean */
+    @Nullable
+    private final MethodHandle booleanGetter;
+
+    /** Setter with {@code (Object,Object)void} signature, {@code null} if not available */
+    @Nullable
+    private final MethodHandle setter;
+
+    /**
+     * Constructs new instance from given field. The field must be accessible.
+     *
+     * @param   field
+     *          Instance field to access
+     * @throws  IllegalAccessException
+     *          If field is not accessible
+     */
+    public FieldAccessor(@NonNull Field field) throws IllegalAccessException {
+        if (Modifier.isStatic(field.getModifiers())) throw new IllegalArgumentException("Field " + field + " is static");
+        this.field = field;
+        MethodHandle get = MethodHandles.lookup().unreflectGetter(field);
+        getter = get.asType(MethodType.methodType(Object.class, Object.class));
+        intGetter = field.getType() == int.class ? get.asType(MethodType.methodType(int.class, Object.class)) : null;
+        booleanGetter = field.getType() == boolean.class ? get.asType(MethodType.methodType(boolean.class, Object.class)) : null;
+        MethodHandle set;
+        try {
+            set = MethodHandles.lookup().unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            set = null; // Final field of a record or similar, use reflection
+        }
+        setter = set;
+    }
+
+    /**
+     * Returns value of the field in given object.
+     *
+     * @param   instance
+     *          Object to get field value of
+     * @return  Value of the field
+     */
+    @SneakyThrows
+    public Object get(@NonNull Object instance) {
+        return (Object) getter.invokeExact(instance);
+    }
+
+    /**
+     * Returns value of an {@code int} field in given object.
+     *
+     * @param   instance
+     *          Object to get field value of
+     * @return  Value of the field
+     */
+    @SneakyThrows
+    public int getInt(@NonNull Object instance) {
+        if (intGetter == null) return field.getInt(instance);
+        return (int) intGetter.invokeExact(instance);
+    }
+
+    /**
+     * Returns value of a {@code boolean} field in given object.
+     *
+     * @param   instance
+     *          Object to get field value of
+     * @return  Value of the field
+     */
+    @SneakyThrows
+    public boolean getBoolean(@NonNull Object instance) {
+        if (booleanGetter == null) return field.getBoolean(instance);
+        return (boolean) booleanGetter.invokeExact(instance);
+    }
+
+    /**
+     * Sets value of the field in given object.
+     *
+     * @param   instance
+     *          Object to set field value in
+     * @param   value
+     *          New value
+     */
+    @SneakyThrows
+    public void set(@NonNull Object instance, @Nullable Object value) {
+        if (setter == null) {
+            field.set(instance, value);
+        } else {
+            setter.invokeExact(instance, value);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package me.neznamy.tab.shared.util.accessor;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Method access using a method handle instead of reflection. Calls with up to
+ * {@value #MAX_ARITY} arguments go through fixed-arity overloads, which do not
+ * allocate an argument array. The JIT only inlines the target method if the
+ * accessor is stored in a {@code static final} field, otherwise the handle is
+ * called like a virtual method, which still skips reflection's access checks.
+ * Static methods are called with {@code null} instance.
+ */
+public class MethodAccessor {
+
+    /** Maximum number of arguments supported by fixed-arity overloads */
+    public static final int MAX_ARITY = 3;
+
+    /** Reflective method this accessor was created from */
+    @Getter
+    @NotNull
+    private final Method method;
+
+    /** Method handle taking instance and all arguments as {@code Object}, returning {@code Object} */
+    @NotNull
+    private final MethodHandle handle;
+
+    /** Method handle with {@code (Object,Object[])Object} signature for calls with more arguments */
+    @NotNull
+    private final MethodHandle spreader;
+
+    /**
+     * Constructs new instance from given method. The method must be accessible.
+     *
+     * @param   method
+     *          Method to access
+     * @throws  IllegalAccessException
+     *          If method is not accessible
+     */
+    public MethodAccessor(@NonNull Method method) throws IllegalAccessException {
+        this.method = method;
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        this.handle = handle.asType(MethodType.genericMethodType(method.getParameterCount() + 1));
+        spreader = this.handle
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    /**
+     * Calls the method without arguments and returns the result.
+     *
+     * @param   instance
+     *          Object to call the method on, {@code null} for static methods
+     * @return  Value returned by the method, {@code null} for void methods
+     */
+    @SneakyThrows
+    @Nullable
+    public Object invoke(@Nullable Object instance) {
+        return (Object) handle.invokeExact(instance);
+    }
+
+    /**
+     * Calls the method with 1 argument and returns the result.
+     *
+     * @param   instance
+     *          Object to call the method on, {@code null} for static methods
+     * @param   arg
+     *          Method argument
+     * @return  Value returned by the method, {@code null} for void methods
+     */
+    @SneakyThrows
+    @Nullable
+    public Object invoke(@Nullable Object instance, @Nullable Object arg) {
+        return (Object) handle.invokeExact(instance, arg);
+    }
+
+    /**
+     * Calls the method with 2 arguments and returns the result.
+     *
+     * @param   instance
+     *          Object to call the method on, {@code null} for static methods
+     * @param   arg1
+     *          First method argument
+     * @param   arg2
+     *          Second method argument
+     * @return  Value returned by the method, {@code null} for void methods
+     */
+    @SneakyThrows
+    @Nullable
+    public Object invoke(@Nullable Object instance, @Nullable Object arg1, @Nullable Object arg2) {
+        return (Object) handle.invokeExact(instance, arg1, arg2);
+    }
+
+    /**
+     * Calls the method with 3 arguments and returns the result.
+     *
+     * @param   instance
+     *          Object to call the method on, {@code null} for static methods
+     * @param   arg1
+     *          First method argument
+     * @param   arg2
+     *          Second method argument
+     * @param   arg3
+     *          Third method argument
+     * @return  Value returned by the method, {@code null} for void methods
+     */
+    @SneakyThrows
+    @Nullable
+    public Object invoke(@Nullable Object instance, @Nullable Object arg1, @Nullable Object arg2, @Nullable Object arg3) {
+        return (Object) handle.invokeExact(instance, arg1, arg2, arg3);
+    }
+
+    /**
+     * Calls the method with given arguments and returns the result. This creates
+     * an argument array, fixed-arity overloads should be preferred when possible.
+     *
+     * @param   instance
+     *          Object to call the method on, {@code null} for static methods
+     * @param   args
+     *          Method arguments
+     * @return  Value returned by the method, {@code null} for void methods
+     */
+    @SneakyThrows
+    @Nullable
+    public Object invoke(@Nullable Object instance, @NonNull Object... args) {
+        return (Object) spreader.invokeExact(instance, args);
+    }
+}
@@ -1,29 +1,94 @@
 package me.neznamy.tab.shared.util.cache;
 
-import lombok.RequiredArgsConstructor;
-import me.neznamy.tab.shared.TAB;
+import lombok.Getter;
+import lombok.NonNull;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 /**
  * Cache to save resources when converting the same values over and over.
+ * <p>
+ * Lookups of cached values do not lock, allowing multiple threads to share
+ * the cache. Once the cache is full, values are evicted using the CLOCK
+ * algorithm, which approximates least recently used eviction: every hit marks
+ * the value as referenced and eviction skips (and unmarks) referenced values.
+ * Values are converted outside of any lock, so the same value may occasionally
+ * be converted more than once when requested by multiple threads at once.
+ * <p>
+ * Slots are split into segments by key hash, each with its own lock and clock
+ * hand, so threads inserting different values rarely wait for each other.
+ * Eviction is decided within a segment, which makes it slightly less accurate
+ * than a single clock over all values.
  *
  * @param   <K>
  *          Source to convert from
  * @param   <V>
  *          Target to convert to
  */
-@RequiredArgsConstructor
 public class Cache<K, V> {
 
-    private int accessCount;
-    private final String name;
-    private final int cacheSize;
-    private final Function<K, V> function;
-    private final Map<K, V> cache = new HashMap<>();
+    /** Maximum amount of segments, each with its own lock */
+    private static final int SEGMENTS = 16;
+
+    /** All created caches for statistics */
+    private static final Set<Cache<?, ?>> instances = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /** Name of this cache */
+    @Getter @NotNull private final String name;
+
+    /** Maximum amount of cached values */
+    @Getter private final int cacheSize;
+
+    /** Function converting source to target */
+    @NotNull private final Function<K, V> function;
+
+    /** Cached values by their source */
+    @NotNull private final Map<K, Entry<K, V>> cache = new ConcurrentHashMap<>();
+
+    /** Segments holding slots of cached values, selected by key hash */
+    @NotNull private final Segment<K, V>[] segments;
+
+    /** Amount of lookups which found cached value */
+    private final LongAdder hits = new LongAdder();
+
+    /** Amount of lookups which had to convert the value */
+    private final LongAdder misses = new LongAdder();
+
+    /** Amount of values removed to make space for new ones */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs new instance with given parameters.
+     *
+     * @param   name
+     *          Cache name
+     * @param   cacheSize
+     *          Size limit of the cache
+     * @param   function
+     *          Function converting source to target
+     */
+    public Cache(@NonNull String name, int cacheSize, @NonNull Function<K, V> function) {
+        if (cacheSize < 1) throw new IllegalArgumentException("Cache size must be positive (attempted to use " + cacheSize + ")");
+        this.name = name;
+        this.cacheSize = cacheSize;
+        this.function = function;
+        int segmentCount = Math.min(SEGMENTS, cacheSize);
+        segments = newSegments(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            // Distribute the size so segments add up to exactly the cache size
+            segments[i] = new Segment<>(cacheSize / segmentCount + (i < cacheSize % segmentCount ? 1 : 0));
+        }
+        instances.add(this);
+    }
 
     /**
      * Gets value from cache. If not present, it is created using given function, inserted
@@ -34,14 +99,153 @@ public class Cache<K, V> {
      * @return  Converted value
      */
     @NotNull
-    public synchronized V get(@NotNull K key) {
-        accessCount++;
-        if (cache.size() > cacheSize) {
-            float efficiency = (float) (accessCount-cacheSize) / accessCount;
-            TAB.getInstance().debug("Clearing " + name + " cache due to limit (efficiency " + efficiency*100 + "% with " + accessCount + " accesses)");
-            accessCount = 0;
-            cache.clear();
+    public V get(@NotNull K key) {
+        Entry<K, V> entry = cache.get(key);
+        if (entry != null) {
+            if (!entry.referenced) entry.referenced = true;
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        V value = function.apply(key);
+        int hash = key.hashCode();
+        Segment<K, V> segment = segments[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % segments.length];
+        synchronized (segment) {
+            entry = cache.get(key);
+            if (entry != null) return entry.value; // Converted by another thread in the meantime
+            entry = new Entry<>(key, value);
+            segment.entries[nextSlot(segment)] = entry;
+            cache.put(key, entry);
+        }
+        return value;
+    }
+
+    /**
+     * Returns amount of currently cached values.
+     *
+     * @return  Amount of cached values
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Returns amount of lookups which found cached value.
+     *
+     * @return  Amount of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns amount of lookups which had to convert the value.
+     *
+     * @return  Amount of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns amount of values removed to make space for new ones.
+     *
+     * @return  Amount of evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns all caches which were created and were not garbage collected yet.
+     *
+     * @return  List of existing caches
+     */
+    @NotNull
+    public static List<Cache<?, ?>> getInstances() {
+        synchronized (instances) {
+            return new ArrayList<>(instances);
+        }
+    }
+
+    /**
+     * Returns slot for a new entry in given segment. If the segment is full, an entry which was
+     * not referenced since the clock hand last passed it is evicted and its slot is returned.
+     * Must be called while holding lock of the segment.
+     *
+     * @param   segment
+     *          Segment to get slot in
+     * @return  Free slot in entries of the segment
+     */
+    private int nextSlot(@NotNull Segment<K, V> segment) {
+        Entry<K, V>[] entries = segment.entries;
+        if (segment.usedSlots < entries.length) return segment.usedSlots++;
+        while (true) {
+            Entry<K, V> candidate = entries[segment.clockHand];
+            int slot = segment.clockHand;
+            segment.clockHand = (segment.clockHand + 1) % entries.length;
+            if (candidate.referenced) {
+                candidate.referenced = false;
+            } else {
+                cache.remove(candidate.key);
+                evictions.increment();
+                return slot;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static <K, V> Segment<K, V>[] newSegments(int count) {
+        return (Segment<K, V>[]) new Segment<?, ?>[count];
+    }
+
+    /**
+     * Part of the cache slots with its own clock hand. All fields are guarded by the segment itself.
+     * Keys are always assigned to the same segment, so checking and inserting a key under
+     * the segment lock cannot race with another insertion of the same key.
+     *
+     * @param   <K>
+     *          Source to convert from
+     * @param   <V>
+     *          Target to convert to
+     */
+    private static class Segment<K, V> {
+
+        /** Cached values in order of insertion into free slots */
+        @NotNull private final Entry<K, V>[] entries;
+
+        /** Amount of used slots in {@link #entries} */
+        private int usedSlots;
+
+        /** Position of the next eviction candidate in {@link #entries} */
+        private int clockHand;
+
+        @SuppressWarnings("unchecked")
+        private Segment(int size) {
+            entries = (Entry<K, V>[]) new Entry<?, ?>[size];
+        }
+    }
+
+    /**
+     * Cached value with its reference bit.
+     *
+     * @param   <K>
+     *          Source to convert from
+     * @param   <V>
+     *          Target to convert to
+     */
+    private static class Entry<K, V> {
+
+        @NotNull private final K key;
+        @NotNull private final V value;
+
+        /** Whether the value was requested since the clock hand last passed it */
+        private volatile boolean referenced;
+
+        private Entry(@NotNull K key, @NotNull V value) {
+            this.key = key;
+            this.value = value;
         }
-        return cache.computeIfAbsent(key, function);
     }
 }
@@ -10,11 +10,14 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Locale;
 import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Cache for String → TabComponent conversion.
+ * <p>
+ * Components parsed from RGB text are shared between all caches by their structure,
+ * so equal components created from different strings or by different features are only
+ * stored and converted to platform's components once. Components returned by this cache
+ * may therefore be used by multiple features at once and must not be modified.
  */
 public class StringToComponentCache extends Cache<String, TabComponent> {
 
@@ -25,7 +28,8 @@ public class StringToComponentCache extends Cache<String, TabComponent> {
     /** Formatter to convert RGB code to use Kyori's &lt;color:#RRGGBB>*/
     private static final Function<TextColor, String> kyoriRGBFormatter = color -> String.format("<color:#%s>", color.getHexCode());
 
-    private static final Pattern tabToKyori = Pattern.compile("(?<!:)(#([0-9A-Fa-f]{6}))(?![:>])");
+    /** Components parsed from RGB text by their structure, shared between all caches. Cached components must not be modified. */
+    private static final Cache<TabComponent, TabComponent> structures = new Cache<>("Component structures", 5000, Function.identity());
 
     /**
      * Constructs new instance with given parameters.
@@ -42,36 +46,56 @@ public class StringToComponentCache extends Cache<String, TabComponent> {
                 // Reformat gradients and RGB to kyori format
                 String mmFormatted = RGBUtils.getInstance().applyFormats(text, kyoriGradientFormatter, kyoriRGBFormatter);
 
-                // Convert legacy codes into kyori format
-                for (TextColor format : TextColor.LEGACY_COLORS.values()) {
-                    String sequence = "§" + format.getLegacyColor().getCharacter();
-                    if (mmFormatted.contains(sequence)) {
-                        String colorName = format == TextColor.UNDERLINE ? "underlined" : format.getLegacyColor().name().toLowerCase(Locale.US);
-                        mmFormatted = mmFormatted.replace(sequence, "<" + colorName + ">");
-                    }
-                }
-
-                // Convert TAB's #RRGGBB to Kyori <color:#RRGGBB>
-                mmFormatted = tabToKyori(mmFormatted);
+                // Convert legacy codes and TAB's #RRGGBB into kyori format
+                mmFormatted = toKyori(mmFormatted);
 
                 TabComponent component = MiniMessageHook.parseText(mmFormatted);
                 if (component != null) return component;
             }
-            return text.contains("#") || text.contains("§x") || text.contains("<") ?
-                    TabComponent.fromColoredText(text) : //contains RGB colors or font
-                    new SimpleTextComponent(text); //no RGB
+            if (text.contains("#") || text.contains("§x") || text.contains("<")) {
+                return structures.get(TabComponent.fromColoredText(text)); //contains RGB colors or font
+            }
+            return new SimpleTextComponent(text); //no RGB
         });
     }
 
+    /**
+     * Converts legacy codes into kyori tags, such as {@code <red>}, and standalone
+     * TAB's {@code #RRGGBB} into kyori's {@code <color:#RRGGBB>} in a single pass.
+     * Hex codes preceded by {@code :} or followed by {@code :} or {@code >} are
+     * a part of kyori tags and are left untouched.
+     *
+     * @param   text
+     *          Text to convert
+     * @return  Converted text
+     */
     @NotNull
-    private static String tabToKyori(@NotNull String text) {
-        Matcher matcher = tabToKyori.matcher(text);
-        StringBuffer result = new StringBuffer();
-        while (matcher.find()) {
-            // Replace standalone #RRGGBB with <color:#RRGGBB>
-            matcher.appendReplacement(result, "<color:" + matcher.group(1) + ">");
+    private static String toKyori(@NotNull String text) {
+        StringBuilder sb = null;
+        int copiedUntil = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String replacement;
+            int end;
+            if (c == '§' && i + 1 < length) {
+                TextColor format = TextColor.getLegacyByChar(text.charAt(i + 1));
+                if (format == null) continue;
+                replacement = "<" + (format == TextColor.UNDERLINE ? "underlined" : format.getLegacyColor().name().toLowerCase(Locale.US)) + ">";
+                end = i + 2;
+            } else if (c == '#' && (i == 0 || text.charAt(i - 1) != ':') && RGBUtils.isHex(text, i + 1)
+                    && (i + 7 == length || (text.charAt(i + 7) != ':' && text.charAt(i + 7) != '>'))) {
+                replacement = "<color:" + text.substring(i, i + 7) + ">";
+                end = i + 7;
+            } else {
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(length + 16);
+            sb.append(text, copiedUntil, i).append(replacement);
+            copiedUntil = end;
+            i = end - 1;
         }
-        matcher.appendTail(result);
-        return result.toString();
+        if (sb == null) return text;
+        return sb.append(text, copiedUntil, length).toString();
     }
 }
@@ -0,0 +1,51 @@
+package me.neznamy.tab.shared.config.mysql;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * MySQL connecting to a new in-memory H2 database in MySQL mode. Strings are compared
+ * case-insensitively, like with default collation of MySQL.
+ */
+class H2MySQL extends MySQL {
+
+    /** URL of the database, unique for every instance */
+    @NotNull private final String url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    /** All connections opened by the pool */
+    @NotNull final List<Connection> opened = new ArrayList<>();
+
+    H2MySQL(int poolSize) {
+        super(new MySQLConfiguration("localhost", 3306, "tab", "user", "password", false, poolSize));
+    }
+
+    @Override
+    @NotNull
+    Connection connect() throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        opened.add(connection);
+        return connection;
+    }
+
+    /**
+     * Returns amount of rows in given table.
+     *
+     * @param   table
+     *          Table to count rows of
+     * @return  Amount of rows
+     * @throws  SQLException
+     *          If the query failed
+     */
+    int count(@NotNull String table) throws SQLException {
+        CachedRowSet crs = getCRS("select count(*) from " + table);
+        crs.next();
+        return crs.getInt(1);
+    }
+}
@@ -0,0 +1,72 @@
+package me.neznamy.tab.shared.config.mysql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link MySQL} connection pooling and batching against an in-memory H2 database.
+ */
+class MySQLTest {
+
+    /** Pool with a single connection, so a connection which is not released blocks the next query */
+    private final H2MySQL mysql = new H2MySQL(1);
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        mysql.execute("create table test (id int primary key, name varchar(16))");
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        mysql.closeConnection();
+    }
+
+    @Test
+    void successfulQueriesReuseConnection() throws SQLException {
+        mysql.execute("insert into test values (?, ?)", 1, "a");
+        mysql.execute("insert into test values (?, ?)", 2, "b");
+        assertEquals(2, mysql.count("test"));
+        assertEquals(1, mysql.opened.size());
+    }
+
+    @Test
+    void failedQueryDiscardsConnection() throws SQLException {
+        assertThrows(SQLException.class, () -> mysql.execute("insert into missing values (?)", 1));
+        assertTrue(mysql.opened.get(0).isClosed());
+        // Would wait for the only connection to be released if it was leaked
+        mysql.execute("insert into test values (?, ?)", 1, "a");
+        assertEquals(1, mysql.count("test"));
+        assertEquals(2, mysql.opened.size());
+    }
+
+    @Test
+    void batchesAreWrittenInOrder() throws SQLException {
+        Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+        batches.put("insert into test values (?, ?)", Arrays.asList(new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"}));
+        batches.put("delete from test where id = ?", Collections.singletonList(new Object[]{2}));
+        batches.put("update test set name = ? where id = ?", Collections.emptyList());
+        mysql.executeBatches(batches);
+        assertEquals(2, mysql.count("test"));
+        assertEquals(1, mysql.opened.size());
+    }
+
+    @Test
+    void failedBatchIsRolledBack() throws SQLException {
+        Map<String, List<Object[]>> batches = new LinkedHashMap<>();
+        batches.put("insert into test values (?, ?)", Arrays.asList(new Object[]{1, "a"}, new Object[]{2, "b"}));
+        batches.put("insert into test (id, name) values (?, ?)", Collections.singletonList(new Object[]{1, "duplicate"}));
+        assertThrows(SQLException.class, () -> mysql.executeBatches(batches));
+        assertTrue(mysql.opened.get(0).isClosed());
+        assertEquals(0, mysql.count("test"));
+    }
+}
@@ -0,0 +1,114 @@
+package me.neznamy.tab.shared.config.mysql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.rowset.CachedRowSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for writing and looking up user data of {@link MySQLUserConfiguration}
+ * against an in-memory H2 database.
+ */
+class MySQLUserConfigurationTest {
+
+    private final H2MySQL mysql = new H2MySQL(2);
+    private MySQLUserConfiguration users;
+
+    @BeforeEach
+    void createTable() throws SQLException {
+        users = new MySQLUserConfiguration(mysql);
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        mysql.closeConnection();
+    }
+
+    @Test
+    void queuedChangesAreWrittenOnFlush() throws SQLException {
+        users.queueWrite("Player1", "tagprefix", null, null, "&a");
+        users.queueWrite("Player1", "tagprefix", null, null, "&b");
+        users.queueWrite("Player1", "tabprefix", "lobby", null, "&c");
+        users.queueWrite("Player2", "tagprefix", null, "world", "&d");
+        users.flushWrites();
+        assertEquals(Arrays.asList(
+                "player1|tabprefix|&c|null|lobby",
+                "player1|tagprefix|&b|null|null",
+                "player2|tagprefix|&d|world|null"
+        ), rows());
+    }
+
+    @Test
+    void removedPropertyOnlyMatchesSameWorldAndServer() throws SQLException {
+        users.queueWrite("Player1", "tagprefix", null, null, "&a");
+        users.queueWrite("Player1", "tagprefix", null, "world", "&b");
+        users.queueWrite("Player1", "tagprefix", "lobby", null, "&c");
+        users.flushWrites();
+        users.queueWrite("Player1", "tagprefix", null, null, null);
+        users.flushWrites();
+        assertEquals(Arrays.asList(
+                "player1|tagprefix|&b|world|null",
+                "player1|tagprefix|&c|null|lobby"
+        ), rows());
+    }
+
+    @Test
+    void existingRowsAreReplacedCaseInsensitively() throws SQLException {
+        insertLegacyRow("Player1", "tagprefix", "&a");
+        users.queueWrite("PLAYER1", "tagprefix", null, null, "&b");
+        users.flushWrites();
+        assertEquals(Collections.singletonList("player1|tagprefix|&b|null|null"), rows());
+    }
+
+    @Test
+    void userRemovalDeletesRowsCaseInsensitively() throws SQLException {
+        insertLegacyRow("Player1", "tagprefix", "&a");
+        insertLegacyRow("PLAYER1", "tabprefix", "&b");
+        insertLegacyRow("Player2", "tagprefix", "&c");
+        users.queueWrite("player1", "tagsuffix", null, null, "&d");
+        users.queueRemoval("player1");
+        users.flushWrites();
+        assertEquals(Collections.singletonList("Player2|tagprefix|&c|null|null"), rows());
+    }
+
+    @Test
+    void loadQueryFindsRowsCaseInsensitively() throws SQLException {
+        insertLegacyRow("Player1", "tagprefix", "&a");
+        insertLegacyRow("PLAYER1", "tabprefix", "&b");
+        insertLegacyRow("Player2", "tagprefix", "&c");
+        // Load queries use lowercase names, padded with the first one
+        Object[] vars = new Object[MySQLUserConfiguration.MAX_LOAD_BATCH * 2];
+        Arrays.fill(vars, "player1");
+        CachedRowSet crs = mysql.getCRS(MySQLUserConfiguration.LOAD_QUERY, vars);
+        List<String> found = new ArrayList<>();
+        while (crs.next()) found.add(crs.getString("user") + "|" + crs.getString("property"));
+        Collections.sort(found);
+        assertEquals(Arrays.asList("PLAYER1|tabprefix", "Player1|tagprefix"), found);
+    }
+
+    /**
+     * Inserts a row written by older versions, which kept case of user names.
+     */
+    private void insertLegacyRow(String user, String property, String value) throws SQLException {
+        mysql.execute("insert into `tab_users` (`user`, `property`, `value`, `world`, `server`) values (?, ?, ?, null, null)",
+                user, property, value);
+    }
+
+    private List<String> rows() throws SQLException {
+        CachedRowSet crs = mysql.getCRS("select * from `tab_users` order by `user`, `property`, `value`");
+        List<String> rows = new ArrayList<>();
+        while (crs.next()) {
+            rows.add(String.join("|", crs.getString("user"), crs.getString("property"), crs.getString("value"),
+                    String.valueOf(crs.getString("world")), String.valueOf(crs.getString("server"))));
+        }
+        return rows;
+    }
+}